@@ -30,9 +30,16 @@ import io.fairyproject.command.BaseCommand;
 import io.fairyproject.command.annotation.Command;
 import io.fairyproject.container.InjectableComponent;
 import io.fairyproject.devtools.reload.Reloader;
+import io.fairyproject.log.Log;
 import io.fairyproject.plugin.Plugin;
+import io.fairyproject.profiler.Profiler;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
 @Command("devtool")
 @InjectableComponent
 @RequiredArgsConstructor
@@ -47,4 +54,25 @@ public class DevToolCommand extends BaseCommand {
         this.reloader.reload(plugin);
     }
 
+    @Command("profiler")
+    public void profiler(BukkitCommandContext context) {
+        if (!Profiler.isEnabled()) {
+            context.getSender().sendMessage("The profiler is disabled, start the server with -Dfairy.profiler=true to enable it.");
+            return;
+        }
+
+        Plugin plugin = FairyBukkitPlatform.INSTANCE.getMainPlugin();
+        Path path = plugin.getDataFolder()
+                .resolve("profiler")
+                .resolve("profiler-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+
+        try {
+            Profiler.report().write(path);
+            context.getSender().sendMessage("Profiler report written to " + path);
+        } catch (IOException ex) {
+            Log.error("Failed to write profiler report", ex);
+            context.getSender().sendMessage("Failed to write profiler report, check the console for details.");
+        }
+    }
+
 }
@@ -32,7 +32,9 @@ import org.apache.commons.io.monitor.FileAlterationObserver;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @RequiredArgsConstructor
@@ -40,6 +42,9 @@ public class ClasspathFileAlterationListener implements FileAlterationListener {
 
     private final Plugin plugin;
     private final Set<Path> loadedFiles = new HashSet<>();
+    // the files changed since onStart, so a whole batch of changes fires a single event
+    private final List<File> changedFiles = new ArrayList<>();
+    private boolean batching;
 
     @Override
     public void onDirectoryChange(File directory) {
@@ -75,16 +80,27 @@ public class ClasspathFileAlterationListener implements FileAlterationListener {
     }
 
     private void callFileChangedEvent(File file) {
+        if (this.batching) {
+            this.changedFiles.add(file);
+            return;
+        }
+
         GlobalEventNode.get().call(new ClasspathFileChangedEvent(plugin, file));
     }
 
     @Override
     public void onStart(FileAlterationObserver observer) {
-        // do nothing
+        this.batching = true;
     }
 
     @Override
     public void onStop(FileAlterationObserver observer) {
-        // do nothing
+        this.batching = false;
+        if (this.changedFiles.isEmpty())
+            return;
+
+        List<File> files = new ArrayList<>(this.changedFiles);
+        this.changedFiles.clear();
+        GlobalEventNode.get().call(new ClasspathFileChangedEvent(plugin, files));
     }
 }
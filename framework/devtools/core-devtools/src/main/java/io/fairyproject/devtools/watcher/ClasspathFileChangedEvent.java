@@ -27,15 +27,32 @@ package io.fairyproject.devtools.watcher;
 import io.fairyproject.event.Event;
 import io.fairyproject.plugin.Plugin;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
 
 @Getter
-@RequiredArgsConstructor
 public class ClasspathFileChangedEvent implements Event {
 
     private final Plugin plugin;
     private final File file;
+    /**
+     * Every file changed in the batch, the first one being {@link #getFile()}
+     */
+    private final List<File> files;
+
+    public ClasspathFileChangedEvent(Plugin plugin, File file) {
+        this(plugin, Collections.singletonList(file));
+    }
+
+    public ClasspathFileChangedEvent(Plugin plugin, List<File> files) {
+        if (files.isEmpty())
+            throw new IllegalArgumentException("files must not be empty");
+
+        this.plugin = plugin;
+        this.file = files.get(0);
+        this.files = Collections.unmodifiableList(files);
+    }
 
 }
@@ -26,27 +26,50 @@ package io.fairyproject.devtools.watcher;
 
 import io.fairyproject.container.PostDestroy;
 import io.fairyproject.container.PostInitialize;
+import io.fairyproject.log.Log;
+import io.fairyproject.util.thread.NamedThreadFactory;
 import lombok.Getter;
 import org.apache.commons.io.monitor.FileAlterationListener;
 import org.apache.commons.io.monitor.FileAlterationMonitor;
 import org.apache.commons.io.monitor.FileAlterationObserver;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Watches the build output directories of plugins for changes.
+ * <p>
+ * Directories are watched recursively through a {@link WatchService}, and every burst of changes is delivered to
+ * the listener as one batch between {@link FileAlterationListener#onStart} and {@link FileAlterationListener#onStop}.
+ * Only directories on a file system without native watching fall back to the polling {@link FileAlterationMonitor}.
+ */
 public class ClasspathFileWatcher {
 
     @Getter
     private final FileAlterationMonitor monitor;
-    private final Map<String, FileAlterationObserver> observers;
-    private boolean running = false;
+    private final Map<String, Root> roots;
+    private final Map<WatchKey, Path> keys;
+    private final Object lock = new Object();
+    /**
+     * How long a directory has to stay quiet before its changes are delivered, the scan interval so natively watched
+     * directories are reported no later than polled ones
+     */
+    private final long coalesceNanos;
+    private WatchService watchService;
+    private volatile boolean running = false;
 
     public ClasspathFileWatcher(long interval) {
         this.monitor = new FileAlterationMonitor(interval);
-        this.observers = new HashMap<>();
+        this.roots = new ConcurrentHashMap<>();
+        this.keys = new ConcurrentHashMap<>();
+        this.coalesceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(interval, 1L));
     }
 
     public void addURL(URL url, FileAlterationListener listener) throws URISyntaxException {
@@ -59,8 +82,20 @@ public class ClasspathFileWatcher {
 
         FileAlterationObserver observer = new FileAlterationObserver(file);
         observer.addListener(listener);
-        this.monitor.addObserver(observer);
-        this.observers.put(url.toString(), observer);
+        Root root = new Root(file.toPath().toAbsolutePath().normalize(), observer, listener);
+
+        synchronized (this.lock) {
+            if (!this.watchNatively(root)) {
+                try {
+                    observer.initialize();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to scan " + file, e);
+                }
+                this.monitor.addObserver(observer);
+                root.polling = true;
+            }
+            this.roots.put(url.toString(), root);
+        }
     }
 
     public boolean isStarted() {
@@ -68,26 +103,331 @@ public class ClasspathFileWatcher {
     }
 
     public Iterable<FileAlterationObserver> getObservers() {
-        return this.monitor.getObservers();
+        List<FileAlterationObserver> observers = new ArrayList<>(this.roots.size());
+        for (Root root : this.roots.values()) {
+            observers.add(root.observer);
+        }
+        return observers;
+    }
+
+    /**
+     * @return true if the URL is watched through native file system events rather than polled
+     */
+    public boolean isWatchedNatively(URL url) {
+        Root root = this.roots.get(url.toString());
+        return root != null && !root.polling;
     }
 
     @PostInitialize
     public void start() throws Exception {
-        this.monitor.start();
-        this.running = true;
+        synchronized (this.lock) {
+            if (this.running)
+                return;
+
+            if (this.watchService == null) {
+                // restarted after stop(), the previous registrations died with the old service
+                for (Root root : this.roots.values()) {
+                    if (!root.polling)
+                        this.watchNatively(root);
+                }
+            }
+            this.monitor.start();
+            this.running = true;
+
+            WatchService service = this.watchService;
+            if (service != null)
+                this.startThread(service);
+        }
     }
 
     @PostDestroy
     public void stop() throws Exception {
-        this.monitor.stop();
-        this.running = false;
+        synchronized (this.lock) {
+            if (!this.running)
+                return;
+
+            this.running = false;
+            this.monitor.stop();
+            this.closeWatchService();
+        }
     }
 
     public void removeURL(URL url) {
-        FileAlterationObserver observer = this.observers.remove(url.toString());
-        if (observer == null)
+        synchronized (this.lock) {
+            Root root = this.roots.remove(url.toString());
+            if (root == null)
+                return;
+
+            if (root.polling) {
+                this.monitor.removeObserver(root.observer);
+                return;
+            }
+
+            this.keys.entrySet().removeIf(entry -> {
+                if (entry.getValue().startsWith(root.path)) {
+                    entry.getKey().cancel();
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    private boolean watchNatively(Root root) {
+        try {
+            if (this.watchService == null) {
+                WatchService service = root.path.getFileSystem().newWatchService();
+                // the JDK falls back to a polling implementation of its own where there is no native support,
+                // the commons-io monitor polls just as well and honors the configured interval
+                if (service.getClass().getName().endsWith("PollingWatchService")) {
+                    service.close();
+                    return false;
+                }
+
+                this.watchService = service;
+                if (this.running)
+                    this.startThread(service);
+            }
+
+            this.registerRecursively(this.watchService, root.path, null);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            Log.warn("Native file watching is unavailable for " + root.path + ", falling back to polling", e);
+            return false;
+        }
+    }
+
+    /**
+     * Register the directory and everything below it
+     *
+     * @param created collects the files found below a newly created directory, as their events happened before the
+     *                directory was registered, or null on the initial registration
+     */
+    private void registerRecursively(WatchService service, Path directory, List<Path> created) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(service,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                keys.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (created != null)
+                    created.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void startThread(WatchService service) {
+        NamedThreadFactory.builder()
+                .name("Classpath Watcher Thread")
+                .daemon(true)
+                .build()
+                .newThread(() -> this.run(service))
+                .start();
+    }
+
+    private void closeWatchService() {
+        WatchService service = this.watchService;
+        this.watchService = null;
+        this.keys.clear();
+        if (service == null)
+            return;
+
+        try {
+            service.close();
+        } catch (IOException e) {
+            Log.warn("Failed to close the classpath watch service", e);
+        }
+    }
+
+    private void run(WatchService service) {
+        Map<Root, Batch> batches = new HashMap<>();
+        while (true) {
+            WatchKey key;
+            try {
+                if (batches.isEmpty()) {
+                    key = service.take();
+                } else {
+                    long deadline = Long.MAX_VALUE;
+                    for (Batch batch : batches.values()) {
+                        deadline = Math.min(deadline, batch.deadline);
+                    }
+                    key = service.poll(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            if (key != null) {
+                this.collect(service, key, batches);
+            }
+
+            long now = System.nanoTime();
+            Iterator<Map.Entry<Root, Batch>> iterator = batches.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Root, Batch> entry = iterator.next();
+                if (entry.getValue().deadline - now <= 0) {
+                    iterator.remove();
+                    this.deliver(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private void collect(WatchService service, WatchKey key, Map<Root, Batch> batches) {
+        Path directory = this.keys.get(key);
+        List<WatchEvent<?>> events = key.pollEvents();
+        if (directory == null || !key.reset()) {
+            this.keys.remove(key);
+        }
+        if (directory == null)
+            return;
+
+        Root root = this.rootOf(directory);
+        if (root == null)
+            return;
+
+        Batch batch = batches.computeIfAbsent(root, r -> new Batch());
+        batch.deadline = System.nanoTime() + this.coalesceNanos;
+        for (WatchEvent<?> event : events) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events were lost, report the root so the plugin still gets reloaded
+                batch.overflow = true;
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    List<Path> created = new ArrayList<>();
+                    try {
+                        this.registerRecursively(service, path, created);
+                    } catch (IOException | ClosedWatchServiceException e) {
+                        Log.warn("Failed to watch " + path, e);
+                    }
+                    batch.directories.put(path, Change.CREATE);
+                    for (Path file : created) {
+                        batch.merge(file, Change.CREATE);
+                    }
+                } else {
+                    batch.merge(path, Change.CREATE);
+                }
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                if (this.keys.containsValue(path)) {
+                    this.keys.entrySet().removeIf(entry -> {
+                        if (entry.getValue().startsWith(path)) {
+                            entry.getKey().cancel();
+                            return true;
+                        }
+                        return false;
+                    });
+                    batch.directories.put(path, Change.DELETE);
+                } else {
+                    batch.merge(path, Change.DELETE);
+                }
+            } else if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                batch.merge(path, Change.CHANGE);
+            }
+        }
+    }
+
+    private Root rootOf(Path directory) {
+        for (Root root : this.roots.values()) {
+            if (!root.polling && directory.startsWith(root.path))
+                return root;
+        }
+        return null;
+    }
+
+    private void deliver(Root root, Batch batch) {
+        if (!this.roots.containsValue(root) || batch.isEmpty())
             return;
 
-        this.monitor.removeObserver(observer);
+        FileAlterationListener listener = root.listener;
+        try {
+            listener.onStart(root.observer);
+            batch.directories.forEach((path, change) -> {
+                if (change == Change.CREATE)
+                    listener.onDirectoryCreate(path.toFile());
+                else
+                    listener.onDirectoryDelete(path.toFile());
+            });
+            batch.files.forEach((path, change) -> {
+                switch (change) {
+                    case CREATE:
+                        listener.onFileCreate(path.toFile());
+                        break;
+                    case CHANGE:
+                        listener.onFileChange(path.toFile());
+                        break;
+                    case DELETE:
+                        listener.onFileDelete(path.toFile());
+                        break;
+                }
+            });
+            if (batch.overflow)
+                listener.onDirectoryChange(root.path.toFile());
+            listener.onStop(root.observer);
+        } catch (Throwable throwable) {
+            Log.error("Failed to deliver classpath changes of " + root.path, throwable);
+        }
+    }
+
+    private enum Change {
+        CREATE,
+        CHANGE,
+        DELETE
+    }
+
+    private static final class Batch {
+
+        private final Map<Path, Change> files = new LinkedHashMap<>();
+        private final Map<Path, Change> directories = new LinkedHashMap<>();
+        private boolean overflow;
+        private long deadline;
+
+        /**
+         * Fold the change into what already happened to the file in this batch, so a file written several times
+         * is only reported once and a temporary file created and deleted is not reported at all
+         */
+        private void merge(Path path, Change change) {
+            Change previous = this.files.get(path);
+            if (previous == null) {
+                this.files.put(path, change);
+            } else if (previous == Change.CREATE) {
+                if (change == Change.DELETE)
+                    this.files.remove(path);
+            } else if (previous == Change.DELETE) {
+                if (change == Change.CREATE)
+                    this.files.put(path, Change.CHANGE);
+            } else if (change == Change.DELETE) {
+                this.files.put(path, Change.DELETE);
+            }
+        }
+
+        private boolean isEmpty() {
+            return this.files.isEmpty() && this.directories.isEmpty() && !this.overflow;
+        }
+    }
+
+    private static final class Root {
+
+        private final Path path;
+        private final FileAlterationObserver observer;
+        private final FileAlterationListener listener;
+        private boolean polling;
+
+        private Root(Path path, FileAlterationObserver observer, FileAlterationListener listener) {
+            this.path = path;
+            this.observer = observer;
+            this.listener = listener;
+        }
     }
 }
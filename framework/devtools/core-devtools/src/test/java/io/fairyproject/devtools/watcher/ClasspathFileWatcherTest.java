@@ -48,7 +48,8 @@ class ClasspathFileWatcherTest {
 
         listener = Mockito.mock(FileAlterationListener.class);
 
-        classpathFileWatcher = new ClasspathFileWatcher(10L);
+        // also the quiet period a burst of changes is coalesced over, long enough for a burst on a busy machine
+        classpathFileWatcher = new ClasspathFileWatcher(100L);
     }
 
     @AfterEach
@@ -101,9 +102,7 @@ class ClasspathFileWatcherTest {
             Path path = directory.resolve("test-2.txt");
             Files.createFile(path);
 
-            Thread.sleep(100L);
-
-            Mockito.verify(listener).onFileCreate(path.toFile());
+            Mockito.verify(listener, Mockito.timeout(5000L)).onFileCreate(path.toFile());
         }
 
         @Test
@@ -111,9 +110,7 @@ class ClasspathFileWatcherTest {
             Path path = directory.resolve("test.txt");
             Files.delete(path);
 
-            Thread.sleep(100L);
-
-            Mockito.verify(listener).onFileDelete(path.toFile());
+            Mockito.verify(listener, Mockito.timeout(5000L)).onFileDelete(path.toFile());
         }
 
         @Test
@@ -121,9 +118,20 @@ class ClasspathFileWatcherTest {
             Path path = directory.resolve("test.txt");
             Files.write(path, "test".getBytes());
 
-            Thread.sleep(100L);
+            Mockito.verify(listener, Mockito.timeout(5000L)).onFileChange(path.toFile());
+        }
 
-            Mockito.verify(listener).onFileChange(path.toFile());
+        @Test
+        void burstOfChangesShouldBeOneBatch() throws Exception {
+            Path nested = directory.resolve("io/fairyproject");
+            Files.createDirectories(nested);
+            for (int i = 0; i < 20; i++) {
+                Files.write(nested.resolve("Class" + i + ".class"), new byte[] {(byte) i});
+            }
+
+            Mockito.verify(listener, Mockito.timeout(5000L).times(20)).onFileCreate(Mockito.any());
+            Mockito.verify(listener, Mockito.timeout(5000L)).onStop(Mockito.any());
+            Mockito.verify(listener, Mockito.times(1)).onStart(Mockito.any());
         }
 
     }
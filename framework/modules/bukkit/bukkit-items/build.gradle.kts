@@ -1,8 +1,12 @@
 plugins {
     id("io.fairyproject.module.bukkit")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
     api(project(":bukkit-nbt"))
     api(project(":bukkit-xseries"))
-}
\ No newline at end of file
+
+    jmh("io.fairyproject:bukkit-platform")
+    jmh("dev.imanity.mockbukkit:MockBukkit1.16:1.0.17")
+}
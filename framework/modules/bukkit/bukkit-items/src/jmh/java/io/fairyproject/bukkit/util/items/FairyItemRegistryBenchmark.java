@@ -0,0 +1,90 @@
+package io.fairyproject.bukkit.util.items;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import io.fairyproject.bukkit.nbt.NBTKey;
+import io.fairyproject.bukkit.nbt.NBTModifier;
+import io.fairyproject.bukkit.nbt.impl.NBTModifierMock;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class FairyItemRegistryBenchmark {
+
+    public static final int items = 64;
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        private final NBTKey nbtKey = NBTKey.create("fairy", "item", "name");
+        private NBTModifier nbtModifier;
+        private FairyItemRegistry registry;
+        private ItemStack[] itemStacks;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            if (!MockBukkit.isMocked())
+                MockBukkit.mock();
+
+            nbtModifier = new NBTModifierMock();
+            registry = new FairyItemRegistry(nbtModifier);
+
+            itemStacks = new ItemStack[items];
+            for (int i = 0; i < items; i++) {
+                ItemStack itemStack = new ItemStack(Material.DIAMOND_SWORD);
+                ItemMeta itemMeta = itemStack.getItemMeta();
+                itemMeta.setDisplayName("Item " + i);
+                itemMeta.setLore(Collections.singletonList("Lore " + i));
+                itemStack.setItemMeta(itemMeta);
+
+                itemStacks[i] = nbtModifier.setTag(itemStack, nbtKey, "item-" + i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            MockBukkit.unmock();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void cachedLookup(State state, Blackhole blackhole) {
+        for (ItemStack itemStack : state.itemStacks) {
+            blackhole.consume(state.registry.get(itemStack));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void nbtLookup(State state, Blackhole blackhole) {
+        for (ItemStack itemStack : state.itemStacks) {
+            String name = state.nbtModifier.getString(itemStack, state.nbtKey);
+            blackhole.consume(name == null ? null : state.registry.get(name));
+        }
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(FairyItemRegistryBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.fairyproject.bukkit.util.items.codec;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import io.fairyproject.bukkit.util.items.ItemUtil;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class ItemStackCodecBenchmark {
+
+    public static final int items = 36;
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        private final ItemStackCodec codec = new ItemStackCodec();
+        private final ItemStackCodec compressedCodec = new ItemStackCodec(true);
+        private ItemStack[] itemStacks;
+        private String[] strings;
+        private byte[] bytes;
+        private byte[] compressedBytes;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            if (!MockBukkit.isMocked())
+                MockBukkit.mock();
+
+            Material[] materials = {Material.DIAMOND_SWORD, Material.STONE, Material.OAK_LOG, Material.BOW, Material.ARROW};
+            itemStacks = new ItemStack[items];
+            for (int i = 0; i < items; i++) {
+                ItemStack itemStack = new ItemStack(materials[i % materials.length], 1 + i % 16);
+                if (i % 3 == 0) {
+                    ItemMeta itemMeta = itemStack.getItemMeta();
+                    itemMeta.setDisplayName("Item " + i);
+                    itemMeta.setLore(Arrays.asList("Lore " + i, "Second line"));
+                    itemMeta.setUnbreakable(true);
+                    itemStack.setItemMeta(itemMeta);
+                }
+                itemStacks[i] = itemStack;
+            }
+
+            strings = new String[items];
+            for (int i = 0; i < items; i++) {
+                strings[i] = ItemUtil.serializeItemStack(itemStacks[i]);
+            }
+            bytes = codec.encodeAll(itemStacks);
+            compressedBytes = compressedCodec.encodeAll(itemStacks);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            MockBukkit.unmock();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void stringEncode(State state, Blackhole blackhole) {
+        for (ItemStack itemStack : state.itemStacks) {
+            blackhole.consume(ItemUtil.serializeItemStack(itemStack));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void stringDecode(State state, Blackhole blackhole) {
+        for (String string : state.strings) {
+            blackhole.consume(ItemUtil.deserializeItemStack(string));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void binaryEncode(State state, Blackhole blackhole) {
+        blackhole.consume(state.codec.encodeAll(state.itemStacks));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void binaryDecode(State state, Blackhole blackhole) {
+        blackhole.consume(state.codec.decodeAll(state.bytes));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void compressedEncode(State state, Blackhole blackhole) {
+        blackhole.consume(state.compressedCodec.encodeAll(state.itemStacks));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void compressedDecode(State state, Blackhole blackhole) {
+        blackhole.consume(state.compressedCodec.decodeAll(state.compressedBytes));
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ItemStackCodecBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
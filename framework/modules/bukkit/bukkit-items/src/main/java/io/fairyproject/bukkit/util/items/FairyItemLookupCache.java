@@ -0,0 +1,99 @@
+package io.fairyproject.bukkit.util.items;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A bounded cache from an ItemStack to the {@link FairyItem} it represents.
+ * Entries are keyed by the identity of the stack, or of the server stack backing it for a CraftItemStack so every mirror
+ * of the same inventory slot shares an entry, and held weakly. A hit is verified with {@link ItemStack#isSimilar(ItemStack)}
+ * against a snapshot taken on load, so the stack amount does not matter and a mutated stack never matches a stale entry.
+ */
+class FairyItemLookupCache {
+
+    private static final ClassValue<MethodHandle> HANDLE_GETTERS = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            if (!type.getSimpleName().equals("CraftItemStack"))
+                return null;
+
+            try {
+                Field field = type.getDeclaredField("handle");
+                field.setAccessible(true);
+                return MethodHandles.lookup().unreflectGetter(field);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                return null;
+            }
+        }
+    };
+
+    private final Cache<Object, Entry> cache;
+    // bumped on every invalidation, entries loaded under an older generation are never returned
+    private final AtomicInteger generation = new AtomicInteger();
+
+    FairyItemLookupCache(int maximumSize) {
+        this.cache = CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Nullable
+    FairyItem get(@NotNull ItemStack itemStack, @NotNull Function<ItemStack, @Nullable FairyItem> loader) {
+        final Object key = identity(itemStack);
+        final int generation = this.generation.get();
+        Entry entry = this.cache.getIfPresent(key);
+        if (entry != null && entry.generation == generation && entry.snapshot.isSimilar(itemStack))
+            return entry.fairyItem;
+
+        FairyItem fairyItem = loader.apply(itemStack);
+        // an invalidation during the load may have made the result stale already
+        if (this.generation.get() == generation) {
+            // snapshot the stack so later mutations of the original are detected on the next hit
+            this.cache.put(key, new Entry(itemStack.clone(), fairyItem, generation));
+        }
+        return fairyItem;
+    }
+
+    void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.cache.invalidateAll();
+    }
+
+    private static Object identity(ItemStack itemStack) {
+        final MethodHandle getter = HANDLE_GETTERS.get(itemStack.getClass());
+        if (getter != null) {
+            try {
+                final Object handle = getter.invoke(itemStack);
+                if (handle != null)
+                    return handle;
+            } catch (Throwable ignored) {
+                // fall back to the identity of the bukkit stack
+            }
+        }
+        return itemStack;
+    }
+
+    private static final class Entry {
+
+        private final ItemStack snapshot;
+        private final FairyItem fairyItem;
+        private final int generation;
+
+        private Entry(ItemStack snapshot, FairyItem fairyItem, int generation) {
+            this.snapshot = snapshot;
+            this.fairyItem = fairyItem;
+            this.generation = generation;
+        }
+    }
+
+}
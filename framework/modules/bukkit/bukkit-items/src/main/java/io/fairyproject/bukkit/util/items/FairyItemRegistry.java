@@ -4,8 +4,10 @@ import io.fairyproject.bukkit.FairyBukkitPlatform;
 import io.fairyproject.bukkit.listener.events.Events;
 import io.fairyproject.bukkit.nbt.NBTKey;
 import io.fairyproject.bukkit.nbt.NBTModifier;
+import io.fairyproject.bukkit.util.items.behaviour.ItemBehaviourBlockMarker;
 import io.fairyproject.container.InjectableComponent;
 import io.fairyproject.container.PostInitialize;
+import io.fairyproject.container.PreInitialize;
 import io.fairyproject.util.ConditionUtils;
 import org.bukkit.Material;
 import org.bukkit.event.server.PluginDisableEvent;
@@ -23,12 +25,19 @@ public class FairyItemRegistry {
     private final NBTKey itemNbtKey = NBTKey.create("fairy", "item", "name");
     private final Map<String, FairyItem> itemByName = new ConcurrentHashMap<>();
     private final Map<Plugin, List<FairyItem>> itemsByPlugin = new ConcurrentHashMap<>();
+    private final FairyItemLookupCache lookupCache = new FairyItemLookupCache(1024);
     private final NBTModifier nbtModifier;
 
     public FairyItemRegistry(NBTModifier nbtModifier) {
         this.nbtModifier = nbtModifier;
     }
 
+    @PreInitialize
+    public void onPreInitialize() {
+        // before any chunk gets restored, so placed markers are read back right away
+        ItemBehaviourBlockMarker.registerPersistentKey();
+    }
+
     @PostInitialize
     public void onPostInitialize() {
         Events.subscribe(PluginDisableEvent.class)
@@ -36,6 +45,7 @@ public class FairyItemRegistry {
                 .listen(event -> {
                     final List<FairyItem> items = itemsByPlugin.remove(event.getPlugin());
                     items.forEach(item -> itemByName.remove(item.getName()));
+                    lookupCache.invalidateAll();
                 })
                 .build(FairyBukkitPlatform.PLUGIN);
     }
@@ -49,6 +59,7 @@ public class FairyItemRegistry {
         ConditionUtils.is(item.isClosed(), "Item is already registered");
 
         itemByName.put(item.getName(), item);
+        this.lookupCache.invalidateAll();
 
         item.init();
     }
@@ -58,6 +69,7 @@ public class FairyItemRegistry {
         ConditionUtils.not(item.isClosed(), "Item is already closed");
 
         this.itemByName.remove(item.getName());
+        this.lookupCache.invalidateAll();
 
         item.closeAndReportException();
     }
@@ -70,6 +82,10 @@ public class FairyItemRegistry {
         if (itemStack == null || itemStack.getType() == Material.AIR)
             return null;
 
+        return this.lookupCache.get(itemStack, this::lookup);
+    }
+
+    private FairyItem lookup(ItemStack itemStack) {
         String key = this.nbtModifier.getString(itemStack, itemNbtKey);
         return key == null ? null : this.get(key);
     }
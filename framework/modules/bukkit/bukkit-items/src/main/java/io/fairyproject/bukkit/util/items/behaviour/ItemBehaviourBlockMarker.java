@@ -45,6 +45,13 @@ public class ItemBehaviourBlockMarker extends ItemBehaviourListener {
 
     private static final MetaKey<String> METADATA = MetaKey.create("fairy:block-marker", String.class);
 
+    /**
+     * Keep placed markers when their chunk unloads, called when the item registry initializes
+     */
+    public static void registerPersistentKey() {
+        MCMetadata.getBlocks().registerPersistentKey(METADATA);
+    }
+
     private final FairyItemRegistry fairyItemRegistry;
     private final MCPlayerRegistry mcPlayerRegistry;
 
@@ -79,12 +86,18 @@ public class ItemBehaviourBlockMarker extends ItemBehaviourListener {
         Player player = event.getPlayer();
         final Block block = event.getBlock();
 
-        final MetaStorage metaStorage = MCMetadata.provide(block);
+        final String world = block.getWorld().getName();
+        final MetaStorage metaStorage = MCMetadata.getBlocks().get(world, block.getX(), block.getY(), block.getZ());
+        if (metaStorage == null) {
+            return;
+        }
+
         final String itemKey = metaStorage.getOrNull(METADATA);
         if (itemKey == null || !itemKey.equals(this.item.getName())) {
             return;
         }
 
+        // other keys on the block may belong to someone else, only drop the marker
         metaStorage.remove(METADATA);
         final FairyItem item = this.fairyItemRegistry.get(itemKey);
         if (item == null)
@@ -0,0 +1,48 @@
+package io.fairyproject.bukkit.util.items.codec;
+
+import io.fairyproject.ObjectSerializer;
+import io.fairyproject.bukkit.util.items.FairyItem;
+import io.fairyproject.bukkit.util.items.FairyItemRegistry;
+import io.fairyproject.bukkit.util.items.ItemSet;
+
+import java.util.function.Function;
+
+/**
+ * The binary format of {@link ItemSet}, fairy item slots are written by name and resolved through the {@link FairyItemRegistry} on read.
+ * Not registered automatically so data already stored through another serializer keeps being read the way it was written,
+ * register it through {@code SerializerFactory#registerSerializer} for new storages that want the binary format.
+ */
+public class ItemSetBinarySerializer implements ObjectSerializer<ItemSet, byte[]> {
+
+    private final ItemStackCodec codec;
+    private final Function<String, FairyItem> fairyItemResolver;
+
+    public ItemSetBinarySerializer(FairyItemRegistry fairyItemRegistry) {
+        this(new ItemStackCodec(true), fairyItemRegistry::get);
+    }
+
+    public ItemSetBinarySerializer(ItemStackCodec codec, Function<String, FairyItem> fairyItemResolver) {
+        this.codec = codec;
+        this.fairyItemResolver = fairyItemResolver;
+    }
+
+    @Override
+    public byte[] serialize(ItemSet input) {
+        return this.codec.encodeItemSet(input);
+    }
+
+    @Override
+    public ItemSet deserialize(byte[] output) {
+        return this.codec.decodeItemSet(output, this.fairyItemResolver);
+    }
+
+    @Override
+    public Class<ItemSet> inputClass() {
+        return ItemSet.class;
+    }
+
+    @Override
+    public Class<byte[]> outputClass() {
+        return byte[].class;
+    }
+}
@@ -0,0 +1,42 @@
+package io.fairyproject.bukkit.util.items.codec;
+
+import io.fairyproject.ObjectSerializer;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The binary alternative of {@link io.fairyproject.bukkit.util.items.ItemSerializer}.
+ * Not registered automatically since ItemStack already has its string serializer, obtain it through
+ * {@code SerializerFactory#findOrCacheSerializer(ItemStackBinarySerializer.class)} where a byte array is wanted.
+ */
+public class ItemStackBinarySerializer implements ObjectSerializer<ItemStack, byte[]> {
+
+    private final ItemStackCodec codec;
+
+    public ItemStackBinarySerializer() {
+        this(new ItemStackCodec());
+    }
+
+    public ItemStackBinarySerializer(ItemStackCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(ItemStack input) {
+        return this.codec.encode(input);
+    }
+
+    @Override
+    public ItemStack deserialize(byte[] output) {
+        return this.codec.decode(output);
+    }
+
+    @Override
+    public Class<ItemStack> inputClass() {
+        return ItemStack.class;
+    }
+
+    @Override
+    public Class<byte[]> outputClass() {
+        return byte[].class;
+    }
+}
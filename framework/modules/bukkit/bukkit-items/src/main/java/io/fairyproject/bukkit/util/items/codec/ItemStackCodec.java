@@ -0,0 +1,452 @@
+package io.fairyproject.bukkit.util.items.codec;
+
+import com.cryptomorin.xseries.XMaterial;
+import io.fairyproject.bukkit.util.items.FairyItem;
+import io.fairyproject.bukkit.util.items.ItemSet;
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A compact binary format for ItemStacks, intended for storage and network instead of the string format of {@link io.fairyproject.bukkit.util.items.ItemUtil}.
+ * <p>
+ * Every payload starts with a version and flag byte, followed by a table of the distinct {@link XMaterial} names it uses,
+ * so items only refer to their material by a varint index. Items with meta are written as raw NBT bytes through
+ * {@code ItemStack#serializeAsBytes()} on Paper, or as the {@link ItemMeta} serialized to YAML elsewhere.
+ * The body can optionally be deflate compressed.
+ * <p>
+ * Payloads may come from untrusted sources, so every length is checked against the remaining input before allocating,
+ * and version 1 payloads holding Java serialized meta are rejected instead of being deserialized.
+ */
+public final class ItemStackCodec {
+
+    private static final int VERSION = 2;
+    // item meta was written through Bukkit object streams
+    private static final int VERSION_OBJECT_STREAM_META = 1;
+    private static final int FLAG_COMPRESSED = 1;
+    private static final int MAX_BODY_SIZE = 16 * 1024 * 1024;
+
+    private static final int ITEM_NULL = 0;
+    private static final int ITEM_PLAIN = 1;
+    private static final int ITEM_BUKKIT_META = 2;
+    private static final int ITEM_PAPER_BYTES = 3;
+
+    private static final int ITEM_FLAG_DURABILITY = 1 << 2;
+    private static final int ITEM_FLAG_AMOUNT = 1 << 3;
+
+    private static final int SET_PLAIN = 0;
+    private static final int SET_ARMORS = 1;
+    private static final int SET_PLAYER_INVENTORY = 2;
+
+    private static final int SLOT_NULL = 0;
+    private static final int SLOT_EMPTY = 1;
+    private static final int SLOT_ITEM = 2;
+    private static final int SLOT_FAIRY_ITEM = 3;
+
+    private static final boolean FLATTENED = XMaterial.supports(13);
+    private static final Map<Material, XMaterial> ENCODE_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, XMaterial> DECODE_CACHE = new ConcurrentHashMap<>();
+    private static volatile Boolean paperBytesSupported;
+
+    private final boolean compress;
+
+    public ItemStackCodec() {
+        this(false);
+    }
+
+    public ItemStackCodec(boolean compress) {
+        this.compress = compress;
+    }
+
+    public byte[] encode(@Nullable ItemStack itemStack) {
+        return this.encodeAll(new ItemStack[]{itemStack});
+    }
+
+    @Nullable
+    public ItemStack decode(byte[] bytes) {
+        return this.decodeAll(bytes)[0];
+    }
+
+    /**
+     * Encode the items in one payload sharing the material table, null elements are kept
+     */
+    public byte[] encodeAll(@NotNull ItemStack[] itemStacks) {
+        return this.write(writer -> {
+            writer.writeVarInt(itemStacks.length);
+            for (ItemStack itemStack : itemStacks) {
+                writer.writeItem(itemStack);
+            }
+        });
+    }
+
+    @NotNull
+    public ItemStack[] decodeAll(byte[] bytes) {
+        return this.read(bytes, reader -> {
+            ItemStack[] itemStacks = new ItemStack[reader.readLength()];
+            for (int i = 0; i < itemStacks.length; i++) {
+                itemStacks[i] = reader.readItem();
+            }
+            return itemStacks;
+        });
+    }
+
+    /**
+     * Encode the slots of the item set, fairy items are written by their name
+     */
+    public byte[] encodeItemSet(@NotNull ItemSet itemSet) {
+        return this.write(writer -> {
+            int slotCount;
+            if (itemSet instanceof ItemSet.PlayerInventory) {
+                writer.out.writeByte(SET_PLAYER_INVENTORY);
+                slotCount = itemSet.getSlotCount() + 1; // offhand
+            } else if (itemSet instanceof ItemSet.Armors) {
+                writer.out.writeByte(SET_ARMORS);
+                slotCount = itemSet.getSlotCount();
+            } else {
+                writer.out.writeByte(SET_PLAIN);
+                slotCount = itemSet.getSlotCount();
+            }
+
+            writer.writeVarInt(slotCount);
+            for (int i = 0; i < slotCount; i++) {
+                writer.writeSlot(itemSet.getSlot(i));
+            }
+        });
+    }
+
+    @NotNull
+    public ItemSet decodeItemSet(byte[] bytes, @NotNull Function<String, FairyItem> fairyItemResolver) {
+        return this.read(bytes, reader -> {
+            int type = reader.in.readUnsignedByte();
+            int slotCount = reader.readLength();
+
+            ItemSet itemSet;
+            switch (type) {
+                case SET_PLAYER_INVENTORY:
+                    itemSet = new ItemSet.PlayerInventory();
+                    break;
+                case SET_ARMORS:
+                    itemSet = new ItemSet.Armors();
+                    break;
+                default:
+                    itemSet = new ItemSet(slotCount);
+                    break;
+            }
+
+            for (int i = 0; i < slotCount; i++) {
+                itemSet.setSlot(i, reader.readSlot(fairyItemResolver));
+            }
+            return itemSet;
+        });
+    }
+
+    private byte[] write(WriteAction action) {
+        try {
+            Writer writer = new Writer();
+            action.write(writer);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(writer.body.size() + 64);
+            output.write(VERSION);
+            output.write(this.compress ? FLAG_COMPRESSED : 0);
+
+            OutputStream stream = this.compress ? new DeflaterOutputStream(output) : output;
+            DataOutputStream out = new DataOutputStream(stream);
+            writeVarInt(out, writer.materials.size());
+            for (String material : writer.materials.keySet()) {
+                out.writeUTF(material);
+            }
+            writer.body.writeTo(out);
+            out.close();
+
+            return output.toByteArray();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to encode items", ex);
+        }
+    }
+
+    private <T> T read(byte[] bytes, ReadAction<T> action) {
+        try {
+            ByteArrayInputStream input = new ByteArrayInputStream(bytes);
+            int version = input.read();
+            if (version != VERSION && version != VERSION_OBJECT_STREAM_META)
+                throw new IllegalArgumentException("Unsupported item codec version " + version);
+
+            int flags = input.read();
+            // inflated up front, so lengths can be checked against what is actually left
+            DataInputStream in = new DataInputStream((flags & FLAG_COMPRESSED) != 0 ? new ByteArrayInputStream(inflate(input)) : input);
+
+            XMaterial[] materials = new XMaterial[readLength(in)];
+            for (int i = 0; i < materials.length; i++) {
+                String name = in.readUTF();
+                materials[i] = DECODE_CACHE.computeIfAbsent(name, key -> XMaterial.matchXMaterial(key)
+                        .orElseThrow(() -> new IllegalArgumentException("Invalid material: " + key)));
+            }
+
+            return action.read(new Reader(in, materials, version));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to decode items", ex);
+        }
+    }
+
+    private static byte[] inflate(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InflaterInputStream stream = new InflaterInputStream(input)) {
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                if (output.size() + read > MAX_BODY_SIZE)
+                    throw new IOException("Inflated body is larger than " + MAX_BODY_SIZE + " bytes");
+                output.write(buffer, 0, read);
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static XMaterial materialOf(ItemStack itemStack) {
+        // legacy materials depend on the data value, so only flattened versions can cache by type
+        if (FLATTENED) {
+            return ENCODE_CACHE.computeIfAbsent(itemStack.getType(), XMaterial::matchXMaterial);
+        }
+        return XMaterial.matchXMaterial(itemStack);
+    }
+
+    private static boolean isPaperBytesSupported() {
+        Boolean supported = paperBytesSupported;
+        if (supported == null) {
+            try {
+                ItemStack.deserializeBytes(new ItemStack(Material.STONE).serializeAsBytes());
+                supported = true;
+            } catch (Throwable throwable) {
+                supported = false;
+            }
+            paperBytesSupported = supported;
+        }
+        return supported;
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift >= 35)
+                throw new IOException("VarInt too big");
+            b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Read a length or element count, every byte or element takes at least one byte so it can't exceed the remaining input
+     */
+    static int readLength(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > in.available())
+            throw new IOException("Invalid length " + length + " with " + in.available() + " bytes left");
+        return length;
+    }
+
+    private static final class Writer {
+
+        private final Map<String, Integer> materials = new LinkedHashMap<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        private final DataOutputStream out = new DataOutputStream(this.body);
+
+        private void writeVarInt(int value) throws IOException {
+            ItemStackCodec.writeVarInt(this.out, value);
+        }
+
+        private void writeItem(@Nullable ItemStack itemStack) throws IOException {
+            if (itemStack == null || itemStack.getType() == Material.AIR) {
+                this.out.writeByte(ITEM_NULL);
+                return;
+            }
+
+            if (itemStack.hasItemMeta() && isPaperBytesSupported()) {
+                byte[] bytes = itemStack.serializeAsBytes();
+                this.out.writeByte(ITEM_PAPER_BYTES);
+                this.writeVarInt(bytes.length);
+                this.out.write(bytes);
+                return;
+            }
+
+            boolean meta = itemStack.hasItemMeta();
+            int durability = itemStack.getDurability();
+            int amount = itemStack.getAmount();
+
+            int header = meta ? ITEM_BUKKIT_META : ITEM_PLAIN;
+            if (durability != 0)
+                header |= ITEM_FLAG_DURABILITY;
+            if (amount != 1)
+                header |= ITEM_FLAG_AMOUNT;
+            this.out.writeByte(header);
+
+            String material = materialOf(itemStack).name();
+            Integer index = this.materials.get(material);
+            if (index == null) {
+                index = this.materials.size();
+                this.materials.put(material, index);
+            }
+            this.writeVarInt(index);
+
+            if (durability != 0)
+                this.writeVarInt(durability & 0xFFFF);
+            if (amount != 1)
+                this.writeVarInt(amount);
+
+            if (meta) {
+                YamlConfiguration configuration = new YamlConfiguration();
+                configuration.set("meta", itemStack.getItemMeta());
+                byte[] bytes = configuration.saveToString().getBytes(StandardCharsets.UTF_8);
+                this.writeVarInt(bytes.length);
+                this.out.write(bytes);
+            }
+        }
+
+        private void writeSlot(@Nullable ItemSet.Slot slot) throws IOException {
+            if (slot == null) {
+                this.out.writeByte(SLOT_NULL);
+            } else if (slot instanceof ItemSet.ItemStackSlot) {
+                this.out.writeByte(SLOT_ITEM);
+                this.writeItem(((ItemSet.ItemStackSlot) slot).getItemStack());
+            } else if (slot instanceof ItemSet.FairyItemSlot) {
+                ItemSet.FairyItemSlot fairyItemSlot = (ItemSet.FairyItemSlot) slot;
+                this.out.writeByte(SLOT_FAIRY_ITEM);
+                this.out.writeUTF(fairyItemSlot.getFairyItem().getName());
+                this.writeVarInt(fairyItemSlot.getAmount());
+                this.writeVarInt(fairyItemSlot.getDurability() & 0xFFFF);
+            } else if (slot instanceof ItemSet.SlotEmpty) {
+                this.out.writeByte(SLOT_EMPTY);
+            } else {
+                throw new IllegalArgumentException("Unsupported slot type " + slot.getClass().getName());
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final DataInputStream in;
+        private final XMaterial[] materials;
+        private final int version;
+
+        private Reader(DataInputStream in, XMaterial[] materials, int version) {
+            this.in = in;
+            this.materials = materials;
+            this.version = version;
+        }
+
+        private int readVarInt() throws IOException {
+            return ItemStackCodec.readVarInt(this.in);
+        }
+
+        private int readLength() throws IOException {
+            return ItemStackCodec.readLength(this.in);
+        }
+
+        private byte[] readBytes() throws IOException {
+            int length = this.readLength();
+            if (length == 0)
+                throw new IOException("Empty item payload");
+
+            byte[] bytes = new byte[length];
+            this.in.readFully(bytes);
+            return bytes;
+        }
+
+        @Nullable
+        private ItemStack readItem() throws IOException {
+            int header = this.in.readUnsignedByte();
+            int type = header & 0b11;
+            if (type == ITEM_NULL)
+                return null;
+
+            if (type == ITEM_PAPER_BYTES)
+                return ItemStack.deserializeBytes(this.readBytes());
+
+            int material = this.readVarInt();
+            if (material < 0 || material >= this.materials.length)
+                throw new IOException("Unknown material index " + material);
+
+            ItemStack itemStack = this.materials[material].parseItem();
+            if (itemStack == null)
+                throw new IllegalArgumentException("Material isn't supported on this version");
+
+            if ((header & ITEM_FLAG_DURABILITY) != 0)
+                itemStack.setDurability((short) this.readVarInt());
+            if ((header & ITEM_FLAG_AMOUNT) != 0)
+                itemStack.setAmount(this.readVarInt());
+
+            if (type == ITEM_BUKKIT_META) {
+                // java deserialization of untrusted bytes could instantiate anything on the classpath
+                if (this.version == VERSION_OBJECT_STREAM_META)
+                    throw new IOException("Item meta written through object streams is no longer decoded");
+
+                YamlConfiguration configuration = new YamlConfiguration();
+                try {
+                    configuration.loadFromString(new String(this.readBytes(), StandardCharsets.UTF_8));
+                } catch (InvalidConfigurationException ex) {
+                    throw new IOException("Invalid item meta", ex);
+                }
+
+                Object itemMeta = configuration.get("meta");
+                if (!(itemMeta instanceof ItemMeta))
+                    throw new IOException("Invalid item meta");
+                itemStack.setItemMeta((ItemMeta) itemMeta);
+            }
+            return itemStack;
+        }
+
+        @Nullable
+        private ItemSet.Slot readSlot(Function<String, FairyItem> fairyItemResolver) throws IOException {
+            int type = this.in.readUnsignedByte();
+            switch (type) {
+                case SLOT_NULL:
+                    return null;
+                case SLOT_EMPTY:
+                    return new ItemSet.SlotEmpty();
+                case SLOT_ITEM:
+                    ItemStack itemStack = this.readItem();
+                    return itemStack != null ? new ItemSet.ItemStackSlot(itemStack) : null;
+                case SLOT_FAIRY_ITEM:
+                    String name = this.in.readUTF();
+                    int amount = this.readVarInt();
+                    int durability = (short) this.readVarInt();
+                    FairyItem fairyItem = fairyItemResolver.apply(name);
+                    return fairyItem != null ? new ItemSet.FairyItemSlot(fairyItem, amount, durability) : null;
+                default:
+                    throw new IOException("Unknown slot type " + type);
+            }
+        }
+    }
+
+    private interface WriteAction {
+        void write(Writer writer) throws IOException;
+    }
+
+    private interface ReadAction<T> {
+        T read(Reader reader) throws IOException;
+    }
+
+}
@@ -0,0 +1,100 @@
+package io.fairyproject.bukkit.util.items;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairyItemLookupCacheTest {
+
+    private FairyItem fairyItem;
+    private FairyItemLookupCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        MockBukkit.mock();
+
+        fairyItem = Mockito.mock(FairyItem.class);
+        cache = new FairyItemLookupCache(16);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void sameStackIsLoadedOnce() {
+        ItemStack itemStack = new ItemStack(Material.DIAMOND_SWORD);
+
+        assertSame(fairyItem, cache.get(itemStack, this::load));
+        itemStack.setAmount(5);
+        assertSame(fairyItem, cache.get(itemStack, this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void missesAreCachedToo() {
+        ItemStack itemStack = new ItemStack(Material.STONE);
+
+        assertNull(cache.get(itemStack, stack -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get(itemStack, this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void mutatedStackIsLoadedAgain() {
+        ItemStack itemStack = new ItemStack(Material.DIAMOND_SWORD);
+        cache.get(itemStack, this::load);
+
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        itemMeta.setDisplayName("Renamed");
+        itemStack.setItemMeta(itemMeta);
+        cache.get(itemStack, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateAllForgetsEntries() {
+        ItemStack itemStack = new ItemStack(Material.DIAMOND_SWORD);
+        cache.get(itemStack, this::load);
+        cache.invalidateAll();
+        cache.get(itemStack, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        ItemStack itemStack = new ItemStack(Material.DIAMOND_SWORD);
+
+        // the registry changes while the stale result is being loaded
+        cache.get(itemStack, stack -> {
+            cache.invalidateAll();
+            return load(stack);
+        });
+        cache.get(itemStack, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private FairyItem load(ItemStack itemStack) {
+        loads.incrementAndGet();
+        return fairyItem;
+    }
+
+}
@@ -0,0 +1,192 @@
+package io.fairyproject.bukkit.util.items.codec;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import io.fairyproject.bukkit.util.items.FairyItem;
+import io.fairyproject.bukkit.util.items.ItemSet;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSetBinarySerializerTest {
+
+    private FairyItem fairyItem;
+    private ItemSetBinarySerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        MockBukkit.mock();
+
+        fairyItem = Mockito.mock(FairyItem.class);
+        Mockito.when(fairyItem.getName()).thenReturn("test-sword");
+        serializer = new ItemSetBinarySerializer(new ItemStackCodec(true), name -> name.equals("test-sword") ? fairyItem : null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void emptySetRoundTrip() {
+        ItemSet itemSet = serializer.deserialize(serializer.serialize(new ItemSet(9)));
+
+        assertEquals(9, itemSet.getSlotCount());
+        for (int i = 0; i < itemSet.getSlotCount(); i++) {
+            assertNull(itemSet.getSlot(i));
+        }
+    }
+
+    @Test
+    void plainItemsRoundTrip() {
+        ItemSet itemSet = new ItemSet(3);
+        itemSet.setSlot(0, new ItemSet.ItemStackSlot(new ItemStack(Material.STONE, 32)));
+        itemSet.setSlot(2, new ItemSet.ItemStackSlot(new ItemStack(Material.DIAMOND_SWORD)));
+
+        ItemSet decoded = serializer.deserialize(serializer.serialize(itemSet));
+
+        assertEquals(new ItemStack(Material.STONE, 32), itemOf(decoded, 0));
+        assertNull(decoded.getSlot(1));
+        assertEquals(new ItemStack(Material.DIAMOND_SWORD), itemOf(decoded, 2));
+    }
+
+    @Test
+    void metaItemsRoundTrip() {
+        ItemStack itemStack = new ItemStack(Material.DIAMOND_SWORD);
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        itemMeta.setDisplayName("Excalibur");
+        itemMeta.setLore(Arrays.asList("Line 1", "Line 2"));
+        itemStack.setItemMeta(itemMeta);
+        itemStack.addUnsafeEnchantment(Enchantment.DAMAGE_ALL, 5);
+
+        ItemSet itemSet = new ItemSet(1);
+        itemSet.setSlot(0, new ItemSet.ItemStackSlot(itemStack));
+
+        ItemStack decoded = itemOf(serializer.deserialize(serializer.serialize(itemSet)), 0);
+
+        assertEquals(Material.DIAMOND_SWORD, decoded.getType());
+        assertEquals("Excalibur", decoded.getItemMeta().getDisplayName());
+        assertEquals(Arrays.asList("Line 1", "Line 2"), decoded.getItemMeta().getLore());
+        assertEquals(5, decoded.getEnchantmentLevel(Enchantment.DAMAGE_ALL));
+    }
+
+    @Test
+    void fairyItemSlotsAreResolvedByName() {
+        ItemSet itemSet = new ItemSet(2);
+        itemSet.setSlot(0, new ItemSet.FairyItemSlot(fairyItem, 3, 7));
+        itemSet.setSlot(1, new ItemSet.SlotEmpty());
+
+        ItemSet decoded = serializer.deserialize(serializer.serialize(itemSet));
+
+        ItemSet.FairyItemSlot slot = (ItemSet.FairyItemSlot) decoded.getSlot(0);
+        assertSame(fairyItem, slot.getFairyItem());
+        assertEquals(3, slot.getAmount());
+        assertEquals(7, slot.getDurability());
+        assertTrue(decoded.getSlot(1) instanceof ItemSet.SlotEmpty);
+    }
+
+    @Test
+    void armorsKeepTheirType() {
+        ItemSet armors = new ItemSet.Armors();
+        armors.setSlot(0, new ItemSet.ItemStackSlot(new ItemStack(Material.DIAMOND_BOOTS)));
+
+        ItemSet decoded = serializer.deserialize(serializer.serialize(armors));
+
+        assertTrue(decoded instanceof ItemSet.Armors);
+        assertEquals(new ItemStack(Material.DIAMOND_BOOTS), itemOf(decoded, 0));
+    }
+
+    @Test
+    void readsVersionOnePayload() throws IOException {
+        // an uncompressed item set written by the first version of the format: 32 stone followed by a null slot
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1); // version
+        out.writeByte(0); // flags
+        out.writeByte(1); // material table size
+        out.writeUTF("STONE");
+        out.writeByte(0); // plain item set
+        out.writeByte(2); // slot count
+        out.writeByte(2); // item slot
+        out.writeByte(1 | 1 << 3); // plain item with an amount
+        out.writeByte(0); // material index
+        out.writeByte(32); // amount
+        out.writeByte(0); // null slot
+
+        ItemSet decoded = serializer.deserialize(bytes.toByteArray());
+
+        assertEquals(2, decoded.getSlotCount());
+        assertEquals(new ItemStack(Material.STONE, 32), itemOf(decoded, 0));
+        assertNull(decoded.getSlot(1));
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] bytes = serializer.serialize(new ItemSet(1));
+        bytes[0] = 99;
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> serializer.deserialize(bytes));
+        assertTrue(exception.getMessage().contains("99"));
+    }
+
+    @Test
+    void oversizedLengthIsRejected() throws IOException {
+        // claims a million slots with nothing following
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(2); // version
+        out.writeByte(0); // flags
+        out.writeByte(0); // material table size
+        out.writeByte(0); // plain item set
+        ItemStackCodec.writeVarInt(out, 1_000_000);
+
+        assertThrows(IllegalStateException.class, () -> serializer.deserialize(bytes.toByteArray()));
+    }
+
+    @Test
+    void negativeLengthIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(2); // version
+        out.writeByte(0); // flags
+        ItemStackCodec.writeVarInt(out, -1); // material table size
+
+        assertThrows(IllegalStateException.class, () -> serializer.deserialize(bytes.toByteArray()));
+    }
+
+    @Test
+    void objectStreamMetaOfVersionOneIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1); // version
+        out.writeByte(0); // flags
+        out.writeByte(1); // material table size
+        out.writeUTF("STONE");
+        out.writeByte(0); // plain item set
+        out.writeByte(1); // slot count
+        out.writeByte(2); // item slot
+        out.writeByte(2); // item with object stream meta
+        out.writeByte(0); // material index
+        out.writeByte(1); // meta length
+        out.writeByte(0);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> serializer.deserialize(bytes.toByteArray()));
+        assertTrue(exception.getCause().getMessage().contains("object streams"));
+    }
+
+    private static ItemStack itemOf(ItemSet itemSet, int slot) {
+        return ((ItemSet.ItemStackSlot) itemSet.getSlot(slot)).getItemStack();
+    }
+
+}
@@ -31,8 +31,13 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public abstract class Button {
 
+	// bumped on every markDirty, each menu compares it with the version it last rendered
+	private final AtomicInteger dirtyVersion = new AtomicInteger();
+
 	public static Button placeholder(final XMaterial material, String title) {
 		return ButtonBuilder.of(ItemBuilder.of(material.parseItem())
 				.name(title)
@@ -79,4 +84,37 @@ public abstract class Button {
 		return (false);
 	}
 
+	/**
+	 * Mark this button as dirty, every menu showing it will fetch a new display item for it on its next render
+	 * even if the same button instance is still in the slot.
+	 */
+	public void markDirty() {
+		this.dirtyVersion.incrementAndGet();
+	}
+
+	int getDirtyVersion() {
+		return this.dirtyVersion.get();
+	}
+
+	/**
+	 * Whether {@link #getButtonItem(Player)} should be called off the main thread.
+	 * Override this for buttons with an expensive display item (database lookups, leaderboards),
+	 * the slot shows {@link #getLoadingItem(Player)} or the previous item until the new one is ready.
+	 *
+	 * @return true if the display item should be prepared asynchronously
+	 */
+	public boolean isAsync() {
+		return (false);
+	}
+
+	/**
+	 * Get the ItemStack to display while an async display item is being prepared
+	 *
+	 * @param player The Player to display on
+	 * @return The Loading ItemStack, or null to leave the slot empty
+	 */
+	public ItemStack getLoadingItem(Player player) {
+		return null;
+	}
+
 }
@@ -27,7 +27,6 @@ package io.fairyproject.bukkit.menu;
 import com.cryptomorin.xseries.XMaterial;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import io.fairyproject.bukkit.events.BukkitEventFilter;
 import io.fairyproject.bukkit.events.BukkitEventNode;
 import io.fairyproject.bukkit.menu.event.ButtonClickEvent;
@@ -36,6 +35,7 @@ import io.fairyproject.container.Autowired;
 import io.fairyproject.data.MetaKey;
 import io.fairyproject.data.MetaStorage;
 import io.fairyproject.event.EventNode;
+import io.fairyproject.log.Log;
 import io.fairyproject.mc.data.MCMetadata;
 import io.fairyproject.mc.scheduler.MCSchedulers;
 import io.fairyproject.util.CC;
@@ -54,6 +54,7 @@ import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -75,6 +76,8 @@ public abstract class Menu implements TerminableConsumer {
 
     private final CompositeTerminable compositeTerminable;
     private final Map<Integer, Button> buttonsMap;
+    private final Map<Integer, ItemStack> renderedItems;
+    private final RenderedButtons renderedButtons;
 
     @Getter
     private EventNode<Event> eventNode;
@@ -95,6 +98,8 @@ public abstract class Menu implements TerminableConsumer {
     public Menu() {
         this.compositeTerminable = CompositeTerminable.create();
         this.buttonsMap = new HashMap<>();
+        this.renderedItems = new HashMap<>();
+        this.renderedButtons = new RenderedButtons();
     }
 
     private void onInventoryClose(@NotNull InventoryCloseEvent event) {
@@ -360,6 +365,8 @@ public abstract class Menu implements TerminableConsumer {
 
         this.player = null;
         this.buttonsMap.clear();
+        this.renderedItems.clear();
+        this.renderedButtons.clear();
         this.inventory.clear();
     }
 
@@ -390,8 +397,6 @@ public abstract class Menu implements TerminableConsumer {
         }
         this.lastAccessMillis = System.currentTimeMillis();
 
-        Map<Integer, Button> previousButtons = firstInitial ? null : ImmutableMap.copyOf(this.buttonsMap);
-
         this.rendering = true;
         this.draw(firstInitial);
         this.rendering = false;
@@ -416,33 +421,122 @@ public abstract class Menu implements TerminableConsumer {
             recreate = true;
         }
 
+        if (recreate) {
+            this.renderedItems.clear();
+            this.renderedButtons.clear();
+        }
+
+        boolean changed = false;
         for (final Map.Entry<Integer, Button> buttonEntry : this.buttonsMap.entrySet()) {
             int slot = buttonEntry.getKey();
             Button button = buttonEntry.getValue();
-            if (previousButtons == null || previousButtons.get(slot) != button) {
-                inventory.setItem(slot, button.getButtonItem(player));
+            if (!this.renderedButtons.isStale(slot, button)) {
+                continue;
             }
-        }
 
-        if (previousButtons != null) {
-            for (int slot : previousButtons.keySet()) {
-                if (!this.buttonsMap.containsKey(slot)) {
-                    inventory.setItem(slot, null);
-                }
-            }
+            changed |= this.renderButton(inventory, slot, button);
         }
 
+        this.renderedButtons.retain(this.buttonsMap.keySet());
+        changed |= this.clearRemovedSlots(inventory);
+
         this.inventory = inventory;
         if (recreate) {
             this.rerendering = true;
             player.closeInventory();
             player.openInventory(inventory);
             this.rerendering = false;
-        } else {
+        } else if (changed) {
+            player.updateInventory();
+        }
+    }
+
+    /**
+     * Re-render only the buttons that has been marked dirty with {@link Button#markDirty()} or set since the last render,
+     * without calling {@link #draw(boolean)} again.
+     */
+    public final void refresh() {
+        if (!this.opening || this.rendering || this.inventory == null) {
+            return;
+        }
+
+        boolean changed = false;
+        for (final Map.Entry<Integer, Button> buttonEntry : this.buttonsMap.entrySet()) {
+            int slot = buttonEntry.getKey();
+            Button button = buttonEntry.getValue();
+            if (this.renderedButtons.isStale(slot, button)) {
+                changed |= this.renderButton(this.inventory, slot, button);
+            }
+        }
+
+        if (changed) {
             player.updateInventory();
         }
     }
 
+    private boolean renderButton(Inventory inventory, int slot, Button button) {
+        this.renderedButtons.rendered(slot, button);
+        if (!button.isAsync()) {
+            return this.applyItem(inventory, slot, button.getButtonItem(player));
+        }
+
+        final Player player = this.player;
+        MCSchedulers.getAsyncScheduler().schedule(() -> button.getButtonItem(player))
+                .getFuture()
+                .whenComplete((itemStack, throwable) -> {
+                    if (throwable != null) {
+                        Log.error("An error occurred while preparing button item for menu " + this.getClass().getSimpleName(), throwable);
+                        return;
+                    }
+
+                    MCSchedulers.getEntityScheduler(player).schedule(() -> {
+                        // the menu could be closed, re-opened or re-drawn while the item was being prepared
+                        if (!this.opening || this.inventory != inventory || this.buttonsMap.get(slot) != button) {
+                            return;
+                        }
+
+                        // changes to the open top inventory are synchronized by the server, no full update needed
+                        this.applyItem(inventory, slot, itemStack);
+                    });
+                });
+
+        if (this.renderedItems.containsKey(slot)) {
+            return false;
+        }
+        return this.applyItem(inventory, slot, button.getLoadingItem(player));
+    }
+
+    private boolean clearRemovedSlots(Inventory inventory) {
+        boolean changed = false;
+        Iterator<Integer> iterator = this.renderedItems.keySet().iterator();
+        while (iterator.hasNext()) {
+            int slot = iterator.next();
+            if (!this.buttonsMap.containsKey(slot)) {
+                iterator.remove();
+                inventory.setItem(slot, null);
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    private boolean applyItem(Inventory inventory, int slot, @Nullable ItemStack itemStack) {
+        ItemStack previous = this.renderedItems.get(slot);
+        if (Objects.equals(previous, itemStack)) {
+            return false;
+        }
+
+        if (itemStack == null) {
+            this.renderedItems.remove(slot);
+        } else {
+            // buttons are free to mutate and return the same instance, so keep a snapshot to diff against
+            this.renderedItems.put(slot, itemStack.clone());
+        }
+        inventory.setItem(slot, itemStack);
+        return true;
+    }
+
     public abstract void draw(boolean firstInitial);
 
     public int size(final Map<Integer, Button> buttons) {
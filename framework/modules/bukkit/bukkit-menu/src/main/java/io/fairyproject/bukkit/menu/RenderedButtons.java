@@ -0,0 +1,49 @@
+package io.fairyproject.bukkit.menu;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The button last rendered in each slot of a menu and its dirty version at that time.
+ * Kept per menu, so a button shared between menus is re-rendered by each of them after {@link Button#markDirty()}.
+ */
+final class RenderedButtons {
+
+    private final Map<Integer, Rendered> slots = new HashMap<>();
+
+    /**
+     * @return true if the slot shows another button, or the button was marked dirty since it was rendered there
+     */
+    boolean isStale(int slot, Button button) {
+        Rendered rendered = this.slots.get(slot);
+        return rendered == null || rendered.button != button || rendered.version != button.getDirtyVersion();
+    }
+
+    /**
+     * Record the button as rendered in the slot, call it before fetching the item so a change made meanwhile isn't lost
+     */
+    void rendered(int slot, Button button) {
+        this.slots.put(slot, new Rendered(button, button.getDirtyVersion()));
+    }
+
+    void retain(Collection<Integer> slots) {
+        this.slots.keySet().retainAll(slots);
+    }
+
+    void clear() {
+        this.slots.clear();
+    }
+
+    private static final class Rendered {
+
+        private final Button button;
+        private final int version;
+
+        private Rendered(Button button, int version) {
+            this.button = button;
+            this.version = version;
+        }
+    }
+
+}
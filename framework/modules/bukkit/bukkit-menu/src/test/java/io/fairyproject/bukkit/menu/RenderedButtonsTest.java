@@ -0,0 +1,92 @@
+package io.fairyproject.bukkit.menu;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderedButtonsTest {
+
+    @Test
+    void unrenderedSlotIsStale() {
+        RenderedButtons renderedButtons = new RenderedButtons();
+
+        assertTrue(renderedButtons.isStale(0, new TestButton()));
+    }
+
+    @Test
+    void renderedButtonIsNotStale() {
+        RenderedButtons renderedButtons = new RenderedButtons();
+        Button button = new TestButton();
+
+        renderedButtons.rendered(0, button);
+
+        assertFalse(renderedButtons.isStale(0, button));
+        assertTrue(renderedButtons.isStale(1, button));
+    }
+
+    @Test
+    void anotherButtonInTheSlotIsStale() {
+        RenderedButtons renderedButtons = new RenderedButtons();
+        renderedButtons.rendered(0, new TestButton());
+
+        assertTrue(renderedButtons.isStale(0, new TestButton()));
+    }
+
+    @Test
+    void dirtyButtonIsStaleUntilRenderedAgain() {
+        RenderedButtons renderedButtons = new RenderedButtons();
+        Button button = new TestButton();
+        renderedButtons.rendered(0, button);
+
+        button.markDirty();
+        assertTrue(renderedButtons.isStale(0, button));
+
+        renderedButtons.rendered(0, button);
+        assertFalse(renderedButtons.isStale(0, button));
+    }
+
+    @Test
+    void sharedButtonIsStaleForEveryMenu() {
+        RenderedButtons first = new RenderedButtons();
+        RenderedButtons second = new RenderedButtons();
+        Button button = new TestButton();
+        first.rendered(0, button);
+        second.rendered(4, button);
+
+        button.markDirty();
+        first.rendered(0, button);
+
+        // the first menu re-rendering the button doesn't clear it for the second one
+        assertFalse(first.isStale(0, button));
+        assertTrue(second.isStale(4, button));
+    }
+
+    @Test
+    void retainForgetsRemovedSlots() {
+        RenderedButtons renderedButtons = new RenderedButtons();
+        Button button = new TestButton();
+        renderedButtons.rendered(0, button);
+        renderedButtons.rendered(1, button);
+
+        renderedButtons.retain(Collections.singleton(1));
+
+        assertTrue(renderedButtons.isStale(0, button));
+        assertFalse(renderedButtons.isStale(1, button));
+
+        renderedButtons.clear();
+        assertTrue(renderedButtons.isStale(1, button));
+    }
+
+    private static class TestButton extends Button {
+
+        @Override
+        public ItemStack getButtonItem(Player player) {
+            return null;
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package io.fairyproject.bukkit.nbt.impl;
 import io.fairyproject.bukkit.nbt.NBTKey;
 import io.fairyproject.bukkit.nbt.NBTModifier;
 import io.fairyproject.bukkit.nbt.nms.NBTEditor;
+import org.bukkit.inventory.ItemStack;
 
 @Deprecated
 public class NBTModifierNMS implements NBTModifier {
@@ -43,6 +44,8 @@ public class NBTModifierNMS implements NBTModifier {
 
     @Override
     public String getString(Object holder, NBTKey key) {
+        if (holder instanceof ItemStack)
+            return NBTEditor.getItemString((ItemStack) holder, key.getKeys());
         return NBTEditor.getString(holder, (Object[]) key.getKeys());
     }
 
@@ -24,6 +24,8 @@
 
 package io.fairyproject.bukkit.nbt.nms;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -37,6 +39,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -74,6 +77,8 @@ public final class NBTEditor {
     private static Field skullProfile;
     private static final String VERSION;
     private static final MinecraftVersion LOCAL_VERSION;
+    private static volatile ItemTagAccessor itemTagAccessor;
+    private static volatile boolean itemTagAccessorUnsupported;
 
     public static final Type COMPOUND = Type.COMPOUND;
     public static final Type LIST = Type.LIST;
@@ -84,9 +89,10 @@ public final class NBTEditor {
         VERSION = Bukkit.getServer().getClass().getPackage().getName().split( "\\." )[ 3 ];
         LOCAL_VERSION = MinecraftVersion.get( VERSION );
 
-        classCache = new HashMap< ClassId, Class< ? > >();
-        methodCache = new HashMap< MethodId, Method >();
-        constructorCache = new HashMap< ClassId, Constructor< ? > >();
+        // These are lazily filled from any thread that reads NBT, so they need to be thread-safe
+        classCache = new ConcurrentHashMap< ClassId, Class< ? > >();
+        methodCache = new ConcurrentHashMap< MethodId, Method >();
+        constructorCache = new ConcurrentHashMap< ClassId, Constructor< ? > >();
 
         reflectionTargets = new TreeSet< ReflectionTarget >();
         reflectionTargets.addAll( Arrays.asList(
@@ -473,6 +479,97 @@ public final class NBTEditor {
         }
     }
 
+    /**
+     * Gets a string from the item provided through precompiled method handles,
+     * skipping the reflective lookups and the generic key walking done by {@link #getString(Object, Object...)}
+     *
+     * @param item
+     * Itemstack
+     * @param keys
+     * Compound keys in descending order
+     * @return
+     * A string, or null if none is stored at the provided location
+     */
+    public static String getItemString( ItemStack item, String... keys ) {
+        if ( item == null ) {
+            return null;
+        }
+        ItemTagAccessor accessor = getItemTagAccessor();
+        if ( accessor == null ) {
+            return getString( item, ( Object[] ) keys );
+        }
+        try {
+            Object result = accessor.get( item, keys );
+            return result instanceof String ? ( String ) result : null;
+        } catch ( Throwable throwable ) {
+            throwable.printStackTrace();
+            return null;
+        }
+    }
+
+    private static ItemTagAccessor getItemTagAccessor() {
+        ItemTagAccessor accessor = itemTagAccessor;
+        if ( accessor == null && !itemTagAccessorUnsupported ) {
+            synchronized ( NBTEditor.class ) {
+                accessor = itemTagAccessor;
+                if ( accessor == null && !itemTagAccessorUnsupported ) {
+                    try {
+                        accessor = new ItemTagAccessor();
+                        itemTagAccessor = accessor;
+                    } catch ( Exception exception ) {
+                        exception.printStackTrace();
+                        itemTagAccessorUnsupported = true;
+                    }
+                }
+            }
+        }
+        return accessor;
+    }
+
+    private static final class ItemTagAccessor {
+        private final MethodHandle asNMSCopy;
+        private final MethodHandle itemHasTag;
+        private final MethodHandle getItemTag;
+        private final MethodHandle compoundGet;
+        private final Class< ? > compoundClass;
+        private final Map< Class< ? >, MethodHandle > valueGetters;
+
+        private ItemTagAccessor() throws IllegalAccessException {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.asNMSCopy = lookup.unreflect( getMethod( MethodId.asNMSCopy ) );
+            this.itemHasTag = lookup.unreflect( getMethod( MethodId.itemHasTag ) );
+            this.getItemTag = lookup.unreflect( getMethod( MethodId.getItemTag ) );
+            this.compoundGet = lookup.unreflect( getMethod( MethodId.compoundGet ) );
+            this.compoundClass = getNMSClass( ClassId.NBTTagCompound );
+
+            this.valueGetters = new HashMap< Class< ? >, MethodHandle >();
+            for ( Map.Entry< Class< ? >, Field > entry : NBTTagFieldCache.entrySet() ) {
+                this.valueGetters.put( entry.getKey(), lookup.unreflectGetter( entry.getValue() ) );
+            }
+        }
+
+        private Object get( ItemStack item, String... keys ) throws Throwable {
+            Object stack = this.asNMSCopy.invoke( item );
+            if ( stack == null || !( boolean ) this.itemHasTag.invoke( stack ) ) {
+                return null;
+            }
+
+            Object nbtObj = this.getItemTag.invoke( stack );
+            for ( String key : keys ) {
+                if ( !this.compoundClass.isInstance( nbtObj ) ) {
+                    return null;
+                }
+                nbtObj = this.compoundGet.invoke( nbtObj, key );
+            }
+
+            if ( nbtObj == null ) {
+                return null;
+            }
+            MethodHandle valueGetter = this.valueGetters.get( nbtObj.getClass() );
+            return valueGetter == null ? null : valueGetter.invoke( nbtObj );
+        }
+    }
+
     /**
      * Gets an NBTCompound from the item provided. Use {@link #getNBTCompound(Object, Object...)} instead.
      *
@@ -25,16 +25,9 @@
 package io.fairyproject.bukkit.visual;
 
 import com.cryptomorin.xseries.XMaterial;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import io.fairyproject.bukkit.listener.RegisterAsListener;
 import io.fairyproject.bukkit.listener.events.Events;
 import io.fairyproject.bukkit.nms.BukkitNMSManager;
-import io.fairyproject.bukkit.util.CoordXZ;
-import io.fairyproject.bukkit.util.CoordinatePair;
 import io.fairyproject.bukkit.visual.event.PreHandleVisualClaimEvent;
 import io.fairyproject.bukkit.visual.event.PreHandleVisualEvent;
 import io.fairyproject.bukkit.visual.sender.VisualBlockSender;
@@ -49,6 +42,7 @@ import io.fairyproject.plugin.Plugin;
 import io.fairyproject.plugin.PluginListenerAdapter;
 import io.fairyproject.plugin.PluginManager;
 import io.fairyproject.scheduler.response.TaskResponse;
+import io.fairyproject.util.collection.LongObjectMap;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -59,8 +53,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.util.Vector;
-import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -71,9 +65,8 @@ import java.util.function.Predicate;
 @RegisterAsListener
 public class VisualBlockService implements Listener {
 
-    private final Table<UUID, VisualPosition, VisualBlock> table = HashBasedTable.create();
-    private final LoadingCache<CoordinatePair, Optional<VisualBlockClaim>> claimCache;
-    private final Table<CoordinatePair, CoordXZ, VisualBlockClaim> claimPositionTable;
+    private final Map<UUID, LongObjectMap<VisualBlock>> visualBlocks = new ConcurrentHashMap<>();
+    private final VisualClaimIndex claimIndex = new VisualClaimIndex();
     private final Queue<VisualTask> visualTasks = new ConcurrentLinkedQueue<>();
     private final Map<Plugin, List<VisualBlockGenerator>> dynamicVisualGenerator = new ConcurrentHashMap<>();
     private final BukkitNMSManager nmsManager;
@@ -88,21 +81,6 @@ public class VisualBlockService implements Listener {
     public VisualBlockService(BukkitNMSManager nmsManager, MCSchedulerProvider mcSchedulerProvider) {
         this.nmsManager = nmsManager;
         this.mcSchedulerProvider = mcSchedulerProvider;
-        this.claimPositionTable = HashBasedTable.create();
-        this.claimCache = CacheBuilder.newBuilder()
-                .maximumSize(8000)
-                .build(new CacheLoader<CoordinatePair, Optional<VisualBlockClaim>>() {
-                    @Override
-                    public Optional<VisualBlockClaim> load(@NotNull CoordinatePair key) {
-                        final int chunkX = key.getX() >> 4;
-                        final int chunkZ = key.getZ() >> 4;
-                        final int posX = key.getX() % 16;
-                        final int posZ = key.getZ() % 16;
-                        synchronized (claimPositionTable) {
-                            return Optional.ofNullable(claimPositionTable.get(new CoordinatePair(key.getWorldName(), chunkX, chunkZ), new CoordXZ((byte) posX, (byte) posZ)));
-                        }
-                    }
-                });
     }
 
     @PostInitialize
@@ -119,16 +97,14 @@ public class VisualBlockService implements Listener {
 
             final Collection<VisualBlockClaim> claimCache = new HashSet<>();
 
-            for (int x = toX - 7; x < toX + 7; x++) {
-                for (int z = toZ - 7; z < toZ + 7; z++) {
-                    final VisualBlockClaim color = getClaimAt(location.getWorld(), x, z);
-                    PreHandleVisualClaimEvent claimEvent = new PreHandleVisualClaimEvent(player, color);
+            // query the claims intersecting the 14x14 window once, and only fire one event per distinct claim
+            for (VisualBlockClaim claim : claimIndex.query(location.getWorld().getName(), toX - 7, toZ - 7, toX + 6, toZ + 6)) {
+                PreHandleVisualClaimEvent claimEvent = new PreHandleVisualClaimEvent(player, claim);
 
-                    Events.call(claimEvent);
+                Events.call(claimEvent);
 
-                    if (color != null && !claimEvent.isCancelled()) {
-                        claimCache.add(color);
-                    }
+                if (!claimEvent.isCancelled()) {
+                    claimCache.add(claim);
                 }
             }
 
@@ -178,6 +154,11 @@ public class VisualBlockService implements Listener {
         handlePositionChanged(event.getPlayer(), event.getTo());
     }
 
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.visualBlocks.remove(event.getPlayer().getUniqueId());
+    }
+
     public void registerGenerator(VisualBlockGenerator blockGenerator) {
         Plugin plugin = PluginManager.INSTANCE.getPluginByClass(blockGenerator.getClass());
 
@@ -197,45 +178,15 @@ public class VisualBlockService implements Listener {
     }
 
     public void cacheClaim(VisualBlockClaim claim) {
-        final World world = claim.getWorld();
-        final int minX = Math.min(claim.getMaxX(), claim.getMinX());
-        final int maxX = Math.max(claim.getMaxX(), claim.getMinX());
-        final int minZ = Math.min(claim.getMaxZ(), claim.getMinZ());
-        final int maxZ = Math.max(claim.getMaxZ(), claim.getMinZ());
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                final CoordinatePair worldPosition = new CoordinatePair(world, x, z);
-                final CoordinatePair chunkPair = new CoordinatePair(world, x >> 4, z >> 4);
-                final CoordXZ chunkPosition = new CoordXZ((byte) (x % 16), (byte) (z % 16));
-                synchronized (claimPositionTable) {
-                    claimPositionTable.put(chunkPair, chunkPosition, claim);
-                }
-                claimCache.invalidate(worldPosition);
-            }
-        }
+        this.claimIndex.add(claim);
     }
 
     public void removeClaim(VisualBlockClaim claim) {
-        final World world = claim.getWorld();
-        final int minX = Math.min(claim.getMaxX(), claim.getMinX());
-        final int maxX = Math.max(claim.getMaxX(), claim.getMinX());
-        final int minZ = Math.min(claim.getMaxZ(), claim.getMinZ());
-        final int maxZ = Math.max(claim.getMaxZ(), claim.getMinZ());
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                final CoordinatePair worldPosition = new CoordinatePair(world, x, z);
-                final CoordinatePair chunkPair = new CoordinatePair(world, x >> 4, z >> 4);
-                final CoordXZ chunkPosition = new CoordXZ((byte) (x % 16), (byte) (z % 16));
-                synchronized (claimPositionTable) {
-                    claimPositionTable.remove(chunkPair, chunkPosition);
-                }
-                claimCache.invalidate(worldPosition);
-            }
-        }
+        this.claimIndex.remove(claim);
     }
 
     public void clearAll(final Player player, final boolean send) {
-        table.rowMap().remove(player.getUniqueId());
+        this.visualBlocks.remove(player.getUniqueId());
         this.visualBlockSender.clearFakeBlocks(player, send);
     }
 
@@ -244,16 +195,17 @@ public class VisualBlockService implements Listener {
     }
 
     public void clearVisualType(final Player player, final VisualType visualType, final Predicate<VisualBlock> predicate, final boolean send) {
+        final LongObjectMap<VisualBlock> currentBlocks = this.visualBlocks.get(player.getUniqueId());
+        if (currentBlocks == null)
+            return;
+
         final List<BlockPosition> removeFromClient = new ArrayList<>();
-        synchronized (table) {
-            final Map<VisualPosition, VisualBlock> currentBlocks = table.row(player.getUniqueId());
-            for (final Map.Entry<VisualPosition, VisualBlock> entry : new ArrayList<>(currentBlocks.entrySet())) {
-                final VisualPosition blockPosition = entry.getKey();
-                final VisualBlock visualBlock = entry.getValue();
-                final VisualType blockVisualType = visualBlock.getVisualType();
-                if (blockVisualType.equals(visualType) && (predicate == null || predicate.test(visualBlock))) {
-                    removeFromClient.add(blockPosition);
-                    currentBlocks.remove(blockPosition);
+        synchronized (currentBlocks) {
+            for (final long position : currentBlocks.keys()) {
+                final VisualBlock visualBlock = currentBlocks.get(position);
+                if (visualBlock.getVisualType().equals(visualType) && (predicate == null || predicate.test(visualBlock))) {
+                    removeFromClient.add(visualBlock.getLocation());
+                    currentBlocks.remove(position);
                 }
             }
         }
@@ -263,12 +215,13 @@ public class VisualBlockService implements Listener {
     public Map<BlockPosition, XMaterial> addVisualType(final Player player, final Collection<VisualPosition> locations, final boolean send) {
         final Map<BlockPosition, XMaterial> sendToClient = new HashMap<>();
         this.removeBlockFromSolid(player, locations);
-        synchronized (table) {
+        final LongObjectMap<VisualBlock> currentBlocks = this.getVisualBlocks(player);
+        synchronized (currentBlocks) {
             for (VisualPosition blockPosition : locations) {
                 VisualType visualType = blockPosition.getType();
                 XMaterial material = visualType.generate(player, blockPosition);
                 sendToClient.put(blockPosition, material);
-                table.put(player.getUniqueId(), blockPosition, new VisualBlock(visualType, material, blockPosition));
+                currentBlocks.put(blockPosition.asLong(), new VisualBlock(visualType, material, blockPosition));
             }
         }
         this.visualBlockSender.send(player, sendToClient, Collections.emptyList(), send);
@@ -279,16 +232,15 @@ public class VisualBlockService implements Listener {
         final Map<BlockPosition, XMaterial> sendToClient = new HashMap<>();
         final List<BlockPosition> removeFromClient = new ArrayList<>();
         this.removeBlockFromSolid(player, locations);
-        synchronized (table) {
-            final Map<VisualPosition, VisualBlock> currentBlocks = table.row(player.getUniqueId());
-            for (final Map.Entry<VisualPosition, VisualBlock> entry : new ArrayList<>(currentBlocks.entrySet())) {
-                final VisualPosition blockPosition = entry.getKey();
-                final VisualBlock visualBlock = entry.getValue();
-                final VisualType blockVisualType = visualBlock.getVisualType();
-                if (blockVisualType.equals(blockPosition.getType())) {
+        final LongObjectMap<VisualBlock> currentBlocks = this.getVisualBlocks(player);
+        synchronized (currentBlocks) {
+            for (final long position : currentBlocks.keys()) {
+                final VisualBlock visualBlock = currentBlocks.get(position);
+                final BlockPosition blockPosition = visualBlock.getLocation();
+                if (!(blockPosition instanceof VisualPosition) || visualBlock.getVisualType().equals(((VisualPosition) blockPosition).getType())) {
                     if (!locations.remove(blockPosition)) {
                         removeFromClient.add(blockPosition);
-                        currentBlocks.remove(blockPosition);
+                        currentBlocks.remove(position);
                     }
                 }
             }
@@ -296,7 +248,7 @@ public class VisualBlockService implements Listener {
                 VisualType visualType = blockPosition.getType();
                 XMaterial material = visualType.generate(player, blockPosition);
                 sendToClient.put(blockPosition, material);
-                table.put(player.getUniqueId(), blockPosition, new VisualBlock(visualType, material, blockPosition));
+                currentBlocks.put(blockPosition.asLong(), new VisualBlock(visualType, material, blockPosition));
             }
         }
         this.visualBlockSender.send(player, sendToClient, removeFromClient, send);
@@ -304,11 +256,21 @@ public class VisualBlockService implements Listener {
     }
 
     public boolean isVisualBlock(Player player, int x, int y, int z) {
-        return table.contains(player.getUniqueId(), new VisualPosition(x, y, z, player.getWorld().getName(), null));
+        return this.getVisualBlock(player, x, y, z) != null;
     }
 
     public VisualBlock getVisualBlock(Player player, int x, int y, int z) {
-        return table.get(player.getUniqueId(), new VisualPosition(x, y, z, player.getWorld().getName(), null));
+        final LongObjectMap<VisualBlock> currentBlocks = this.visualBlocks.get(player.getUniqueId());
+        if (currentBlocks == null)
+            return null;
+
+        synchronized (currentBlocks) {
+            return currentBlocks.get(BlockPosition.asLong(x, y, z));
+        }
+    }
+
+    private LongObjectMap<VisualBlock> getVisualBlocks(Player player) {
+        return this.visualBlocks.computeIfAbsent(player.getUniqueId(), uuid -> new LongObjectMap<>(64));
     }
 
     private void removeBlockFromSolid(Player player, Collection<VisualPosition> locations) {
@@ -327,22 +289,11 @@ public class VisualBlockService implements Listener {
     }
 
     public VisualBlockClaim getClaimAt(final World world, final int x, final int z) {
-        try {
-            return claimCache.get(new CoordinatePair(world, x, z)).orElse(null);
-        } catch (final Exception exception) {
-            exception.printStackTrace();
-            final int chunkX = x >> 4;
-            final int chunkZ = z >> 4;
-            final byte posX = (byte) (x % 16);
-            final byte posZ = (byte) (z % 16);
-            synchronized (claimPositionTable) {
-                return claimPositionTable.get(new CoordinatePair(world, chunkX, chunkZ), new CoordXZ(posX, posZ));
-            }
-        }
+        return this.claimIndex.getAt(world.getName(), x, z);
     }
 
     public void handlePositionChanged(final Player player, final Location location) {
-        if (this.claimPositionTable.isEmpty() && this.dynamicVisualGenerator.isEmpty()) {
+        if (this.claimIndex.isEmpty() && this.dynamicVisualGenerator.isEmpty()) {
             return;
         }
 
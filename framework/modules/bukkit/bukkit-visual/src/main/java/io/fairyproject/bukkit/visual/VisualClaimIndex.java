@@ -0,0 +1,149 @@
+package io.fairyproject.bukkit.visual;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A spatial index of {@link VisualBlockClaim} rectangles per world.
+ * Every claim is stored once in each chunk it overlaps, so a claim costs one entry per chunk instead of one per column,
+ * and a query only looks at the claims of the few chunks covering the queried area.
+ */
+class VisualClaimIndex {
+
+    private final Map<String, Map<Long, List<VisualBlockClaim>>> claimsByWorld = new HashMap<>();
+    // the cells every claim was indexed into, so adding a claim twice or removing it after its bounds changed stays consistent
+    private final Map<VisualBlockClaim, IndexedClaim> indexed = new HashMap<>();
+
+    /**
+     * Index the claim, a claim that is already indexed is re-indexed with its current bounds
+     */
+    public synchronized void add(VisualBlockClaim claim) {
+        this.remove(claim);
+
+        final String worldName = claim.getWorld().getName();
+        final Map<Long, List<VisualBlockClaim>> chunks = this.claimsByWorld.computeIfAbsent(worldName, world -> new HashMap<>());
+        final long[] chunkKeys = chunkKeys(claim);
+        for (long chunkKey : chunkKeys) {
+            chunks.computeIfAbsent(chunkKey, key -> new ArrayList<>(1)).add(claim);
+        }
+        this.indexed.put(claim, new IndexedClaim(worldName, chunkKeys));
+    }
+
+    public synchronized void remove(VisualBlockClaim claim) {
+        final IndexedClaim indexedClaim = this.indexed.remove(claim);
+        if (indexedClaim == null)
+            return;
+
+        final Map<Long, List<VisualBlockClaim>> chunks = this.claimsByWorld.get(indexedClaim.worldName);
+        if (chunks == null)
+            return;
+
+        for (long chunkKey : indexedClaim.chunkKeys) {
+            final List<VisualBlockClaim> claims = chunks.get(chunkKey);
+            if (claims == null)
+                continue;
+
+            claims.remove(claim);
+            if (claims.isEmpty())
+                chunks.remove(chunkKey);
+        }
+
+        if (chunks.isEmpty())
+            this.claimsByWorld.remove(indexedClaim.worldName);
+    }
+
+    public synchronized int size() {
+        return this.indexed.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.indexed.isEmpty();
+    }
+
+    /**
+     * Get the claim containing the column, if multiple claims overlap the most recently added one wins
+     */
+    @Nullable
+    public synchronized VisualBlockClaim getAt(String worldName, int x, int z) {
+        final Map<Long, List<VisualBlockClaim>> chunks = this.claimsByWorld.get(worldName);
+        if (chunks == null)
+            return null;
+
+        final List<VisualBlockClaim> claims = chunks.get(chunkKey(x >> 4, z >> 4));
+        if (claims == null)
+            return null;
+
+        for (int i = claims.size() - 1; i >= 0; i--) {
+            final VisualBlockClaim claim = claims.get(i);
+            if (contains(claim, x, z))
+                return claim;
+        }
+        return null;
+    }
+
+    /**
+     * Get every distinct claim intersecting the area, bounds inclusive
+     */
+    public synchronized Set<VisualBlockClaim> query(String worldName, int minX, int minZ, int maxX, int maxZ) {
+        final Map<Long, List<VisualBlockClaim>> chunks = this.claimsByWorld.get(worldName);
+        if (chunks == null)
+            return Collections.emptySet();
+
+        final Set<VisualBlockClaim> result = new LinkedHashSet<>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                final List<VisualBlockClaim> claims = chunks.get(chunkKey(chunkX, chunkZ));
+                if (claims == null)
+                    continue;
+
+                for (VisualBlockClaim claim : claims) {
+                    if (intersects(claim, minX, minZ, maxX, maxZ))
+                        result.add(claim);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long[] chunkKeys(VisualBlockClaim claim) {
+        final int minChunkX = Math.min(claim.getMinX(), claim.getMaxX()) >> 4;
+        final int maxChunkX = Math.max(claim.getMinX(), claim.getMaxX()) >> 4;
+        final int minChunkZ = Math.min(claim.getMinZ(), claim.getMaxZ()) >> 4;
+        final int maxChunkZ = Math.max(claim.getMinZ(), claim.getMaxZ()) >> 4;
+        final long[] chunkKeys = new long[(maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1)];
+        int index = 0;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                chunkKeys[index++] = chunkKey(chunkX, chunkZ);
+            }
+        }
+        return chunkKeys;
+    }
+
+    private static boolean contains(VisualBlockClaim claim, int x, int z) {
+        return x >= Math.min(claim.getMinX(), claim.getMaxX()) && x <= Math.max(claim.getMinX(), claim.getMaxX())
+                && z >= Math.min(claim.getMinZ(), claim.getMaxZ()) && z <= Math.max(claim.getMinZ(), claim.getMaxZ());
+    }
+
+    private static boolean intersects(VisualBlockClaim claim, int minX, int minZ, int maxX, int maxZ) {
+        return Math.min(claim.getMinX(), claim.getMaxX()) <= maxX && Math.max(claim.getMinX(), claim.getMaxX()) >= minX
+                && Math.min(claim.getMinZ(), claim.getMaxZ()) <= maxZ && Math.max(claim.getMinZ(), claim.getMaxZ()) >= minZ;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static final class IndexedClaim {
+
+        private final String worldName;
+        private final long[] chunkKeys;
+
+        private IndexedClaim(String worldName, long[] chunkKeys) {
+            this.worldName = worldName;
+            this.chunkKeys = chunkKeys;
+        }
+    }
+
+}
@@ -26,8 +26,80 @@ package io.fairyproject.bukkit.visual.sender;
 
 import com.cryptomorin.xseries.XMaterial;
 import io.fairyproject.mc.util.BlockPosition;
+import io.fairyproject.util.collection.LongObjectMap;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The fake block states a single player currently sees, keyed by {@link BlockPosition#asLong()}.
+ * Every method locks on the container itself, so players never contend with each other.
+ */
+public class VisualContainer {
+
+    private final LongObjectMap<XMaterial> blocks = new LongObjectMap<>(64);
+
+    @Nullable
+    public synchronized XMaterial get(long position) {
+        return this.blocks.get(position);
+    }
+
+    @Nullable
+    public synchronized XMaterial put(long position, XMaterial material) {
+        return this.blocks.put(position, material);
+    }
+
+    @Nullable
+    public synchronized XMaterial remove(long position) {
+        return this.blocks.remove(position);
+    }
+
+    @Nullable
+    public XMaterial get(BlockPosition position) {
+        return this.get(position.asLong());
+    }
+
+    @Nullable
+    public XMaterial put(BlockPosition position, XMaterial material) {
+        return this.put(position.asLong(), material);
+    }
+
+    @Nullable
+    public XMaterial remove(BlockPosition position) {
+        return this.remove(position.asLong());
+    }
+
+    public boolean containsKey(BlockPosition position) {
+        return this.get(position.asLong()) != null;
+    }
+
+    /**
+     * Get a snapshot of the positions as {@link BlockPosition}s, prefer {@link #positions()} which doesn't allocate one per block
+     */
+    public Set<BlockPosition> keySet() {
+        final long[] positions = this.positions();
+        final Set<BlockPosition> result = new HashSet<>(positions.length * 2);
+        for (long position : positions) {
+            result.add(BlockPosition.of(position));
+        }
+        return result;
+    }
+
+    public synchronized long[] positions() {
+        return this.blocks.keys();
+    }
+
+    public synchronized int size() {
+        return this.blocks.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.blocks.isEmpty();
+    }
+
+    public synchronized void clear() {
+        this.blocks.clear();
+    }
 
-public class VisualContainer extends ConcurrentHashMap<BlockPosition, XMaterial> {
 }
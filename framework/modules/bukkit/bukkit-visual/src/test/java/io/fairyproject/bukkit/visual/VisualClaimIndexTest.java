@@ -0,0 +1,157 @@
+package io.fairyproject.bukkit.visual;
+
+import io.fairyproject.bukkit.visual.type.VisualType;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisualClaimIndexTest {
+
+    private World world;
+    private VisualClaimIndex index;
+
+    @BeforeEach
+    void setUp() {
+        world = Mockito.mock(World.class);
+        Mockito.when(world.getName()).thenReturn("world");
+        index = new VisualClaimIndex();
+    }
+
+    @Test
+    void addedClaimIsFoundInEveryChunkItOverlaps() {
+        TestClaim claim = new TestClaim(world, -5, 40, -5, 40);
+        index.add(claim);
+
+        assertEquals(1, index.size());
+        assertSame(claim, index.getAt("world", -5, -5));
+        assertSame(claim, index.getAt("world", 40, 40));
+        assertSame(claim, index.getAt("world", 20, 0));
+        assertNull(index.getAt("world", 41, 0));
+        assertNull(index.getAt("other", 0, 0));
+    }
+
+    @Test
+    void removedClaimLeavesNoCell() {
+        TestClaim claim = new TestClaim(world, 0, 40, 0, 40);
+        index.add(claim);
+        index.remove(claim);
+
+        assertTrue(index.isEmpty());
+        assertNull(index.getAt("world", 20, 20));
+        assertTrue(index.query("world", -100, -100, 100, 100).isEmpty());
+    }
+
+    @Test
+    void removingAnUnknownClaimIsIgnored() {
+        TestClaim claim = new TestClaim(world, 0, 10, 0, 10);
+        index.add(claim);
+        index.remove(new TestClaim(world, 0, 10, 0, 10));
+
+        assertEquals(1, index.size());
+        assertSame(claim, index.getAt("world", 5, 5));
+    }
+
+    @Test
+    void queryReturnsDistinctIntersectingClaims() {
+        TestClaim large = new TestClaim(world, 0, 100, 0, 100);
+        TestClaim small = new TestClaim(world, 200, 210, 200, 210);
+        index.add(large);
+        index.add(small);
+
+        assertEquals(Collections.singleton(large), index.query("world", 90, 90, 150, 150));
+        assertEquals(2, index.query("world", 0, 0, 205, 205).size());
+        assertTrue(index.query("world", 101, 101, 199, 199).isEmpty());
+    }
+
+    @Test
+    void addingTwiceIndexesOnce() {
+        TestClaim claim = new TestClaim(world, 0, 40, 0, 40);
+        index.add(claim);
+        index.add(claim);
+
+        assertEquals(1, index.size());
+        assertEquals(1, index.query("world", 0, 0, 40, 40).size());
+
+        index.remove(claim);
+        assertTrue(index.isEmpty());
+        assertNull(index.getAt("world", 20, 20));
+    }
+
+    @Test
+    void addingAgainAfterBoundsChangedReindexes() {
+        TestClaim claim = new TestClaim(world, 0, 10, 0, 10);
+        index.add(claim);
+        claim.maxX = 100;
+        index.add(claim);
+
+        assertSame(claim, index.getAt("world", 90, 5));
+
+        claim.maxX = 10;
+        index.remove(claim);
+        assertNull(index.getAt("world", 90, 5));
+        assertTrue(index.isEmpty());
+    }
+
+    private static class TestClaim implements VisualBlockClaim {
+
+        private final World world;
+        private final int minX;
+        private int maxX;
+        private final int minZ;
+        private final int maxZ;
+
+        private TestClaim(World world, int minX, int maxX, int minZ, int maxZ) {
+            this.world = world;
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        public World getWorld() {
+            return world;
+        }
+
+        @Override
+        public int getMinX() {
+            return minX;
+        }
+
+        @Override
+        public int getMaxX() {
+            return maxX;
+        }
+
+        @Override
+        public int getMinY() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxY() {
+            return 255;
+        }
+
+        @Override
+        public int getMinZ() {
+            return minZ;
+        }
+
+        @Override
+        public int getMaxZ() {
+            return maxZ;
+        }
+
+        @Override
+        public VisualType getType() {
+            return null;
+        }
+    }
+
+}
@@ -1,3 +1,4 @@
 plugins {
     id("io.fairyproject.module")
-}
\ No newline at end of file
+    id("me.champeau.jmh") version "0.7.2"
+}
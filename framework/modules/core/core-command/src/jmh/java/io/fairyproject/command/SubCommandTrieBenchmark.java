@@ -0,0 +1,207 @@
+package io.fairyproject.command;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Dispatch and tab completion of sub commands, on a wide tree of hundreds of single word aliases
+ * and on a deep tree of multi word names sharing their first words.
+ * {@link #joinedDispatch} and {@link #joinedCompletion} are the previous lookups, which joined the arguments
+ * for every prefix and split every registered name on each completion.
+ */
+public class SubCommandTrieBenchmark {
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+
+        @Param({"wide", "deep"})
+        private String shape;
+
+        private SubCommandTrie trie;
+        private Map<String, Set<ICommand>> subCommands;
+        private String[][] dispatches;
+        private String[][] completions;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            trie = new SubCommandTrie();
+            subCommands = new ConcurrentHashMap<>();
+
+            List<String> names = new ArrayList<>();
+            if (shape.equals("wide")) {
+                for (int i = 0; i < 500; i++) {
+                    names.add("alias" + i);
+                }
+            } else {
+                for (int a = 0; a < 8; a++) {
+                    for (int b = 0; b < 8; b++) {
+                        for (int c = 0; c < 8; c++) {
+                            names.add("group" + a + " section" + b + " action" + c);
+                        }
+                    }
+                }
+            }
+
+            for (String name : names) {
+                ICommand command = new DummyCommand();
+                trie.insert(name, command);
+                subCommands.computeIfAbsent(name, k -> new CopyOnWriteArraySet<>()).add(command);
+            }
+
+            Random random = new Random(0);
+            dispatches = new String[64][];
+            completions = new String[64][];
+            for (int i = 0; i < dispatches.length; i++) {
+                String[] words = names.get(random.nextInt(names.size())).split(" ");
+                String[] dispatch = Arrays.copyOf(words, words.length + 2);
+                dispatch[words.length] = "player" + i;
+                dispatch[words.length + 1] = String.valueOf(i);
+                dispatches[i] = dispatch;
+
+                String[] completion = Arrays.copyOf(words, words.length);
+                completion[words.length - 1] = words[words.length - 1].substring(0, Math.min(words[words.length - 1].length(), 6));
+                completions[i] = completion;
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void trieDispatch(State state, Blackhole blackhole) {
+        for (String[] args : state.dispatches) {
+            blackhole.consume(state.trie.find(args));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void joinedDispatch(State state, Blackhole blackhole) {
+        for (String[] args : state.dispatches) {
+            for (int i = args.length; i >= 0; i--) {
+                Set<ICommand> commands = state.subCommands.getOrDefault(join(args, i), Collections.emptySet());
+                if (!commands.isEmpty()) {
+                    blackhole.consume(commands);
+                    break;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void trieCompletion(State state, Blackhole blackhole) {
+        for (String[] args : state.completions) {
+            List<String> result = new ArrayList<>();
+            state.trie.complete(args, command -> command.canAccess(null), result);
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void joinedCompletion(State state, Blackhole blackhole) {
+        for (String[] args : state.completions) {
+            Set<String> result = new HashSet<>();
+            int index = Math.max(0, args.length - 1);
+            String argString = join(args, args.length);
+            for (Map.Entry<String, Set<ICommand>> entry : state.subCommands.entrySet()) {
+                for (ICommand command : entry.getValue()) {
+                    if (entry.getKey().startsWith(argString) && command.canAccess(null)) {
+                        result.add(entry.getKey().split(" ")[index]);
+                    }
+                }
+            }
+            blackhole.consume(new ArrayList<>(result));
+        }
+    }
+
+    private static String join(String[] args, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(args[i]);
+            if (i != length - 1) {
+                builder.append(" ");
+            }
+        }
+        return builder.toString().toLowerCase();
+    }
+
+    private static class DummyCommand implements ICommand {
+
+        @Override
+        public int order() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxParameterCount() {
+            return 2;
+        }
+
+        @Override
+        public int getRequireInputParameterCount() {
+            return 0;
+        }
+
+        @Override
+        public boolean isDisplayOnPermission() {
+            return false;
+        }
+
+        @Override
+        public String getUsage(CommandContext commandContext) {
+            return "";
+        }
+
+        @Override
+        public void execute(CommandContext commandContext) {
+        }
+
+        @Override
+        public boolean canAccess(CommandContext commandContext) {
+            return true;
+        }
+
+        @Override
+        public List<String> completeCommand(CommandContext commandContext) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public SubCommandType getSubCommandType() {
+            return SubCommandType.METHOD_LEVEL;
+        }
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SubCommandTrieBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
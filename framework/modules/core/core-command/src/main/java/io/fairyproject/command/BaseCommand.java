@@ -50,6 +50,7 @@ public abstract class BaseCommand implements ICommand {
 
     protected final Map<String, Set<ICommand>> subCommands = new ConcurrentHashMap<>();
     protected final List<ICommand> sortedCommands = new ArrayList<>();
+    private final SubCommandTrie subCommandTrie = new SubCommandTrie();
     protected ICommand noArgCommand;
     protected Map<String, ArgCompletionHolder> tabCompletion;
 
@@ -159,14 +160,20 @@ public abstract class BaseCommand implements ICommand {
 
     protected void addSubCommand(@NotNull String[] commandNames, @NotNull ICommand subCommand) {
         for (String commandName : commandNames) {
-            this.subCommands
-                    .computeIfAbsent(commandName.toLowerCase(), k -> new CopyOnWriteArraySet<>())
-                    .add(subCommand);
+            this.registerSubCommand(commandName, subCommand);
         }
         this.maxParameterCount = Math.max(subCommand.getMaxParameterCount(), this.maxParameterCount);
         this.requireInputParameterCount = Math.max(subCommand.getRequireInputParameterCount(), this.requireInputParameterCount);
     }
 
+    void registerSubCommand(@NotNull String commandName, @NotNull ICommand subCommand) {
+        final String name = commandName.toLowerCase();
+        this.subCommands
+                .computeIfAbsent(name, k -> new CopyOnWriteArraySet<>())
+                .add(subCommand);
+        this.subCommandTrie.insert(name, subCommand);
+    }
+
     public void init() {
         this.init(this.getClass().getAnnotation(Command.class));
     }
@@ -323,24 +330,9 @@ public abstract class BaseCommand implements ICommand {
     }
 
     public List<String> getCommandsForCompletion(CommandContext commandContext) {
-        final String[] args = commandContext.getArgs();
-        final Set<String> commands = new HashSet<>();
-        final int cmdIndex = Math.max(0, args.length - 1);
-        String argString = joinStringArray(args, args.length);
-        for (Map.Entry<String, Set<ICommand>> entry : subCommands.entrySet()) {
-            for (ICommand value : entry.getValue()) {
-                final String key = entry.getKey();
-                if (key.startsWith(argString)) {
-                    if (!value.canAccess(commandContext)) {
-                        continue;
-                    }
-
-                    String[] split = key.split(" ");
-                    commands.add(split[cmdIndex]);
-                }
-            }
-        }
-        return new ArrayList<>(commands);
+        final List<String> commands = new ArrayList<>();
+        this.subCommandTrie.complete(commandContext.getArgs(), command -> command.canAccess(commandContext), commands);
+        return commands;
     }
 
     private Entry<ICommand, String[]> findSubCommand(CommandContext commandContext, boolean completion) {
@@ -379,37 +371,20 @@ public abstract class BaseCommand implements ICommand {
     private PossibleSearches findPossibleSubCommands(CommandContext commandContext, String[] args) {
         if (args.length == 0) {
             if (this.noArgCommand != null) {
-                return new PossibleSearches(Collections.singleton(this.noArgCommand), args, "");
+                return new PossibleSearches(Collections.singleton(this.noArgCommand), args);
             }
         } else {
-            for (int i = args.length; i >= 0; i--) {
-                final String subcommand = joinStringArray(args, i);
-
-                Set<ICommand> commands = subCommands.getOrDefault(subcommand, Collections.emptySet());
-
-                if (!commands.isEmpty()) {
-                    return new PossibleSearches(commands, CoreCommandUtil.arrayFromRange(args, i, args.length - 1), subcommand);
-                }
+            final SubCommandTrie.Match match = this.subCommandTrie.find(args);
+            if (match != null) {
+                return new PossibleSearches(match.getCommands(), CoreCommandUtil.arrayFromRange(args, match.getDepth(), args.length - 1));
             }
         }
         if (this.noArgCommand != null) {
-            return new PossibleSearches(Collections.singleton(this.noArgCommand), args, "");
+            return new PossibleSearches(Collections.singleton(this.noArgCommand), args);
         }
         return null;
     }
 
-    @NotNull
-    private static String joinStringArray(String[] args, int i) {
-        final StringBuilder builder = new StringBuilder();
-        for (int j = 0; j < i; j++) {
-            builder.append(args[j]);
-            if (j != i - 1) {
-                builder.append(" ");
-            }
-        }
-        return builder.toString().toLowerCase();
-    }
-
     private static <T> T getFirstElement(Iterable<T> iterable) {
         if (iterable == null) {
             return null;
@@ -439,7 +414,6 @@ public abstract class BaseCommand implements ICommand {
 
         private final Set<ICommand> possibleCommands;
         private final String[] args;
-        private final String subCommand;
 
     }
 
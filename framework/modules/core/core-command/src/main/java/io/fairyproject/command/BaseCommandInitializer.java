@@ -16,7 +16,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -117,9 +116,7 @@ public class BaseCommandInitializer {
                         } else if (baseCommand.subCommands.containsKey(name.toLowerCase())) {
                             Log.error("Duplicate sub command name " + name);
                         } else {
-                            baseCommand.subCommands
-                                    .computeIfAbsent(name.toLowerCase(), k -> new CopyOnWriteArraySet<>())
-                                    .add(commandMeta);
+                            baseCommand.registerSubCommand(name, commandMeta);
                             register = true;
                         }
                     }
@@ -29,11 +29,15 @@ import io.fairyproject.command.annotation.*;
 import io.fairyproject.command.argument.ArgCompletionHolder;
 import io.fairyproject.command.argument.ArgMeta;
 import io.fairyproject.command.exception.ArgTransformException;
+import io.fairyproject.command.parameter.ArgTransformer;
+import io.fairyproject.command.util.CommandInvoker;
 import io.fairyproject.command.util.CoreCommandUtil;
 import io.fairyproject.util.RV;
 import io.fairyproject.util.Stacktrace;
 import io.fairyproject.util.StringUtil;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -53,6 +57,7 @@ public class CommandMeta implements ICommand {
     private final BaseCommand baseCommand;
     private final Class<?> contextClass;
     private final Method method;
+    private final CommandInvoker invoker;
     private final PresenceProvider presenceProvider;
     private final boolean displayOnPermission;
     private final int order;
@@ -60,10 +65,15 @@ public class CommandMeta implements ICommand {
     private int requireInputParameterCount;
     private int maxParameterCount;
 
+    // the transformer of every argument, resolved again whenever the transformers of the command service change
+    @Getter(AccessLevel.NONE)
+    private volatile ResolvedTransformers transformers;
+
     public CommandMeta(Command annotation, Method method, BaseCommand command) throws IllegalAccessException {
         this.arguments = new ArrayList<>();
         this.baseCommand = command;
         this.method = method;
+        this.invoker = CommandInvoker.create(method, command);
         Class<?>[] parametersClasses = method.getParameterTypes();
 
         this.contextClass = parametersClasses[0];
@@ -239,12 +249,12 @@ public class CommandMeta implements ICommand {
             return;
         }
 
-        List<Object> transformedParameters = new ArrayList<>();
-
-        transformedParameters.add(commandContext);
+        final ArgTransformer<?>[] transformers = this.resolveTransformers();
+        final Object[] transformedParameters = new Object[transformers.length + 1];
+        transformedParameters[0] = commandContext;
 
-        for (int i = 0; i < this.getArguments().size(); i++) {
-            ArgMeta parameter = getArguments().get(i);
+        for (int i = 0; i < transformers.length; i++) {
+            ArgMeta parameter = this.arguments.get(i);
             String passedParameter = (i < arguments.length ? arguments[i] : parameter.getDefaultValue()).trim();
             if (i >= arguments.length &&
                     (parameter.getDefaultValue() == null || parameter.getDefaultValue().isEmpty())) {
@@ -256,7 +266,7 @@ public class CommandMeta implements ICommand {
             }
             Object result;
             try {
-                result = CommandService.INSTANCE.transformParameter(commandContext, passedParameter, parameter.getParameterClass());
+                result = transformers[i].transform(commandContext, passedParameter);
             } catch (ArgTransformException ex) {
                 this.baseCommand.onArgumentFailed(commandContext, passedParameter, ex.getMessage());
                 return;
@@ -265,20 +275,35 @@ public class CommandMeta implements ICommand {
                 commandContext.sendMessage(MessageType.INFO, this.getUsage(commandContext));
                 return;
             }
-            transformedParameters.add(result);
+            transformedParameters[i + 1] = result;
             if (parameter.isWildcard()) {
                 break;
             }
         }
 
         try {
-            this.method.invoke(this.baseCommand, transformedParameters.toArray());
+            this.invoker.invoke(transformedParameters);
         } catch (Throwable e) {
             commandContext.sendMessage(MessageType.ERROR, "Exception thrown: " + e.getMessage());
             Stacktrace.print(e);
         }
     }
 
+    private ArgTransformer<?>[] resolveTransformers() {
+        final CommandService commandService = CommandService.INSTANCE;
+        final int version = commandService.getTransformerVersion();
+        ResolvedTransformers resolved = this.transformers;
+        if (resolved == null || resolved.version != version) {
+            ArgTransformer<?>[] transformers = new ArgTransformer<?>[this.arguments.size()];
+            for (int i = 0; i < transformers.length; i++) {
+                transformers[i] = commandService.resolveArgTransformer(this.arguments.get(i).getParameterClass());
+            }
+            resolved = new ResolvedTransformers(version, transformers);
+            this.transformers = resolved;
+        }
+        return resolved.transformers;
+    }
+
     public List<String> completeCommand(CommandContext commandContext) {
         final String[] args = commandContext.getArgs();
         if (!this.canAccess(commandContext) || args.length == 0 || this.getParameterCount() == 0) {
@@ -320,4 +345,10 @@ public class CommandMeta implements ICommand {
         return (stringBuilder.toString().trim());
     }
 
+    @RequiredArgsConstructor
+    private static class ResolvedTransformers {
+        private final int version;
+        private final ArgTransformer<?>[] transformers;
+    }
+
 }
@@ -28,14 +28,15 @@ import io.fairyproject.Debug;
 import io.fairyproject.command.annotation.Command;
 import io.fairyproject.command.annotation.CommandPresence;
 import io.fairyproject.command.argument.ArgCompletionHolder;
-import io.fairyproject.command.exception.ArgTransformException;
 import io.fairyproject.command.parameter.ArgTransformer;
+import io.fairyproject.command.parameter.impl.EnumArgTransformer;
 import io.fairyproject.container.ContainerContext;
 import io.fairyproject.container.InjectableComponent;
 import io.fairyproject.container.PostInitialize;
 import io.fairyproject.container.PreInitialize;
 import io.fairyproject.container.collection.ContainerObjCollector;
 import io.fairyproject.util.PreProcessBatch;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -43,8 +44,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * TODO:
@@ -57,9 +57,37 @@ public class CommandService {
 
     public static CommandService INSTANCE;
 
+    private static final ArgTransformer<String> STRING_TRANSFORMER = new ArgTransformer<String>() {
+        @Override
+        public Class[] type() {
+            return new Class[] {String.class};
+        }
+
+        @Override
+        public String transform(CommandContext commandContext, String source) {
+            return source;
+        }
+    };
+    private static final ArgTransformer<Object> NULL_TRANSFORMER = new ArgTransformer<Object>() {
+        @Override
+        public Class[] type() {
+            return new Class[0];
+        }
+
+        @Override
+        public Object transform(CommandContext commandContext, String source) {
+            return null;
+        }
+    };
+
     private final ContainerContext context;
 
     private Map<Class<?>, ArgTransformer<?>> parameters;
+    @Getter(AccessLevel.NONE)
+    private final Map<Class<?>, ArgTransformer<?>> enumTransformers = new ConcurrentHashMap<>();
+    // bumped whenever a transformer is registered or removed, so pre-resolved transformers know when to resolve again
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger transformerVersion = new AtomicInteger();
     private Map<Class<?>, PresenceProvider<?>> presenceProvidersByHolder;
     private Map<Class<?>, PresenceProvider<?>> defaultPresenceProviders;
     private Map<String, ArgCompletionHolder> tabCompletionHolders;
@@ -129,12 +157,18 @@ public class CommandService {
         for (Class<?> type : parameterHolder.type()) {
             this.parameters.put(type, parameterHolder);
         }
+        this.transformerVersion.incrementAndGet();
     }
 
     public void unregisterArgTransformer(ArgTransformer<?> parameterHolder) {
         for (Class<?> type : parameterHolder.type()) {
             this.parameters.remove(type, parameterHolder);
         }
+        this.transformerVersion.incrementAndGet();
+    }
+
+    public int getTransformerVersion() {
+        return this.transformerVersion.get();
     }
 
     @SneakyThrows
@@ -181,28 +215,29 @@ public class CommandService {
     }
 
     public Object transformParameter(CommandContext event, String source, Class type) {
+        return this.resolveArgTransformer(type).transform(event, source);
+    }
+
+    /**
+     * Resolve the transformer {@link #transformParameter} would use for the type, to be kept by the caller
+     * for as long as {@link #getTransformerVersion()} doesn't change.
+     * Strings are passed through, and a type without transformer results in null.
+     */
+    public ArgTransformer<?> resolveArgTransformer(Class<?> type) {
         if (type == String.class) {
-            return source;
+            return STRING_TRANSFORMER;
         }
 
         ArgTransformer<?> holder = this.parameters.getOrDefault(type, null);
         if (holder != null) {
-            return holder.transform(event, source);
+            return holder;
         }
 
         if (type.isEnum()) {
-            try {
-                return Enum.valueOf(type, source);
-            } catch (IllegalArgumentException ignored) {
-                throw new ArgTransformException("Unmatched type: " + Stream.of(type.getEnumConstants())
-                        .map(obj -> (Enum<?>) obj)
-                        .map(Enum::name)
-                        .collect(Collectors.joining(", "))
-                );
-            }
+            return this.enumTransformers.computeIfAbsent(type, EnumArgTransformer::new);
         }
 
-        return null;
+        return NULL_TRANSFORMER;
     }
 
     public ArgCompletionHolder getTabCompletionHolder(String name) {
@@ -0,0 +1,129 @@
+package io.fairyproject.command;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Predicate;
+
+/**
+ * The sub command names of a {@link BaseCommand} split into words, a name like {@code "team invite"} being a path of two edges.
+ * Every node keeps its child words sorted so the completion of a partial word is a binary search instead of a scan over every name,
+ * and the commands reachable below it so a completion can be filtered by access without walking the subtree.
+ */
+final class SubCommandTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * @param name the lower cased name of the sub command, words separated by a single space
+     */
+    synchronized void insert(@NotNull String name, @NotNull ICommand command) {
+        Node node = this.root;
+        node.reachable.addIfAbsent(command);
+        if (!name.isEmpty()) {
+            for (String word : name.split(" ", -1)) {
+                Node child = node.children.get(word);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(word, child);
+                    node.sortWords();
+                }
+                node = child;
+                node.reachable.addIfAbsent(command);
+            }
+        }
+        node.commands.add(command);
+    }
+
+    /**
+     * Find the sub commands named by the longest prefix of the arguments
+     *
+     * @return the match, or null if no prefix of the arguments names a sub command
+     */
+    @Nullable
+    Match find(@NotNull String[] args) {
+        Node node = this.root;
+        Match match = node.commands.isEmpty() ? null : new Match(node.commands, 0);
+        for (int i = 0; i < args.length; i++) {
+            node = node.children.get(args[i].toLowerCase());
+            if (node == null)
+                break;
+
+            if (!node.commands.isEmpty())
+                match = new Match(node.commands, i + 1);
+        }
+        return match;
+    }
+
+    /**
+     * Collect the words that can follow the arguments, the last argument being the partial word being typed
+     *
+     * @param filter only words leading to at least one command passing the filter are collected
+     */
+    void complete(@NotNull String[] args, @NotNull Predicate<ICommand> filter, @NotNull Collection<String> result) {
+        Node node = this.root;
+        final int last = args.length - 1;
+        for (int i = 0; i < last; i++) {
+            node = node.children.get(args[i].toLowerCase());
+            if (node == null)
+                return;
+        }
+
+        final String prefix = last >= 0 ? args[last].toLowerCase() : "";
+        final String[] words = node.words;
+        for (int i = lowerBound(words, prefix); i < words.length && words[i].startsWith(prefix); i++) {
+            final Node child = node.children.get(words[i]);
+            for (ICommand command : child.reachable) {
+                if (filter.test(command)) {
+                    result.add(words[i]);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int lowerBound(String[] words, String prefix) {
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    static final class Match {
+
+        private final Set<ICommand> commands;
+        // the number of arguments consumed by the sub command name
+        private final int depth;
+
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new ConcurrentHashMap<>(4);
+        private final Set<ICommand> commands = new CopyOnWriteArraySet<>();
+        private final CopyOnWriteArrayList<ICommand> reachable = new CopyOnWriteArrayList<>();
+        private volatile String[] words = new String[0];
+
+        private void sortWords() {
+            String[] words = this.children.keySet().toArray(new String[0]);
+            Arrays.sort(words);
+            this.words = words;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.fairyproject.command.parameter.impl;
+
+import io.fairyproject.command.CommandContext;
+import io.fairyproject.command.parameter.ArgTransformer;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The fallback transformer of enum parameters without a registered {@link ArgTransformer}, created per enum type by the command service.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class EnumArgTransformer implements ArgTransformer<Enum<?>> {
+
+    private final Class type;
+    private final String constants;
+
+    public EnumArgTransformer(Class<?> type) {
+        this.type = type;
+        this.constants = Stream.of(type.getEnumConstants())
+                .map(obj -> ((Enum<?>) obj).name())
+                .collect(Collectors.joining(", "));
+    }
+
+    @Override
+    public Class[] type() {
+        return new Class[] {this.type};
+    }
+
+    @Override
+    public Enum<?> transform(CommandContext commandContext, String source) {
+        try {
+            return Enum.valueOf(this.type, source);
+        } catch (IllegalArgumentException ignored) {
+            return this.fail("Unmatched type: " + this.constants);
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package io.fairyproject.command.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Calls a command method on its command instance.
+ * Where the runtime allows it, the call is compiled once into a lambda implementing one of the fixed arity interfaces below
+ * through {@link LambdaMetafactory}, so executing a command is a plain interface call instead of {@link Method#invoke}.
+ * Otherwise, like on Java 8 or for a method with too many parameters, it falls back to reflection.
+ */
+public abstract class CommandInvoker {
+
+    private static final Method PRIVATE_LOOKUP_IN = findPrivateLookupIn();
+    private static final Class<?>[] ARITIES = {
+            Arity1.class, Arity2.class, Arity3.class, Arity4.class, Arity5.class, Arity6.class, Arity7.class, Arity8.class
+    };
+
+    /**
+     * @param args the arguments of the method, exactly as many as the method has parameters
+     */
+    public abstract void invoke(@NotNull Object[] args) throws Throwable;
+
+    /**
+     * @return true if the call was compiled, false if it goes through reflection
+     */
+    public abstract boolean isCompiled();
+
+    @NotNull
+    public static CommandInvoker create(@NotNull Method method, @NotNull Object target) {
+        method.setAccessible(true);
+
+        final int parameterCount = method.getParameterCount();
+        if (PRIVATE_LOOKUP_IN != null && !Modifier.isStatic(method.getModifiers()) && parameterCount >= 1 && parameterCount <= ARITIES.length) {
+            try {
+                return compile(method, target, ARITIES[parameterCount - 1]);
+            } catch (Throwable ignored) {
+                // not accessible from a lambda, like a method of a class the lookup can't see
+            }
+        }
+        return new Reflective(method, target);
+    }
+
+    private static CommandInvoker compile(Method method, Object target, Class<?> arity) throws Throwable {
+        final Class<?> owner = method.getDeclaringClass();
+        final MethodHandles.Lookup lookup = (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, owner, MethodHandles.lookup());
+        final MethodHandle handle = lookup.unreflect(method);
+
+        final Class<?>[] parameters = method.getParameterTypes();
+        final Class<?>[] erased = new Class<?>[parameters.length + 1];
+        final Class<?>[] instantiated = new Class<?>[parameters.length + 1];
+        erased[0] = Object.class;
+        instantiated[0] = owner;
+        for (int i = 0; i < parameters.length; i++) {
+            erased[i + 1] = Object.class;
+            instantiated[i + 1] = wrap(parameters[i]);
+        }
+
+        final CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "invoke",
+                MethodType.methodType(arity),
+                MethodType.methodType(void.class, erased),
+                handle,
+                MethodType.methodType(void.class, instantiated)
+        );
+        return new Compiled(target, (Spreader) site.getTarget().invoke());
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static Method findPrivateLookupIn() {
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException e) {
+            // java 8
+            return null;
+        }
+    }
+
+    private static final class Compiled extends CommandInvoker {
+
+        private final Object target;
+        private final Spreader spreader;
+
+        private Compiled(Object target, Spreader spreader) {
+            this.target = target;
+            this.spreader = spreader;
+        }
+
+        @Override
+        public void invoke(@NotNull Object[] args) {
+            this.spreader.spread(this.target, args);
+        }
+
+        @Override
+        public boolean isCompiled() {
+            return true;
+        }
+    }
+
+    private static final class Reflective extends CommandInvoker {
+
+        private final Method method;
+        private final Object target;
+
+        private Reflective(Method method, Object target) {
+            this.method = method;
+            this.target = target;
+        }
+
+        @Override
+        public void invoke(@NotNull Object[] args) throws Throwable {
+            try {
+                this.method.invoke(this.target, args);
+            } catch (InvocationTargetException e) {
+                // rethrow what the command threw, the same as a compiled call
+                throw e.getCause();
+            }
+        }
+
+        @Override
+        public boolean isCompiled() {
+            return false;
+        }
+    }
+
+    // only public so the generated lambdas, defined next to the command class, can implement them
+
+    public interface Spreader {
+        void spread(Object target, Object[] a);
+    }
+
+    @FunctionalInterface
+    public interface Arity1 extends Spreader {
+        void invoke(Object target, Object a0);
+
+        @Override
+        default void spread(Object target, Object[] a) {
+            this.invoke(target, a[0]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Arity2 extends Spreader {
+        void invoke(Object target, Object a0, Object a1);
+
+        @Override
+        default void spread(Object target, Object[] a) {
+            this.invoke(target, a[0], a[1]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Arity3 extends Spreader {
+        void invoke(Object target, Object a0, Object a1, Object a2);
+
+        @Override
+        default void spread(Object target, Object[] a) {
+            this.invoke(target, a[0], a[1], a[2]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Arity4 extends Spreader {
+        void invoke(Object target, Object a0, Object a1, Object a2, Object a3);
+
+        @Override
+        default void spread(Object target, Object[] a) {
+            this.invoke(target, a[0], a[1], a[2], a[3]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Arity5 extends Spreader {
+        void invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4);
+
+        @Override
+        default void spread(Object target, Object[] a) {
+            this.invoke(target, a[0], a[1], a[2], a[3], a[4]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Arity6 extends Spreader {
+        void invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5);
+
+        @Override
+        default void spread(Object target, Object[] a) {
+            this.invoke(target, a[0], a[1], a[2], a[3], a[4], a[5]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Arity7 extends Spreader {
+        void invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6);
+
+        @Override
+        default void spread(Object target, Object[] a) {
+            this.invoke(target, a[0], a[1], a[2], a[3], a[4], a[5], a[6]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Arity8 extends Spreader {
+        void invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6, Object a7);
+
+        @Override
+        default void spread(Object target, Object[] a) {
+            this.invoke(target, a[0], a[1], a[2], a[3], a[4], a[5], a[6], a[7]);
+        }
+    }
+
+}
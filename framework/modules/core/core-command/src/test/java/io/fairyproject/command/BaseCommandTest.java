@@ -0,0 +1,104 @@
+package io.fairyproject.command;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseCommandTest {
+
+    private TestCommands.Recording invite;
+    private TestCommands.Recording info;
+    private TestCommands.Recording teamInvite;
+    private TestCommands.Recording hidden;
+    private TestCommands.Parent command;
+
+    @BeforeEach
+    void setUp() {
+        invite = new TestCommands.Recording().completions(Arrays.asList("bob", "alice"));
+        info = new TestCommands.Recording();
+        teamInvite = new TestCommands.Recording(2, true);
+        hidden = new TestCommands.Recording(1, false);
+        command = new TestCommands.Parent()
+                .sub(invite, "invite", "inv")
+                .sub(info, "Info")
+                .sub(teamInvite, "team invite")
+                .sub(hidden, "internal");
+    }
+
+    @Test
+    void dispatchesWithRemainingArguments() {
+        command.execute(new CommandContext(new String[] {"invite", "bob"}));
+
+        assertEquals(1, invite.getExecutions().size());
+        assertArrayEquals(new String[] {"bob"}, invite.getExecutions().get(0));
+    }
+
+    @Test
+    void dispatchIsCaseInsensitive() {
+        command.execute(new CommandContext(new String[] {"INVITE", "bob"}));
+        command.execute(new CommandContext(new String[] {"info"}));
+
+        assertEquals(1, invite.getExecutions().size());
+        assertEquals(1, info.getExecutions().size());
+    }
+
+    @Test
+    void dispatchesAliases() {
+        command.execute(new CommandContext(new String[] {"inv", "bob"}));
+
+        assertEquals(1, invite.getExecutions().size());
+        assertArrayEquals(new String[] {"bob"}, invite.getExecutions().get(0));
+    }
+
+    @Test
+    void dispatchesMultiWordNames() {
+        command.execute(new CommandContext(new String[] {"team", "Invite", "bob", "red"}));
+
+        assertEquals(1, teamInvite.getExecutions().size());
+        assertArrayEquals(new String[] {"bob", "red"}, teamInvite.getExecutions().get(0));
+        assertTrue(invite.getExecutions().isEmpty());
+    }
+
+    @Test
+    void missingSubCommandShowsHelp() {
+        command.execute(new CommandContext(new String[] {"unknown"}));
+        command.execute(new CommandContext(new String[] {"team"}));
+        command.execute(new CommandContext(new String[0]));
+
+        assertEquals(3, command.getHelpCount());
+        assertTrue(invite.getExecutions().isEmpty());
+        assertTrue(teamInvite.getExecutions().isEmpty());
+    }
+
+    @Test
+    void completesSubCommandNames() {
+        assertEquals(new HashSet<>(Arrays.asList("inv", "invite", "info")), complete("in"));
+        assertEquals(new HashSet<>(Arrays.asList("inv", "invite", "info")), complete("IN"));
+        assertEquals(Collections.singleton("team"), complete("t"));
+        assertEquals(Collections.singleton("invite"), complete("team", "i"));
+        assertEquals(Collections.emptySet(), complete("x"));
+    }
+
+    @Test
+    void completionSkipsInaccessibleSubCommands() {
+        assertEquals(Collections.emptySet(), complete("inte"));
+        assertFalse(complete("").contains("internal"));
+    }
+
+    @Test
+    void completesArgumentsOfSubCommand() {
+        assertEquals(new HashSet<>(Arrays.asList("bob", "alice")), complete("invite", "b"));
+        assertEquals(new HashSet<>(Arrays.asList("bob", "alice")), complete("Inv", ""));
+    }
+
+    private Set<String> complete(String... args) {
+        return new HashSet<>(command.completeCommand(new CommandContext(args)));
+    }
+
+}
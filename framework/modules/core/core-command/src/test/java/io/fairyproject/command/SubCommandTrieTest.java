@@ -0,0 +1,101 @@
+package io.fairyproject.command;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubCommandTrieTest {
+
+    private SubCommandTrie trie;
+    private ICommand team;
+    private ICommand invite;
+    private ICommand info;
+    private ICommand kick;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SubCommandTrie();
+        team = new TestCommands.Recording();
+        invite = new TestCommands.Recording();
+        info = new TestCommands.Recording();
+        kick = new TestCommands.Recording();
+
+        trie.insert("team", team);
+        trie.insert("team invite", invite);
+        trie.insert("info", info);
+        trie.insert("kick", kick);
+        trie.insert("k", kick);
+    }
+
+    @Test
+    void findsLongestMatchingPrefix() {
+        SubCommandTrie.Match match = trie.find(new String[] {"team", "invite", "bob"});
+
+        assertNotNull(match);
+        assertEquals(Collections.singleton(invite), match.getCommands());
+        assertEquals(2, match.getDepth());
+
+        match = trie.find(new String[] {"team", "bob"});
+        assertNotNull(match);
+        assertEquals(Collections.singleton(team), match.getCommands());
+        assertEquals(1, match.getDepth());
+    }
+
+    @Test
+    void findIsCaseInsensitive() {
+        SubCommandTrie.Match match = trie.find(new String[] {"TEAM", "Invite"});
+
+        assertNotNull(match);
+        assertEquals(Collections.singleton(invite), match.getCommands());
+        assertEquals(2, match.getDepth());
+    }
+
+    @Test
+    void aliasesFindTheSameCommand() {
+        assertEquals(Collections.singleton(kick), trie.find(new String[] {"k"}).getCommands());
+        assertEquals(Collections.singleton(kick), trie.find(new String[] {"kick"}).getCommands());
+    }
+
+    @Test
+    void findWithoutMatchIsNull() {
+        assertNull(trie.find(new String[] {"unknown"}));
+        assertNull(trie.find(new String[] {"tea"}));
+        assertNull(trie.find(new String[0]));
+    }
+
+    @Test
+    void completesPartialWordInOrder() {
+        assertEquals(Arrays.asList("info"), complete(c -> true, "in"));
+        assertEquals(Arrays.asList("k", "kick"), complete(c -> true, "k"));
+        assertEquals(Arrays.asList("info", "k", "kick", "team"), complete(c -> true, ""));
+        assertEquals(Collections.emptyList(), complete(c -> true, "x"));
+    }
+
+    @Test
+    void completesNextWordOfMultiWordName() {
+        assertEquals(Arrays.asList("invite"), complete(c -> true, "team", "i"));
+        assertEquals(Arrays.asList("invite"), complete(c -> true, "TEAM", "I"));
+        assertEquals(Collections.emptyList(), complete(c -> true, "unknown", ""));
+    }
+
+    @Test
+    void completionSkipsWordsWithoutAccessibleCommand() {
+        // "team" stays completable as long as one command below it passes
+        assertEquals(Arrays.asList("info", "team"), complete(c -> c != kick && c != team, ""));
+        assertEquals(Arrays.asList("info"), complete(c -> c == info, ""));
+    }
+
+    private List<String> complete(Predicate<ICommand> filter, String... args) {
+        List<String> result = new ArrayList<>();
+        trie.complete(args, filter, result);
+        return result;
+    }
+
+}
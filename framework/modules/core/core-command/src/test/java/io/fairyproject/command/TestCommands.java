@@ -0,0 +1,125 @@
+package io.fairyproject.command;
+
+import io.fairyproject.command.argument.ArgProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+final class TestCommands {
+
+    private TestCommands() {
+    }
+
+    /**
+     * A command with sub commands added directly, recording when the help is shown
+     */
+    static class Parent extends BaseCommand {
+
+        private int helpCount;
+
+        Parent() {
+            this.baseArgs = new ArgProperty<?>[0];
+            this.names = new String[] {"parent"};
+            this.presenceProvider = new PresenceProvider<CommandContext>() {
+                @Override
+                public Class<CommandContext> type() {
+                    return CommandContext.class;
+                }
+
+                @Override
+                public void sendMessage(CommandContext commandContext, MessageType messageType, String... messages) {
+                }
+            };
+        }
+
+        Parent sub(ICommand command, String... names) {
+            this.addSubCommand(names, command);
+            return this;
+        }
+
+        int getHelpCount() {
+            return this.helpCount;
+        }
+
+        @Override
+        public void onHelp(CommandContext commandContext) {
+            this.helpCount++;
+        }
+    }
+
+    /**
+     * A sub command recording the arguments it was executed with
+     */
+    static class Recording implements ICommand {
+
+        private final int maxParameterCount;
+        private final boolean accessible;
+        private final List<String[]> executions = new ArrayList<>();
+        private List<String> completions = Collections.emptyList();
+
+        Recording() {
+            this(1, true);
+        }
+
+        Recording(int maxParameterCount, boolean accessible) {
+            this.maxParameterCount = maxParameterCount;
+            this.accessible = accessible;
+        }
+
+        Recording completions(List<String> completions) {
+            this.completions = completions;
+            return this;
+        }
+
+        List<String[]> getExecutions() {
+            return this.executions;
+        }
+
+        @Override
+        public int order() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxParameterCount() {
+            return this.maxParameterCount;
+        }
+
+        @Override
+        public int getRequireInputParameterCount() {
+            return 0;
+        }
+
+        @Override
+        public boolean isDisplayOnPermission() {
+            return false;
+        }
+
+        @Override
+        public String getUsage(CommandContext commandContext) {
+            return "";
+        }
+
+        @Override
+        public void execute(CommandContext commandContext) {
+            this.executions.add(commandContext.getArgs());
+        }
+
+        @Override
+        public boolean canAccess(CommandContext commandContext) {
+            return this.accessible;
+        }
+
+        @Override
+        public List<String> completeCommand(CommandContext commandContext) {
+            return this.completions;
+        }
+
+        @Override
+        public SubCommandType getSubCommandType() {
+            return SubCommandType.METHOD_LEVEL;
+        }
+    }
+
+}
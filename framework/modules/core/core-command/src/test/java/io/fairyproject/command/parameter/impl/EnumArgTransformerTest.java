@@ -0,0 +1,43 @@
+package io.fairyproject.command.parameter.impl;
+
+import io.fairyproject.command.CommandContext;
+import io.fairyproject.command.exception.ArgTransformException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumArgTransformerTest {
+
+    private final EnumArgTransformer transformer = new EnumArgTransformer(Mode.class);
+    private final CommandContext context = new CommandContext(new String[0]);
+
+    @Test
+    void resolvesExactName() {
+        assertSame(Mode.SURVIVAL, transformer.transform(context, "SURVIVAL"));
+        assertSame(Mode.HARD_CORE, transformer.transform(context, "HARD_CORE"));
+    }
+
+    @Test
+    void otherCaseIsNotMatched() {
+        assertThrows(ArgTransformException.class, () -> transformer.transform(context, "survival"));
+    }
+
+    @Test
+    void unknownValueListsTheConstants() {
+        ArgTransformException exception = assertThrows(ArgTransformException.class, () -> transformer.transform(context, "adventure"));
+
+        assertTrue(exception.getMessage().contains("SURVIVAL, CREATIVE, HARD_CORE"));
+    }
+
+    @Test
+    void typeIsTheEnum() {
+        assertArrayEquals(new Class[] {Mode.class}, transformer.type());
+    }
+
+    private enum Mode {
+        SURVIVAL,
+        CREATIVE,
+        HARD_CORE
+    }
+
+}
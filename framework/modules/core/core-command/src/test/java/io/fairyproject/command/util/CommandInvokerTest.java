@@ -0,0 +1,174 @@
+package io.fairyproject.command.util;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandInvokerTest {
+
+    @Test
+    void compilesEveryArity() throws Throwable {
+        assumeLambdasSupported();
+
+        for (int arity = 1; arity <= 8; arity++) {
+            Target target = new Target();
+            Object[] args = new Object[arity];
+            for (int i = 0; i < arity; i++) {
+                args[i] = "arg" + i;
+            }
+
+            CommandInvoker invoker = CommandInvoker.create(stringMethod(arity), target);
+            invoker.invoke(args);
+
+            assertTrue(invoker.isCompiled(), "arity " + arity);
+            assertEquals(Arrays.asList(args), target.calls);
+        }
+    }
+
+    @Test
+    void compiledCallUnboxesPrimitivesAndReachesPrivateMethods() throws Throwable {
+        assumeLambdasSupported();
+
+        Target target = new Target();
+        CommandInvoker invoker = CommandInvoker.create(Target.class.getDeclaredMethod("primitives", String.class, int.class, boolean.class), target);
+        invoker.invoke(new Object[] {"bob", 3, true});
+
+        assertTrue(invoker.isCompiled());
+        assertEquals(Arrays.asList("bob", 3, true), target.calls);
+    }
+
+    @Test
+    void compiledCallRethrowsCommandException() {
+        assumeLambdasSupported();
+
+        CommandInvoker invoker = CommandInvoker.create(method("fail", String.class), new Target());
+
+        assertTrue(invoker.isCompiled());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> invoker.invoke(new Object[] {"boom"}));
+        assertEquals("boom", exception.getMessage());
+    }
+
+    @Test
+    void staticMethodFallsBackToReflection() throws Throwable {
+        CommandInvoker invoker = CommandInvoker.create(method("record", String.class), new Target());
+        invoker.invoke(new Object[] {"static"});
+
+        assertFalse(invoker.isCompiled());
+        assertEquals("static", Target.lastStatic);
+    }
+
+    @Test
+    void tooManyParametersFallBackToReflection() throws Throwable {
+        Target target = new Target();
+        Class<?>[] types = new Class<?>[9];
+        Arrays.fill(types, String.class);
+        Object[] args = {"a", "b", "c", "d", "e", "f", "g", "h", "i"};
+
+        CommandInvoker invoker = CommandInvoker.create(method("nine", types), target);
+        invoker.invoke(args);
+
+        assertFalse(invoker.isCompiled());
+        assertEquals(Arrays.asList(args), target.calls);
+    }
+
+    @Test
+    void reflectiveCallRethrowsCommandException() {
+        CommandInvoker invoker = CommandInvoker.create(method("failStatic", String.class), new Target());
+
+        assertFalse(invoker.isCompiled());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> invoker.invoke(new Object[] {"boom"}));
+        assertEquals("boom", exception.getMessage());
+    }
+
+    private static void assumeLambdasSupported() {
+        boolean supported;
+        try {
+            MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            supported = true;
+        } catch (NoSuchMethodException e) {
+            supported = false;
+        }
+        Assumptions.assumeTrue(supported, "compiled invokers need Java 9+");
+    }
+
+    private static Method stringMethod(int arity) {
+        Class<?>[] types = new Class<?>[arity];
+        Arrays.fill(types, String.class);
+        return method("arity" + arity, types);
+    }
+
+    private static Method method(String name, Class<?>... types) {
+        try {
+            return Target.class.getDeclaredMethod(name, types);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Target {
+
+        private static String lastStatic;
+        private final List<Object> calls = new ArrayList<>();
+
+        public void arity1(String a0) {
+            calls.addAll(Arrays.asList(a0));
+        }
+
+        public void arity2(String a0, String a1) {
+            calls.addAll(Arrays.asList(a0, a1));
+        }
+
+        public void arity3(String a0, String a1, String a2) {
+            calls.addAll(Arrays.asList(a0, a1, a2));
+        }
+
+        public void arity4(String a0, String a1, String a2, String a3) {
+            calls.addAll(Arrays.asList(a0, a1, a2, a3));
+        }
+
+        public void arity5(String a0, String a1, String a2, String a3, String a4) {
+            calls.addAll(Arrays.asList(a0, a1, a2, a3, a4));
+        }
+
+        public void arity6(String a0, String a1, String a2, String a3, String a4, String a5) {
+            calls.addAll(Arrays.asList(a0, a1, a2, a3, a4, a5));
+        }
+
+        public void arity7(String a0, String a1, String a2, String a3, String a4, String a5, String a6) {
+            calls.addAll(Arrays.asList(a0, a1, a2, a3, a4, a5, a6));
+        }
+
+        public void arity8(String a0, String a1, String a2, String a3, String a4, String a5, String a6, String a7) {
+            calls.addAll(Arrays.asList(a0, a1, a2, a3, a4, a5, a6, a7));
+        }
+
+        public void nine(String a0, String a1, String a2, String a3, String a4, String a5, String a6, String a7, String a8) {
+            calls.addAll(Arrays.asList(a0, a1, a2, a3, a4, a5, a6, a7, a8));
+        }
+
+        private void primitives(String name, int amount, boolean flag) {
+            calls.addAll(Arrays.asList(name, amount, flag));
+        }
+
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        public static void record(String value) {
+            lastStatic = value;
+        }
+
+        public static void failStatic(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+}
@@ -28,10 +28,19 @@ import io.fairyproject.config.filter.FieldFilter;
 import io.fairyproject.config.filter.FieldFilters;
 import io.fairyproject.config.format.FieldNameFormatter;
 import io.fairyproject.config.format.FieldNameFormatters;
+import io.fairyproject.util.thread.NamedThreadFactory;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Parent class of all configurations.
@@ -41,12 +50,25 @@ import java.util.Objects;
  * @param <C> type of the configuration
  */
 public abstract class Configuration<C extends Configuration<C>> {
+    /**
+     * Writes of {@link #saveAsync()}, a single thread so saves of the same
+     * configuration are stored in the order they were requested. A daemon
+     * thread, pending writes are drained by {@link ConfigurationWriteDrainer}
+     * when the plugin is destroyed.
+     */
+    private static final ExecutorService WRITE_EXECUTOR = createWriteExecutor();
+
     /**
      * {@code Comments} object containing all class and field comments
      * of this configuration
      */
     protected final Comments comments;
     private final Properties props;
+    /**
+     * Called on the thread that wrote the file after every save, so a
+     * {@link ConfigurationWatcher} can tell these writes apart from edits
+     */
+    private final List<Runnable> writeListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a new {@code Configuration} object.
@@ -86,6 +108,48 @@ public abstract class Configuration<C extends Configuration<C>> {
         } catch (IOException e) {
             throw new ConfigurationStoreException(e);
         }
+        written();
+    }
+
+    /**
+     * Saves this {@code Configuration} without blocking on the storage.
+     * <p>
+     * The configuration is converted and serialized on the calling thread, so
+     * later changes to its fields don't affect the save, and is written on a
+     * separate thread.
+     *
+     * @return a future completed once the configuration is written, or
+     * completed exceptionally with a {@link ConfigurationStoreException}
+     * @throws ConfigurationException      if any field is not properly configured
+     * @throws ConfigurationStoreException if an I/O error occurred while
+     *                                     serializing this configuration
+     */
+    public final CompletableFuture<Void> saveAsync() {
+        ConfigurationSource.PendingWrite write;
+        try {
+            preSave();
+            FieldMapper.MappingInfo mappingInfo = FieldMapper.MappingInfo.from(this);
+            Map<String, Object> map = FieldMapper
+                    .instanceToMap(this, mappingInfo);
+            write = getSource().prepareSave(getThis(), map);
+        } catch (IOException e) {
+            throw new ConfigurationStoreException(e);
+        }
+
+        Runnable task = () -> {
+            try {
+                write.write();
+            } catch (IOException e) {
+                throw new ConfigurationStoreException(e);
+            }
+            written();
+        };
+        try {
+            return CompletableFuture.runAsync(task, WRITE_EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            // the writing thread is shut down with the plugin, write right away instead
+            return CompletableFuture.runAsync(task, Runnable::run);
+        }
     }
 
     /**
@@ -145,6 +209,41 @@ public abstract class Configuration<C extends Configuration<C>> {
         return props;
     }
 
+    void addWriteListener(Runnable listener) {
+        writeListeners.add(listener);
+    }
+
+    void removeWriteListener(Runnable listener) {
+        writeListeners.remove(listener);
+    }
+
+    private void written() {
+        for (Runnable listener : writeListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Stops the writing thread once the writes already requested are done,
+     * later saves are written on the thread requesting them.
+     *
+     * @return false if the writes didn't finish within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static boolean shutdownWrites(long timeout, TimeUnit unit) throws InterruptedException {
+        WRITE_EXECUTOR.shutdown();
+        return WRITE_EXECUTOR.awaitTermination(timeout, unit);
+    }
+
+    private static ExecutorService createWriteExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), NamedThreadFactory.builder()
+                .name("Configuration IO Thread")
+                .daemon(true)
+                .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Instances of a {@code Properties} class are used to configure different
      * aspects of a configuration.
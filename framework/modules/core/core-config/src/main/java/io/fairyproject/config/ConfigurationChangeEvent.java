@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.fairyproject.config;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Fired by a {@link ConfigurationWatcher} after values edited in the file of a
+ * {@link Configuration} have been applied to it.
+ */
+public final class ConfigurationChangeEvent {
+    private final Configuration<?> configuration;
+    private final Set<String> changedKeys;
+
+    ConfigurationChangeEvent(Configuration<?> configuration, Set<String> changedKeys) {
+        this.configuration = configuration;
+        this.changedKeys = Collections.unmodifiableSet(changedKeys);
+    }
+
+    /**
+     * Returns the configuration the changes were applied to.
+     *
+     * @return the changed configuration
+     */
+    public Configuration<?> getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Returns the formatted names of the fields whose values changed, in the
+     * order they appear in the file.
+     *
+     * @return names of the changed fields
+     */
+    public Set<String> getChangedKeys() {
+        return changedKeys;
+    }
+
+    /**
+     * Returns whether the value of the given formatted field name changed.
+     *
+     * @param key formatted name of the field
+     * @return true, if the value of the field changed
+     */
+    public boolean isChanged(String key) {
+        return changedKeys.contains(key);
+    }
+}
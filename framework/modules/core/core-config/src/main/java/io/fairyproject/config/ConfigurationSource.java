@@ -53,4 +53,34 @@ public interface ConfigurationSource<C extends Configuration<C>> {
      */
     Map<String, Object> loadConfiguration(C config)
             throws IOException;
+
+    /**
+     * Prepares the given map to be saved later, possibly on another thread.
+     * <p>
+     * Everything that depends on the state of the configuration should be done
+     * here, so the returned write only has to touch the storage. The default
+     * implementation defers the whole {@link #saveConfiguration} call.
+     *
+     * @param config the configuration that the {@code map} object represents
+     * @param map    map that is saved, not modified afterwards
+     * @return the write that stores the map
+     * @throws IOException if an I/O error occurs when preparing the {@code map}
+     */
+    default PendingWrite prepareSave(C config, Map<String, Object> map)
+            throws IOException {
+        return () -> saveConfiguration(config, map);
+    }
+
+    /**
+     * A serialized configuration waiting to be stored.
+     */
+    @FunctionalInterface
+    interface PendingWrite {
+        /**
+         * Stores the serialized configuration.
+         *
+         * @throws IOException if an I/O error occurs when storing
+         */
+        void write() throws IOException;
+    }
 }
@@ -0,0 +1,373 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.fairyproject.config;
+
+import io.fairyproject.log.Log;
+import io.fairyproject.util.thread.NamedThreadFactory;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Reloads configurations when their files are edited.
+ * <p>
+ * All files are watched by a single {@link WatchService} thread. Bursts of
+ * changes to a file are debounced, then the file is parsed on the watcher
+ * thread and compared with the current values of the configuration on the
+ * {@link Executor} given at construction, where only the changed fields are
+ * applied before the listeners receive a {@link ConfigurationChangeEvent}.
+ * Files the configuration saved itself are recognized by their checksum and
+ * not reloaded, so a save never reverts fields changed after it was made.
+ * <p>
+ * Instances of this class are opt-in, nothing is watched unless registered
+ * with {@link #watch(Configuration, Path, Consumer)}.
+ */
+public final class ConfigurationWatcher implements AutoCloseable {
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 250L;
+
+    private final long debounceNanos;
+    private final Executor executor;
+    private final Map<Path, List<Watched>> files = new ConcurrentHashMap<>();
+    private final Map<Configuration<?>, Watched> configurations = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> directories = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private WatchService watchService;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a watcher applying changes on its own watcher thread.
+     */
+    public ConfigurationWatcher() {
+        this(DEFAULT_DEBOUNCE_MILLIS, Runnable::run);
+    }
+
+    /**
+     * Constructs a watcher.
+     *
+     * @param debounceMillis how long a file has to stay untouched before it's
+     *                       reloaded
+     * @param executor       the executor changes are applied and listeners
+     *                       are called on, usually the main thread scheduler
+     */
+    public ConfigurationWatcher(long debounceMillis, Executor executor) {
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Starts watching the file of the configuration.
+     *
+     * @param configuration the configuration to update
+     * @param path          the file the configuration is loaded from
+     * @param listener      called after changes have been applied
+     * @throws ConfigurationStoreException if the directory of the file cannot
+     *                                     be watched
+     */
+    public void watch(Configuration<?> configuration, Path path, Consumer<ConfigurationChangeEvent> listener) {
+        Objects.requireNonNull(listener);
+        Path file = path.toAbsolutePath().normalize();
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("The watcher has been closed.");
+            }
+
+            Watched watched = configurations.get(configuration);
+            if (watched == null) {
+                registerDirectory(file.getParent());
+                watched = new Watched(configuration, file);
+                configurations.put(configuration, watched);
+                configuration.addWriteListener(watched.writeListener);
+                files.computeIfAbsent(file, f -> new CopyOnWriteArrayList<>()).add(watched);
+            } else if (!watched.file.equals(file)) {
+                throw new IllegalArgumentException("The configuration is already watched at " + watched.file + ".");
+            }
+            watched.listeners.add(listener);
+        }
+    }
+
+    /**
+     * Stops watching the file of the configuration.
+     *
+     * @param configuration the configuration
+     */
+    public void unwatch(Configuration<?> configuration) {
+        synchronized (lock) {
+            Watched watched = configurations.remove(configuration);
+            if (watched == null) {
+                return;
+            }
+
+            watched.cancelled = true;
+            configuration.removeWriteListener(watched.writeListener);
+            List<Watched> list = files.get(watched.file);
+            if (list != null) {
+                list.remove(watched);
+                if (list.isEmpty()) {
+                    files.remove(watched.file);
+                }
+            }
+
+            Path directory = watched.file.getParent();
+            boolean used = files.keySet().stream().anyMatch(file -> file.getParent().equals(directory));
+            if (!used) {
+                WatchKey key = directories.remove(directory);
+                if (key != null) {
+                    key.cancel();
+                }
+            }
+        }
+    }
+
+    public boolean isWatching(Configuration<?> configuration) {
+        return configurations.containsKey(configuration);
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Watched watched : configurations.values()) {
+                watched.cancelled = true;
+                watched.configuration.removeWriteListener(watched.writeListener);
+            }
+            configurations.clear();
+            files.clear();
+            directories.clear();
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    Log.warn("Failed to close the configuration watch service", e);
+                }
+            }
+        }
+    }
+
+    private void registerDirectory(Path directory) {
+        if (directories.containsKey(directory)) {
+            return;
+        }
+
+        try {
+            if (watchService == null) {
+                WatchService service = directory.getFileSystem().newWatchService();
+                NamedThreadFactory.builder()
+                        .name("Configuration Watcher Thread")
+                        .daemon(true)
+                        .build()
+                        .newThread(() -> run(service))
+                        .start();
+                watchService = service;
+            }
+            Files.createDirectories(directory);
+            // saves replace the file by moving a temporary file over it, which is seen as a creation
+            WatchKey key = directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(directory, key);
+        } catch (IOException e) {
+            throw new ConfigurationStoreException(e);
+        }
+    }
+
+    private void run(WatchService service) {
+        // the deadline of every changed file, pushed back on each change to debounce bursts
+        Map<Path, Long> pending = new HashMap<>();
+        while (!closed) {
+            WatchKey key;
+            try {
+                if (pending.isEmpty()) {
+                    key = service.take();
+                } else {
+                    long wait = Collections.min(pending.values()) - System.nanoTime();
+                    key = service.poll(Math.max(wait, 0L), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            if (key != null) {
+                Path directory = (Path) key.watchable();
+                long deadline = System.nanoTime() + debounceNanos;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        for (Path file : files.keySet()) {
+                            if (file.getParent().equals(directory)) {
+                                pending.put(file, deadline);
+                            }
+                        }
+                        continue;
+                    }
+
+                    Path file = directory.resolve((Path) event.context());
+                    if (files.containsKey(file)) {
+                        pending.put(file, deadline);
+                    }
+                }
+                key.reset();
+            }
+
+            long now = System.nanoTime();
+            Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, Long> entry = iterator.next();
+                if (entry.getValue() - now <= 0) {
+                    iterator.remove();
+                    reload(entry.getKey());
+                }
+            }
+        }
+    }
+
+    private void reload(Path file) {
+        List<Watched> list = files.get(file);
+        if (list == null || !Files.isRegularFile(file)) {
+            return;
+        }
+
+        long checksum = checksum(file);
+        for (Watched watched : list) {
+            if (checksum != -1L && watched.writtenChecksum == checksum) {
+                // the last save of the configuration itself, its fields may have moved on since
+                continue;
+            }
+
+            Map<String, Object> map;
+            try {
+                map = watched.configuration.loadEntries();
+            } catch (IOException | RuntimeException e) {
+                // most likely saved halfway through an edit, the next save triggers another reload
+                Log.warn("Failed to parse " + file + ", keeping the current values", e);
+                continue;
+            }
+            if (map == null) {
+                continue;
+            }
+
+            try {
+                executor.execute(() -> apply(watched, map));
+            } catch (RejectedExecutionException e) {
+                Log.warn("Failed to schedule the reload of " + file, e);
+            }
+        }
+    }
+
+    private void apply(Watched watched, Map<String, Object> map) {
+        if (watched.cancelled) {
+            return;
+        }
+
+        Configuration<?> configuration = watched.configuration;
+        Map<String, Object> changed = new LinkedHashMap<>();
+        try {
+            FieldMapper.MappingInfo mappingInfo = FieldMapper.MappingInfo.from(configuration);
+            Map<String, Object> current = FieldMapper.instanceToMap(configuration, mappingInfo);
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                Object value = entry.getValue();
+                if (value != null && current.containsKey(entry.getKey()) && !sameValue(value, current.get(entry.getKey()))) {
+                    changed.put(entry.getKey(), value);
+                }
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+
+            FieldMapper.instanceFromMap(configuration, changed, mappingInfo);
+            configuration.postLoad();
+        } catch (RuntimeException e) {
+            Log.error("Failed to apply the changes of " + watched.file, e);
+            return;
+        }
+
+        ConfigurationChangeEvent event = new ConfigurationChangeEvent(configuration, new LinkedHashSet<>(changed.keySet()));
+        for (Consumer<ConfigurationChangeEvent> listener : watched.listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                Log.error("A listener failed to handle the changes of " + watched.file, e);
+            }
+        }
+    }
+
+    /**
+     * Compare a parsed value with a converted field value, a number read from the
+     * file isn't necessarily boxed in the same type as the field
+     */
+    private static boolean sameValue(Object parsed, Object current) {
+        if (parsed instanceof Number && current instanceof Number
+                && parsed.getClass() != current.getClass()) {
+            Number a = (Number) parsed;
+            Number b = (Number) current;
+            if (isIntegral(a) && isIntegral(b)) {
+                return a.longValue() == b.longValue();
+            }
+            return Double.compare(a.doubleValue(), b.doubleValue()) == 0;
+        }
+        return Objects.equals(parsed, current);
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long
+                || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * @return the checksum of the content of the file, or -1 if it cannot be read
+     */
+    private static long checksum(Path file) {
+        try {
+            CRC32 crc = new CRC32();
+            crc.update(Files.readAllBytes(file));
+            return crc.getValue();
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    private static final class Watched {
+        private final Configuration<?> configuration;
+        private final Path file;
+        private final List<Consumer<ConfigurationChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+        private final Runnable writeListener;
+        private volatile long writtenChecksum = -1L;
+        private volatile boolean cancelled;
+
+        private Watched(Configuration<?> configuration, Path file) {
+            this.configuration = configuration;
+            this.file = file;
+            this.writeListener = () -> writtenChecksum = checksum(file);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.config;
+
+import io.fairyproject.container.InjectableComponent;
+import io.fairyproject.container.PostDestroy;
+import io.fairyproject.log.Log;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finishes the writes of {@link Configuration#saveAsync()} before the plugin goes away,
+ * after every component had its chance to save on destroy.
+ */
+@InjectableComponent
+public class ConfigurationWriteDrainer {
+
+    private static final long TIMEOUT_SECONDS = 10L;
+
+    @PostDestroy
+    public void onPostDestroy() {
+        try {
+            if (!Configuration.shutdownWrites(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                Log.warn("Configuration writes didn't finish within " + TIMEOUT_SECONDS + " seconds, they may be lost");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
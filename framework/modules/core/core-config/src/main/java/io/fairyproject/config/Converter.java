@@ -24,8 +24,6 @@
 
 package io.fairyproject.config;
 
-import io.fairyproject.config.annotation.ElementType;
-
 import java.lang.reflect.Field;
 
 /**
@@ -100,49 +98,27 @@ public interface Converter<S, T> {
         private int currentNestingLevel;
 
         private ConversionInfo(
-                Field field, Object instance, Object mapValue,
+                FieldMapper.FieldPlan plan, Object instance, Object mapValue,
                 FieldMapper.MappingInfo mappingInfo
         ) {
             this.mappingInfo = mappingInfo;
-            this.field = field;
+            this.field = plan.field;
             this.instance = instance;
-            this.value = Reflect.getValue(field, instance);
+            this.value = plan.get(instance);
             this.mapValue = mapValue;
             this.fieldType = field.getType();
             this.valueType = value.getClass();
             this.fieldName = field.getName();
             this.props = mappingInfo.getProperties();
-            this.elementType = elementType(field);
-            this.nestingLevel = nestingLevel(field);
-        }
-
-        private static Class<?> elementType(Field field) {
-            if (field.isAnnotationPresent(ElementType.class)) {
-                ElementType et = field.getAnnotation(ElementType.class);
-                return et.value();
-            }
-            return null;
-        }
-
-        private static int nestingLevel(Field field) {
-            if (field.isAnnotationPresent(ElementType.class)) {
-                ElementType et = field.getAnnotation(ElementType.class);
-                return et.nestingLevel();
-            }
-            return -1;
-        }
-
-        static ConversionInfo from(
-                Field field, Object instance, FieldMapper.MappingInfo mappingInfo
-        ) {
-            return new ConversionInfo(field, instance, null, mappingInfo);
+            this.elementType = plan.elementType;
+            this.nestingLevel = plan.nestingLevel;
         }
 
         static ConversionInfo from(
-                Field field, Object instance, Object mapValue,
+                FieldMapper.FieldPlan plan, Object instance, Object mapValue,
                 FieldMapper.MappingInfo mappingInfo
         ) {
-            return new ConversionInfo(field, instance, mapValue, mappingInfo);
+            return new ConversionInfo(plan, instance, mapValue, mappingInfo);
         }
 
         /**
@@ -62,10 +62,9 @@ final class Converters {
     static final ConfigurationElementConverter ELEMENT_CONVERTER
             = new ConfigurationElementConverter();
 
-    static Object convertTo(Converter.ConversionInfo info) {
-        Converter<Object, Object> converter = selectConverter(
-                info.getValueType(), info
-        );
+    static Object convertTo(
+            Converter<Object, Object> converter, Converter.ConversionInfo info
+    ) {
         converter.preConvertTo(info);
         return tryConvertTo(converter, info);
     }
@@ -83,10 +82,9 @@ final class Converters {
         }
     }
 
-    static Object convertFrom(Converter.ConversionInfo info) {
-        Converter<Object, Object> converter = selectConverter(
-                info.getValueType(), info
-        );
+    static Object convertFrom(
+            Converter<Object, Object> converter, Converter.ConversionInfo info
+    ) {
         converter.preConvertFrom(info);
         return tryConvertFrom(converter, info);
     }
@@ -109,9 +107,8 @@ final class Converters {
         return cls.getSimpleName();
     }
 
-    private static Converter<Object, Object> selectConverter(
-            Class<?> valueType, Converter.ConversionInfo info
-    ) {
+    static Converter<Object, Object> selectConverter(Converter.ConversionInfo info) {
+        Class<?> valueType = info.getValueType();
         Converter<?, ?> converter;
 
         if (Reflect.hasNoConvert(info.getField())) {
@@ -150,6 +147,10 @@ final class Converters {
         return toObjectConverter(converter);
     }
 
+    static SerializerFactory serializerFactory() {
+        return SERIALIZER_FACTORY;
+    }
+
     private static Converter<?, ?> instantiateConverter(Field field) {
         Convert convert = field.getAnnotation(Convert.class);
         return cache.computeIfAbsent(convert.value(), cls -> {
@@ -24,41 +24,62 @@
 
 package io.fairyproject.config;
 
+import io.fairyproject.config.annotation.ElementType;
 import io.fairyproject.config.annotation.Format;
 import io.fairyproject.config.filter.FieldFilter;
 import io.fairyproject.config.format.FieldNameFormatter;
+import io.fairyproject.container.SerializerFactory;
 
 import javax.persistence.Transient;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public enum FieldMapper {
     ;
 
+    /**
+     * The mapping plans of every class, one per filter and formatter combination it has been mapped with
+     */
+    private static final ClassValue<Map<PlanKey, MappingPlan>> PLANS = new ClassValue<Map<PlanKey, MappingPlan>>() {
+        @Override
+        protected Map<PlanKey, MappingPlan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(2);
+        }
+    };
+
+    /**
+     * The formatters declared by {@link Format#formatterClass()}, instantiated once per configuration class
+     */
+    private static final ClassValue<FieldNameFormatter> FORMATTERS = new ClassValue<FieldNameFormatter>() {
+        @Override
+        protected FieldNameFormatter computeValue(Class<?> type) {
+            Format format = type.getAnnotation(Format.class);
+            return (format.formatterClass() != FieldNameFormatter.class)
+                    ? Reflect.newInstance(format.formatterClass())
+                    : format.value();
+        }
+    };
+
     public static Map<String, Object> instanceToMap(Object inst, MappingInfo mappingInfo) {
-        Map<String, Object> map = new LinkedHashMap<>();
-        Configuration.Properties props = mappingInfo.getProperties();
-        FieldFilter filter = props.getFilter();
-        for (Field field : filter.filterDeclaredFieldsOf(inst.getClass())) {
-            if (field.getAnnotation(Transient.class) != null) {
-                continue;
-            }
+        MappingPlan plan = planOf(inst.getClass(), mappingInfo);
+        Map<String, Object> map = new LinkedHashMap<>(Math.max(16, plan.fields.length * 4 / 3 + 1));
+        for (FieldPlan field : plan.fields) {
             Object val = toConvertibleObject(field, inst, mappingInfo);
-            FieldNameFormatter fnf = selectFormatter(mappingInfo);
-            String fn = fnf.fromFieldName(field.getName());
-            map.put(fn, val);
+            map.put(field.name, val);
         }
         return map;
     }
 
     private static Object toConvertibleObject(
-            Field field, Object instance, MappingInfo mappingInfo
+            FieldPlan field, Object instance, MappingInfo mappingInfo
     ) {
-        checkDefaultValueNull(field, instance);
-        Converter.ConversionInfo info = Converter.ConversionInfo.from(field, instance, mappingInfo);
+        Converter.ConversionInfo info = Converter.ConversionInfo.from(field, instance, null, mappingInfo);
         Validator.checkFieldWithElementTypeIsContainer(info);
-        Object converted = Converters.convertTo(info);
+        Object converted = Converters.convertTo(field.converter(info), info);
         Validator.checkConverterNotReturnsNull(converted, info);
         return converted;
     }
@@ -66,14 +87,8 @@ public enum FieldMapper {
     public static void instanceFromMap(
             Object inst, Map<String, Object> instMap, MappingInfo mappingInfo
     ) {
-        FieldFilter filter = mappingInfo.getProperties().getFilter();
-        for (Field field : filter.filterDeclaredFieldsOf(inst.getClass())) {
-            if (field.getAnnotation(Transient.class) != null) {
-                continue;
-            }
-            FieldNameFormatter fnf = selectFormatter(mappingInfo);
-            String fn = fnf.fromFieldName(field.getName());
-            Object mapValue = instMap.get(fn);
+        for (FieldPlan field : planOf(inst.getClass(), mappingInfo).fields) {
+            Object mapValue = instMap.get(field.name);
             if (mapValue != null) {
                 fromConvertedObject(field, inst, mapValue, mappingInfo);
             }
@@ -81,30 +96,24 @@ public enum FieldMapper {
     }
 
     private static void fromConvertedObject(
-            Field field, Object instance, Object mapValue,
+            FieldPlan field, Object instance, Object mapValue,
             MappingInfo mappingInfo
     ) {
-        checkDefaultValueNull(field, instance);
         Converter.ConversionInfo info = Converter.ConversionInfo.from(
                 field, instance, mapValue, mappingInfo
         );
         Validator.checkFieldWithElementTypeIsContainer(info);
-        Object convert = Converters.convertFrom(info);
+        Object convert = Converters.convertFrom(field.converter(info), info);
 
         if (convert == null) {
             return;
         }
 
-        if (Reflect.isContainerType(info.getFieldType())) {
+        if (field.container) {
             Validator.checkFieldTypeAssignableFrom(convert.getClass(), info);
         }
 
-        Reflect.setValue(field, instance, convert);
-    }
-
-    private static void checkDefaultValueNull(Field field, Object instance) {
-        Object val = Reflect.getValue(field, instance);
-        Validator.checkNotNull(val, field.getName());
+        field.set(instance, convert);
     }
 
     static FieldNameFormatter selectFormatter(MappingInfo info) {
@@ -112,15 +121,141 @@ public enum FieldMapper {
         Configuration.Properties props = info.getProperties();
         if ((configuration != null) &&
                 Reflect.hasFormatter(configuration.getClass())) {
-            Format format = configuration.getClass()
-                    .getAnnotation(Format.class);
-            return (format.formatterClass() != FieldNameFormatter.class)
-                    ? Reflect.newInstance(format.formatterClass())
-                    : format.value();
+            return FORMATTERS.get(configuration.getClass());
         }
         return props.getFormatter();
     }
 
+    static MappingPlan planOf(Class<?> cls, MappingInfo mappingInfo) {
+        PlanKey key = new PlanKey(mappingInfo.getProperties().getFilter(), selectFormatter(mappingInfo));
+        Map<PlanKey, MappingPlan> plans = PLANS.get(cls);
+        MappingPlan plan = plans.get(key);
+        if (plan == null) {
+            plan = new MappingPlan(cls, key.filter, key.formatter);
+            MappingPlan previous = plans.putIfAbsent(key, plan);
+            if (previous != null) {
+                plan = previous;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * The fields of a class that take part in the mapping, resolved once instead of on every load and save
+     */
+    static final class MappingPlan {
+        private final FieldPlan[] fields;
+
+        private MappingPlan(Class<?> cls, FieldFilter filter, FieldNameFormatter formatter) {
+            List<FieldPlan> fields = new ArrayList<>();
+            for (Field field : filter.filterDeclaredFieldsOf(cls)) {
+                if (field.getAnnotation(Transient.class) != null) {
+                    continue;
+                }
+                fields.add(new FieldPlan(field, formatter.fromFieldName(field.getName())));
+            }
+            this.fields = fields.toArray(new FieldPlan[0]);
+        }
+    }
+
+    static final class FieldPlan {
+        final Field field;
+        final String name;
+        final Class<?> elementType;
+        final int nestingLevel;
+        final boolean container;
+        private volatile SelectedConverter selected;
+
+        private FieldPlan(Field field, String name) {
+            field.setAccessible(true);
+            this.field = field;
+            this.name = name;
+            ElementType et = field.getAnnotation(ElementType.class);
+            this.elementType = et != null ? et.value() : null;
+            this.nestingLevel = et != null ? et.nestingLevel() : -1;
+            this.container = Reflect.isContainerType(field.getType());
+        }
+
+        Object get(Object instance) {
+            Object value;
+            try {
+                value = this.field.get(instance);
+            } catch (IllegalAccessException e) {
+                String msg = "Illegal access of field '" + this.field + "' " +
+                        "on object " + instance + ".";
+                throw new ConfigurationException(msg, e);
+            }
+            Validator.checkNotNull(value, this.field.getName());
+            return value;
+        }
+
+        void set(Object instance, Object value) {
+            try {
+                this.field.set(instance, value);
+            } catch (IllegalAccessException e) {
+                String msg = "Illegal access of field '" + this.field + "' " +
+                        "on object " + instance + ".";
+                throw new ConfigurationException(msg, e);
+            }
+        }
+
+        /**
+         * The converter only depends on the field, the type of its value and the serializers, so it's kept until either the value type
+         * changes or a serializer gets registered or unregistered
+         */
+        Converter<Object, Object> converter(Converter.ConversionInfo info) {
+            SelectedConverter selected = this.selected;
+            Class<?> valueType = info.getValueType();
+            SerializerFactory serializerFactory = Converters.serializerFactory();
+            int serializers = serializerFactory != null ? serializerFactory.getModificationCount() : 0;
+            if (selected == null
+                    || selected.valueType != valueType
+                    || selected.serializerFactory != serializerFactory
+                    || selected.serializers != serializers) {
+                selected = new SelectedConverter(valueType, serializerFactory, serializers, Converters.selectConverter(info));
+                this.selected = selected;
+            }
+            return selected.converter;
+        }
+    }
+
+    private static final class SelectedConverter {
+        private final Class<?> valueType;
+        private final SerializerFactory serializerFactory;
+        private final int serializers;
+        private final Converter<Object, Object> converter;
+
+        private SelectedConverter(Class<?> valueType, SerializerFactory serializerFactory, int serializers, Converter<Object, Object> converter) {
+            this.valueType = valueType;
+            this.serializerFactory = serializerFactory;
+            this.serializers = serializers;
+            this.converter = converter;
+        }
+    }
+
+    private static final class PlanKey {
+        private final FieldFilter filter;
+        private final FieldNameFormatter formatter;
+
+        private PlanKey(FieldFilter filter, FieldNameFormatter formatter) {
+            this.filter = filter;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PlanKey)) return false;
+            PlanKey planKey = (PlanKey) o;
+            return filter == planKey.filter && formatter == planKey.formatter;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(filter) + System.identityHashCode(formatter);
+        }
+    }
+
     public static final class MappingInfo {
         private final Configuration<?> configuration;
         private final Configuration.Properties properties;
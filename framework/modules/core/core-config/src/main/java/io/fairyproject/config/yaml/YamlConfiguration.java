@@ -78,6 +78,15 @@ public abstract class YamlConfiguration extends Configuration<YamlConfiguration>
         }
     }
 
+    /**
+     * Returns the file this configuration is saved to and loaded from.
+     *
+     * @return path of the configuration file
+     */
+    public final Path getPath() {
+        return source.getConfigPath();
+    }
+
     Comments getComments() {
         return comments;
     }
@@ -29,14 +29,20 @@ import io.fairyproject.config.ConfigurationSource;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 
@@ -57,17 +63,60 @@ final class YamlSource implements ConfigurationSource<YamlConfiguration> {
     @Override
     public void saveConfiguration(YamlConfiguration config, Map<String, Object> map)
             throws IOException {
-        createParentDirectories();
+        prepareSave(config, map).write();
+    }
+
+    @Override
+    public PendingWrite prepareSave(YamlConfiguration config, Map<String, Object> map) {
+        String dump;
+        synchronized (yaml) {
+            dump = yaml.dump(map);
+        }
         CommentAdder adder = new CommentAdder(
-                yaml.dump(map), config.getComments(), props
+                dump, config.getComments(), props
         );
-        String commentedDump = adder.getCommentedDump();
-        Files.write(configPath, commentedDump.getBytes());
+        byte[] bytes = adder.getCommentedDump().getBytes();
+        return () -> write(bytes);
+    }
+
+    /**
+     * Write to a temporary file next to the config and move it over, so a crash
+     * or a full disk never leaves a half-written config behind
+     */
+    private void write(byte[] bytes) throws IOException {
+        Path target = configPath.toAbsolutePath();
+        createParentDirectories(target);
+        // created like any other file rather than through createTempFile, which would leave the config readable by its owner only
+        Path temp = target.resolveSibling(
+                target.getFileName() + "." + ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE) + ".tmp"
+        );
+        try {
+            Files.write(temp, bytes, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            copyPermissions(target, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        if (!Files.exists(from) || Files.getFileAttributeView(from, PosixFileAttributeView.class) == null)
+            return;
+
+        Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
     }
 
-    private void createParentDirectories() throws IOException {
-        Path parentDir = configPath.getParent();
-        if (!Files.isDirectory(parentDir)) {
+    Path getConfigPath() {
+        return configPath;
+    }
+
+    private static void createParentDirectories(Path target) throws IOException {
+        Path parentDir = target.getParent();
+        if (parentDir != null && !Files.isDirectory(parentDir)) {
             Files.createDirectories(parentDir);
         }
     }
@@ -76,11 +125,16 @@ final class YamlSource implements ConfigurationSource<YamlConfiguration> {
     public Map<String, Object> loadConfiguration(YamlConfiguration config)
             throws IOException {
         String cfg = readConfig();
-        return (Map<String, Object>) yaml.load(cfg);
+        // a ConfigurationWatcher may load on its own thread, and Yaml isn't thread safe
+        synchronized (yaml) {
+            return (Map<String, Object>) yaml.load(cfg);
+        }
     }
 
     private String readConfig() throws IOException {
-        return Files.lines(configPath).collect(joining("\n"));
+        try (Stream<String> lines = Files.lines(configPath)) {
+            return lines.collect(joining("\n"));
+        }
     }
 
     private static final class CommentAdder {
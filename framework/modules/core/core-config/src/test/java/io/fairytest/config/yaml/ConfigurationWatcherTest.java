@@ -0,0 +1,94 @@
+package io.fairytest.config.yaml;
+
+import io.fairyproject.config.ConfigurationChangeEvent;
+import io.fairyproject.config.ConfigurationWatcher;
+import io.fairyproject.config.yaml.YamlConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ConfigurationWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void appliesOnlyChangedFields() throws IOException, InterruptedException {
+        DummyConfiguration configuration = new DummyConfiguration(directory.resolve("config.yml"));
+        configuration.save();
+
+        BlockingQueue<ConfigurationChangeEvent> events = new LinkedBlockingQueue<>();
+        try (ConfigurationWatcher watcher = new ConfigurationWatcher(50L, Runnable::run)) {
+            watcher.watch(configuration, configuration.getPath(), events::add);
+
+            String content = new String(Files.readAllBytes(configuration.getPath()), StandardCharsets.UTF_8);
+            Files.write(configuration.getPath(), content.replace("name: default", "name: edited").getBytes(StandardCharsets.UTF_8));
+
+            ConfigurationChangeEvent event = events.poll(30, TimeUnit.SECONDS);
+            Assertions.assertNotNull(event);
+            Assertions.assertSame(configuration, event.getConfiguration());
+            Assertions.assertEquals(Collections.singleton("name"), event.getChangedKeys());
+            Assertions.assertEquals("edited", configuration.name);
+            Assertions.assertEquals(10, configuration.amount);
+        }
+    }
+
+    @Test
+    public void ignoresUnchangedSave() throws InterruptedException {
+        DummyConfiguration configuration = new DummyConfiguration(directory.resolve("config.yml"));
+        configuration.save();
+
+        BlockingQueue<ConfigurationChangeEvent> events = new LinkedBlockingQueue<>();
+        try (ConfigurationWatcher watcher = new ConfigurationWatcher(50L, Runnable::run)) {
+            watcher.watch(configuration, configuration.getPath(), events::add);
+            configuration.save();
+
+            Assertions.assertNull(events.poll(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void ignoresOwnSaves() throws IOException, InterruptedException {
+        DummyConfiguration configuration = new DummyConfiguration(directory.resolve("config.yml"));
+        configuration.save();
+
+        BlockingQueue<ConfigurationChangeEvent> events = new LinkedBlockingQueue<>();
+        try (ConfigurationWatcher watcher = new ConfigurationWatcher(50L, Runnable::run)) {
+            watcher.watch(configuration, configuration.getPath(), events::add);
+
+            configuration.name = "saved";
+            configuration.saveAsync().join();
+            // changed after the save, reloading the saved file would revert it
+            configuration.name = "changed";
+
+            Assertions.assertNull(events.poll(1, TimeUnit.SECONDS));
+            Assertions.assertEquals("changed", configuration.name);
+
+            String content = new String(Files.readAllBytes(configuration.getPath()), StandardCharsets.UTF_8);
+            Files.write(configuration.getPath(), content.replace("amount: 10", "amount: 20").getBytes(StandardCharsets.UTF_8));
+
+            ConfigurationChangeEvent event = events.poll(30, TimeUnit.SECONDS);
+            Assertions.assertNotNull(event);
+            Assertions.assertEquals(20, configuration.amount);
+        }
+    }
+
+    private static class DummyConfiguration extends YamlConfiguration {
+        private String name = "default";
+        private long amount = 10;
+
+        private DummyConfiguration(Path path) {
+            super(path);
+        }
+    }
+
+}
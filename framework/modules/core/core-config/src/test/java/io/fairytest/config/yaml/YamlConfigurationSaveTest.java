@@ -0,0 +1,131 @@
+package io.fairytest.config.yaml;
+
+import io.fairyproject.config.ConfigurationWriteDrainer;
+import io.fairyproject.config.yaml.YamlConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+public class YamlConfigurationSaveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void saveAsyncWritesSnapshot() throws IOException {
+        Path path = directory.resolve("config.yml");
+        DummyConfiguration configuration = new DummyConfiguration(path);
+        configuration.name = "first";
+
+        CompletableFuture<Void> future = configuration.saveAsync();
+        configuration.name = "second";
+        future.join();
+
+        DummyConfiguration loaded = new DummyConfiguration(path);
+        loaded.load();
+        Assertions.assertEquals("first", loaded.name);
+        Assertions.assertEquals(Arrays.asList("a", "b"), loaded.values);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void pendingWritesAreDrainedOnDestroy() {
+        Path path = directory.resolve("config.yml");
+        DummyConfiguration configuration = new DummyConfiguration(path);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            configuration.name = "name" + i;
+            futures.add(configuration.saveAsync());
+        }
+
+        new ConfigurationWriteDrainer().onPostDestroy();
+        for (CompletableFuture<Void> future : futures) {
+            Assertions.assertTrue(future.isDone());
+            Assertions.assertFalse(future.isCompletedExceptionally());
+        }
+        DummyConfiguration loaded = new DummyConfiguration(path);
+        loaded.load();
+        Assertions.assertEquals("name19", loaded.name);
+
+        // the writing thread is gone, later saves are written right away
+        configuration.name = "after";
+        Assertions.assertTrue(configuration.saveAsync().isDone());
+        loaded.load();
+        Assertions.assertEquals("after", loaded.name);
+    }
+
+    @Test
+    public void saveAndLoadRepeatedly() {
+        Path path = directory.resolve("config.yml");
+        DummyConfiguration configuration = new DummyConfiguration(path);
+        for (int i = 0; i < 3; i++) {
+            configuration.name = "name" + i;
+            configuration.values.add("value" + i);
+            configuration.save();
+
+            DummyConfiguration loaded = new DummyConfiguration(path);
+            loaded.load();
+            Assertions.assertEquals(configuration.name, loaded.name);
+            Assertions.assertEquals(configuration.values, loaded.values);
+        }
+    }
+
+    @Test
+    public void saveKeepsPermissions() throws IOException {
+        Path path = directory.resolve("config.yml");
+        Assumptions.assumeTrue(Files.getFileAttributeView(directory, PosixFileAttributeView.class) != null);
+
+        DummyConfiguration configuration = new DummyConfiguration(path);
+        configuration.save();
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-rw-r--");
+        Files.setPosixFilePermissions(path, permissions);
+
+        configuration.name = "changed";
+        configuration.save();
+        Assertions.assertEquals(permissions, Files.getPosixFilePermissions(path));
+    }
+
+    @Test
+    public void saveWithoutParentDirectory() throws IOException {
+        Path path = Paths.get("fairy-config-save-test.yml");
+        try {
+            DummyConfiguration configuration = new DummyConfiguration(path);
+            configuration.name = "relative";
+            configuration.save();
+
+            DummyConfiguration loaded = new DummyConfiguration(path);
+            loaded.load();
+            Assertions.assertEquals("relative", loaded.name);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static class DummyConfiguration extends YamlConfiguration {
+        private String name = "";
+        private List<String> values = new ArrayList<>(Arrays.asList("a", "b"));
+
+        private DummyConfiguration(Path path) {
+            super(path);
+        }
+    }
+
+}
@@ -3,6 +3,10 @@ package io.fairyproject.mc.actionbar;
 import io.fairyproject.mc.MCPlayer;
 import net.kyori.adventure.text.Component;
 
+/**
+ * Builds the action bar of each player, called on the async scheduler.
+ * With {@code -Dfairy.render.threads} above 1 it's called concurrently for different players and must be thread-safe.
+ */
 public interface ActionbarAdapter {
 
     Component build(MCPlayer player);
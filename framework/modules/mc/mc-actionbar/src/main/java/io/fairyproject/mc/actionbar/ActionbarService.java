@@ -6,10 +6,12 @@ import io.fairyproject.log.Log;
 import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.metadata.PlayerOnlineValue;
 import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import io.fairyproject.mc.render.PlayerRenderPipeline;
 import io.fairyproject.mc.scheduler.MCSchedulerProvider;
 import io.fairyproject.metadata.MetadataKey;
 import io.fairyproject.scheduler.ScheduledTask;
 import io.fairyproject.scheduler.response.TaskResponse;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Nullable;
@@ -33,6 +35,13 @@ public class ActionbarService {
     private final ContainerContext containerContext;
     private final MCPlayerRegistry mcPlayerRegistry;
     private final MCSchedulerProvider mcSchedulerProvider;
+    // an action bar fades out on the client, so it's sent again even when unchanged
+    @Getter
+    private final PlayerRenderPipeline<Component> renderPipeline = PlayerRenderPipeline.<Component>builder("actionbar")
+            .renderer(this::buildActionbarComponent)
+            .applier(this::apply)
+            .skipUnchanged(false)
+            .build();
     private ScheduledTask<Void> scheduledTask;
 
     @PreInitialize
@@ -66,22 +75,7 @@ public class ActionbarService {
     }
 
     private TaskResponse<Void> onTick() {
-
-        for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
-            Component current = player.metadata().getOrDefault(ACTIONBAR_CURRENT, Component.empty());
-            Component component = this.buildActionbarComponent(player);
-
-            if (component == null) {
-                component = Component.empty();
-            }
-
-            if (current.equals(component) && current.equals(Component.empty())) {
-                continue;
-            }
-
-            player.metadata().put(ACTIONBAR_CURRENT, PlayerOnlineValue.create(component, player));
-            player.sendActionBar(component);
-        }
+        this.renderPipeline.tick(this.mcPlayerRegistry.getAllPlayers());
 
         this.lock.readLock().lock();
         try {
@@ -96,6 +90,20 @@ public class ActionbarService {
         return TaskResponse.continueTask();
     }
 
+    private void apply(MCPlayer player, @Nullable Component component) {
+        Component current = player.metadata().getOrDefault(ACTIONBAR_CURRENT, Component.empty());
+        if (component == null) {
+            component = Component.empty();
+        }
+
+        if (current.equals(component) && current.equals(Component.empty())) {
+            return;
+        }
+
+        player.metadata().put(ACTIONBAR_CURRENT, PlayerOnlineValue.create(component, player));
+        player.sendActionBar(component);
+    }
+
     @Nullable
     private Component buildActionbarComponent(MCPlayer player) {
         Component retVal = null;
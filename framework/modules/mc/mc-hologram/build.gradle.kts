@@ -1,3 +1,9 @@
 plugins {
     id("io.fairyproject.module")
-}
\ No newline at end of file
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    jmh("io.fairyproject:mc-platform")
+    jmh("io.fairyproject:mc-tests")
+}
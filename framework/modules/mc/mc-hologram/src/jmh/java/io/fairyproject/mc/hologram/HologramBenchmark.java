@@ -0,0 +1,96 @@
+package io.fairyproject.mc.hologram;
+
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.hologram.entity.factory.ModernHologramEntityFactory;
+import io.fairyproject.mc.hologram.line.HologramLine;
+import io.fairyproject.mc.util.Position;
+import io.fairyproject.mc.version.MCVersion;
+import io.fairyproject.tests.mc.benchmark.PacketBenchmarkContext;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class HologramBenchmark {
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class State {
+        public double packetsPerOp;
+        public double bytesPerOp;
+
+        @Param({"200", "500"})
+        private int players;
+
+        private PacketBenchmarkContext context;
+        private Hologram hologram;
+        private int ticks;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = PacketBenchmarkContext.create(MCVersion.of(20, 4), players);
+            hologram = new HologramImpl(context.getServer(), new ModernHologramEntityFactory(), new Position("world", 0, 80, 0))
+                    .autoViewable(false)
+                    .lines(Arrays.asList(
+                            HologramLine.create(Component.text("Fairy")),
+                            HologramLine.create(Component.text("Ticks: 0")),
+                            HologramLine.create(MCPlayer::getDisplayName)
+                    ))
+                    .spawn();
+
+            for (MCPlayer player : context.getPlayers()) {
+                hologram.addViewer(player);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            context.reset();
+        }
+
+        @TearDown(Level.Iteration)
+        public void collectCounters() {
+            packetsPerOp = context.getPacketsPerOperation();
+            bytesPerOp = context.getBytesPerOperation();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void updateLine(State state) {
+        state.hologram.line(1, HologramLine.create(Component.text("Ticks: " + ++state.ticks)));
+        state.context.operation();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void showAndHide(State state) {
+        MCPlayer player = state.context.getPlayers().get(state.ticks++ % state.players);
+        state.hologram.removeViewer(player);
+        state.hologram.addViewer(player);
+        state.context.operation();
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HologramBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -26,8 +26,11 @@ package io.fairyproject.locale;
 
 import io.fairyproject.Debug;
 import io.fairyproject.container.*;
+import io.fairyproject.event.Subscribe;
 import io.fairyproject.locale.util.YamlResourceBundle;
 import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.event.MCPlayerJoinEvent;
+import io.fairyproject.mc.event.MCPlayerQuitEvent;
 import io.fairyproject.storage.DataClosable;
 import io.fairyproject.storage.PlayerStorage;
 import io.fairyproject.util.ConditionUtils;
@@ -35,6 +38,7 @@ import io.fairyproject.util.entry.Entry;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
+import net.kyori.adventure.text.Component;
 import net.kyori.adventure.translation.Translator;
 import org.jetbrains.annotations.Nullable;
 
@@ -43,10 +47,8 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Locale;
-import java.util.PropertyResourceBundle;
-import java.util.ResourceBundle;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class LocaleService {
@@ -55,6 +57,11 @@ public class LocaleService {
     private PlayerStorage<LocaleData> localeStorage;
     @Getter
     private LocalizationConfiguration localizationConfiguration;
+    @Getter
+    private final TranslationRenderCache renderCache = new TranslationRenderCache(1024);
+    // only online players are cached, so lookups of offline players don't stay in memory
+    private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Locale> localeCache = new ConcurrentHashMap<>();
 
     @PreInitialize
     public void onPreInitialize() {
@@ -65,6 +72,21 @@ public class LocaleService {
         this.localizationConfiguration = new LocalizationConfiguration();
         if (Debug.UNIT_TEST) return;
         this.localizationConfiguration.loadAndSave();
+        for (MCPlayer player : MCPlayer.all()) {
+            this.onlinePlayers.add(player.getUUID());
+        }
+    }
+
+    @Subscribe
+    public void onPlayerJoin(MCPlayerJoinEvent event) {
+        this.onlinePlayers.add(event.getPlayer().getUUID());
+    }
+
+    @Subscribe
+    public void onPlayerQuit(MCPlayerQuitEvent event) {
+        final UUID uuid = event.getPlayer().getUUID();
+        this.onlinePlayers.remove(uuid);
+        this.localeCache.remove(uuid);
     }
 
     public boolean isTranslationFile(Path path) {
@@ -120,17 +142,34 @@ public class LocaleService {
     }
 
     public Locale getLocale(UUID uuid) {
-        return this.localeStorage.find(uuid).getLocale();
+        Locale locale = this.localeCache.get(uuid);
+        if (locale != null)
+            return locale;
+
+        locale = this.localeStorage.find(uuid).getLocale();
+        this.cacheLocale(uuid, locale);
+        return locale;
     }
 
     public <Player> Locale getLocale(Player player) {
-        return this.localeStorage.find(MCPlayer.from(player).getUUID()).getLocale();
+        return this.getLocale(MCPlayer.from(player).getUUID());
     }
 
     public void setLocale(UUID uuid, @NonNull Locale locale) {
         try (DataClosable<LocaleData> data = this.localeStorage.findAndSave(uuid)) {
             data.val().setLocale(locale);
         }
+        this.cacheLocale(uuid, locale);
+    }
+
+    private void cacheLocale(UUID uuid, @Nullable Locale locale) {
+        if (locale == null || !this.onlinePlayers.contains(uuid))
+            return;
+
+        this.localeCache.put(uuid, locale);
+        // the player may have quit in between, don't leave the entry behind
+        if (!this.onlinePlayers.contains(uuid))
+            this.localeCache.remove(uuid, locale);
     }
 
     public <Player> void setLocale(Player player, @NonNull Locale locale) {
@@ -148,6 +187,45 @@ public class LocaleService {
         this.setLocale(MCPlayer.from(player).getUUID(), localeName);
     }
 
+    /**
+     * Render a component for the locale, the result is cached until translations are reloaded
+     *
+     * @param component the component
+     * @param locale the locale
+     * @return the rendered component
+     */
+    public Component render(@NonNull Component component, @NonNull Locale locale) {
+        return this.renderCache.render(component, locale);
+    }
+
+    /**
+     * Send a component to the players, the component is rendered once per locale instead of once per player
+     *
+     * @param players the players
+     * @param component the component
+     */
+    public void broadcast(@NonNull Iterable<MCPlayer> players, @NonNull Component component) {
+        Map<Locale, List<MCPlayer>> playersByLocale = new HashMap<>();
+        for (MCPlayer player : players) {
+            Locale locale = this.getLocale(player.getUUID());
+            if (locale == null)
+                locale = this.localizationConfiguration.getDefaultLocale();
+
+            playersByLocale.computeIfAbsent(locale, ignored -> new ArrayList<>()).add(player);
+        }
+
+        playersByLocale.forEach((locale, recipients) -> {
+            Component rendered = this.render(component, locale);
+            for (MCPlayer recipient : recipients) {
+                recipient.sendMessage(rendered);
+            }
+        });
+    }
+
+    public void invalidateRenderCache() {
+        this.renderCache.clear();
+    }
+
     public static @Nullable Locale parseLocale(@Nullable String locale) {
         return locale == null ? null : Translator.parseLocale(locale);
     }
@@ -26,6 +26,7 @@ package io.fairyproject.locale;
 
 import io.fairyproject.container.Autowired;
 import io.fairyproject.container.ContainerHolder;
+import io.fairyproject.mc.MCPlayer;
 import lombok.experimental.UtilityClass;
 import net.kyori.adventure.text.Component;
 
@@ -65,6 +66,10 @@ public class Locales {
         return LOCALE_SERVICE.supplyOrNull(localeService -> localeService.getLocale(player));
     }
 
+    public void broadcast(Iterable<MCPlayer> players, Component component) {
+        LOCALE_SERVICE.runOrNull(localeService -> localeService.broadcast(players, component));
+    }
+
     public Component translate(String key) {
         return Component.translatable(key);
     }
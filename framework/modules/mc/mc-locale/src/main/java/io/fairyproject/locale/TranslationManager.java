@@ -103,6 +103,7 @@ public abstract class TranslationManager {
         });
 
         this.addToGlobal();
+        LOCALE_SERVICE.invalidateRenderCache();
 
 //        ResourceBundle bundle = null;
 //        switch (this.defaultLocaleFileType()) {
@@ -131,6 +132,7 @@ public abstract class TranslationManager {
         if (this.translationRegistry != null) {
             GlobalTranslator.translator().removeSource(this.translationRegistry);
             this.installed.clear();
+            LOCALE_SERVICE.invalidateRenderCache();
         }
     }
 
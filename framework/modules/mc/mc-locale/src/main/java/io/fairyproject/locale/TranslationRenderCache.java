@@ -0,0 +1,84 @@
+package io.fairyproject.locale;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded LRU cache of components rendered by {@link GlobalTranslator}.
+ * Components are immutable and compare by value, so the component itself keys the translation key, arguments and style.
+ */
+public class TranslationRenderCache {
+
+    private final Map<RenderKey, Component> cache;
+
+    public TranslationRenderCache(int maximumSize) {
+        this.cache = new LinkedHashMap<RenderKey, Component>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RenderKey, Component> eldest) {
+                return this.size() > maximumSize;
+            }
+        };
+    }
+
+    @NotNull
+    public Component render(@NotNull Component component, @NotNull Locale locale) {
+        RenderKey key = new RenderKey(component, locale);
+        synchronized (this.cache) {
+            Component rendered = this.cache.get(key);
+            if (rendered != null)
+                return rendered;
+        }
+
+        Component rendered = GlobalTranslator.render(component, locale);
+        synchronized (this.cache) {
+            this.cache.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (this.cache) {
+            this.cache.clear();
+        }
+    }
+
+    private static final class RenderKey {
+
+        private final Component component;
+        private final Locale locale;
+        private final int hash;
+
+        private RenderKey(Component component, Locale locale) {
+            this.component = component;
+            this.locale = locale;
+            this.hash = 31 * component.hashCode() + locale.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RenderKey)) return false;
+
+            RenderKey renderKey = (RenderKey) o;
+            return this.hash == renderKey.hash && this.locale.equals(renderKey.locale) && Objects.equals(this.component, renderKey.component);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+}
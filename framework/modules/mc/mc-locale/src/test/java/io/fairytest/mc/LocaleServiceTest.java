@@ -0,0 +1,105 @@
+package io.fairytest.mc;
+
+import io.fairyproject.locale.LocaleData;
+import io.fairyproject.locale.LocaleService;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.event.MCPlayerJoinEvent;
+import io.fairyproject.mc.event.MCPlayerQuitEvent;
+import io.fairyproject.storage.PlayerStorage;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+
+@SuppressWarnings("unchecked")
+public class LocaleServiceTest {
+
+    private PlayerStorage<LocaleData> storage;
+    private LocaleService localeService;
+
+    @BeforeEach
+    public void setUp() {
+        storage = Mockito.mock(PlayerStorage.class);
+        localeService = new LocaleService();
+        localeService.setLocaleStorage(storage);
+    }
+
+    @Test
+    public void cacheLocaleOfOnlinePlayer() {
+        MCPlayer player = player(Locale.GERMAN);
+        localeService.onPlayerJoin(new MCPlayerJoinEvent(player));
+
+        Assertions.assertEquals(Locale.GERMAN, localeService.getLocale(player.getUUID()));
+        Assertions.assertEquals(Locale.GERMAN, localeService.getLocale(player.getUUID()));
+
+        Mockito.verify(storage, Mockito.times(1)).find(player.getUUID());
+    }
+
+    @Test
+    public void dropLocaleOnQuit() {
+        MCPlayer player = player(Locale.GERMAN);
+        localeService.onPlayerJoin(new MCPlayerJoinEvent(player));
+        localeService.getLocale(player.getUUID());
+
+        localeService.onPlayerQuit(new MCPlayerQuitEvent(player));
+        localeService.getLocale(player.getUUID());
+        localeService.getLocale(player.getUUID());
+
+        Mockito.verify(storage, Mockito.times(3)).find(player.getUUID());
+    }
+
+    @Test
+    public void doNotCacheOfflinePlayers() {
+        MCPlayer player = player(Locale.GERMAN);
+
+        localeService.getLocale(player.getUUID());
+        localeService.getLocale(player.getUUID());
+
+        Mockito.verify(storage, Mockito.times(2)).find(player.getUUID());
+    }
+
+    @Test
+    public void broadcastRendersOncePerLocale() {
+        MCPlayer first = player(Locale.ENGLISH);
+        MCPlayer second = player(Locale.ENGLISH);
+        MCPlayer third = player(Locale.GERMAN);
+        Component component = Component.translatable("test.broadcast");
+
+        localeService.broadcast(Arrays.asList(first, second, third), component);
+
+        for (MCPlayer player : Arrays.asList(first, second, third)) {
+            Mockito.verify(player).sendMessage(Mockito.any(Component.class));
+        }
+        Assertions.assertEquals(2, localeService.getRenderCache().size());
+    }
+
+    @Test
+    public void broadcastReusesRenderAcrossCalls() {
+        MCPlayer player = player(Locale.ENGLISH);
+        Component component = Component.translatable("test.broadcast");
+
+        localeService.broadcast(Arrays.asList(player), component);
+        localeService.broadcast(Arrays.asList(player), component);
+
+        Mockito.verify(player, Mockito.times(2)).sendMessage(Mockito.any(Component.class));
+        Assertions.assertEquals(1, localeService.getRenderCache().size());
+    }
+
+    private MCPlayer player(Locale locale) {
+        UUID uuid = UUID.randomUUID();
+        LocaleData data = new LocaleData();
+        data.setUuid(uuid);
+        data.setLocale(locale);
+        Mockito.when(storage.find(uuid)).thenReturn(data);
+
+        MCPlayer player = Mockito.mock(MCPlayer.class);
+        Mockito.when(player.getUUID()).thenReturn(uuid);
+        return player;
+    }
+
+}
@@ -0,0 +1,48 @@
+package io.fairytest.mc;
+
+import io.fairyproject.locale.TranslationRenderCache;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+public class TranslationRenderCacheTest {
+
+    @Test
+    public void reuseRenderedComponent() {
+        TranslationRenderCache renderCache = new TranslationRenderCache(16);
+
+        Component first = renderCache.render(Component.translatable("test.key", Component.text("arg")), Locale.ENGLISH);
+        Component second = renderCache.render(Component.translatable("test.key", Component.text("arg")), Locale.ENGLISH);
+
+        Assertions.assertSame(first, second, "Equal component and locale should reuse the rendered component");
+        Assertions.assertEquals(1, renderCache.size());
+    }
+
+    @Test
+    public void separateByLocaleAndArguments() {
+        TranslationRenderCache renderCache = new TranslationRenderCache(16);
+
+        renderCache.render(Component.translatable("test.key", Component.text("a")), Locale.ENGLISH);
+        renderCache.render(Component.translatable("test.key", Component.text("b")), Locale.ENGLISH);
+        renderCache.render(Component.translatable("test.key", Component.text("a")), Locale.GERMAN);
+
+        Assertions.assertEquals(3, renderCache.size());
+    }
+
+    @Test
+    public void evictWhenFull() {
+        TranslationRenderCache renderCache = new TranslationRenderCache(2);
+
+        renderCache.render(Component.translatable("test.a"), Locale.ENGLISH);
+        renderCache.render(Component.translatable("test.b"), Locale.ENGLISH);
+        renderCache.render(Component.translatable("test.c"), Locale.ENGLISH);
+
+        Assertions.assertEquals(2, renderCache.size());
+
+        renderCache.clear();
+        Assertions.assertEquals(0, renderCache.size());
+    }
+
+}
@@ -2,6 +2,10 @@ package io.fairyproject.mc.map;
 
 import io.fairyproject.mc.MCPlayer;
 
+/**
+ * Renders the map of each player, called on the async scheduler.
+ * With {@code -Dfairy.render.threads} above 1 it's called concurrently for different players and must be thread-safe.
+ */
 public interface MapAdapter {
 
     Framebuffer render(MCPlayer mcPlayer);
@@ -2,16 +2,21 @@ package io.fairyproject.mc.map;
 
 import io.fairyproject.container.*;
 import io.fairyproject.container.collection.ContainerObjCollector;
+import io.fairyproject.event.Subscribe;
 import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.event.MCPlayerJoinEvent;
+import io.fairyproject.mc.event.MCPlayerQuitEvent;
 import io.fairyproject.mc.map.framebuffers.DirectFramebuffer;
 import io.fairyproject.mc.map.packet.WrapperPlayServerMapData;
 import io.fairyproject.mc.metadata.PlayerOnlineValue;
 import io.fairyproject.mc.protocol.MCProtocol;
 import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import io.fairyproject.mc.render.PlayerRenderPipeline;
 import io.fairyproject.mc.scheduler.MCSchedulerProvider;
 import io.fairyproject.metadata.MetadataKey;
 import io.fairyproject.scheduler.ScheduledTask;
 import io.fairyproject.scheduler.response.TaskResponse;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.Nullable;
 
@@ -33,6 +38,11 @@ public class MapService {
     private final ContainerContext containerContext;
     private final MCPlayerRegistry mcPlayerRegistry;
     private final MCSchedulerProvider mcSchedulerProvider;
+    @Getter
+    private final PlayerRenderPipeline<RenderData> renderPipeline = PlayerRenderPipeline.<RenderData>builder("map")
+            .renderer(this::prepare)
+            .applier(this::apply)
+            .build();
     private ScheduledTask<Void> scheduledTask;
 
     @PreInitialize
@@ -57,6 +67,17 @@ public class MapService {
         }
     }
 
+    @Subscribe
+    public void onPlayerJoin(MCPlayerJoinEvent event) {
+        // a fresh client has no map data, send the current one even if it's unchanged
+        this.renderPipeline.invalidate(event.getPlayer());
+    }
+
+    @Subscribe
+    public void onPlayerQuit(MCPlayerQuitEvent event) {
+        this.renderPipeline.invalidate(event.getPlayer());
+    }
+
     public void activate() {
         if (this.activated.compareAndSet(false, true)) {
             this.scheduledTask = this.mcSchedulerProvider.getAsyncScheduler().scheduleAtFixedRate(this::onTick, this.getUpdateTick(), this.getUpdateTick());
@@ -64,29 +85,7 @@ public class MapService {
     }
 
     private TaskResponse<Void> onTick() {
-        for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
-            RenderData previous = player.metadata().getOrDefault(MAP_CURRENT, null);
-            Framebuffer framebuffer = this.render(player);
-            if (framebuffer == null)
-                framebuffer = EMPTY_FRAMEBUFFER;
-
-            final RenderData current = framebuffer.preparePacket(MAP_ID);
-            if (Objects.equals(previous, current))
-                continue;
-
-            player.metadata().put(MAP_CURRENT, PlayerOnlineValue.create(current, player));
-            MCProtocol.sendPacket(player, new WrapperPlayServerMapData(
-                    current.id(),
-                    (byte) 0,
-                    false,
-                    current.icons(),
-                    current.colors(),
-                    current.x(),
-                    current.y(),
-                    current.width(),
-                    current.height()
-            ));
-        }
+        this.renderPipeline.tick(this.mcPlayerRegistry.getAllPlayers());
 
         this.lock.readLock().lock();
         try {
@@ -101,6 +100,29 @@ public class MapService {
         return TaskResponse.continueTask();
     }
 
+    private RenderData prepare(MCPlayer player) {
+        Framebuffer framebuffer = this.render(player);
+        if (framebuffer == null)
+            framebuffer = EMPTY_FRAMEBUFFER;
+
+        return framebuffer.preparePacket(MAP_ID);
+    }
+
+    private void apply(MCPlayer player, RenderData current) {
+        player.metadata().put(MAP_CURRENT, PlayerOnlineValue.create(current, player));
+        MCProtocol.sendPacket(player, new WrapperPlayServerMapData(
+                current.id(),
+                (byte) 0,
+                false,
+                current.icons(),
+                current.colors(),
+                current.x(),
+                current.y(),
+                current.width(),
+                current.height()
+        ));
+    }
+
     @Nullable
     private Framebuffer render(MCPlayer player) {
         Framebuffer retVal = null;
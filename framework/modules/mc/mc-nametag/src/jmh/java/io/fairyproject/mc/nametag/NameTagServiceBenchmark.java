@@ -0,0 +1,97 @@
+package io.fairyproject.mc.nametag;
+
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.nametag.update.NameTagUpdate;
+import io.fairyproject.mc.version.MCVersion;
+import io.fairyproject.tests.mc.benchmark.PacketBenchmarkContext;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class NameTagServiceBenchmark {
+
+    private static final NameTag[] TEAMS = {
+            NameTag.builder().prefix(Component.text("[Red] ", NamedTextColor.RED)).suffix(Component.empty()).color(NamedTextColor.RED).build(),
+            NameTag.builder().prefix(Component.text("[Blue] ", NamedTextColor.BLUE)).suffix(Component.empty()).color(NamedTextColor.BLUE).build(),
+            NameTag.builder().prefix(Component.text("[Green] ", NamedTextColor.GREEN)).suffix(Component.empty()).color(NamedTextColor.GREEN).build(),
+            NameTag.builder().prefix(Component.text("[Yellow] ", NamedTextColor.YELLOW)).suffix(Component.empty()).color(NamedTextColor.YELLOW).build()
+    };
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class State {
+        public double packetsPerOp;
+        public double bytesPerOp;
+
+        @Param({"200", "500"})
+        private int players;
+
+        private PacketBenchmarkContext context;
+        private NameTagService service;
+        private int joining;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = PacketBenchmarkContext.create(MCVersion.of(20, 4), players);
+            service = new NameTagService(null, context.getPlayerRegistry());
+            service.register(new NameTagAdapter("benchmark", 0) {
+                @Override
+                public NameTag fetch(MCPlayer player, MCPlayer target) {
+                    return TEAMS[(target.getName().hashCode() & Integer.MAX_VALUE) % TEAMS.length];
+                }
+            });
+
+            // the first update creates the teams, measure the steady state
+            service.applyUpdate(NameTagUpdate.all());
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            context.reset();
+        }
+
+        @TearDown(Level.Iteration)
+        public void collectCounters() {
+            packetsPerOp = context.getPacketsPerOperation();
+            bytesPerOp = context.getBytesPerOperation();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void updateAll(State state) {
+        state.service.applyUpdate(NameTagUpdate.all());
+        state.context.operation();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void updateOnJoin(State state) {
+        MCPlayer player = state.context.getPlayers().get(state.joining++ % state.players);
+        state.service.applyUpdate(NameTagUpdate.createAllToPlayer(player));
+        state.context.operation();
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(NameTagServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,107 @@
+package io.fairyproject.sidebar;
+
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.version.MCVersion;
+import io.fairyproject.sidebar.handler.modern.ModernSidebarHandler;
+import io.fairyproject.tests.mc.benchmark.PacketBenchmarkContext;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class SidebarBenchmark {
+
+    private static final int LINES = 15;
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class State {
+        public double packetsPerOp;
+        public double bytesPerOp;
+
+        @Param({"200", "500"})
+        private int players;
+
+        private PacketBenchmarkContext context;
+        private List<Sidebar> sidebars;
+        private int ticks;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = PacketBenchmarkContext.create(MCVersion.of(20, 4), players);
+            ModernSidebarHandler handler = new ModernSidebarHandler();
+
+            sidebars = new ArrayList<>(players);
+            for (MCPlayer player : context.getPlayers()) {
+                Sidebar sidebar = new Sidebar(player, handler);
+                sidebar.setTitle(Component.text("Fairy"));
+                sidebar.setLines(lines(0, false));
+                sidebars.add(sidebar);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            context.reset();
+        }
+
+        @TearDown(Level.Iteration)
+        public void collectCounters() {
+            packetsPerOp = context.getPacketsPerOperation();
+            bytesPerOp = context.getBytesPerOperation();
+        }
+
+        private List<SidebarLine> lines(int tick, boolean allChanging) {
+            List<SidebarLine> lines = new ArrayList<>(LINES);
+            lines.add(SidebarLine.of(Component.text("Ticks: " + tick)));
+            for (int i = 1; i < LINES; i++) {
+                lines.add(SidebarLine.of(Component.text("Line " + i + (allChanging ? ": " + tick : ""))));
+            }
+            return lines;
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void singleLineChanged(State state) {
+        List<SidebarLine> lines = state.lines(++state.ticks, false);
+        for (Sidebar sidebar : state.sidebars) {
+            sidebar.setLines(lines);
+        }
+        state.context.operation();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void allLinesChanged(State state) {
+        List<SidebarLine> lines = state.lines(++state.ticks, true);
+        for (Sidebar sidebar : state.sidebars) {
+            sidebar.setLines(lines);
+        }
+        state.context.operation();
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SidebarBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
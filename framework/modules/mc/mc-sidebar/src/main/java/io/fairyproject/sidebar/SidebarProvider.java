@@ -9,6 +9,8 @@ import java.util.List;
 
 /**
  * Represents a sidebar provider.
+ * The title and lines are requested on the async scheduler, with {@code -Dfairy.render.threads} above 1
+ * they're requested concurrently for different players and the provider must be thread-safe.
  */
 public interface SidebarProvider {
 
@@ -38,6 +38,7 @@ import io.fairyproject.mc.event.MCPlayerJoinEvent;
 import io.fairyproject.mc.event.MCPlayerQuitEvent;
 import io.fairyproject.mc.protocol.MCProtocol;
 import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import io.fairyproject.mc.render.PlayerRenderPipeline;
 import io.fairyproject.mc.scheduler.MCSchedulerProvider;
 import io.fairyproject.scheduler.response.TaskResponse;
 import io.fairyproject.sidebar.handler.SidebarHandler;
@@ -46,6 +47,7 @@ import io.fairyproject.sidebar.handler.legacy.V13LegacySidebarHandler;
 import io.fairyproject.sidebar.handler.modern.ModernSidebarHandler;
 import io.fairyproject.sidebar.handler.modern.LunarFixModernSidebarHandler;
 import io.fairyproject.util.Stacktrace;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.text.Component;
@@ -64,6 +66,11 @@ public class SidebarService {
     private final MCProtocol mcProtocol;
     private final MCPlayerRegistry mcPlayerRegistry;
     private final MCSchedulerProvider mcSchedulerProvider;
+    private final PlayerRenderPipeline<SidebarData> renderPipeline = PlayerRenderPipeline.<SidebarData>builder("sidebar")
+            .filter(this::shouldRender)
+            .renderer(this::writeProviderToData)
+            .applier(this::apply)
+            .build();
     private SidebarHandler sidebarHandler;
 
     @PreInitialize
@@ -150,34 +157,40 @@ public class SidebarService {
         if (!Fairy.isRunning())
             return;
 
-        for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
-            Sidebar sidebar = this.get(player);
-            if (sidebar == null)
-                continue;
+        this.renderPipeline.tick(this.mcPlayerRegistry.getAllPlayers());
+    }
 
-            sidebar.setTicks(sidebar.getTicks() + 1);
-            if (sidebar.getTicks() < 10)
-                continue;
+    private boolean shouldRender(MCPlayer player) {
+        Sidebar sidebar = this.get(player);
+        if (sidebar == null)
+            return false;
 
-            SidebarData data = this.writeProviderToData(player);
-            if (data == null) {
-                if (sidebar.getProvider() != null)
-                    // Sidebar is hidden
-                    sidebar.getProvider().onSidebarHidden(player, sidebar);
+        sidebar.setTicks(sidebar.getTicks() + 1);
+        return sidebar.getTicks() >= 10;
+    }
 
-                sidebar.remove();
-                continue;
-            }
+    private void apply(MCPlayer player, SidebarData data) {
+        Sidebar sidebar = this.get(player);
+        if (sidebar == null)
+            return;
 
-            SidebarProvider provider = data.getProvider();
-            if (!sidebar.isAvailable())
-                // Sidebar is shown
-                provider.onSidebarShown(player, sidebar);
+        if (data == null) {
+            if (sidebar.getProvider() != null)
+                // Sidebar is hidden
+                sidebar.getProvider().onSidebarHidden(player, sidebar);
 
-            sidebar.setProvider(provider);
-            sidebar.setTitle(data.getTitle());
-            sidebar.setLines(data.getLines());
+            sidebar.remove();
+            return;
         }
+
+        SidebarProvider provider = data.getProvider();
+        if (!sidebar.isAvailable())
+            // Sidebar is shown
+            provider.onSidebarShown(player, sidebar);
+
+        sidebar.setProvider(provider);
+        sidebar.setTitle(data.getTitle());
+        sidebar.setLines(data.getLines());
     }
 
     private SidebarData writeProviderToData(MCPlayer player) {
@@ -186,7 +199,8 @@ public class SidebarService {
             Component title = provider.getTitle(player);
             List<SidebarLine> lines = provider.getLines(player);
             if (shouldDisplay && title != null && lines != null && !lines.isEmpty()) {
-                return new SidebarData(provider, title, lines);
+                // copied, a provider may keep mutating the list it returned and the copy is compared with the next render
+                return new SidebarData(provider, title, new ArrayList<>(lines));
             }
         }
 
@@ -200,6 +214,14 @@ public class SidebarService {
 
         sidebar.remove();
         MCMetadata.providePlayer(player).remove(Sidebar.METADATA_TAG);
+        this.renderPipeline.invalidate(player);
+    }
+
+    /**
+     * Get the pipeline rendering the sidebars, for its render time metrics and budget
+     */
+    public PlayerRenderPipeline<?> getRenderPipeline() {
+        return this.renderPipeline;
     }
 
     public Sidebar get(MCPlayer player) {
@@ -212,6 +234,7 @@ public class SidebarService {
 
     @RequiredArgsConstructor
     @Getter
+    @EqualsAndHashCode
     private static class SidebarData {
         private final SidebarProvider provider;
         private final Component title;
@@ -0,0 +1,114 @@
+package io.fairyproject.mc.tablist;
+
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.tablist.util.TabSlot;
+import io.fairyproject.mc.version.MCVersion;
+import io.fairyproject.tests.mc.benchmark.PacketBenchmarkContext;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class TablistBenchmark {
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class State {
+        public double packetsPerOp;
+        public double bytesPerOp;
+
+        @Param({"200", "500"})
+        private int players;
+
+        private PacketBenchmarkContext context;
+        private List<Tablist> tablists;
+        private int ticks;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = PacketBenchmarkContext.create(MCVersion.of(20, 4), players);
+            TablistService service = new TablistService(null, context.getPlayerRegistry(), null);
+            service.registerAdapter(new TablistAdapter() {
+                @Override
+                public Set<TabSlot> getSlots(MCPlayer player) {
+                    Set<TabSlot> slots = new HashSet<>();
+                    for (TabColumn column : TabColumn.values()) {
+                        for (int slot = 1; slot <= 20; slot++) {
+                            // one slot changing every tick, like a clock or an online count
+                            Component text = column == TabColumn.LEFT && slot == 1
+                                    ? Component.text("Ticks: " + ticks)
+                                    : Component.text(column.name() + " " + slot);
+                            slots.add(new TabSlot()
+                                    .column(column)
+                                    .slot(slot)
+                                    .text(text)
+                                    .ping(slot));
+                        }
+                    }
+                    return slots;
+                }
+
+                @Override
+                public Component getFooter(MCPlayer player) {
+                    return Component.text("Online: " + players);
+                }
+
+                @Override
+                public Component getHeader(MCPlayer player) {
+                    return Component.text("Fairy");
+                }
+            });
+
+            tablists = new ArrayList<>(players);
+            for (MCPlayer player : context.getPlayers()) {
+                Tablist tablist = new Tablist(player, service, service.getTablistSender());
+                tablist.update();
+                tablists.add(tablist);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            context.reset();
+        }
+
+        @TearDown(Level.Iteration)
+        public void collectCounters() {
+            packetsPerOp = context.getPacketsPerOperation();
+            bytesPerOp = context.getBytesPerOperation();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void update(State state) {
+        state.ticks++;
+        for (Tablist tablist : state.tablists) {
+            tablist.update();
+        }
+        state.context.operation();
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TablistBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -29,9 +29,14 @@ import io.fairyproject.mc.tablist.util.Skin;
 import io.fairyproject.mc.tablist.util.TabSlot;
 import io.fairyproject.mc.version.MCVersion;
 import lombok.Getter;
+import lombok.Value;
 import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -99,17 +104,44 @@ public class Tablist {
     }
 
     public void update() {
-        Set<TabEntry> previous = new HashSet<>(entries);
+        this.apply(this.render());
+    }
+
+    /**
+     * Build the content of the tablist from the adapters without sending anything
+     *
+     * @return the content, or null if the tablist should be hidden
+     */
+    @Nullable
+    public Frame render() {
+        Set<TabSlot> slots = this.tablistService.getSlots(player);
+        if (slots == null || slots.isEmpty()) {
+            return null;
+        }
+
+        List<Frame.Slot> frameSlots = new ArrayList<>(slots.size());
+        for (TabSlot tabSlot : slots) {
+            frameSlots.add(new Frame.Slot(tabSlot.getColumn(), tabSlot.getSlot(), tabSlot.getPing(), tabSlot.getText(), tabSlot.getSkin()));
+        }
+        // adapters usually return hash sets, keep the order stable so equal frames compare equal
+        frameSlots.sort(Comparator.comparing(Frame.Slot::getColumn).thenComparingInt(Frame.Slot::getSlot));
 
-        Set<TabSlot> current = this.tablistService.getSlots(player);
-        if (current == null || current.isEmpty()) {
+        return new Frame(frameSlots, this.tablistService.getHeader(player), this.tablistService.getFooter(player));
+    }
+
+    /**
+     * Send the content built by {@link #render()} to the player
+     */
+    public void apply(@Nullable Frame frame) {
+        if (frame == null) {
             this.hide();
             return;
         }
 
         this.show();
 
-        for (TabSlot tabSlot : current) {
+        Set<TabEntry> previous = new HashSet<>(entries);
+        for (Frame.Slot tabSlot : frame.getSlots()) {
             TabEntry tabEntry = getEntry(tabSlot.getColumn(), tabSlot.getSlot());
 
             if (tabEntry != null) {
@@ -129,8 +161,8 @@ public class Tablist {
 
         previous.clear();
 
-        Component headerNow = this.tablistService.getHeader(player);
-        Component footerNow = this.tablistService.getFooter(player);
+        Component headerNow = frame.getHeader();
+        Component footerNow = frame.getFooter();
 
         if (!Objects.equals(this.header, headerNow) || !Objects.equals(this.footer, footerNow)) {
             this.tablistSender.updateHeaderAndFooter(this, headerNow, footerNow);
@@ -147,4 +179,23 @@ public class Tablist {
         }
         throw new IllegalArgumentException("No entry found for column " + column + " and slot " + slot);
     }
+
+    /**
+     * An immutable snapshot of the tablist content, comparable to the previous one to skip unchanged updates
+     */
+    @Value
+    public static class Frame {
+        List<Slot> slots;
+        Component header;
+        Component footer;
+
+        @Value
+        public static class Slot {
+            TabColumn column;
+            int slot;
+            int ping;
+            Component text;
+            Skin skin;
+        }
+    }
 }
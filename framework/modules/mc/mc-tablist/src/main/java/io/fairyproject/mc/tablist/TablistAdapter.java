@@ -31,6 +31,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
 
+/**
+ * Provides the tablist of each player, called on the async scheduler.
+ * With {@code -Dfairy.render.threads} above 1 it's called concurrently for different players and must be thread-safe.
+ */
 public interface TablistAdapter {
 
     @Nullable Set<TabSlot> getSlots(MCPlayer player);
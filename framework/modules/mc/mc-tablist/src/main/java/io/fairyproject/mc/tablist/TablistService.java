@@ -32,10 +32,10 @@ import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.event.MCPlayerJoinEvent;
 import io.fairyproject.mc.event.MCPlayerQuitEvent;
 import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import io.fairyproject.mc.render.PlayerRenderPipeline;
 import io.fairyproject.mc.scheduler.MCSchedulerProvider;
 import io.fairyproject.mc.tablist.util.TabSlot;
 import io.fairyproject.metadata.MetadataKey;
-import io.fairyproject.util.Stacktrace;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -61,6 +61,12 @@ public class TablistService {
     private final MCPlayerRegistry mcPlayerRegistry;
     private final MCSchedulerProvider mcSchedulerProvider;
 
+    private final PlayerRenderPipeline<Tablist.Frame> renderPipeline = PlayerRenderPipeline.<Tablist.Frame>builder("tablist")
+            .filter(player -> player.metadata().has(TABLIST_KEY))
+            .renderer(this::renderPlayerTablist)
+            .applier((player, frame) -> player.metadata().ifPresent(TABLIST_KEY, tablist -> tablist.apply(frame)))
+            .build();
+
     private ScheduledExecutorService thread;
 
     //Tablist Ticks
@@ -139,6 +145,13 @@ public class TablistService {
         Tablist tablist = new Tablist(player, this, this.tablistSender);
 
         player.metadata().put(TABLIST_KEY, tablist);
+        this.renderPipeline.invalidate(player);
+    }
+
+    @Nullable
+    private Tablist.Frame renderPlayerTablist(MCPlayer player) {
+        Tablist tablist = player.metadata().getOrNull(TABLIST_KEY);
+        return tablist != null ? tablist.render() : null;
     }
 
     public void removePlayerTablist(MCPlayer player) {
@@ -151,15 +164,7 @@ public class TablistService {
             if (this.adapters.isEmpty())
                 return;
 
-            for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
-                player.metadata().ifPresent(TABLIST_KEY, tablist -> {
-                    try {
-                        tablist.update();
-                    } catch (Throwable throwable) {
-                        Stacktrace.print(throwable);
-                    }
-                });
-            }
+            this.renderPipeline.tick(this.mcPlayerRegistry.getAllPlayers());
         }, this.ticks, this.ticks);
     }
 
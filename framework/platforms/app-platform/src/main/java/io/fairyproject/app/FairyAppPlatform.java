@@ -17,13 +17,20 @@ import java.net.JarURLConnection;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Stream;
 
 public class FairyAppPlatform extends FairyPlatform {
 
-    private final List<Class<?>> appClasses = new ArrayList<>();
+    private volatile Set<String> appClassNames;
+    private File appFile;
     private final URLClassLoaderAccess classLoader;
     private boolean running;
 
@@ -56,6 +63,7 @@ public class FairyAppPlatform extends FairyPlatform {
 
     public void setMainApplication(Application mainApplication) {
         this.mainApplication = mainApplication;
+        this.appClassNames = null;
         ThrowingRunnable.sneaky(() -> {
             final URL url = mainApplication.getClass().getProtectionDomain().getCodeSource().getLocation();
             File file;
@@ -67,20 +75,62 @@ public class FairyAppPlatform extends FairyPlatform {
                 file = new File(url.getPath());
             }
 
-            new JarFile(file).stream()
-                    .filter(it -> it.getName().endsWith(".class"))
-                    .forEach(it -> {
-                        try {
-                            this.appClasses.add(Class.forName(it.getName().replace("/", ".").substring(0, it.getName().length() - 6), false, mainApplication.getClassLoader()));
-                        } catch (Throwable ignored) {
-
-                        }
-                    });
+            this.appFile = file;
         }).run();
     }
 
     public boolean isAppClass(Class<?> type) {
-        return this.appClasses.contains(type);
+        return this.getAppClassNames().contains(type.getName());
+    }
+
+    private Set<String> getAppClassNames() {
+        Set<String> classNames = this.appClassNames;
+        if (classNames == null) {
+            synchronized (this) {
+                classNames = this.appClassNames;
+                if (classNames == null) {
+                    classNames = this.appFile == null ? Collections.emptySet() : this.indexClassNames(this.appFile);
+                    this.appClassNames = classNames;
+                }
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Index the class names of the application by reading the entry names only, classes are not loaded
+     *
+     * @param file the application jar, or the class output directory when running from an IDE
+     * @return the class names
+     */
+    private Set<String> indexClassNames(File file) {
+        Set<String> classNames = new HashSet<>();
+        ThrowingRunnable.sneaky(() -> {
+            if (file.isDirectory()) {
+                final Path root = file.toPath();
+                try (Stream<Path> stream = Files.walk(root)) {
+                    stream.map(path -> root.relativize(path).toString().replace(File.separatorChar, '/'))
+                            .filter(name -> name.endsWith(".class"))
+                            .forEach(name -> classNames.add(toClassName(name)));
+                }
+                return;
+            }
+
+            try (JarFile jarFile = new JarFile(file)) {
+                final Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    final String name = entries.nextElement().getName();
+                    if (name.endsWith(".class"))
+                        classNames.add(toClassName(name));
+                }
+            }
+        }).run();
+
+        return classNames;
+    }
+
+    private static String toClassName(String entryName) {
+        return entryName.substring(0, entryName.length() - 6).replace('/', '.');
     }
 
     @Override
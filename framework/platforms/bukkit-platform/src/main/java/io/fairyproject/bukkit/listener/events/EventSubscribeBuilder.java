@@ -236,7 +236,10 @@ public class EventSubscribeBuilder<T extends Event> {
             if (this.recognizeAttributes.isEmpty() && !PlayerEventRecognizer.isTypePossible(this.getEventType())) {
                 throw new IllegalStateException("used forPlayer() but type " + this.getEventType().getSimpleName() + " seems to be impossible to get Player!");
             }
-            this.filter(new PlayerPredicate<>(this.player.getUniqueId(), this.recognizeAttributes.toArray(new Class[0])));
+            if (!this.recognizeAttributes.isEmpty()) {
+                // without custom attributes the subscription is routed by player, see PlayerEventRouter
+                this.filter(new PlayerPredicate<>(this.player.getUniqueId(), this.recognizeAttributes.toArray(new Class[0])));
+            }
 
             EventSubscription<T> subscription = new EventSubscription<>(this);
             subscription.register(plugin);
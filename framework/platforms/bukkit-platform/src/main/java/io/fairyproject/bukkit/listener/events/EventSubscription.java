@@ -71,6 +71,7 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
 
     private final Player activePlayer;
     private final String activeMetadata;
+    private final boolean routed;
 
     EventSubscription(EventSubscribeBuilder<T> subscribe) {
         this.type = subscribe.getEventType();
@@ -91,9 +92,12 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
             final EventSubscribeBuilder<T>.PlayerEventSubscribeBuilder playerBuilder = (EventSubscribeBuilder<T>.PlayerEventSubscribeBuilder) subscribe;
             this.activePlayer = playerBuilder.getPlayer();
             this.activeMetadata = playerBuilder.getMetadata();
+            // custom recognize attributes keep their own executor and player filter
+            this.routed = playerBuilder.getRecognizeAttributes().isEmpty();
         } else {
             this.activePlayer = null;
             this.activeMetadata = null;
+            this.routed = false;
         }
     }
 
@@ -102,8 +106,12 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
     }
 
     public void register(Plugin plugin) {
-        plugin.getServer().getPluginManager().registerEvent(type, this, priority, this, plugin, false);
         this.plugin = plugin;
+        if (this.routed) {
+            PlayerEventRouter.register(this, plugin);
+        } else {
+            plugin.getServer().getPluginManager().registerEvent(type, this, priority, this, plugin, false);
+        }
         this.timing = TIMING_SERVICE.of(plugin, "EventSubscription - " + this.type.getName());
     }
 
@@ -125,7 +133,7 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
             }
 
             if (!this.active.get()) {
-                event.getHandlers().unregister(listener);
+                this.detach(listener, event);
                 return;
             }
 
@@ -144,7 +152,7 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
 
                 this.testExpiry(ExpiryStage.POST_FILTER, listener, eventInstance);
                 for (BiConsumer<EventSubscription<T>, ? super T> realListener : this.listeners) {
-                    try (MCTiming ignored1 = TIMING_SERVICE.of(this.plugin, realListener.getClass().getName(), this.timing)) {
+                    try (MCTiming ignored1 = TIMING_SERVICE.ofStart(this.plugin, realListener.getClass().getName(), this.timing)) {
                         realListener.accept(this, eventInstance);
                     }
                 }
@@ -177,7 +185,7 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
 
         for (BiPredicate<EventSubscription<T>, T> test : tests) {
             if (test.test(this, event)) {
-                event.getHandlers().unregister(listener);
+                this.detach(listener, event);
                 this.active.set(false);
                 return true;
             }
@@ -201,7 +209,11 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
             return false;
         }
 
-        unregisterListener(this.type, this);
+        if (this.routed) {
+            PlayerEventRouter.unregister(this);
+        } else {
+            unregisterListener(this.type, this);
+        }
         if (this.activePlayer != null && this.activeMetadata != null) {
             Events.getSubscriptionList(this.activePlayer).remove(this.activeMetadata);
         }
@@ -209,6 +221,14 @@ public class EventSubscription<T extends Event> implements Listener, EventExecut
         return true;
     }
 
+    private void detach(Listener listener, Event event) {
+        if (this.routed) {
+            PlayerEventRouter.unregister(this);
+        } else {
+            event.getHandlers().unregister(listener);
+        }
+    }
+
     private static void unregisterListener(Class<? extends Event> eventClass, Listener listener) {
         try {
             // unfortunately we can't cache this reflect call, as the method is static
@@ -0,0 +1,168 @@
+package io.fairyproject.bukkit.listener.events;
+
+import io.fairyproject.bukkit.player.PlayerEventRecognizer;
+import io.fairyproject.log.Log;
+import lombok.experimental.UtilityClass;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Routes per player {@link EventSubscription}s through a single Bukkit executor per event type, priority and plugin.
+ * The player of an event is recognized once and only the subscriptions of that player are executed,
+ * instead of every per player subscription registering its own executor and rejecting events of other players.
+ */
+@UtilityClass
+class PlayerEventRouter {
+
+    private final Map<RouteKey, Route> ROUTES = new HashMap<>();
+
+    void register(EventSubscription<?> subscription, Plugin plugin) {
+        final UUID uuid = subscription.getActivePlayer().getUniqueId();
+        synchronized (ROUTES) {
+            final RouteKey key = new RouteKey(subscription.getType(), subscription.getPriority(), plugin);
+            Route route = ROUTES.get(key);
+            if (route == null) {
+                route = new Route(key);
+                plugin.getServer().getPluginManager().registerEvent(key.type, route, key.priority, route, plugin, false);
+                ROUTES.put(key, route);
+            }
+
+            route.subscribers.computeIfAbsent(uuid, ignored -> new CopyOnWriteArrayList<>()).add(subscription);
+        }
+    }
+
+    void unregister(EventSubscription<?> subscription) {
+        final UUID uuid = subscription.getActivePlayer().getUniqueId();
+        synchronized (ROUTES) {
+            final RouteKey key = new RouteKey(subscription.getType(), subscription.getPriority(), subscription.getPlugin());
+            final Route route = ROUTES.get(key);
+            if (route == null)
+                return;
+
+            final List<EventSubscription<?>> subscriptions = route.subscribers.get(uuid);
+            if (subscriptions == null)
+                return;
+
+            subscriptions.remove(subscription);
+            if (subscriptions.isEmpty())
+                route.subscribers.remove(uuid);
+            if (route.subscribers.isEmpty())
+                removeRoute(route);
+        }
+    }
+
+    /**
+     * Unregister every routed subscription of the player, called after the player quits
+     */
+    void unregisterAll(UUID uuid) {
+        final List<EventSubscription<?>> removed = new ArrayList<>();
+        synchronized (ROUTES) {
+            for (Route route : new ArrayList<>(ROUTES.values())) {
+                final List<EventSubscription<?>> subscriptions = route.subscribers.remove(uuid);
+                if (subscriptions != null)
+                    removed.addAll(subscriptions);
+                if (route.subscribers.isEmpty())
+                    removeRoute(route);
+            }
+        }
+
+        // outside the lock, unregistering also removes the subscription from the player's EventSubscriptionList
+        removed.forEach(EventSubscription::unregister);
+    }
+
+    /**
+     * Drop the routes of a disabled plugin, Bukkit already unregistered their executors
+     */
+    void unregisterAll(Plugin plugin) {
+        final List<EventSubscription<?>> removed = new ArrayList<>();
+        synchronized (ROUTES) {
+            final Iterator<Route> iterator = ROUTES.values().iterator();
+            while (iterator.hasNext()) {
+                final Route route = iterator.next();
+                if (route.key.plugin != plugin)
+                    continue;
+
+                route.subscribers.values().forEach(removed::addAll);
+                route.subscribers.clear();
+                iterator.remove();
+            }
+        }
+
+        removed.forEach(EventSubscription::unregister);
+    }
+
+    private void removeRoute(Route route) {
+        ROUTES.remove(route.key);
+        HandlerList.unregisterAll(route);
+    }
+
+    private static final class Route implements Listener, EventExecutor {
+
+        private final RouteKey key;
+        private final Map<UUID, List<EventSubscription<?>>> subscribers = new ConcurrentHashMap<>();
+
+        private Route(RouteKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public void execute(Listener listener, Event event) {
+            if (this.subscribers.isEmpty())
+                return;
+
+            final Player player = PlayerEventRecognizer.tryRecognize(event);
+            if (player == null)
+                return;
+
+            final List<EventSubscription<?>> subscriptions = this.subscribers.get(player.getUniqueId());
+            if (subscriptions == null)
+                return;
+
+            for (EventSubscription<?> subscription : subscriptions) {
+                try {
+                    subscription.execute(subscription, event);
+                } catch (Throwable throwable) {
+                    // keep the other subscriptions of the player running, as Bukkit would with separated executors
+                    Log.error("Could not pass event " + event.getEventName() + " to subscription of " + this.key.plugin.getName(), throwable);
+                }
+            }
+        }
+    }
+
+    private static final class RouteKey {
+
+        private final Class<? extends Event> type;
+        private final EventPriority priority;
+        private final Plugin plugin;
+
+        private RouteKey(Class<? extends Event> type, EventPriority priority, Plugin plugin) {
+            this.type = type;
+            this.priority = priority;
+            this.plugin = plugin;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RouteKey)) return false;
+
+            RouteKey routeKey = (RouteKey) o;
+            return this.type == routeKey.type && this.priority == routeKey.priority && this.plugin == routeKey.plugin;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.type, this.priority, System.identityHashCode(this.plugin));
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package io.fairyproject.bukkit.listener.events;
+
+import io.fairyproject.bukkit.listener.RegisterAsListener;
+import io.fairyproject.container.InjectableComponent;
+import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+
+import java.util.UUID;
+
+@InjectableComponent
+@RegisterAsListener
+@RequiredArgsConstructor
+public class PlayerEventRouterListener implements Listener {
+
+    private final MCSchedulerProvider mcSchedulerProvider;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+
+        // delay a tick so subscriptions listening to the quit itself still receive it
+        this.mcSchedulerProvider.getGlobalScheduler().schedule(() -> {
+            if (Bukkit.getPlayer(uuid) == null) {
+                PlayerEventRouter.unregisterAll(uuid);
+            }
+        }, 1L);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        PlayerEventRouter.unregisterAll(event.getPlugin());
+    }
+
+}
@@ -0,0 +1,126 @@
+package io.fairyproject.bukkit.mc;
+
+import io.fairyproject.bukkit.FairyBukkitPlatform;
+import io.fairyproject.bukkit.listener.RegisterAsListener;
+import io.fairyproject.container.InjectableComponent;
+import io.fairyproject.container.PostInitialize;
+import io.fairyproject.container.PreDestroy;
+import io.fairyproject.mc.data.MCBlockMetaRegistry;
+import io.fairyproject.mc.data.MCMetadata;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+/**
+ * Evicts block metadata with the chunk it belongs to, and keeps the persistent keys of {@link MCBlockMetaRegistry}
+ * in the persistent data container of the chunk where the server supports it.
+ * The world itself is evicted by {@link io.fairyproject.mc.data.MCBlockMetaListener}.
+ */
+@InjectableComponent
+@RegisterAsListener
+public class BukkitBlockMetadataListener implements Listener {
+
+    private static final boolean CHUNK_PERSISTENCE = isChunkPersistenceSupported();
+
+    private final MCBlockMetaRegistry blocks = MCMetadata.getBlocks();
+
+    @PostInitialize
+    public void onPostInitialize() {
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                this.restore(chunk);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void onPreDestroy() {
+        for (World world : Bukkit.getWorlds()) {
+            this.saveAll(world);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        this.restore(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        this.save(chunk, this.blocks.unloadChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ()));
+    }
+
+    // before the world unload is transformed to MCWorldUnloadEvent, which evicts the world, at MONITOR
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        this.saveAll(event.getWorld());
+    }
+
+    private void saveAll(World world) {
+        if (!CHUNK_PERSISTENCE)
+            return;
+
+        for (long chunkKey : this.blocks.getChunks(world.getName())) {
+            int chunkX = MCBlockMetaRegistry.chunkX(chunkKey);
+            int chunkZ = MCBlockMetaRegistry.chunkZ(chunkKey);
+            if (world.isChunkLoaded(chunkX, chunkZ)) {
+                this.save(world.getChunkAt(chunkX, chunkZ), this.blocks.saveChunk(world.getName(), chunkX, chunkZ));
+            }
+        }
+    }
+
+    private void save(Chunk chunk, byte[] data) {
+        if (!CHUNK_PERSISTENCE || data == null)
+            return;
+
+        ChunkStorage.write(chunk, data);
+    }
+
+    // restored even without persistent keys, values of keys registered later are kept raw until their registration
+    private void restore(Chunk chunk) {
+        if (!CHUNK_PERSISTENCE)
+            return;
+
+        byte[] data = ChunkStorage.read(chunk);
+        if (data != null)
+            this.blocks.loadChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ(), data);
+    }
+
+    private static boolean isChunkPersistenceSupported() {
+        try {
+            return Class.forName("org.bukkit.persistence.PersistentDataHolder").isAssignableFrom(Chunk.class);
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    // only loaded when the server supports chunk persistent data containers
+    private static final class ChunkStorage {
+
+        private static final NamespacedKey KEY = new NamespacedKey(FairyBukkitPlatform.PLUGIN, "block-metadata");
+
+        private static void write(Chunk chunk, byte[] data) {
+            PersistentDataContainer container = chunk.getPersistentDataContainer();
+            if (data.length == 0) {
+                container.remove(KEY);
+            } else {
+                container.set(KEY, PersistentDataType.BYTE_ARRAY, data);
+            }
+        }
+
+        private static byte[] read(Chunk chunk) {
+            return chunk.getPersistentDataContainer().get(KEY, PersistentDataType.BYTE_ARRAY);
+        }
+    }
+
+}
@@ -4,12 +4,10 @@ import io.fairyproject.container.InjectableComponent;
 import io.fairyproject.data.MetaStorage;
 import io.fairyproject.mc.data.MCMetadata;
 import io.fairyproject.mc.data.MCMetadataBridge;
-import io.fairyproject.mc.util.BlockPosition;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
-import org.bukkit.util.BlockVector;
 import org.jetbrains.annotations.NotNull;
 
 @InjectableComponent
@@ -41,9 +39,8 @@ public class BukkitMetadataBridge implements MCMetadataBridge {
 
         if (object instanceof Block) {
             Block block = (Block) object;
-            BlockVector blockVector = block.getLocation().toVector().toBlockVector();
 
-            return MCMetadata.provideBlock(new BlockPosition(blockVector.getBlockX(), blockVector.getBlockY(), blockVector.getBlockZ()));
+            return MCMetadata.provideBlock(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
         }
 
         throw new IllegalArgumentException("Unsupported object type: " + object.getClass().getName());
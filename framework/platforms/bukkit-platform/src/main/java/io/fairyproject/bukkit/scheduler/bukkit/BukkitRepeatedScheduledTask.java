@@ -25,26 +25,33 @@
 package io.fairyproject.bukkit.scheduler.bukkit;
 
 import io.fairyproject.log.Log;
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSection;
 import io.fairyproject.scheduler.ScheduledTask;
 import io.fairyproject.scheduler.repeat.RepeatPredicate;
 import io.fairyproject.scheduler.response.TaskResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 
-@RequiredArgsConstructor
 public class BukkitRepeatedScheduledTask<R> implements ScheduledTask<R>, Runnable {
 
     private final CompletableFuture<R> future = new CompletableFuture<>();
     private final Callable<TaskResponse<R>> callable;
     private final RepeatPredicate<R> predicate;
+    private final ProfilerSection section;
 
     @Setter
     private BukkitTask bukkitTask;
 
+    public BukkitRepeatedScheduledTask(Callable<TaskResponse<R>> callable, RepeatPredicate<R> predicate) {
+        this.callable = callable;
+        this.predicate = predicate;
+        this.section = Profiler.taskSection(callable);
+    }
+
     @Override
     public CompletableFuture<R> getFuture() {
         return future;
@@ -53,7 +60,13 @@ public class BukkitRepeatedScheduledTask<R> implements ScheduledTask<R>, Runnabl
     @Override
     public void run() {
         try {
-            TaskResponse<R> response = callable.call();
+            TaskResponse<R> response;
+            long start = section.start();
+            try {
+                response = callable.call();
+            } finally {
+                section.stop(start);
+            }
 
             switch (response.getState()) {
                 case SUCCESS:
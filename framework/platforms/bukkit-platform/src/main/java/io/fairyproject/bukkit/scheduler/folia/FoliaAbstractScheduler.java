@@ -27,6 +27,9 @@ package io.fairyproject.bukkit.scheduler.folia;
 import io.fairyproject.bukkit.scheduler.folia.wrapper.WrapperScheduledTask;
 import io.fairyproject.log.Log;
 import io.fairyproject.mc.scheduler.MCTickBasedScheduler;
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSection;
+import io.fairyproject.scheduler.RunnableCallable;
 import io.fairyproject.scheduler.ScheduledTask;
 import io.fairyproject.scheduler.repeat.RepeatPredicate;
 import io.fairyproject.scheduler.response.TaskResponse;
@@ -40,16 +43,20 @@ public abstract class FoliaAbstractScheduler implements MCTickBasedScheduler {
 
     protected <R> ScheduledTask<R> doSchedule(Callable<R> callable, Function<Consumer<io.papermc.paper.threadedregions.scheduler.ScheduledTask>, io.papermc.paper.threadedregions.scheduler.ScheduledTask> schedule) {
         CompletableFuture<R> future = new CompletableFuture<>();
+        ProfilerSection section = Profiler.taskSection(callable);
         io.papermc.paper.threadedregions.scheduler.ScheduledTask rawScheduledTask = schedule.apply(task -> {
             if (future.isDone())
                 return;
 
+            long start = section.start();
             try {
                 future.complete(callable.call());
             } catch (Throwable throwable) {
                 Log.error("An error occurred while executing a scheduled task", throwable);
 
                 future.completeExceptionally(throwable);
+            } finally {
+                section.stop(start);
             }
         });
         return new FoliaScheduledTask<>(WrapperScheduledTask.of(rawScheduledTask), future);
@@ -58,26 +65,21 @@ public abstract class FoliaAbstractScheduler implements MCTickBasedScheduler {
 
     @Override
     public ScheduledTask<?> schedule(Runnable runnable) {
-        return schedule(() -> {
-            runnable.run();
-            return null;
-        });
+        return schedule(new RunnableCallable<>(runnable, null));
     }
 
     @Override
     public ScheduledTask<?> schedule(Runnable runnable, long delayTicks) {
-        return schedule(() -> {
-            runnable.run();
-            return null;
-        }, delayTicks);
+        return schedule(new RunnableCallable<>(runnable, null), delayTicks);
     }
 
     @Override
     public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, long delayTicks, long intervalTicks, RepeatPredicate<?> predicate) {
-        return scheduleAtFixedRate(() -> {
-            runnable.run();
-            return TaskResponse.continueTask();
-        }, delayTicks, intervalTicks, predicate);
+        return scheduleRepeating(runnable, delayTicks, intervalTicks, predicate);
+    }
+
+    private <R> ScheduledTask<R> scheduleRepeating(Runnable runnable, long delayTicks, long intervalTicks, RepeatPredicate<R> predicate) {
+        return scheduleAtFixedRate(new RunnableCallable<>(runnable, TaskResponse.<R>continueTask()), delayTicks, intervalTicks, predicate);
     }
 
 }
@@ -26,26 +26,33 @@ package io.fairyproject.bukkit.scheduler.folia;
 
 import io.fairyproject.bukkit.scheduler.folia.wrapper.WrapperScheduledTask;
 import io.fairyproject.log.Log;
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSection;
 import io.fairyproject.scheduler.ScheduledTask;
 import io.fairyproject.scheduler.repeat.RepeatPredicate;
 import io.fairyproject.scheduler.response.TaskResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
-@RequiredArgsConstructor
 public class FoliaRepeatedScheduledTask<R> implements ScheduledTask<R>, Consumer<io.papermc.paper.threadedregions.scheduler.ScheduledTask> {
 
     private final CompletableFuture<R> future = new CompletableFuture<>();
     private final Callable<TaskResponse<R>> callable;
     private final RepeatPredicate<R> repeatPredicate;
+    private final ProfilerSection section;
 
     @Setter
     private WrapperScheduledTask scheduledTask;
 
+    public FoliaRepeatedScheduledTask(Callable<TaskResponse<R>> callable, RepeatPredicate<R> repeatPredicate) {
+        this.callable = callable;
+        this.repeatPredicate = repeatPredicate;
+        this.section = Profiler.taskSection(callable);
+    }
+
     @Override
     public CompletableFuture<R> getFuture() {
         return future;
@@ -56,7 +63,13 @@ public class FoliaRepeatedScheduledTask<R> implements ScheduledTask<R>, Consumer
         WrapperScheduledTask wrapperScheduledTask = WrapperScheduledTask.of(scheduledTask);
 
         try {
-            TaskResponse<R> response = callable.call();
+            TaskResponse<R> response;
+            long start = section.start();
+            try {
+                response = callable.call();
+            } finally {
+                section.stop(start);
+            }
 
             switch (response.getState()) {
                 case SUCCESS:
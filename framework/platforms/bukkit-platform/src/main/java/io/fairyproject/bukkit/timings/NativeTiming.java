@@ -0,0 +1,48 @@
+package io.fairyproject.bukkit.timings;
+
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSection;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Timing backed by the built-in {@link Profiler}, used when Aikar's timings are unavailable or deprecated.
+ * Start and stop are tracked per thread, so a cached timing can be shared by every thread.
+ * Whether the profiler is enabled is checked on every start so it can be toggled at runtime,
+ * and the section is only registered by the first start while it is enabled.
+ */
+public class NativeTiming extends MCTiming {
+
+    private final Plugin plugin;
+    private final String name;
+    private volatile ProfilerSection section;
+
+    NativeTiming(Plugin plugin, String name) {
+        this.plugin = plugin;
+        this.name = name;
+    }
+
+    @Override
+    public MCTiming startTiming() {
+        if (Profiler.isEnabled()) {
+            Profiler.enter(this.section());
+        }
+        return this;
+    }
+
+    @Override
+    public void stopTiming() {
+        final ProfilerSection section = this.section;
+        if (section != null) {
+            Profiler.exit(section);
+        }
+    }
+
+    private ProfilerSection section() {
+        ProfilerSection section = this.section;
+        if (section == null) {
+            section = Profiler.section(this.plugin != null ? this.plugin.getName() + " - " + this.name : this.name);
+            this.section = section;
+        }
+        return section;
+    }
+}
@@ -26,21 +26,25 @@ package io.fairyproject.bukkit.timings;
 
 import io.fairyproject.Debug;
 import io.fairyproject.container.InjectableComponent;
+import io.fairyproject.container.PostInitialize;
 import io.fairyproject.container.PreInitialize;
 import io.fairyproject.mc.MCServer;
+import io.fairyproject.mc.scheduler.MCSchedulers;
 import io.fairyproject.mc.version.MCVersion;
+import io.fairyproject.profiler.Profiler;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.plugin.Plugin;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @InjectableComponent
 @RequiredArgsConstructor
 public class TimingService {
 
-    private final Map<String, MCTiming> timingCache = new HashMap<>(0);
+    // keyed by the plugin name, then by the lower case name and every spelling it has been requested with, so lookups don't normalize the name
+    private final Map<String, Map<String, MCTiming>> timingCache = new ConcurrentHashMap<>();
     private final MCServer mcServer;
 
     private TimingType timingType;
@@ -58,7 +62,7 @@ public class TimingService {
 
                 // ever since 1.19.4, aikar's timing has been deprecated
                 if (mcServer.getVersion().isHigherOrEqual(MCVersion.of(19, 4))) {
-                    timingType = TimingType.EMPTY;
+                    timingType = TimingType.NATIVE;
                 } else if (startTiming.getReturnType() != clazz) {
                     timingType = TimingType.MINECRAFT_18;
                 } else {
@@ -69,12 +73,20 @@ public class TimingService {
                     Class.forName("org.spigotmc.CustomTimingsHandler");
                     timingType = TimingType.SPIGOT;
                 } catch (ClassNotFoundException ignored2) {
-                    timingType = TimingType.EMPTY;
+                    timingType = TimingType.NATIVE;
                 }
             }
         }
     }
 
+    @PostInitialize
+    public void onPostInitialize() {
+        if (timingType == TimingType.NATIVE) {
+            // fold the thread local samples once a minute, so recorders of terminated threads are released
+            MCSchedulers.getAsyncScheduler().scheduleAtFixedRate(Profiler::merge, 20 * 60L, 20 * 60L);
+        }
+    }
+
     @SuppressWarnings("WeakerAccess")
     public MCTiming ofStart(Plugin plugin, String name) {
         return ofStart(plugin, name, null);
@@ -93,15 +105,17 @@ public class TimingService {
     @SuppressWarnings("WeakerAccess")
     public MCTiming of(Plugin plugin, String name, MCTiming parent) {
 
-        MCTiming timing;
         if (timingType.useCache()) {
-            synchronized (timingCache) {
-                String lowerKey = name.toLowerCase();
-                timing = timingCache.get(lowerKey);
-                if (timing == null) {
-                    timing = timingType.newTiming(plugin, name, parent);
-                    timingCache.put(lowerKey, timing);
-                }
+            // timings are bound to their plugin, so the same name requested by another plugin is another timing
+            String pluginName = plugin != null ? plugin.getName() : "";
+            Map<String, MCTiming> timings = timingCache.get(pluginName);
+            if (timings == null)
+                timings = timingCache.computeIfAbsent(pluginName, key -> new ConcurrentHashMap<>());
+
+            MCTiming timing = timings.get(name);
+            if (timing == null) {
+                timing = timings.computeIfAbsent(name.toLowerCase(), key -> timingType.newTiming(plugin, name, parent));
+                timings.putIfAbsent(name, timing);
             }
             return timing;
         }
@@ -51,6 +51,12 @@ enum TimingType {
             }
         }
     },
+    NATIVE(true) {
+        @Override
+        MCTiming newTiming(Plugin plugin, String command, MCTiming parent) {
+            return new NativeTiming(plugin, command);
+        }
+    },
     UNIT_TESTING() {
         @Override
         MCTiming newTiming(Plugin plugin, String command, MCTiming parent) {
@@ -30,6 +30,7 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import io.fairyproject.mc.util.BlockPosition;
 import io.fairyproject.bukkit.util.schematic.impl.FAWESchematic;
+import io.fairyproject.bukkit.util.schematic.impl.NativeSchematic;
 import io.fairyproject.bukkit.util.schematic.impl.WorldEditSchematic;
 
 import java.io.File;
@@ -48,6 +49,8 @@ public abstract class Schematic {
 //                return new FAWESchematic(file);
             case WORLDEDIT:
                 return new WorldEditSchematic(file);
+            case BUKKIT:
+                return new NativeSchematic(file);
         }
 
         throw new UnsupportedOperationException("Couldn't find SchematicType!");
@@ -59,6 +62,8 @@ public abstract class Schematic {
 //                return new FAWESchematic(file, top, bottom);
             case WORLDEDIT:
                 return new WorldEditSchematic(file, top, bottom);
+            case BUKKIT:
+                return new NativeSchematic(file, top, bottom);
         }
 
         throw new UnsupportedOperationException("Couldn't find SchematicType!");
@@ -104,6 +109,12 @@ public abstract class Schematic {
 
     public abstract void save(World world) throws IOException;
 
+    /**
+     * Paste the schematic with its origin at the location, turned by the rotations in degrees around each axis.
+     * A positive Y rotation turns counterclockwise seen from above, as WorldEdit's {@code AffineTransform} does.
+     * Without WorldEdit the schematic is pasted by {@link NativeSchematic}, which only supports Y rotations by multiples of 90 degrees
+     * and can't turn the data of blocks on servers before 1.13, any other rotation throws {@link UnsupportedOperationException}.
+     */
     public abstract void paste(Location location, int rotateX, int rotateY, int rotateZ) throws IOException;
 
     @Override
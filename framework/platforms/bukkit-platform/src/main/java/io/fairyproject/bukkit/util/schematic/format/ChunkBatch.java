@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.bukkit.util.schematic.format;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * The blocks of a paste that land in one chunk, as palette indices of the {@link SchematicData} they came from.
+ */
+public final class ChunkBatch {
+
+    @Getter
+    private final int chunkX;
+    @Getter
+    private final int chunkZ;
+    // (y << 8) | (z << 4) | x, with x and z inside the chunk
+    private final int[] positions;
+    private final int[] states;
+
+    private ChunkBatch(int chunkX, int chunkZ, int[] positions, int[] states) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.positions = positions;
+        this.states = states;
+    }
+
+    public int size() {
+        return this.positions.length;
+    }
+
+    public int getX(int index) {
+        return this.positions[index] & 15;
+    }
+
+    public int getY(int index) {
+        return this.positions[index] >> 8;
+    }
+
+    public int getZ(int index) {
+        return (this.positions[index] >> 4) & 15;
+    }
+
+    public int getState(int index) {
+        return this.states[index];
+    }
+
+    static final class Builder {
+
+        final int chunkX;
+        final int chunkZ;
+        private int[] positions = new int[256];
+        private int[] states = new int[256];
+        private int size;
+
+        Builder(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        void add(int x, int y, int z, int state) {
+            if (this.size == this.positions.length) {
+                this.positions = Arrays.copyOf(this.positions, this.size << 1);
+                this.states = Arrays.copyOf(this.states, this.size << 1);
+            }
+            this.positions[this.size] = (y << 8) | ((z & 15) << 4) | (x & 15);
+            this.states[this.size] = state;
+            this.size++;
+        }
+
+        ChunkBatch build() {
+            return new ChunkBatch(this.chunkX, this.chunkZ, Arrays.copyOf(this.positions, this.size), Arrays.copyOf(this.states, this.size));
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.bukkit.util.schematic.format;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes {@link SchematicData} in the gzipped fairy schematic format:
+ * a header with the size, offset and alignment, the palette, then every section with its packed indices.
+ */
+@UtilityClass
+public class SchematicCodec {
+
+    public final int MAGIC = 0x46534348; // FSCH
+    public final int VERSION = 1;
+
+    public void write(@NotNull SchematicData data, @NotNull File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            write(data, out);
+        }
+    }
+
+    @NotNull
+    public SchematicData read(@NotNull File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    public void write(@NotNull SchematicData data, @NotNull OutputStream stream) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(stream);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(data.getWidth());
+        out.writeInt(data.getHeight());
+        out.writeInt(data.getLength());
+        out.writeInt(data.getOffsetX());
+        out.writeInt(data.getOffsetY());
+        out.writeInt(data.getOffsetZ());
+        out.writeByte(data.getAlignX());
+        out.writeByte(data.getAlignZ());
+
+        String[] palette = data.getPalette();
+        out.writeInt(palette.length);
+        // index 0 is the reserved empty entry
+        for (int i = 1; i < palette.length; i++) {
+            out.writeUTF(palette[i]);
+        }
+
+        out.writeByte(data.getBitsPerEntry());
+        out.writeInt(data.getSections().size());
+        for (SchematicData.Section section : data.getSections()) {
+            out.writeInt(section.getSectionX());
+            out.writeInt(section.getSectionZ());
+            for (long value : section.getData()) {
+                out.writeLong(value);
+            }
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    @NotNull
+    public SchematicData read(@NotNull InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(stream));
+        if (in.readInt() != MAGIC)
+            throw new IOException("Not a fairy schematic");
+        int version = in.readUnsignedByte();
+        if (version != VERSION)
+            throw new IOException("Unsupported fairy schematic version " + version);
+
+        int width = in.readInt();
+        int height = in.readInt();
+        int length = in.readInt();
+        if (width <= 0 || height <= 0 || length <= 0)
+            throw new IOException("Invalid schematic size " + width + "x" + height + "x" + length);
+        int offsetX = in.readInt();
+        int offsetY = in.readInt();
+        int offsetZ = in.readInt();
+        int alignX = in.readUnsignedByte();
+        int alignZ = in.readUnsignedByte();
+        if (alignX > 15 || alignZ > 15)
+            throw new IOException("Invalid schematic alignment " + alignX + ", " + alignZ);
+
+        int paletteSize = in.readInt();
+        if (paletteSize < 1)
+            throw new IOException("Invalid palette size " + paletteSize);
+        String[] palette = new String[paletteSize];
+        palette[0] = "";
+        for (int i = 1; i < paletteSize; i++) {
+            palette[i] = in.readUTF();
+        }
+
+        int bits = in.readUnsignedByte();
+        if (bits != SchematicData.bitsPerEntry(paletteSize))
+            throw new IOException("Invalid bits per entry " + bits + " for a palette of " + paletteSize);
+
+        int maxSectionX = (alignX + width - 1) >> 4;
+        int maxSectionZ = (alignZ + length - 1) >> 4;
+        int sectionCount = in.readInt();
+        if (sectionCount < 0 || sectionCount > (maxSectionX + 1) * (maxSectionZ + 1))
+            throw new IOException("Invalid section count " + sectionCount);
+
+        int longs = SchematicData.Section.longs(16 * 16 * height, bits);
+        List<SchematicData.Section> sections = new ArrayList<>(sectionCount);
+        for (int i = 0; i < sectionCount; i++) {
+            int sectionX = in.readInt();
+            int sectionZ = in.readInt();
+            if (sectionX < 0 || sectionZ < 0 || sectionX > maxSectionX || sectionZ > maxSectionZ)
+                throw new IOException("Section " + sectionX + ", " + sectionZ + " is outside of the schematic");
+
+            long[] data = new long[longs];
+            for (int j = 0; j < longs; j++) {
+                data[j] = in.readLong();
+            }
+            sections.add(new SchematicData.Section(sectionX, sectionZ, data));
+        }
+
+        SchematicData data = new SchematicData(width, height, length, offsetX, offsetY, offsetZ, alignX, alignZ, palette, bits, sections);
+        validate(data);
+        return data;
+    }
+
+    // a corrupted file shouldn't fail in the middle of a paste
+    private void validate(SchematicData data) throws IOException {
+        int bits = data.getBitsPerEntry();
+        int entries = 16 * 16 * data.getHeight();
+        for (SchematicData.Section section : data.getSections()) {
+            for (int i = 0; i < entries; i++) {
+                if (section.get(i, bits) >= data.getPalette().length)
+                    throw new IOException("Palette index out of bounds in section " + section.getSectionX() + ", " + section.getSectionZ());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,411 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.bukkit.util.schematic.format;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * The blocks of a schematic as a palette of block state strings and packed palette indices.
+ * Blocks are sectioned by chunk column: the x and z of every block are shifted by {@link #getAlignX()} and {@link #getAlignZ()},
+ * the position of the minimum corner inside its chunk, so a schematic pasted with the same alignment writes each section to exactly one chunk.
+ * Index 0 of the palette is reserved for positions without a block, they are left untouched on paste.
+ */
+@Getter
+public final class SchematicData {
+
+    public static final int NO_BLOCK = 0;
+    // the horizontal directions, each one a quarter turn counterclockwise from the previous
+    private static final String[] DIRECTIONS = {"north", "west", "south", "east"};
+
+    private final int width;
+    private final int height;
+    private final int length;
+    private final int offsetX;
+    private final int offsetY;
+    private final int offsetZ;
+    private final int alignX;
+    private final int alignZ;
+    private final String[] palette;
+    private final int bitsPerEntry;
+    private final List<Section> sections;
+
+    SchematicData(int width, int height, int length, int offsetX, int offsetY, int offsetZ, int alignX, int alignZ, String[] palette, int bitsPerEntry, List<Section> sections) {
+        this.width = width;
+        this.height = height;
+        this.length = length;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.offsetZ = offsetZ;
+        this.alignX = alignX;
+        this.alignZ = alignZ;
+        this.palette = palette;
+        this.bitsPerEntry = bitsPerEntry;
+        this.sections = Collections.unmodifiableList(sections);
+    }
+
+    public static Builder builder(int width, int height, int length) {
+        return new Builder(width, height, length);
+    }
+
+    /**
+     * @return the block state at the position relative to the minimum corner, or null if there is no block
+     */
+    public String getBlock(int x, int y, int z) {
+        if (x < 0 || y < 0 || z < 0 || x >= this.width || y >= this.height || z >= this.length)
+            return null;
+
+        final int alignedX = x + this.alignX;
+        final int alignedZ = z + this.alignZ;
+        for (Section section : this.sections) {
+            if (section.sectionX == alignedX >> 4 && section.sectionZ == alignedZ >> 4) {
+                int state = section.get(index(alignedX & 15, y, alignedZ & 15), this.bitsPerEntry);
+                return state != NO_BLOCK ? this.palette[state] : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Group the blocks by the chunk they land in when the schematic is pasted with its origin at the position
+     *
+     * @param ignoreAir whether air blocks should be left out
+     */
+    @NotNull
+    public List<ChunkBatch> toChunkBatches(int originX, int originY, int originZ, boolean ignoreAir) {
+        return this.toChunkBatches(originX, originY, originZ, 0, ignoreAir);
+    }
+
+    /**
+     * Group the blocks by the chunk they land in when the schematic is pasted with its origin at the position,
+     * turned around the origin by quarter turns counterclockwise seen from above.
+     * Only the positions are turned, the block states of the palette are turned by {@link #rotateState(String, int)}
+     *
+     * @param quarterTurns the number of quarter turns, any value is taken modulo 4
+     * @param ignoreAir whether air blocks should be left out
+     */
+    @NotNull
+    public List<ChunkBatch> toChunkBatches(int originX, int originY, int originZ, int quarterTurns, boolean ignoreAir) {
+        final boolean[] skip = new boolean[this.palette.length];
+        skip[NO_BLOCK] = true;
+        if (ignoreAir) {
+            for (int i = 1; i < this.palette.length; i++) {
+                skip[i] = isAir(this.palette[i]);
+            }
+        }
+
+        final int turns = Math.floorMod(quarterTurns, 4);
+        final int minY = originY - this.offsetY;
+        final Map<Long, ChunkBatch.Builder> batches = new LinkedHashMap<>();
+        for (Section section : this.sections) {
+            final int sectionMinX = (section.sectionX << 4) - this.alignX;
+            final int sectionMinZ = (section.sectionZ << 4) - this.alignZ;
+            ChunkBatch.Builder last = null;
+            for (int y = 0; y < this.height; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        final int state = section.get(index(x, y, z), this.bitsPerEntry);
+                        if (skip[state])
+                            continue;
+
+                        final int relativeX = sectionMinX + x - this.offsetX;
+                        final int relativeZ = sectionMinZ + z - this.offsetZ;
+                        final int worldX = originX + rotateX(relativeX, relativeZ, turns);
+                        final int worldZ = originZ + rotateZ(relativeX, relativeZ, turns);
+                        // an aligned paste never leaves the chunk of the section, only look the batch up when it does
+                        if (last == null || last.chunkX != worldX >> 4 || last.chunkZ != worldZ >> 4) {
+                            final long key = ((long) (worldX >> 4) << 32) | ((worldZ >> 4) & 0xFFFFFFFFL);
+                            last = batches.computeIfAbsent(key, k -> new ChunkBatch.Builder(worldX >> 4, worldZ >> 4));
+                        }
+                        last.add(worldX, minY + y, worldZ, state);
+                    }
+                }
+            }
+        }
+
+        List<ChunkBatch> result = new ArrayList<>(batches.size());
+        for (ChunkBatch.Builder builder : batches.values()) {
+            result.add(builder.build());
+        }
+        return result;
+    }
+
+    public static boolean isAir(String state) {
+        return state.equals("minecraft:air") || state.equals("minecraft:cave_air") || state.equals("minecraft:void_air") || state.startsWith("AIR:");
+    }
+
+    /**
+     * Turn the position relative to the origin by quarter turns counterclockwise seen from above
+     *
+     * @param quarterTurns the number of quarter turns, between 0 and 3
+     * @return the turned x
+     */
+    public static int rotateX(int x, int z, int quarterTurns) {
+        switch (quarterTurns) {
+            case 1:
+                return z;
+            case 2:
+                return -x;
+            case 3:
+                return -z;
+            default:
+                return x;
+        }
+    }
+
+    /**
+     * @see #rotateX(int, int, int)
+     * @return the turned z
+     */
+    public static int rotateZ(int x, int z, int quarterTurns) {
+        switch (quarterTurns) {
+            case 1:
+                return -x;
+            case 2:
+                return -z;
+            case 3:
+                return x;
+            default:
+                return z;
+        }
+    }
+
+    /**
+     * Turn a block state like {@code minecraft:oak_stairs[facing=north,half=bottom]} by quarter turns counterclockwise seen from above.
+     * The horizontal facing, axis, rotation, north/east/south/west connections and rail shapes are turned,
+     * every other property is relative to those and kept. Legacy material:data states have no named properties and are returned as is.
+     *
+     * @param quarterTurns the number of quarter turns, any value is taken modulo 4
+     */
+    @NotNull
+    public static String rotateState(@NotNull String state, int quarterTurns) {
+        final int turns = Math.floorMod(quarterTurns, 4);
+        final int open = state.indexOf('[');
+        if (turns == 0 || open == -1 || !state.endsWith("]"))
+            return state;
+
+        final StringJoiner properties = new StringJoiner(",", state.substring(0, open + 1), "]");
+        for (String property : state.substring(open + 1, state.length() - 1).split(",")) {
+            final int separator = property.indexOf('=');
+            if (separator == -1) {
+                properties.add(property);
+                continue;
+            }
+
+            String key = property.substring(0, separator);
+            String value = property.substring(separator + 1);
+            switch (key) {
+                case "facing":
+                    value = rotateDirection(value, turns);
+                    break;
+                case "axis":
+                    if (turns % 2 == 1)
+                        value = value.equals("x") ? "z" : value.equals("z") ? "x" : value;
+                    break;
+                case "rotation":
+                    // 16 steps clockwise starting from south
+                    value = String.valueOf(Math.floorMod(Integer.parseInt(value) - turns * 4, 16));
+                    break;
+                case "shape":
+                    value = rotateShape(value, turns);
+                    break;
+                case "north":
+                case "east":
+                case "south":
+                case "west":
+                    key = rotateDirection(key, turns);
+                    break;
+                default:
+                    break;
+            }
+            properties.add(key + "=" + value);
+        }
+        return properties.toString();
+    }
+
+    private static String rotateDirection(String direction, int turns) {
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            if (DIRECTIONS[i].equals(direction))
+                return DIRECTIONS[(i + turns) % DIRECTIONS.length];
+        }
+        // up and down
+        return direction;
+    }
+
+    private static String rotateShape(String shape, int turns) {
+        if (shape.startsWith("ascending_"))
+            return "ascending_" + rotateDirection(shape.substring("ascending_".length()), turns);
+        if (shape.equals("north_south") || shape.equals("east_west"))
+            return turns % 2 == 0 ? shape : shape.equals("north_south") ? "east_west" : "north_south";
+
+        final int separator = shape.indexOf('_');
+        if (separator == -1)
+            return shape;
+        final String first = rotateDirection(shape.substring(0, separator), turns);
+        final String second = rotateDirection(shape.substring(separator + 1), turns);
+        if (first.equals(shape.substring(0, separator)))
+            // not made of directions, like the inner_left of stairs which is relative to the facing
+            return shape;
+        // curved rails are named north or south first
+        return first.equals("north") || first.equals("south") ? first + "_" + second : second + "_" + first;
+    }
+
+    static int index(int x, int y, int z) {
+        return ((y << 4) | z) << 4 | x;
+    }
+
+    static int bitsPerEntry(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+
+    /**
+     * The blocks of one chunk column, packed without spanning entries across longs
+     */
+    @Getter
+    public static final class Section {
+
+        private final int sectionX;
+        private final int sectionZ;
+        private final long[] data;
+
+        Section(int sectionX, int sectionZ, long[] data) {
+            this.sectionX = sectionX;
+            this.sectionZ = sectionZ;
+            this.data = data;
+        }
+
+        int get(int index, int bits) {
+            final int perLong = 64 / bits;
+            return (int) ((this.data[index / perLong] >>> ((index % perLong) * bits)) & ((1L << bits) - 1));
+        }
+
+        static long[] pack(int[] entries, int bits) {
+            final int perLong = 64 / bits;
+            final long[] data = new long[(entries.length + perLong - 1) / perLong];
+            for (int i = 0; i < entries.length; i++) {
+                data[i / perLong] |= (long) entries[i] << ((i % perLong) * bits);
+            }
+            return data;
+        }
+
+        static int longs(int entries, int bits) {
+            final int perLong = 64 / bits;
+            return (entries + perLong - 1) / perLong;
+        }
+    }
+
+    public static final class Builder {
+
+        private final int width;
+        private final int height;
+        private final int length;
+        private final int[] blocks;
+        private final Map<String, Integer> paletteIndex = new HashMap<>();
+        private final List<String> palette = new ArrayList<>();
+        private int offsetX, offsetY, offsetZ;
+        private int alignX, alignZ;
+
+        private Builder(int width, int height, int length) {
+            if (width <= 0 || height <= 0 || length <= 0)
+                throw new IllegalArgumentException("Invalid schematic size " + width + "x" + height + "x" + length);
+            this.width = width;
+            this.height = height;
+            this.length = length;
+            this.blocks = new int[width * height * length];
+            this.palette.add("");
+        }
+
+        /**
+         * Set the position of the paste origin relative to the minimum corner
+         */
+        public Builder offset(int x, int y, int z) {
+            this.offsetX = x;
+            this.offsetY = y;
+            this.offsetZ = z;
+            return this;
+        }
+
+        /**
+         * Section the blocks as if the minimum corner was at the world position
+         */
+        public Builder minimum(int x, int z) {
+            this.alignX = x & 15;
+            this.alignZ = z & 15;
+            return this;
+        }
+
+        public Builder block(int x, int y, int z, @NotNull String state) {
+            if (x < 0 || y < 0 || z < 0 || x >= this.width || y >= this.height || z >= this.length)
+                throw new IndexOutOfBoundsException("Block " + x + ", " + y + ", " + z + " is outside of the schematic");
+
+            Integer index = this.paletteIndex.get(state);
+            if (index == null) {
+                index = this.palette.size();
+                this.palette.add(state);
+                this.paletteIndex.put(state, index);
+            }
+            this.blocks[(y * this.length + z) * this.width + x] = index;
+            return this;
+        }
+
+        public SchematicData build() {
+            final int bits = bitsPerEntry(this.palette.size());
+            final int sectionsX = ((this.alignX + this.width - 1) >> 4) + 1;
+            final int sectionsZ = ((this.alignZ + this.length - 1) >> 4) + 1;
+            final List<Section> sections = new ArrayList<>(sectionsX * sectionsZ);
+            final int[] entries = new int[16 * 16 * this.height];
+            for (int sectionZ = 0; sectionZ < sectionsZ; sectionZ++) {
+                for (int sectionX = 0; sectionX < sectionsX; sectionX++) {
+                    Arrays.fill(entries, NO_BLOCK);
+                    boolean empty = true;
+                    for (int y = 0; y < this.height; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            final int localZ = (sectionZ << 4) + z - this.alignZ;
+                            if (localZ < 0 || localZ >= this.length)
+                                continue;
+                            for (int x = 0; x < 16; x++) {
+                                final int localX = (sectionX << 4) + x - this.alignX;
+                                if (localX < 0 || localX >= this.width)
+                                    continue;
+
+                                final int state = this.blocks[(y * this.length + localZ) * this.width + localX];
+                                entries[index(x, y, z)] = state;
+                                empty &= state == NO_BLOCK;
+                            }
+                        }
+                    }
+                    if (!empty)
+                        sections.add(new Section(sectionX, sectionZ, Section.pack(entries, bits)));
+                }
+            }
+
+            return new SchematicData(this.width, this.height, this.length, this.offsetX, this.offsetY, this.offsetZ,
+                    this.alignX, this.alignZ, this.palette.toArray(new String[0]), bits, sections);
+        }
+    }
+
+}
@@ -0,0 +1,278 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.bukkit.util.schematic.format;
+
+import io.fairyproject.log.Log;
+import io.fairyproject.mc.MCServer;
+import io.fairyproject.mc.MCWorld;
+import io.fairyproject.mc.scheduler.MCScheduler;
+import io.fairyproject.mc.scheduler.MCSchedulers;
+import io.fairyproject.mc.version.MCVersion;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pastes {@link SchematicData} chunk by chunk.
+ * On Bukkit the chunks are written on the main thread, and each tick stops once the time budget is spent.
+ * On Folia every chunk is written by the scheduler of its region, with the same budget per region.
+ * The future completes when every block is placed, or exceptionally if the paste failed or was cancelled.
+ */
+public final class SchematicPasteTask {
+
+    private static final boolean FOLIA;
+    private static final int CHECK_INTERVAL = 64;
+
+    private final World world;
+    private final Object[] states;
+    private final long budgetNanos;
+    private final int totalBlocks;
+    private final AtomicInteger placedBlocks = new AtomicInteger();
+    private final AtomicInteger remainingQueues = new AtomicInteger();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private SchematicPasteTask(World world, SchematicData data, int quarterTurns, List<ChunkBatch> batches, Duration budget) {
+        this.world = world;
+        this.states = resolve(data.getPalette(), quarterTurns);
+        this.budgetNanos = budget.toNanos();
+
+        int total = 0;
+        for (ChunkBatch batch : batches) {
+            total += batch.size();
+        }
+        this.totalBlocks = total;
+    }
+
+    /**
+     * Start pasting the schematic with its origin at the position, can be called from any thread
+     *
+     * @param ignoreAir whether air in the schematic should keep the blocks already in the world
+     * @param budget the time a tick, or a region tick on Folia, may spend writing blocks
+     */
+    @NotNull
+    public static SchematicPasteTask start(@NotNull World world, int x, int y, int z, @NotNull SchematicData data, boolean ignoreAir, @NotNull Duration budget) {
+        return start(world, x, y, z, data, 0, ignoreAir, budget);
+    }
+
+    /**
+     * Start pasting the schematic with its origin at the position, turned around the origin, can be called from any thread
+     *
+     * @param quarterTurns the quarter turns counterclockwise seen from above, legacy block states are placed without turning their data
+     * @param ignoreAir whether air in the schematic should keep the blocks already in the world
+     * @param budget the time a tick, or a region tick on Folia, may spend writing blocks
+     */
+    @NotNull
+    public static SchematicPasteTask start(@NotNull World world, int x, int y, int z, @NotNull SchematicData data, int quarterTurns, boolean ignoreAir, @NotNull Duration budget) {
+        List<ChunkBatch> batches = data.toChunkBatches(x, y, z, quarterTurns, ignoreAir);
+        SchematicPasteTask task = new SchematicPasteTask(world, data, quarterTurns, batches, budget);
+        if (batches.isEmpty()) {
+            task.future.complete(null);
+            return task;
+        }
+
+        if (FOLIA) {
+            MCWorld mcWorld = MCWorld.from(world);
+            task.remainingQueues.set(batches.size());
+            for (ChunkBatch batch : batches) {
+                MCScheduler scheduler = MCSchedulers.getChunkScheduler(mcWorld, batch.getChunkX(), batch.getChunkZ());
+                task.new Queue(scheduler, new ArrayDeque<>(Collections.singletonList(batch))).schedule();
+            }
+        } else {
+            task.remainingQueues.set(1);
+            task.new Queue(MCSchedulers.getGlobalScheduler(), new ArrayDeque<>(batches)).schedule();
+        }
+        return task;
+    }
+
+    @NotNull
+    public CompletableFuture<Void> getFuture() {
+        return this.future;
+    }
+
+    public int getTotalBlocks() {
+        return this.totalBlocks;
+    }
+
+    public int getPlacedBlocks() {
+        return this.placedBlocks.get();
+    }
+
+    /**
+     * @return the placed fraction of the blocks, between 0 and 1
+     */
+    public double getProgress() {
+        return this.totalBlocks == 0 ? 1.0 : this.placedBlocks.get() / (double) this.totalBlocks;
+    }
+
+    public boolean isDone() {
+        return this.future.isDone();
+    }
+
+    /**
+     * Stop the paste once the chunk currently being written is done, or at the next tick if the chunk spans several ticks.
+     * Blocks already placed are kept
+     */
+    public boolean cancel() {
+        return this.future.cancel(false);
+    }
+
+    private Object[] resolve(String[] palette, int quarterTurns) {
+        final boolean modern = MCServer.current().getVersion().isHigherOrEqual(MCVersion.of(13));
+        final Object[] states = new Object[palette.length];
+        for (int i = 1; i < palette.length; i++) {
+            try {
+                states[i] = modern ? Bukkit.createBlockData(SchematicData.rotateState(palette[i], quarterTurns)) : LegacyState.parse(palette[i]);
+            } catch (IllegalArgumentException e) {
+                // most likely a block of a newer version, the position is skipped
+                Log.warn("Unknown block state " + palette[i] + " in schematic, it won't be pasted");
+            }
+        }
+        return states;
+    }
+
+    @SuppressWarnings("deprecation")
+    private void apply(Chunk chunk, ChunkBatch batch, int index) {
+        final Object state = this.states[batch.getState(index)];
+        if (state == null)
+            return;
+
+        final Block block = chunk.getBlock(batch.getX(index), batch.getY(index), batch.getZ(index));
+        if (state instanceof LegacyState) {
+            LegacyState legacy = (LegacyState) state;
+            BlockState blockState = block.getState();
+            blockState.setType(legacy.material);
+            blockState.setRawData(legacy.data);
+            blockState.update(true, false);
+        } else {
+            block.setBlockData((org.bukkit.block.data.BlockData) state, false);
+        }
+    }
+
+    /**
+     * Chunks written one after another on the same scheduler
+     */
+    private final class Queue implements Runnable {
+
+        private final MCScheduler scheduler;
+        private final ArrayDeque<ChunkBatch> batches;
+        private int cursor;
+
+        private Queue(MCScheduler scheduler, ArrayDeque<ChunkBatch> batches) {
+            this.scheduler = scheduler;
+            this.batches = batches;
+        }
+
+        private void schedule() {
+            this.scheduler.schedule(this, 1L);
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone())
+                return;
+
+            final long deadline = System.nanoTime() + budgetNanos;
+            int placed = 0;
+            try {
+                while (!this.batches.isEmpty()) {
+                    // cancelled while the previous chunk was written
+                    if (future.isDone())
+                        break;
+
+                    final ChunkBatch batch = this.batches.peek();
+                    final Chunk chunk = world.getChunkAt(batch.getChunkX(), batch.getChunkZ());
+                    while (this.cursor < batch.size()) {
+                        apply(chunk, batch, this.cursor++);
+                        placed++;
+
+                        if (placed % CHECK_INTERVAL == 0 && System.nanoTime() >= deadline) {
+                            placedBlocks.addAndGet(placed);
+                            this.schedule();
+                            return;
+                        }
+                    }
+                    this.batches.poll();
+                    this.cursor = 0;
+                }
+            } catch (Throwable throwable) {
+                placedBlocks.addAndGet(placed);
+                future.completeExceptionally(throwable);
+                return;
+            }
+
+            placedBlocks.addAndGet(placed);
+            if (remainingQueues.decrementAndGet() == 0)
+                future.complete(null);
+        }
+    }
+
+    /**
+     * A block of a server without block data, stored as material:data
+     */
+    private static final class LegacyState {
+
+        private final Material material;
+        private final byte data;
+
+        private LegacyState(Material material, byte data) {
+            this.material = material;
+            this.data = data;
+        }
+
+        private static LegacyState parse(String state) {
+            int separator = state.indexOf(':');
+            String name = separator == -1 ? state : state.substring(0, separator);
+            Material material = Material.getMaterial(name);
+            if (material == null)
+                throw new IllegalArgumentException("Unknown material " + name);
+
+            byte data = separator == -1 ? 0 : Byte.parseByte(state.substring(separator + 1));
+            return new LegacyState(material, data);
+        }
+    }
+
+    static {
+        boolean folia;
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            folia = true;
+        } catch (ClassNotFoundException e) {
+            folia = false;
+        }
+        FOLIA = folia;
+    }
+
+}
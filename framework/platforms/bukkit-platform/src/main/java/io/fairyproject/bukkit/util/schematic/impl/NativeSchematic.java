@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.bukkit.util.schematic.impl;
+
+import com.google.common.base.Preconditions;
+import io.fairyproject.bukkit.util.schematic.Schematic;
+import io.fairyproject.bukkit.util.schematic.format.SchematicCodec;
+import io.fairyproject.bukkit.util.schematic.format.SchematicData;
+import io.fairyproject.bukkit.util.schematic.format.SchematicPasteTask;
+import io.fairyproject.log.Log;
+import io.fairyproject.mc.MCServer;
+import io.fairyproject.mc.util.BlockPosition;
+import io.fairyproject.mc.version.MCVersion;
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A schematic in the fairy format, used when no WorldEdit is installed.
+ * Pastes are spread across ticks by {@link SchematicPasteTask}, so {@link #paste(Location, int, int, int)} returns before the blocks are placed
+ * and only logs a failed paste, use {@link #pasteAsync(Location)} to wait on or cancel it.
+ */
+@Getter
+@Setter
+public class NativeSchematic extends Schematic {
+
+    private boolean ignoreAir;
+    private Duration tickBudget = Duration.ofMillis(10);
+
+    public NativeSchematic(File file) {
+        super(file);
+    }
+
+    public NativeSchematic(File file, BlockPosition top, BlockPosition bottom) {
+        super(file, top, bottom);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void save(World world) throws IOException {
+        Preconditions.checkNotNull(this.file);
+        Preconditions.checkNotNull(this.top);
+        Preconditions.checkNotNull(this.bottom);
+
+        int minX = Math.min(this.top.getX(), this.bottom.getX());
+        int minY = Math.min(this.top.getY(), this.bottom.getY());
+        int minZ = Math.min(this.top.getZ(), this.bottom.getZ());
+        int maxX = Math.max(this.top.getX(), this.bottom.getX());
+        int maxY = Math.max(this.top.getY(), this.bottom.getY());
+        int maxZ = Math.max(this.top.getZ(), this.bottom.getZ());
+
+        boolean modern = MCServer.current().getVersion().isHigherOrEqual(MCVersion.of(13));
+        SchematicData.Builder builder = SchematicData.builder(maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1)
+                .minimum(minX, minZ);
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    Block block = world.getBlockAt(x, y, z);
+                    String state = modern ? block.getBlockData().getAsString() : block.getType().name() + ":" + block.getData();
+                    builder.block(x - minX, y - minY, z - minZ, state);
+                }
+            }
+        }
+
+        SchematicCodec.write(builder.build(), this.file);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only turns around the Y axis by a multiple of 90 degrees are supported, the blocks of legacy servers keep their data unturned
+     *
+     * @throws UnsupportedOperationException if the schematic is turned around the X or Z axis, or not by a multiple of 90 degrees
+     */
+    @Override
+    public void paste(Location location, int rotateX, int rotateY, int rotateZ) throws IOException {
+        if (rotateX != 0 || rotateZ != 0)
+            throw new UnsupportedOperationException("Native schematics can only be rotated around the Y axis");
+        if (rotateY % 90 != 0)
+            throw new UnsupportedOperationException("Native schematics can only be rotated by multiples of 90 degrees, got " + rotateY);
+
+        // nothing waits on this paste, so a failure would otherwise go unnoticed
+        this.pasteAsync(location, rotateY / 90).getFuture().whenComplete((ignored, throwable) -> {
+            if (throwable != null && !(throwable instanceof CancellationException))
+                Log.error("Failed to paste schematic %s", throwable, this.file);
+        });
+    }
+
+    /**
+     * Start pasting the schematic with its origin at the location
+     *
+     * @return the running paste
+     */
+    public SchematicPasteTask pasteAsync(Location location) throws IOException {
+        return this.pasteAsync(location, 0);
+    }
+
+    /**
+     * Start pasting the schematic with its origin at the location, turned around the origin
+     *
+     * @param quarterTurns the quarter turns counterclockwise seen from above, like a Y rotation of 90 degrees in {@link #paste(Location, int, int, int)}
+     * @return the running paste
+     */
+    public SchematicPasteTask pasteAsync(Location location, int quarterTurns) throws IOException {
+        Preconditions.checkNotNull(location);
+        Preconditions.checkNotNull(location.getWorld());
+        Preconditions.checkNotNull(this.file);
+
+        SchematicData data = SchematicCodec.read(this.file);
+        int turns = Math.floorMod(quarterTurns, 4);
+        int originX = location.getBlockX();
+        int originY = location.getBlockY();
+        int originZ = location.getBlockZ();
+        // the corners relative to the origin, turned with the blocks
+        int fromX = -data.getOffsetX(), fromZ = -data.getOffsetZ();
+        int toX = fromX + data.getWidth() - 1, toZ = fromZ + data.getLength() - 1;
+        int cornerX = SchematicData.rotateX(fromX, fromZ, turns), cornerZ = SchematicData.rotateZ(fromX, fromZ, turns);
+        int oppositeX = SchematicData.rotateX(toX, toZ, turns), oppositeZ = SchematicData.rotateZ(toX, toZ, turns);
+        int minY = originY - data.getOffsetY();
+        this.bottom = new BlockPosition(originX + Math.min(cornerX, oppositeX), minY, originZ + Math.min(cornerZ, oppositeZ));
+        this.top = new BlockPosition(originX + Math.max(cornerX, oppositeX), minY + data.getHeight() - 1, originZ + Math.max(cornerZ, oppositeZ));
+
+        return SchematicPasteTask.start(location.getWorld(), originX, originY, originZ, data, turns, this.ignoreAir, this.tickBudget);
+    }
+}
@@ -0,0 +1,158 @@
+package io.fairyproject.bukkit.listener.events;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import io.fairyproject.Debug;
+import io.fairyproject.bukkit.timings.TimingService;
+import io.fairyproject.mc.scheduler.MCScheduler;
+import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerToggleSneakEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class PlayerEventRouterTest {
+
+    private boolean unitTest;
+    private ServerMock server;
+    private Plugin plugin;
+    private List<Player> calls;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        unitTest = Debug.UNIT_TEST;
+        Debug.UNIT_TEST = true;
+        server = MockBukkit.mock();
+        plugin = MockBukkit.createMockPlugin();
+        calls = new ArrayList<>();
+
+        TimingService timingService = new TimingService(null);
+        timingService.onPreInitialize();
+        Field field = EventSubscription.class.getDeclaredField("TIMING_SERVICE");
+        field.setAccessible(true);
+        field.set(null, timingService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PlayerEventRouter.unregisterAll(plugin);
+        HandlerList.unregisterAll(plugin);
+        MockBukkit.unmock();
+        Debug.UNIT_TEST = unitTest;
+    }
+
+    @Test
+    void subscriptionsOfPlayersShareOneExecutor() {
+        PlayerMock first = server.addPlayer();
+        PlayerMock second = server.addPlayer();
+
+        subscribe(first);
+        subscribe(second);
+
+        assertEquals(1, PlayerToggleSneakEvent.getHandlerList().getRegisteredListeners().length);
+    }
+
+    @Test
+    void eventIsDispatchedToTheSubscriptionsOfItsPlayer() {
+        PlayerMock player = server.addPlayer();
+        subscribe(player);
+        subscribe(player);
+
+        sneak(player);
+
+        assertEquals(2, calls.size());
+        assertSame(player, calls.get(0));
+        assertSame(player, calls.get(1));
+    }
+
+    @Test
+    void eventOfAnotherPlayerIsNotDispatched() {
+        PlayerMock subscribed = server.addPlayer();
+        PlayerMock other = server.addPlayer();
+        subscribe(subscribed);
+
+        sneak(other);
+
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    void unregisteredSubscriptionIsNotDispatched() {
+        PlayerMock player = server.addPlayer();
+        EventSubscription<PlayerToggleSneakEvent> subscription = subscribe(player);
+
+        assertTrue(subscription.unregister());
+        sneak(player);
+
+        assertTrue(calls.isEmpty());
+        assertFalse(subscription.isActive());
+        // the last subscription of the route is gone, so is its executor
+        assertEquals(0, PlayerToggleSneakEvent.getHandlerList().getRegisteredListeners().length);
+    }
+
+    @Test
+    void unregisteringKeepsTheOtherSubscriptions() {
+        PlayerMock player = server.addPlayer();
+        EventSubscription<PlayerToggleSneakEvent> removed = subscribe(player);
+        subscribe(player);
+
+        removed.unregister();
+        sneak(player);
+
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void subscriptionsAreUnregisteredOnQuit() {
+        // never added to the server, so it is already offline once the quit is handled
+        PlayerMock player = new PlayerMock(server, "Quitter");
+        PlayerMock other = server.addPlayer();
+        EventSubscription<PlayerToggleSneakEvent> subscription = subscribe(player);
+        EventSubscription<PlayerToggleSneakEvent> otherSubscription = subscribe(other);
+
+        MCScheduler scheduler = Mockito.mock(MCScheduler.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong());
+        MCSchedulerProvider schedulerProvider = Mockito.mock(MCSchedulerProvider.class);
+        when(schedulerProvider.getGlobalScheduler()).thenReturn(scheduler);
+
+        new PlayerEventRouterListener(schedulerProvider).onPlayerQuit(new PlayerQuitEvent(player, ""));
+        sneak(player);
+        sneak(other);
+
+        assertFalse(subscription.isActive());
+        assertTrue(otherSubscription.isActive());
+        assertEquals(1, calls.size());
+        assertSame(other, calls.get(0));
+    }
+
+    private EventSubscription<PlayerToggleSneakEvent> subscribe(Player player) {
+        return new EventSubscribeBuilder<>(PlayerToggleSneakEvent.class)
+                .forPlayer(player)
+                .listen(event -> calls.add(event.getPlayer()))
+                .build(plugin);
+    }
+
+    private void sneak(Player player) {
+        server.getPluginManager().callEvent(new PlayerToggleSneakEvent(player, true));
+    }
+
+}
@@ -0,0 +1,178 @@
+package io.fairyproject.bukkit.util.schematic.format;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchematicCodecTest {
+
+    private static SchematicData house(int minX, int minZ) {
+        SchematicData.Builder builder = SchematicData.builder(20, 5, 18).minimum(minX, minZ);
+        for (int y = 0; y < 5; y++) {
+            for (int z = 0; z < 18; z++) {
+                for (int x = 0; x < 20; x++) {
+                    boolean wall = x == 0 || z == 0 || x == 19 || z == 17;
+                    builder.block(x, y, z, y == 0 ? "minecraft:stone" : wall ? "minecraft:oak_planks[axis=y]" : "minecraft:air");
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static SchematicData roundTrip(SchematicData data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SchematicCodec.write(data, out);
+        return SchematicCodec.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void roundTripShouldKeepEveryBlock() throws IOException {
+        SchematicData data = house(7, 3);
+        SchematicData read = roundTrip(data);
+
+        assertEquals(20, read.getWidth());
+        assertEquals(5, read.getHeight());
+        assertEquals(18, read.getLength());
+        assertEquals(7, read.getAlignX());
+        assertEquals(3, read.getAlignZ());
+        assertArrayEquals(data.getPalette(), read.getPalette());
+        for (int y = 0; y < 5; y++) {
+            for (int z = 0; z < 18; z++) {
+                for (int x = 0; x < 20; x++) {
+                    assertEquals(data.getBlock(x, y, z), read.getBlock(x, y, z));
+                }
+            }
+        }
+        assertEquals("minecraft:stone", read.getBlock(4, 0, 4));
+        assertEquals("minecraft:oak_planks[axis=y]", read.getBlock(0, 2, 4));
+        assertEquals("minecraft:air", read.getBlock(4, 2, 4));
+        assertNull(read.getBlock(20, 0, 0));
+    }
+
+    @Test
+    public void sectionsShouldFollowTheChunksOfTheMinimumCorner() {
+        // 20 blocks starting at 7 inside a chunk cover 2 chunks on x, 18 starting at 3 cover 2 on z
+        assertEquals(4, house(7, 3).getSections().size());
+        assertEquals(4, house(0, 0).getSections().size());
+        assertEquals(6, house(14, 0).getSections().size());
+    }
+
+    @Test
+    public void alignedPasteShouldWriteOneBatchPerSection() {
+        SchematicData data = house(7, 3);
+        List<ChunkBatch> batches = data.toChunkBatches(16 * 5 + 7, 64, 16 * -2 + 3, false);
+
+        assertEquals(data.getSections().size(), batches.size());
+        int total = 0;
+        for (ChunkBatch batch : batches) {
+            total += batch.size();
+        }
+        assertEquals(20 * 5 * 18, total);
+    }
+
+    @Test
+    public void batchesShouldPlaceBlocksAtTheirWorldPosition() {
+        SchematicData data = house(0, 0);
+        List<ChunkBatch> batches = data.toChunkBatches(-5, -60, 9, false);
+
+        Map<String, String> placed = new HashMap<>();
+        for (ChunkBatch batch : batches) {
+            for (int i = 0; i < batch.size(); i++) {
+                int x = (batch.getChunkX() << 4) + batch.getX(i);
+                int z = (batch.getChunkZ() << 4) + batch.getZ(i);
+                assertNull(placed.put(x + "," + batch.getY(i) + "," + z, data.getPalette()[batch.getState(i)]));
+            }
+        }
+
+        assertEquals(20 * 5 * 18, placed.size());
+        assertEquals("minecraft:stone", placed.get("-5,-60,9"));
+        assertEquals("minecraft:oak_planks[axis=y]", placed.get("14,-58,26"));
+        assertEquals("minecraft:air", placed.get("0,-57,12"));
+    }
+
+    @Test
+    public void ignoreAirShouldSkipAirBlocks() {
+        List<ChunkBatch> batches = house(0, 0).toChunkBatches(0, 0, 0, true);
+
+        int total = 0;
+        for (ChunkBatch batch : batches) {
+            total += batch.size();
+        }
+        // the floor and four walls of 4 blocks high
+        assertEquals(20 * 18 + 4 * (2 * 20 + 2 * 16), total);
+    }
+
+    @Test
+    public void rotatedBatchesShouldTurnAroundTheOrigin() {
+        SchematicData data = house(0, 0);
+        List<ChunkBatch> batches = data.toChunkBatches(0, 0, 0, 1, false);
+
+        Map<String, String> placed = new HashMap<>();
+        for (ChunkBatch batch : batches) {
+            for (int i = 0; i < batch.size(); i++) {
+                int x = (batch.getChunkX() << 4) + batch.getX(i);
+                int z = (batch.getChunkZ() << 4) + batch.getZ(i);
+                assertTrue(x >= 0 && x < 18 && z > -20 && z <= 0, x + "," + z);
+                assertNull(placed.put(x + "," + batch.getY(i) + "," + z, data.getPalette()[batch.getState(i)]));
+            }
+        }
+
+        assertEquals(20 * 5 * 18, placed.size());
+        // a quarter turn moves x onto -z and z onto x
+        assertEquals("minecraft:oak_planks[axis=y]", placed.get("4,2,0"));
+        assertEquals("minecraft:air", placed.get("4,2,-4"));
+        assertEquals(placed, collect(data, data.toChunkBatches(0, 0, 0, -3, false)));
+        assertEquals(collect(data, data.toChunkBatches(0, 0, 0, false)), collect(data, data.toChunkBatches(0, 0, 0, 4, false)));
+    }
+
+    @Test
+    public void rotatedStatesShouldTurnTheirDirections() {
+        assertEquals("minecraft:oak_stairs[facing=west,half=bottom,shape=inner_left]",
+                SchematicData.rotateState("minecraft:oak_stairs[facing=north,half=bottom,shape=inner_left]", 1));
+        assertEquals("minecraft:oak_log[axis=z]", SchematicData.rotateState("minecraft:oak_log[axis=x]", 1));
+        assertEquals("minecraft:oak_log[axis=y]", SchematicData.rotateState("minecraft:oak_log[axis=y]", 3));
+        assertEquals("minecraft:oak_sign[rotation=12]", SchematicData.rotateState("minecraft:oak_sign[rotation=0]", 1));
+        assertEquals("minecraft:oak_fence[west=true,south=false,east=false,north=true]",
+                SchematicData.rotateState("minecraft:oak_fence[north=true,west=false,south=false,east=true]", 1));
+        assertEquals("minecraft:rail[shape=north_east]", SchematicData.rotateState("minecraft:rail[shape=south_east]", 1));
+        assertEquals("minecraft:rail[shape=east_west]", SchematicData.rotateState("minecraft:rail[shape=north_south]", 1));
+        assertEquals("minecraft:rail[shape=north_south]", SchematicData.rotateState("minecraft:rail[shape=north_south]", 2));
+        assertEquals("minecraft:rail[shape=ascending_south]", SchematicData.rotateState("minecraft:rail[shape=ascending_east]", 3));
+        assertEquals("minecraft:hopper[facing=down]", SchematicData.rotateState("minecraft:hopper[facing=down]", 1));
+        assertEquals("minecraft:stone", SchematicData.rotateState("minecraft:stone", 1));
+        assertEquals("TORCH:1", SchematicData.rotateState("TORCH:1", 1));
+    }
+
+    private static Map<String, String> collect(SchematicData data, List<ChunkBatch> batches) {
+        Map<String, String> placed = new HashMap<>();
+        for (ChunkBatch batch : batches) {
+            for (int i = 0; i < batch.size(); i++) {
+                int x = (batch.getChunkX() << 4) + batch.getX(i);
+                int z = (batch.getChunkZ() << 4) + batch.getZ(i);
+                placed.put(x + "," + batch.getY(i) + "," + z, data.getPalette()[batch.getState(i)]);
+            }
+        }
+        return placed;
+    }
+
+    @Test
+    public void shouldRejectOtherFormats() {
+        assertThrows(IOException.class, () -> SchematicCodec.read(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertDoesNotThrow(() -> SchematicCodec.write(house(0, 0), out));
+        byte[] bytes = out.toByteArray();
+        // truncated in the middle of the sections
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+        assertThrows(IOException.class, () -> SchematicCodec.read(new ByteArrayInputStream(truncated)));
+    }
+
+}
@@ -0,0 +1,119 @@
+package io.fairyproject.container.binder;
+
+import io.fairyproject.container.object.ContainerObj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Simulates the startup of a container graph, every component is bound and then resolved through the interfaces it implements.
+ * {@link #linearScan} is the previous resolution which walked every binding for each supertype lookup.
+ * Run with {@code ./gradlew -p framework/platforms :core-platform:jmh} from the repository root and compare the ops/s of
+ * {@link #indexed} against {@link #linearScan}, each operation being one full bind and resolve of the graph.
+ */
+public class ContainerObjectBinderBenchmark {
+
+    private static final Class<?>[] COMPONENTS = {
+            ArrayList.class, LinkedList.class, HashMap.class, TreeMap.class, LinkedHashMap.class, HashSet.class,
+            TreeSet.class, LinkedHashSet.class, ArrayDeque.class, PriorityQueue.class, IdentityHashMap.class,
+            WeakHashMap.class, EnumMap.class, BitSet.class, Vector.class, Stack.class, Hashtable.class, Properties.class,
+            ConcurrentHashMap.class, ConcurrentLinkedQueue.class, ConcurrentLinkedDeque.class, ConcurrentSkipListMap.class,
+            ConcurrentSkipListSet.class, CopyOnWriteArrayList.class, CopyOnWriteArraySet.class, LinkedBlockingQueue.class,
+            LinkedBlockingDeque.class, ArrayBlockingQueue.class, PriorityBlockingQueue.class, DelayQueue.class,
+            SynchronousQueue.class, LinkedTransferQueue.class, ThreadPoolExecutor.class, ScheduledThreadPoolExecutor.class,
+            ForkJoinPool.class, CompletableFuture.class, FutureTask.class, CountDownLatch.class, Semaphore.class,
+            CyclicBarrier.class, Phaser.class, AtomicInteger.class, AtomicLong.class, AtomicBoolean.class,
+            AtomicReference.class, LongAdder.class, DoubleAdder.class, StringBuilder.class, StringBuffer.class,
+            ByteArrayOutputStream.class, ByteArrayInputStream.class, StringWriter.class, StringReader.class,
+            PrintWriter.class, BufferedReader.class, BufferedWriter.class, DataOutputStream.class, DataInputStream.class,
+            Thread.class, ThreadGroup.class, Random.class, Timer.class, Scanner.class, StringJoiner.class,
+            Optional.class, UUID.class, Date.class, Locale.class, Currency.class, Objects.class
+    };
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        private ContainerObj[] objects;
+        private Class<?>[][] lookups;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            objects = new ContainerObj[COMPONENTS.length];
+            lookups = new Class<?>[COMPONENTS.length][];
+            for (int i = 0; i < COMPONENTS.length; i++) {
+                objects[i] = ContainerObj.create(COMPONENTS[i]);
+
+                List<Class<?>> types = new ArrayList<>(Arrays.asList(COMPONENTS[i].getInterfaces()));
+                types.add(COMPONENTS[i].getSuperclass());
+                // a dependency nothing provides, the worst case of the scan
+                types.add(java.lang.reflect.InvocationHandler.class);
+                types.removeIf(Objects::isNull);
+                lookups[i] = types.toArray(new Class<?>[0]);
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void indexed(State state, Blackhole blackhole) {
+        ContainerObjectBinderImpl binder = new ContainerObjectBinderImpl();
+        for (ContainerObj object : state.objects) {
+            binder.bind(object.getType(), object);
+        }
+
+        for (Class<?>[] types : state.lookups) {
+            for (Class<?> type : types) {
+                blackhole.consume(binder.getBinding(type));
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void linearScan(State state, Blackhole blackhole) {
+        Map<Class<?>, ContainerObj> bindings = new ConcurrentHashMap<>();
+        for (ContainerObj object : state.objects) {
+            bindings.put(object.getType(), object);
+        }
+
+        for (Class<?>[] types : state.lookups) {
+            for (Class<?> type : types) {
+                ContainerObj obj = bindings.get(type);
+                if (obj == null) {
+                    for (ContainerObj value : bindings.values()) {
+                        if (type.isAssignableFrom(value.getType())) {
+                            obj = value;
+                            break;
+                        }
+                    }
+                }
+                blackhole.consume(obj);
+            }
+        }
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ContainerObjectBinderBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,85 @@
+package io.fairyproject.util.random;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A single roll against loot tables of different sizes.
+ * {@link #weightedRandom} is the linear pick of {@link WeightedRandom}, the others are the alias tables.
+ */
+public class WeightedRandomBenchmark {
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+
+        @Param({"10", "100", "1000"})
+        private int items;
+
+        private List<WeightedItem> list;
+        private WeightedSampler<WeightedItem> sampler;
+        private MutableWeightedSampler<WeightedItem> mutableSampler;
+        private Random random;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            SplittableRandom weights = new SplittableRandom(0);
+            list = new ArrayList<>(items);
+            mutableSampler = new MutableWeightedSampler<>();
+            for (int i = 0; i < items; i++) {
+                int weight = 1 + weights.nextInt(100);
+                WeightedItem item = () -> weight;
+                list.add(item);
+                mutableSampler.put(item, weight);
+            }
+            sampler = WeightedSampler.of(list);
+            random = new Random(0);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public WeightedItem weightedRandom(State state) {
+        return WeightedRandom.getRandomItem(state.list, state.random);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public WeightedItem weightedSampler(State state) {
+        return state.sampler.sample(state.random);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public WeightedItem mutableWeightedSampler(State state) {
+        return state.mutableSampler.sample(state.random);
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(WeightedRandomBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
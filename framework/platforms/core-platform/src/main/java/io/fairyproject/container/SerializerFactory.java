@@ -31,6 +31,7 @@ import io.fairyproject.serializer.AvoidDuplicate;
 import io.fairyproject.serializer.SerializerData;
 import io.fairyproject.util.ConditionUtils;
 import io.fairyproject.util.exceptionally.ThrowingSupplier;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
@@ -38,6 +39,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The serializer factory that stores every {@link io.fairyproject.ObjectSerializer} instances.
@@ -53,6 +55,8 @@ public class SerializerFactory {
     private final ContainerContext context;
     private Map<Class<?>, SerializerData> serializerByValueType;
     private Map<Class<?>, SerializerData> serializerBySerializerType;
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger modifications = new AtomicInteger();
 
     @PreInitialize
     public void onPreInitialize() {
@@ -85,6 +89,7 @@ public class SerializerFactory {
 
         this.serializerByValueType.put(serializer.inputClass(), serializerData);
         this.serializerBySerializerType.put(serializer.getClass(), serializerData);
+        this.modifications.incrementAndGet();
     }
 
     /**
@@ -94,7 +99,9 @@ public class SerializerFactory {
      */
     public boolean unregisterSerializer(@NotNull ObjectSerializer<?, ?> serializer) {
         this.serializerBySerializerType.remove(serializer.getClass());
-        return this.serializerByValueType.remove(serializer.inputClass()) != null;
+        boolean removed = this.serializerByValueType.remove(serializer.inputClass()) != null;
+        this.modifications.incrementAndGet();
+        return removed;
     }
 
     /**
@@ -106,11 +113,21 @@ public class SerializerFactory {
         final SerializerData serializerData = this.serializerByValueType.remove(type);
         if (serializerData != null) {
             this.serializerBySerializerType.remove(serializerData.getSerializer().getClass());
+            this.modifications.incrementAndGet();
             return true;
         }
         return false;
     }
 
+    /**
+     * A counter bumped on every registration and unregistration, for callers caching the result of {@link #findSerializer(Class)}
+     *
+     * @return the number of modifications so far
+     */
+    public int getModificationCount() {
+        return this.modifications.get();
+    }
+
     /**
      * Search for the serializer instance by key type.
      * @param type the type of the serializer you are looking for
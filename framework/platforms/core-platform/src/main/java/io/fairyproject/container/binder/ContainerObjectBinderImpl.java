@@ -27,12 +27,28 @@ package io.fairyproject.container.binder;
 import io.fairyproject.container.object.ContainerObj;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps the exact bindings together with an index from every supertype and interface of a bound object to the objects assignable to it,
+ * so resolving a dependency by its interface is a single map lookup instead of a scan over every binding.
+ * A type missing from the index has no assignable binding at all, which makes negative lookups just as cheap.
+ */
 public class ContainerObjectBinderImpl implements ContainerObjectBinder {
 
+    private static final ClassValue<Class<?>[]> SUPERTYPES = new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            Set<Class<?>> supertypes = new LinkedHashSet<>();
+            collectSupertypes(type, supertypes);
+            return supertypes.toArray(new Class<?>[0]);
+        }
+    };
+
     private final Map<Class<?>, ContainerObj> bindings = new ConcurrentHashMap<>();
+    // the lists are copied on write, the first element is the one resolved
+    private final Map<Class<?>, List<ContainerObj>> assignable = new ConcurrentHashMap<>();
 
     @Override
     @Nullable
@@ -50,13 +66,11 @@ public class ContainerObjectBinderImpl implements ContainerObjectBinder {
     }
 
     private ContainerObj findBindingAssignableByType(Class<?> type) {
-        for (ContainerObj value : this.bindings.values()) {
-            Class<?> valueType = value.getType();
-            if (type.isAssignableFrom(valueType)) {
-                return value;
-            }
+        List<ContainerObj> objects = this.assignable.get(type);
+        if (objects == null || objects.isEmpty()) {
+            return null;
         }
-        return null;
+        return objects.get(0);
     }
 
     @Override
@@ -66,12 +80,59 @@ public class ContainerObjectBinderImpl implements ContainerObjectBinder {
 
     @Override
     public void bind(Class<?> type, ContainerObj object) {
-        this.bindings.put(type, object);
+        synchronized (this.assignable) {
+            ContainerObj previous = this.bindings.put(type, object);
+            if (previous != null) {
+                this.removeFromIndex(previous);
+            }
+            this.addToIndex(object);
+        }
     }
 
     @Override
     public void unbind(Class<?> type) {
-        this.bindings.remove(type);
+        synchronized (this.assignable) {
+            ContainerObj previous = this.bindings.remove(type);
+            if (previous != null) {
+                this.removeFromIndex(previous);
+            }
+        }
+    }
+
+    private void addToIndex(ContainerObj object) {
+        for (Class<?> supertype : SUPERTYPES.get(object.getType())) {
+            List<ContainerObj> objects = this.assignable.get(supertype);
+            List<ContainerObj> updated = objects == null ? new ArrayList<>(1) : new ArrayList<>(objects);
+            updated.add(object);
+            this.assignable.put(supertype, updated);
+        }
+    }
+
+    private void removeFromIndex(ContainerObj object) {
+        for (Class<?> supertype : SUPERTYPES.get(object.getType())) {
+            List<ContainerObj> objects = this.assignable.get(supertype);
+            if (objects == null)
+                continue;
+
+            List<ContainerObj> updated = new ArrayList<>(objects);
+            // an object bound under several types appears once per binding, only drop one of them
+            updated.remove(object);
+            if (updated.isEmpty()) {
+                this.assignable.remove(supertype);
+            } else {
+                this.assignable.put(supertype, updated);
+            }
+        }
+    }
+
+    private static void collectSupertypes(Class<?> type, Set<Class<?>> supertypes) {
+        if (type == null || !supertypes.add(type)) {
+            return;
+        }
+        collectSupertypes(type.getSuperclass(), supertypes);
+        for (Class<?> interfaceClass : type.getInterfaces()) {
+            collectSupertypes(interfaceClass, supertypes);
+        }
     }
 
 }
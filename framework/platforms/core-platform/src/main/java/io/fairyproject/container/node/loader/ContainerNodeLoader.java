@@ -38,6 +38,8 @@ import io.fairyproject.container.processor.ContainerNodeInitProcessor;
 import io.fairyproject.container.processor.ContainerObjConstructProcessor;
 import io.fairyproject.container.processor.ContainerObjInitProcessor;
 import io.fairyproject.container.scope.InjectableScope;
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSection;
 import io.fairyproject.util.AsyncUtils;
 import io.fairyproject.util.exceptionally.ThrowingRunnable;
 import io.fairyproject.util.thread.BlockingThreadAwaitQueue;
@@ -136,7 +138,7 @@ public class ContainerNodeLoader {
             CompletableFuture<?> chain = null;
             for (ContainerObjInitProcessor initProcessor : this.context.initProcessors()) {
                 try {
-                    Supplier<CompletableFuture<?>> callback = () -> initProcessor.processPreInitialization(object, instance, this.containerObjectResolver);
+                    Supplier<CompletableFuture<?>> callback = () -> profiled("pre-init", object, () -> initProcessor.processPreInitialization(object, instance, this.containerObjectResolver));
                     if (chain == null)
                         chain = callback.get();
                     else
@@ -165,7 +167,7 @@ public class ContainerNodeLoader {
             CompletableFuture<?> chain = null;
             for (ContainerObjInitProcessor initProcessor : this.context.initProcessors()) {
                 try {
-                    Supplier<CompletableFuture<?>> callback = () -> initProcessor.processPostInitialization(object, instance);
+                    Supplier<CompletableFuture<?>> callback = () -> profiled("post-init", object, () -> initProcessor.processPostInitialization(object, instance));
                     if (chain == null)
                         chain = callback.get();
                     else
@@ -239,15 +241,29 @@ public class ContainerNodeLoader {
     @NotNull
     private static Object createInstance(ContainerObj obj, Object[] dependencies, InstanceProvider instanceProvider) {
         Object instance;
+        ProfilerSection section = Profiler.section("Container: construct - " + obj.getType().getName());
+        long start = section.start();
         try {
             instance = instanceProvider.provide(dependencies);
         } catch (Exception ex) {
             throw new IllegalStateException("Failed to provide instance for " + obj.getType().getName(), ex);
+        } finally {
+            section.stop(start);
         }
 
         return instance;
     }
 
+    private static <T> T profiled(String phase, ContainerObj obj, Supplier<T> supplier) {
+        ProfilerSection section = Profiler.section("Container: " + phase + " - " + obj.getType().getName());
+        long start = section.start();
+        try {
+            return supplier.get();
+        } finally {
+            section.stop(start);
+        }
+    }
+
     private CompletableFuture<Object> callConstructProcessors(Object instance) {
         List<CompletableFuture<?>> futures = new ArrayList<>();
 
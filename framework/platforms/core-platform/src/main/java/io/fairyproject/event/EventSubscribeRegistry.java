@@ -1,5 +1,7 @@
 package io.fairyproject.event;
 
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSection;
 import io.fairyproject.util.ConditionUtils;
 import io.fairyproject.util.Utility;
 import io.fairyproject.util.exceptionally.SneakyThrowUtil;
@@ -51,9 +53,11 @@ public class EventSubscribeRegistry {
 
         private final Object listener;
         private final MethodHandle method;
+        private final ProfilerSection section;
 
         public AnnotatedHandler(Object listener, Method method) {
             this.listener = listener;
+            this.section = Profiler.section("Subscribe: " + method.getDeclaringClass().getName() + "#" + method.getName() + " (" + method.getParameterTypes()[0].getSimpleName() + ")");
 
             MethodHandle retMethod = null;
             try {
@@ -68,10 +72,13 @@ public class EventSubscribeRegistry {
 
         @Override
         public void accept(T t) {
+            long start = this.section.start();
             try {
                 this.method.invoke(listener, t);
             } catch (Throwable e) {
                 SneakyThrowUtil.sneakyThrow(e);
+            } finally {
+                this.section.stop(start);
             }
         }
     }
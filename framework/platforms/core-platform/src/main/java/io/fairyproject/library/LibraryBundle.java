@@ -35,9 +35,7 @@ public interface LibraryBundle {
     List<Relocation> relocations();
 
     default void load(LibraryHandler libraryHandler) {
-        for (Library library : this.libraries()) {
-            libraryHandler.loadLibrary(library, true, this.relocations().toArray(new Relocation[0]));
-        }
+        libraryHandler.loadLibraries(this.libraries(), true, this.relocations().toArray(new Relocation[0]));
     }
 
 }
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Fairy Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.library;
+
+import io.fairyproject.log.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Properties;
+
+/**
+ * Remembers the jars whose checksum was already verified, keyed by file name with the size and modification time
+ * at the moment of verification, so an unchanged jar doesn't need to be hashed again on the next boot.
+ */
+final class LibraryChecksumManifest {
+
+    private final Path path;
+    private final Properties properties = new Properties();
+    private boolean dirty;
+
+    LibraryChecksumManifest(Path path) {
+        this.path = path;
+        if (Files.exists(path)) {
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                this.properties.load(inputStream);
+            } catch (IOException | IllegalArgumentException e) {
+                Log.warn("Failed to read library checksum manifest, every library will be verified again.");
+                this.properties.clear();
+            }
+        }
+    }
+
+    synchronized boolean isVerified(Path file, byte[] checksum) {
+        String value = this.properties.getProperty(file.getFileName().toString());
+        if (value == null)
+            return false;
+
+        try {
+            return value.equals(this.entry(file, checksum));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    synchronized void markVerified(Path file, byte[] checksum) {
+        try {
+            this.properties.setProperty(file.getFileName().toString(), this.entry(file, checksum));
+            this.dirty = true;
+        } catch (IOException e) {
+            // not recorded, the jar is simply hashed again next time
+        }
+    }
+
+    synchronized void invalidate(Path file) {
+        if (this.properties.remove(file.getFileName().toString()) != null)
+            this.dirty = true;
+    }
+
+    synchronized void save() {
+        if (!this.dirty)
+            return;
+
+        Path temp = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                this.properties.store(outputStream, "Verified library checksums, safe to delete");
+            }
+            Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING);
+            this.dirty = false;
+        } catch (IOException e) {
+            Log.warn("Failed to write library checksum manifest", e);
+        }
+    }
+
+    private String entry(Path file, byte[] checksum) throws IOException {
+        return Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis() + ":" + Base64.getEncoder().encodeToString(checksum);
+    }
+}
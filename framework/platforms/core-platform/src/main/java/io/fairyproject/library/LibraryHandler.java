@@ -35,4 +35,10 @@ public interface LibraryHandler {
     IsolatedClassLoader obtainClassLoaderWith(Library... libraries);
 
     void loadLibrary(Library library, boolean addToUCP, Relocation... relocations);
+
+    default void loadLibraries(Collection<Library> libraries, boolean addToUCP, Relocation... relocations) {
+        for (Library library : libraries) {
+            this.loadLibrary(library, addToUCP, relocations);
+        }
+    }
 }
@@ -32,35 +32,53 @@ import io.fairyproject.library.relocate.RelocationHandlerImpl;
 import io.fairyproject.plugin.Plugin;
 import io.fairyproject.plugin.PluginManager;
 import io.fairyproject.util.URLClassLoaderAccess;
-import lombok.SneakyThrows;
+import io.fairyproject.util.thread.NamedThreadFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.net.URLConnection;
+import java.nio.file.*;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 
 public class LibraryHandlerImpl implements LibraryHandler {
 
+    private static final int THREADS = Integer.getInteger("fairy.library.threads", Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors())));
+    private static final int TIMEOUT = 30_000;
+    private static final ThreadLocal<MessageDigest> MESSAGE_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to initialize message digest.", e);
+        }
+    });
+
     private final FairyPlatform platform;
     private final Path directory;
-    private final MessageDigest messageDigest;
+    private final LibraryChecksumManifest manifest;
+    private final ExecutorService executor;
 
     private final Map<Library, Path> loadedLibrary;
+    private final Map<Library, CompletableFuture<Path>> resolving;
     private final Map<Plugin, URLClassLoaderAccess> pluginClassLoaders;
     private final Map<Set<Library>, IsolatedClassLoader> loaders;
-    private final RelocationHandler relocationHandler;
+    private volatile RelocationHandler relocationHandler;
 
     public LibraryHandlerImpl(FairyPlatform platform) {
+        this(platform, platform.getDataFolder().toPath().resolve("libs"));
+    }
+
+    LibraryHandlerImpl(FairyPlatform platform, Path directory) {
         this.platform = platform;
-        this.directory = platform.getDataFolder().toPath().resolve("libs");
+        this.directory = directory;
         this.loadedLibrary = new ConcurrentHashMap<>();
+        this.resolving = new ConcurrentHashMap<>();
         this.pluginClassLoaders = new ConcurrentHashMap<>();
         this.loaders = new ConcurrentHashMap<>();
 
@@ -71,13 +89,13 @@ public class LibraryHandlerImpl implements LibraryHandler {
             throw new IllegalStateException("Failed to create directory for libraries.", e);
         }
 
-        this.relocationHandler = new RelocationHandlerImpl(this);
-
-        try {
-            this.messageDigest = MessageDigest.getInstance("SHA-256");
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to initialize message digest.", e);
-        }
+        this.manifest = new LibraryChecksumManifest(this.directory.resolve("checksums.properties"));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), NamedThreadFactory.builder()
+                .name("Library Thread - %d")
+                .daemon(true)
+                .build());
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
 
         if (PluginManager.isInitialized())
             PluginManager.INSTANCE.registerListener(new LibraryHandlerPluginListener(this));
@@ -140,12 +158,73 @@ public class LibraryHandlerImpl implements LibraryHandler {
 
         Path path;
         try {
-            path = this.remapLibrary(this.downloadLibrary(library), library, relocations);
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to load library " + library + ".", e);
+            path = this.resolve(library, relocations);
+        } finally {
+            this.manifest.save();
+        }
+
+        this.addLibrary(library, path, addToUCP);
+    }
+
+    /**
+     * Download, verify and relocate the libraries in parallel, they are only added to the classloaders once all of them
+     * were resolved, in the order given.
+     */
+    @Override
+    public void loadLibraries(Collection<Library> libraries, boolean addToUCP, Relocation... relocations) {
+        List<Library> pending = new ArrayList<>();
+        for (Library library : libraries) {
+            if (!this.loadedLibrary.containsKey(library) && !pending.contains(library))
+                pending.add(library);
+        }
+
+        if (pending.size() <= 1) {
+            for (Library library : pending) {
+                this.loadLibrary(library, addToUCP, relocations);
+            }
+            return;
+        }
+
+        // prepare the relocator up front, so the workers never wait for it while it loads its own dependencies
+        if (relocations.length > 0)
+            this.relocationHandler();
+
+        List<CompletableFuture<Path>> futures = new ArrayList<>(pending.size());
+        for (Library library : pending) {
+            futures.add(CompletableFuture.supplyAsync(() -> this.resolve(library, relocations), this.executor));
+        }
+
+        Path[] paths = new Path[pending.size()];
+        IllegalStateException exception = null;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    paths[i] = futures.get(i).join();
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (exception == null) {
+                        exception = new IllegalStateException("Failed to load libraries.", cause);
+                    } else {
+                        exception.addSuppressed(cause);
+                    }
+                }
+            }
+        } finally {
+            this.manifest.save();
+        }
+
+        if (exception != null)
+            throw exception;
+
+        for (int i = 0; i < paths.length; i++) {
+            this.addLibrary(pending.get(i), paths[i], addToUCP);
         }
+    }
+
+    private synchronized void addLibrary(Library library, Path path, boolean addToUCP) {
+        if (this.loadedLibrary.putIfAbsent(library, path) != null)
+            return;
 
-        this.loadedLibrary.put(library, path);
         if (addToUCP) {
             this.platform.getClassloader().addPath(path);
             for (URLClassLoaderAccess classLoader : this.pluginClassLoaders.values()) {
@@ -154,35 +233,88 @@ public class LibraryHandlerImpl implements LibraryHandler {
         }
     }
 
+    private Path resolve(Library library, Relocation... relocations) {
+        // the same library requested by several bundles at once is only resolved by the first of them
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = this.resolving.putIfAbsent(library, future);
+        if (existing != null)
+            return existing.join();
+
+        try {
+            Path path = this.remapLibrary(this.downloadLibrary(library), library, relocations);
+            future.complete(path);
+            return path;
+        } catch (IOException | RuntimeException e) {
+            this.resolving.remove(library, future);
+            IllegalStateException exception = new IllegalStateException("Failed to load library " + library + ".", e);
+            future.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
     protected Path downloadLibrary(Library library) throws IOException {
         Path path = this.directory.resolve(library.getFileName() + ".jar");
         if (Files.exists(path) && this.isChecksumValid(path, library.getChecksum()))
             return path;
 
-        HttpURLConnection connection = (HttpURLConnection) library.getUrl(library.getRepository()).openConnection();
-        connection.setDoInput(true);
-        connection.addRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 6.1; Win64; x64; rv:56.0) Gecko/20100101 Firefox/56.0");
-        connection.setRequestMethod("GET");
+        URLConnection connection = library.getUrl(library.getRepository()).openConnection();
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+        if (connection instanceof HttpURLConnection) {
+            connection.setDoInput(true);
+            connection.addRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 6.1; Win64; x64; rv:56.0) Gecko/20100101 Firefox/56.0");
+            ((HttpURLConnection) connection).setRequestMethod("GET");
+        }
+
+        // hash while downloading, and only move the jar in place once it's verified
+        MessageDigest messageDigest = MESSAGE_DIGEST.get();
+        messageDigest.reset();
+        Path temp = Files.createTempFile(this.directory, library.getFileName(), ".part");
+        try {
+            try (InputStream is = new DigestInputStream(connection.getInputStream(), messageDigest)) {
+                Files.copy(is, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            byte[] checksum = library.getChecksum();
+            if (checksum != null && !MessageDigest.isEqual(messageDigest.digest(), checksum))
+                throw new IOException("Checksum mismatch for library " + library + " downloaded from " + library.getRepository().getUrl() + ".");
 
-        try (InputStream is = connection.getInputStream()) {
-            Files.copy(is, path, StandardCopyOption.REPLACE_EXISTING);
+            move(temp, path);
+            if (checksum != null)
+                this.manifest.markVerified(path, checksum);
+        } finally {
+            Files.deleteIfExists(temp);
         }
 
-        return this.downloadLibrary(library);
+        return path;
     }
 
-    @SneakyThrows
-    protected boolean isChecksumValid(Path path, byte[] checksum) {
+    protected boolean isChecksumValid(Path path, byte[] checksum) throws IOException {
         if (checksum == null)
             return true;
+        if (this.manifest.isVerified(path, checksum))
+            return true;
+
+        MessageDigest messageDigest = MESSAGE_DIGEST.get();
+        messageDigest.reset();
+        try (InputStream is = Files.newInputStream(path)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+        }
 
-        byte[] raw = Files.readAllBytes(path);
-        byte[] bytes = this.messageDigest.digest(raw);
+        if (MessageDigest.isEqual(messageDigest.digest(), checksum)) {
+            this.manifest.markVerified(path, checksum);
+            return true;
+        }
 
-        return Arrays.equals(bytes, checksum);
+        this.manifest.invalidate(path);
+        return false;
     }
 
-    protected Path remapLibrary(Path rawPath, Library library, Relocation... relocations) {
+    protected Path remapLibrary(Path rawPath, Library library, Relocation... relocations) throws IOException {
         Path relocatedPath = this.directory.resolve(library.getFileName() + "-relocated.jar");
         if (Files.exists(relocatedPath))
             return relocatedPath;
@@ -190,12 +322,41 @@ public class LibraryHandlerImpl implements LibraryHandler {
         if (relocations.length == 0)
             return rawPath;
 
+        // relocate into a temporary file, an interrupted relocation would otherwise be picked up as complete next boot
+        Path temp = Files.createTempFile(this.directory, library.getFileName() + "-relocated", ".part");
         try {
-            this.relocationHandler.remap(rawPath, relocatedPath, Arrays.asList(relocations));
+            this.relocationHandler().remap(rawPath, temp, Arrays.asList(relocations));
+            move(temp, relocatedPath);
+        } catch (IOException e) {
+            throw e;
         } catch (Exception e) {
             throw new IllegalStateException("Failed to relocate library " + library.getFileName() + ".", e);
+        } finally {
+            Files.deleteIfExists(temp);
         }
 
         return relocatedPath;
     }
+
+    private RelocationHandler relocationHandler() {
+        RelocationHandler relocationHandler = this.relocationHandler;
+        if (relocationHandler == null) {
+            synchronized (this) {
+                relocationHandler = this.relocationHandler;
+                if (relocationHandler == null) {
+                    relocationHandler = new RelocationHandlerImpl(this);
+                    this.relocationHandler = relocationHandler;
+                }
+            }
+        }
+        return relocationHandler;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 }
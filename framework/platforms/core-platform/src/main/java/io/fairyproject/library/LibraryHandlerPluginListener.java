@@ -45,9 +45,7 @@ public class LibraryHandlerPluginListener implements PluginListenerAdapter {
         if (Debug.UNIT_TEST)
             return;
 
-        for (Library library : description.getLibraries()) {
-            this.libraryHandler.loadLibrary(library, true);
-        }
+        this.libraryHandler.loadLibraries(description.getLibraries(), true);
     }
 
     @Override
@@ -0,0 +1,159 @@
+package io.fairyproject.profiler;
+
+import io.fairyproject.scheduler.RunnableCallable;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A low overhead profiler recording call counts and latency histograms of named {@link ProfilerSection}s.
+ * Samples are accumulated in a per thread recorder without synchronization and only merged when {@link #merge()} or {@link #report()} is called.
+ * Disabled by default, turned on with {@code -Dfairy.profiler=true} or {@link #setEnabled(boolean)}.
+ */
+@UtilityClass
+public class Profiler {
+
+    private final Map<String, ProfilerSection> SECTIONS = new ConcurrentHashMap<>();
+    private final List<ProfilerSection> SECTION_LIST = new CopyOnWriteArrayList<>();
+    private final Set<ProfilerRecorder> RECORDERS = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<ProfilerRecorder> RECORDER = ThreadLocal.withInitial(() -> {
+        ProfilerRecorder recorder = new ProfilerRecorder(Thread.currentThread());
+        RECORDERS.add(recorder);
+        return recorder;
+    });
+    private final ClassValue<ProfilerSection> TASK_SECTIONS = new ClassValue<ProfilerSection>() {
+        @Override
+        protected ProfilerSection computeValue(Class<?> type) {
+            return section("Task: " + type.getName());
+        }
+    };
+
+    private final Object MERGE_LOCK = new Object();
+    private long[] merged = new long[0];
+    private long mergedSince = System.currentTimeMillis();
+
+    private volatile boolean enabled = Boolean.getBoolean("fairy.profiler");
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        Profiler.enabled = enabled;
+    }
+
+    @NotNull
+    public ProfilerSection section(@NotNull String name) {
+        ProfilerSection section = SECTIONS.get(name);
+        if (section != null)
+            return section;
+
+        synchronized (SECTION_LIST) {
+            return SECTIONS.computeIfAbsent(name, key -> {
+                ProfilerSection created = new ProfilerSection(key, SECTION_LIST.size());
+                SECTION_LIST.add(created);
+                return created;
+            });
+        }
+    }
+
+    /**
+     * Get the section of a scheduled task, named after the class of the task
+     */
+    @NotNull
+    public ProfilerSection taskSection(@NotNull Object task) {
+        if (task instanceof RunnableCallable) {
+            task = ((RunnableCallable<?>) task).getRunnable();
+        }
+        return TASK_SECTIONS.get(task.getClass());
+    }
+
+    /**
+     * Start the section on the current thread, to be paired with {@link #exit(ProfilerSection)} on the same thread
+     */
+    public void enter(@NotNull ProfilerSection section) {
+        if (enabled) {
+            RECORDER.get().enter(section, System.nanoTime());
+        }
+    }
+
+    public void exit(@NotNull ProfilerSection section) {
+        if (enabled) {
+            RECORDER.get().exit(section, System.nanoTime());
+        }
+    }
+
+    void record(ProfilerSection section, long nanos) {
+        RECORDER.get().record(section, nanos);
+    }
+
+    /**
+     * Fold the samples of every thread into the merged result, and forget the recorders of terminated threads
+     */
+    public void merge() {
+        synchronized (MERGE_LOCK) {
+            Iterator<ProfilerRecorder> iterator = RECORDERS.iterator();
+            while (iterator.hasNext()) {
+                ProfilerRecorder recorder = iterator.next();
+                Thread thread = recorder.thread.get();
+                long[] data = recorder.drain();
+                if (data.length > merged.length) {
+                    merged = Arrays.copyOf(merged, data.length);
+                }
+                for (int base = 0; base < data.length; base += ProfilerRecorder.STRIDE) {
+                    if (data[base] == 0)
+                        continue;
+
+                    merged[base] += data[base];
+                    merged[base + 1] += data[base + 1];
+                    merged[base + 2] = Math.max(merged[base + 2], data[base + 2]);
+                    for (int i = 3; i < ProfilerRecorder.STRIDE; i++) {
+                        merged[base + i] += data[base + i];
+                    }
+                }
+                recorder.release(data);
+
+                if (thread == null || !thread.isAlive()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @NotNull
+    public ProfilerReport report() {
+        merge();
+        synchronized (MERGE_LOCK) {
+            List<ProfilerReport.Entry> entries = new ArrayList<>();
+            for (ProfilerSection section : SECTION_LIST) {
+                int base = section.getId() * ProfilerRecorder.STRIDE;
+                if (base >= merged.length || merged[base] == 0)
+                    continue;
+
+                entries.add(new ProfilerReport.Entry(
+                        section.getName(),
+                        merged[base],
+                        merged[base + 1],
+                        merged[base + 2],
+                        Arrays.copyOfRange(merged, base + 3, base + ProfilerRecorder.STRIDE)
+                ));
+            }
+            return new ProfilerReport(mergedSince, System.currentTimeMillis(), entries);
+        }
+    }
+
+    /**
+     * Discard every sample recorded so far
+     */
+    public void reset() {
+        synchronized (MERGE_LOCK) {
+            RECORDERS.forEach(recorder -> recorder.release(recorder.drain()));
+            merged = new long[0];
+            mergedSince = System.currentTimeMillis();
+        }
+    }
+
+}
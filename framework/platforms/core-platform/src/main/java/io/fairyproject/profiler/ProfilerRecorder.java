@@ -0,0 +1,121 @@
+package io.fairyproject.profiler;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * The samples of a single thread, only written by that thread so recording doesn't need any synchronization.
+ * Every section owns a fixed stride of the data array: call count, total nanos, max nanos and the histogram buckets.
+ */
+final class ProfilerRecorder {
+
+    static final int BUCKETS = 24;
+    static final int STRIDE = 3 + BUCKETS;
+
+    private static final int MAX_DEPTH = 64;
+    private static final long[] EMPTY = new long[0];
+
+    final WeakReference<Thread> thread;
+    // allocated on the first sample, so threads that never record anything don't hold a buffer
+    volatile long[] data = EMPTY;
+    // the buffer handed back by the last merge, swapped in on the next drain instead of allocating a new one
+    private long[] spare;
+
+    // the stack of sections entered by MCTiming style start/stop calls
+    private final ProfilerSection[] sectionStack = new ProfilerSection[MAX_DEPTH];
+    private final long[] startStack = new long[MAX_DEPTH];
+    private int depth;
+    // frames entered past MAX_DEPTH, not recorded but counted so their exits don't pop the frames below
+    private int overflow;
+
+    ProfilerRecorder(Thread thread) {
+        this.thread = new WeakReference<>(thread);
+    }
+
+    void record(ProfilerSection section, long nanos) {
+        final int base = section.getId() * STRIDE;
+        long[] data = this.data;
+        if (base + STRIDE > data.length) {
+            data = this.grow(base + STRIDE);
+        }
+
+        data[base]++;
+        data[base + 1] += nanos;
+        if (nanos > data[base + 2]) {
+            data[base + 2] = nanos;
+        }
+        data[base + 3 + bucket(nanos)]++;
+    }
+
+    void enter(ProfilerSection section, long start) {
+        if (this.depth == MAX_DEPTH) {
+            this.overflow++;
+            return;
+        }
+        this.sectionStack[this.depth] = section;
+        this.startStack[this.depth] = start;
+        this.depth++;
+    }
+
+    void exit(ProfilerSection section, long end) {
+        if (this.overflow > 0) {
+            this.overflow--;
+            return;
+        }
+
+        // unwind to the matching frame, a missing stop() call shouldn't corrupt the sections above it
+        for (int i = this.depth - 1; i >= 0; i--) {
+            if (this.sectionStack[i] == section) {
+                this.record(section, end - this.startStack[i]);
+                Arrays.fill(this.sectionStack, i, this.depth, null);
+                this.depth = i;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Take the samples recorded so far and continue on the spare buffer, to be handed back with {@link #release(long[])}.
+     * A sample written by the owner thread exactly during the swap may be lost, which is fine for profiling.
+     */
+    synchronized long[] drain() {
+        final long[] data = this.data;
+        if (data.length == 0)
+            return data;
+
+        long[] spare = this.spare;
+        this.spare = null;
+        this.data = spare != null && spare.length == data.length ? spare : new long[data.length];
+        return data;
+    }
+
+    /**
+     * Hand back a buffer returned by {@link #drain()} once it has been merged
+     */
+    synchronized void release(long[] data) {
+        if (data.length == 0)
+            return;
+
+        Arrays.fill(data, 0L);
+        this.spare = data;
+    }
+
+    private synchronized long[] grow(int minLength) {
+        final long[] data = Arrays.copyOf(this.data, Math.max(minLength, Math.max(this.data.length << 1, 16 * STRIDE)));
+        this.data = data;
+        return data;
+    }
+
+    /**
+     * Bucket 0 is below 1us, bucket n counts [2^(n-1), 2^n) us, and the last bucket everything above
+     */
+    static int bucket(long nanos) {
+        final long micros = nanos / 1000L;
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+    }
+
+    static long bucketUpperMicros(int bucket) {
+        return 1L << bucket;
+    }
+
+}
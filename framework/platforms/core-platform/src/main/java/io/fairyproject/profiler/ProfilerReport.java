@@ -0,0 +1,100 @@
+package io.fairyproject.profiler;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * A snapshot of the {@link Profiler} samples, sections are sorted by their total time spent.
+ */
+@Getter
+public class ProfilerReport {
+
+    private final long startMillis;
+    private final long endMillis;
+    private final List<Entry> entries;
+
+    ProfilerReport(long startMillis, long endMillis, List<Entry> entries) {
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        entries.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    @NotNull
+    public List<String> toLines() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        List<String> lines = new ArrayList<>(this.entries.size() + 3);
+        lines.add("Fairy profiler report, " + format.format(new Date(this.startMillis)) + " to " + format.format(new Date(this.endMillis)));
+        lines.add(String.format("%12s %12s %10s %10s %10s %10s %10s  %s", "total(ms)", "count", "avg(us)", "p50(us)", "p95(us)", "p99(us)", "max(us)", "section"));
+        for (Entry entry : this.entries) {
+            lines.add(String.format("%12.2f %12d %10.1f %10d %10d %10d %10d  %s",
+                    entry.getTotalNanos() / 1_000_000D,
+                    entry.getCount(),
+                    entry.getAverageMicros(),
+                    entry.getPercentileMicros(0.50),
+                    entry.getPercentileMicros(0.95),
+                    entry.getPercentileMicros(0.99),
+                    entry.getMaxNanos() / 1000L,
+                    entry.getName()
+            ));
+        }
+        return lines;
+    }
+
+    public void write(@NotNull Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.write(path, this.toLines(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(System.lineSeparator(), this.toLines());
+    }
+
+    @Getter
+    public static class Entry {
+
+        private final String name;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+
+        Entry(String name, long count, long totalNanos, long maxNanos, long[] buckets) {
+            this.name = name;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+        }
+
+        public double getAverageMicros() {
+            return this.count == 0 ? 0 : this.totalNanos / 1000D / this.count;
+        }
+
+        /**
+         * Estimate the percentile from the histogram, as the upper bound of the bucket it falls in
+         */
+        public long getPercentileMicros(double percentile) {
+            long threshold = (long) Math.ceil(this.count * percentile);
+            long seen = 0;
+            for (int bucket = 0; bucket < this.buckets.length; bucket++) {
+                seen += this.buckets[bucket];
+                if (seen >= threshold) {
+                    return Math.min(ProfilerRecorder.bucketUpperMicros(bucket), this.maxNanos / 1000L);
+                }
+            }
+            return this.maxNanos / 1000L;
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package io.fairyproject.profiler;
+
+import lombok.Getter;
+
+/**
+ * A named section recorded by the {@link Profiler}, obtained from {@link Profiler#section(String)} and meant to be cached by the caller.
+ * <pre>{@code
+ * long start = section.start();
+ * try {
+ *     ...
+ * } finally {
+ *     section.stop(start);
+ * }
+ * }</pre>
+ */
+@Getter
+public final class ProfilerSection {
+
+    private final String name;
+    private final int id;
+
+    ProfilerSection(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * @return the start timestamp to pass to {@link #stop(long)}, or 0 if the profiler is disabled
+     */
+    public long start() {
+        return Profiler.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    public void stop(long start) {
+        if (start != 0L) {
+            Profiler.record(this, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+}
@@ -0,0 +1,28 @@
+package io.fairyproject.scheduler;
+
+import lombok.Getter;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Adapts a {@link Runnable} to a {@link Callable} returning a fixed result, while keeping the original runnable reachable
+ * so anything inspecting the task, like {@link io.fairyproject.profiler.Profiler#taskSection(Object)}, sees the real task.
+ */
+@Getter
+public final class RunnableCallable<R> implements Callable<R> {
+
+    private final Runnable runnable;
+    private final R result;
+
+    public RunnableCallable(Runnable runnable, R result) {
+        this.runnable = runnable;
+        this.result = result;
+    }
+
+    @Override
+    public R call() {
+        this.runnable.run();
+        return this.result;
+    }
+
+}
@@ -48,6 +48,15 @@ public interface StateMachineBuilder {
     @Contract("_ -> this")
     @NotNull StateMachineBuilder initialState(@NotNull State state);
 
+    /**
+     * Tick the state machine with the runtime once built, instead of ticking it manually
+     *
+     * @param runtime the runtime
+     * @return this
+     */
+    @Contract("_ -> this")
+    @NotNull StateMachineBuilder runtime(@NotNull StateMachineRuntime runtime);
+
     /**
      * Transition builder for the state machine
      *
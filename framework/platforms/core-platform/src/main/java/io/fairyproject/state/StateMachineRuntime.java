@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Fairy Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.state;
+
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.Scheduler;
+import io.fairyproject.state.impl.StateMachineRuntimeImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Ticks many state machines together, instead of every owner ticking its own machine.
+ * <p>
+ * Each tick reads the clock once for every registered machine, and state timeouts such as
+ * {@link StateHandler#timeout(Duration)} are kept on a deadline queue rather than checked on every tick.
+ */
+public interface StateMachineRuntime {
+
+    /**
+     * Create a new runtime, it does nothing until {@link #tick()} is called or it's started on a scheduler
+     *
+     * @return the runtime
+     */
+    static StateMachineRuntime create() {
+        return new StateMachineRuntimeImpl();
+    }
+
+    /**
+     * Tick the state machine with this runtime until it stops or is unregistered
+     *
+     * @param stateMachine the state machine
+     */
+    void register(@NotNull StateMachine stateMachine);
+
+    /**
+     * Stop ticking the state machine, it has to be ticked by its owner again
+     *
+     * @param stateMachine the state machine
+     */
+    void unregister(@NotNull StateMachine stateMachine);
+
+    /**
+     * Fire the due timeouts and tick every registered state machine
+     */
+    void tick();
+
+    /**
+     * Tick the runtime repeatedly on the scheduler
+     *
+     * @param scheduler the scheduler
+     * @param interval  the interval between ticks
+     * @return the task, cancel it to stop ticking
+     */
+    @NotNull ScheduledTask<?> start(@NotNull Scheduler scheduler, @NotNull Duration interval);
+
+    /**
+     * The clock read at the start of the current tick, shared by every state machine of the runtime.
+     * Outside of a tick, for example when a state is entered from a command, this is the system clock.
+     *
+     * @return the time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * The amount of registered state machines
+     *
+     * @return the amount
+     */
+    int size();
+
+}
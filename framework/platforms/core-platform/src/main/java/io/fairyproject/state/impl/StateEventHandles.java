@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Fairy Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.state.impl;
+
+import io.fairyproject.event.Event;
+import io.fairyproject.event.EventNode;
+import io.fairyproject.event.GlobalEventNode;
+import io.fairyproject.event.ListenerHandle;
+import io.fairyproject.state.event.*;
+
+/**
+ * The handles of the state machine events on the global event node, so a state machine can tell whether anything
+ * listens before creating an event, without looking the handle up every time.
+ */
+final class StateEventHandles {
+
+    private static volatile StateEventHandles current;
+
+    private final EventNode<?> node;
+    final ListenerHandle<StateMachineStartEvent> machineStart;
+    final ListenerHandle<StateMachineStopEvent> machineStop;
+    final ListenerHandle<StateMachineTransitionEvent> transition;
+    final ListenerHandle<StateStartEvent> stateStart;
+    final ListenerHandle<StateStopEvent> stateStop;
+
+    private StateEventHandles(EventNode<Event> node) {
+        this.node = node;
+        this.machineStart = node.getHandle(StateMachineStartEvent.class);
+        this.machineStop = node.getHandle(StateMachineStopEvent.class);
+        this.transition = node.getHandle(StateMachineTransitionEvent.class);
+        this.stateStart = node.getHandle(StateStartEvent.class);
+        this.stateStop = node.getHandle(StateStopEvent.class);
+    }
+
+    static StateEventHandles get() {
+        EventNode<Event> node = GlobalEventNode.get();
+        StateEventHandles handles = current;
+        // the global node is replaced when the container restarts
+        if (handles == null || handles.node != node) {
+            handles = new StateEventHandles(node);
+            current = handles;
+        }
+        return handles;
+    }
+
+}
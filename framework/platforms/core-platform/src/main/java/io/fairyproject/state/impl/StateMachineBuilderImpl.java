@@ -40,6 +40,7 @@ public class StateMachineBuilderImpl implements StateMachineBuilder {
     private final StateMachineTransitionBuilderImpl transitionBuilder = new StateMachineTransitionBuilderImpl();
     private final StateMachineImpl stateMachine = new StateMachineImpl();
     private State initialState;
+    private StateMachineRuntime runtime;
     private final EventNode<StateMachineEvent> eventNode = EventNode.value("state-machine", StateEventFilter.STATE_MACHINE, v -> v == this.stateMachine);
 
     @Override
@@ -58,6 +59,12 @@ public class StateMachineBuilderImpl implements StateMachineBuilder {
         return this;
     }
 
+    @Override
+    public @NotNull StateMachineBuilder runtime(@NotNull StateMachineRuntime runtime) {
+        this.runtime = runtime;
+        return this;
+    }
+
     @Override
     public @NotNull StateMachineTransitionBuilderImpl transition() {
         return this.transitionBuilder;
@@ -76,6 +83,9 @@ public class StateMachineBuilderImpl implements StateMachineBuilder {
             stateMachine.addState(state, stateConfig);
         });
 
+        // registered before starting, so the timeouts of the initial state are scheduled on the runtime
+        if (this.runtime != null)
+            this.runtime.register(stateMachine);
         stateMachine.start(this.initialState);
         return stateMachine;
     }
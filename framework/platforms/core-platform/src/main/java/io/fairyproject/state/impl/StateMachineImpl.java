@@ -48,8 +48,13 @@ public class StateMachineImpl implements StateMachine {
     private Transition transition;
 
     private State current;
+    // the config of the current state, so ticking doesn't look it up every time
+    private StateConfig currentConfig;
     private boolean running;
 
+    private volatile StateMachineRuntimeImpl runtime;
+    private int runtimeIndex = -1;
+
     public StateMachineImpl() {
         this.states = new ConcurrentHashMap<>();
     }
@@ -68,6 +73,31 @@ public class StateMachineImpl implements StateMachine {
         this.states.put(state, stateConfig);
     }
 
+    /**
+     * The runtime ticking this state machine, null if it's ticked by its owner
+     */
+    @Nullable
+    public StateMachineRuntimeImpl getRuntime() {
+        return this.runtime;
+    }
+
+    int getRuntimeIndex() {
+        return this.runtimeIndex;
+    }
+
+    void setRuntime(@Nullable StateMachineRuntimeImpl runtime, int index) {
+        this.runtime = runtime;
+        this.runtimeIndex = index;
+    }
+
+    /**
+     * The current time, read once per tick from the runtime if the state machine has one
+     */
+    long currentTimeMillis() {
+        StateMachineRuntimeImpl runtime = this.runtime;
+        return runtime != null ? runtime.currentTimeMillis() : System.currentTimeMillis();
+    }
+
     public void start(State state) {
         this.current = state;
 
@@ -76,37 +106,45 @@ public class StateMachineImpl implements StateMachine {
         StateConfig config = this.states.get(this.current);
         if (config == null)
             throw new IllegalStateException("State " + this.current + " is not registered");
+        this.currentConfig = config;
         this.onStateStart(config, Signal.UNDEFINED);
 
         this.compositeTerminable = CompositeTerminable.create();
         this.running = true;
 
-        GlobalEventNode.get().call(new StateMachineStartEvent(this, state));
+        StateEventHandles handles = StateEventHandles.get();
+        if (handles.machineStart.hasListener())
+            handles.machineStart.call(new StateMachineStartEvent(this, state));
     }
 
     @Override
     public @Nullable State transform(@NotNull State state, @NotNull Signal signal) {
         State previous = this.current;
 
-        StateMachineTransitionEvent event = new StateMachineTransitionEvent(this, previous, state, signal);
-        GlobalEventNode.get().callCancellable(event, () -> {
-            if (previous != null) {
-                StateConfig previousConfig = this.states.get(previous);
-                this.onStateStop(previousConfig, signal);
-            }
-
-            this.current = state;
-            StateConfig current = this.states.get(state);
-            if (current == null)
-                throw new IllegalStateException("State " + this.current + " is not registered");
-            this.onStateStart(current, signal);
-        });
+        StateEventHandles handles = StateEventHandles.get();
+        if (handles.transition.hasListener()) {
+            StateMachineTransitionEvent event = new StateMachineTransitionEvent(this, previous, state, signal);
+            handles.transition.call(event);
+            if (event.isCancelled())
+                return previous;
+        }
+
+        if (previous != null) {
+            this.onStateStop(this.currentConfig, signal);
+        }
+
+        this.current = state;
+        StateConfig current = this.states.get(state);
+        if (current == null)
+            throw new IllegalStateException("State " + this.current + " is not registered");
+        this.currentConfig = current;
+        this.onStateStart(current, signal);
         return previous;
     }
 
     @Override
     public void tick() {
-        StateConfig config = this.states.get(this.current);
+        StateConfig config = this.currentConfig;
         if (config == null)
             throw new IllegalArgumentException("State " + this.current + " does not exist");
 
@@ -118,15 +156,21 @@ public class StateMachineImpl implements StateMachine {
         State state = this.current;
 
         if (this.current != null) {
-            StateConfig config = this.states.get(this.current);
-            this.onStateStop(config, signal);
+            this.onStateStop(this.currentConfig, signal);
         }
 
         this.running = false;
         this.current = null;
+        this.currentConfig = null;
         this.compositeTerminable.closeAndReportException();
 
-        GlobalEventNode.get().call(new StateMachineStopEvent(this, state, signal));
+        StateMachineRuntimeImpl runtime = this.runtime;
+        if (runtime != null)
+            runtime.unregister(this);
+
+        StateEventHandles handles = StateEventHandles.get();
+        if (handles.machineStop.hasListener())
+            handles.machineStop.call(new StateMachineStopEvent(this, state, signal));
         this.states.keySet().forEach(this.eventNode::unmap);
         GlobalEventNode.get().removeChild(this.eventNode);
     }
@@ -136,7 +180,9 @@ public class StateMachineImpl implements StateMachine {
             handler.onStart(this, this.current, signal);
         }
 
-        GlobalEventNode.get().call(new StateStartEvent(this, this.current, signal));
+        StateEventHandles handles = StateEventHandles.get();
+        if (handles.stateStart.hasListener())
+            handles.stateStart.call(new StateStartEvent(this, this.current, signal));
     }
 
     private void onStateTick(StateConfig stateConfig) {
@@ -150,7 +196,9 @@ public class StateMachineImpl implements StateMachine {
             handler.onStop(this, this.current, signal);
         }
 
-        GlobalEventNode.get().call(new StateStopEvent(this, this.current, signal));
+        StateEventHandles handles = StateEventHandles.get();
+        if (handles.stateStop.hasListener())
+            handles.stateStop.call(new StateStopEvent(this, this.current, signal));
     }
 
     @Override
@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Fairy Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.state.impl;
+
+import io.fairyproject.log.Log;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.Scheduler;
+import io.fairyproject.state.State;
+import io.fairyproject.state.StateMachine;
+import io.fairyproject.state.StateMachineRuntime;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+public class StateMachineRuntimeImpl implements StateMachineRuntime {
+
+    private final Object lock = new Object();
+    // guarded by lock, machines are removed by swapping the last one into their index
+    private StateMachineImpl[] machines = new StateMachineImpl[16];
+    private int size;
+    private volatile StateMachineImpl[] snapshot = new StateMachineImpl[0];
+    private final PriorityQueue<Timeout> timeouts = new PriorityQueue<>();
+    private long timeoutSequence;
+    private volatile long currentTimeMillis;
+    private volatile Thread tickingThread;
+
+    @Override
+    public void register(@NotNull StateMachine stateMachine) {
+        if (!(stateMachine instanceof StateMachineImpl))
+            throw new IllegalArgumentException("Unsupported state machine " + stateMachine.getClass().getName());
+
+        StateMachineImpl machine = (StateMachineImpl) stateMachine;
+        synchronized (this.lock) {
+            if (machine.getRuntime() == this)
+                return;
+            if (machine.getRuntime() != null)
+                throw new IllegalStateException("The state machine is already registered to another runtime");
+
+            if (this.size == this.machines.length)
+                this.machines = Arrays.copyOf(this.machines, this.size << 1);
+            machine.setRuntime(this, this.size);
+            this.machines[this.size++] = machine;
+            this.snapshot = null;
+        }
+    }
+
+    @Override
+    public void unregister(@NotNull StateMachine stateMachine) {
+        if (!(stateMachine instanceof StateMachineImpl))
+            return;
+
+        StateMachineImpl machine = (StateMachineImpl) stateMachine;
+        synchronized (this.lock) {
+            if (machine.getRuntime() != this)
+                return;
+
+            int index = machine.getRuntimeIndex();
+            StateMachineImpl last = this.machines[--this.size];
+            this.machines[index] = last;
+            last.setRuntime(this, index);
+            this.machines[this.size] = null;
+            machine.setRuntime(null, -1);
+            this.snapshot = null;
+        }
+
+        // hand pending timeouts back to their handlers, the machine checks them on its own ticks from now on
+        synchronized (this.timeouts) {
+            Iterator<Timeout> iterator = this.timeouts.iterator();
+            while (iterator.hasNext()) {
+                Timeout timeout = iterator.next();
+                if (timeout.machine != machine)
+                    continue;
+
+                iterator.remove();
+                timeout.handler.unschedule(timeout);
+            }
+        }
+    }
+
+    @Override
+    public void tick() {
+        final long now = System.currentTimeMillis();
+        this.currentTimeMillis = now;
+        this.tickingThread = Thread.currentThread();
+        try {
+            this.fireTimeouts(now);
+
+            StateMachineImpl[] machines = this.snapshot();
+            for (StateMachineImpl machine : machines) {
+                // unregistered or stopped by an earlier machine during this tick
+                if (machine.getRuntime() != this || machine.isClosed())
+                    continue;
+
+                try {
+                    machine.tick();
+                } catch (Throwable throwable) {
+                    Log.error("Failed to tick state machine in state " + machine.getCurrentState(), throwable);
+                }
+            }
+        } finally {
+            this.tickingThread = null;
+        }
+    }
+
+    @Override
+    public @NotNull ScheduledTask<?> start(@NotNull Scheduler scheduler, @NotNull Duration interval) {
+        return scheduler.scheduleAtFixedRate(this::tick, interval, interval);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return this.tickingThread == Thread.currentThread() ? this.currentTimeMillis : System.currentTimeMillis();
+    }
+
+    @Override
+    public int size() {
+        synchronized (this.lock) {
+            return this.size;
+        }
+    }
+
+    Timeout scheduleTimeout(StateMachineImpl machine, State state, TimeoutStateHandler handler, long deadline) {
+        synchronized (this.timeouts) {
+            Timeout timeout = new Timeout(machine, state, handler, deadline, this.timeoutSequence++);
+            this.timeouts.add(timeout);
+            return timeout;
+        }
+    }
+
+    private void fireTimeouts(long now) {
+        while (true) {
+            Timeout timeout;
+            synchronized (this.timeouts) {
+                timeout = this.timeouts.peek();
+                if (timeout == null || timeout.deadline > now)
+                    return;
+                this.timeouts.poll();
+            }
+
+            // cancelled timeouts are dropped lazily here instead of being searched for in the queue
+            if (timeout.cancelled || timeout.machine.getRuntime() != this || timeout.machine.getCurrentState() != timeout.state) {
+                // polled while the machine was being unregistered, its handler must not keep waiting on it
+                timeout.handler.unschedule(timeout);
+                continue;
+            }
+
+            try {
+                timeout.handler.fire(timeout);
+            } catch (Throwable throwable) {
+                Log.error("Failed to fire the timeout of state " + timeout.state, throwable);
+            }
+        }
+    }
+
+    private StateMachineImpl[] snapshot() {
+        StateMachineImpl[] snapshot = this.snapshot;
+        if (snapshot == null) {
+            synchronized (this.lock) {
+                snapshot = Arrays.copyOf(this.machines, this.size);
+                this.snapshot = snapshot;
+            }
+        }
+        return snapshot;
+    }
+
+    static final class Timeout implements Comparable<Timeout> {
+
+        final StateMachineImpl machine;
+        final State state;
+        final TimeoutStateHandler handler;
+        final long deadline;
+        private final long sequence;
+        volatile boolean cancelled;
+
+        private Timeout(StateMachineImpl machine, State state, TimeoutStateHandler handler, long deadline, long sequence) {
+            this.machine = machine;
+            this.state = state;
+            this.handler = handler;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(@NotNull Timeout o) {
+            int compare = Long.compare(this.deadline, o.deadline);
+            return compare != 0 ? compare : Long.compare(this.sequence, o.sequence);
+        }
+    }
+
+}
@@ -13,25 +13,68 @@ public class TimeoutStateHandler implements StateHandler {
 
     public static final Signal SIGNAL = Signal.of("timeout");
 
-    private final Duration duration;
+    private final long durationMillis;
     private long timestamp;
+    // the pending deadline on the runtime of the state machine, null if the timeout is checked on tick instead
+    private volatile StateMachineRuntimeImpl.Timeout scheduled;
 
     public TimeoutStateHandler(@NotNull Duration duration) {
-        this.duration = duration;
+        this.durationMillis = duration.toMillis();
     }
 
     @Override
     public void onStart(@NotNull StateMachine stateMachine, @NotNull State state, @Nullable Signal signal) {
-        this.timestamp = System.currentTimeMillis();
+        if (stateMachine instanceof StateMachineImpl) {
+            StateMachineImpl machine = (StateMachineImpl) stateMachine;
+            this.timestamp = machine.currentTimeMillis();
+
+            StateMachineRuntimeImpl runtime = machine.getRuntime();
+            if (runtime != null) {
+                // fires on the first runtime tick past the deadline, like the check in onTick would
+                this.scheduled = runtime.scheduleTimeout(machine, state, this, this.timestamp + this.durationMillis + 1);
+            }
+        } else {
+            this.timestamp = System.currentTimeMillis();
+        }
     }
 
     @Override
     public void onTick(@NotNull StateMachine stateMachine, @NotNull State state) {
-        if (System.currentTimeMillis() - this.timestamp > this.duration.toMillis()) {
+        if (this.scheduled != null)
+            return;
+
+        long now = stateMachine instanceof StateMachineImpl
+                ? ((StateMachineImpl) stateMachine).currentTimeMillis()
+                : System.currentTimeMillis();
+        if (now - this.timestamp > this.durationMillis) {
             stateMachine.signal(SIGNAL);
         }
     }
 
+    @Override
+    public void onStop(@NotNull StateMachine stateMachine, @NotNull State state, @Nullable Signal signal) {
+        StateMachineRuntimeImpl.Timeout scheduled = this.scheduled;
+        if (scheduled != null) {
+            scheduled.cancelled = true;
+            this.scheduled = null;
+        }
+    }
+
+    void unschedule(StateMachineRuntimeImpl.Timeout timeout) {
+        timeout.cancelled = true;
+        if (this.scheduled == timeout)
+            this.scheduled = null;
+    }
+
+    void fire(StateMachineRuntimeImpl.Timeout timeout) {
+        if (this.scheduled != timeout)
+            return;
+
+        // from here on the state keeps signalling on every tick until it's left, as it does without a runtime
+        this.scheduled = null;
+        timeout.machine.signal(SIGNAL);
+    }
+
     public static TimeoutStateHandler of(@NotNull Duration duration) {
         return new TimeoutStateHandler(duration);
     }
@@ -0,0 +1,186 @@
+package io.fairyproject.util.collection;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map keyed by primitive longs, used for packed keys like block or chunk positions
+ * without boxing the key or allocating an entry object per mapping.
+ * Not thread safe, callers are expected to guard it by their own lock.
+ */
+public class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return this.indexOf(key) != -1;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        final int index = this.indexOf(key);
+        return index == -1 ? null : (V) this.values[index];
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        int index = mix(key) & this.mask;
+        while (this.used[index]) {
+            if (this.keys[index] == key) {
+                final V previous = (V) this.values[index];
+                this.values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & this.mask;
+        }
+
+        this.used[index] = true;
+        this.keys[index] = key;
+        this.values[index] = value;
+        if (++this.size > this.resizeThreshold)
+            this.rehash(this.keys.length << 1);
+        return null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        final int index = this.indexOf(key);
+        if (index == -1)
+            return null;
+
+        final V previous = (V) this.values[index];
+        this.shiftKeys(index);
+        this.size--;
+        return previous;
+    }
+
+    public void clear() {
+        if (this.size == 0)
+            return;
+        Arrays.fill(this.used, false);
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    /**
+     * Copy the keys currently in the map, safe to use while removing entries afterward
+     */
+    public long[] keys() {
+        final long[] result = new long[this.size];
+        int i = 0;
+        for (int index = 0; index < this.keys.length; index++) {
+            if (this.used[index])
+                result[i++] = this.keys[index];
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int index = 0; index < this.keys.length; index++) {
+            if (this.used[index])
+                consumer.accept(this.keys[index], (V) this.values[index]);
+        }
+    }
+
+    private int indexOf(long key) {
+        int index = mix(key) & this.mask;
+        while (this.used[index]) {
+            if (this.keys[index] == key)
+                return index;
+            index = (index + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    // backward shift deletion, keeps probe chains intact without tombstones
+    private void shiftKeys(int index) {
+        int last;
+        while (true) {
+            last = index;
+            index = (index + 1) & this.mask;
+            while (true) {
+                if (!this.used[index]) {
+                    this.used[last] = false;
+                    this.values[last] = null;
+                    return;
+                }
+                final int slot = mix(this.keys[index]) & this.mask;
+                if (last <= index ? (last >= slot || slot > index) : (last >= slot && slot > index))
+                    break;
+                index = (index + 1) & this.mask;
+            }
+            this.keys[last] = this.keys[index];
+            this.values[last] = this.values[index];
+        }
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        final boolean[] oldUsed = this.used;
+        this.allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i])
+                continue;
+            int index = mix(oldKeys[i]) & this.mask;
+            while (this.used[index])
+                index = (index + 1) & this.mask;
+            this.used[index] = true;
+            this.keys[index] = oldKeys[i];
+            this.values[index] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        final int capacity = Integer.highestOneBit(Math.max(2, (int) Math.ceil(expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 4);
+    }
+
+    private static int mix(long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.util.random;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A weighted sampler whose items can change, the alias table of {@link WeightedSampler} is only rebuilt
+ * on the first sample after a change, so a burst of changes costs a single rebuild.
+ * Changes are synchronized and sampling is lock free unless it has to rebuild.
+ *
+ * @param <T> the type of the items
+ */
+public final class MutableWeightedSampler<T> {
+
+    private final Map<T, Integer> weights = new LinkedHashMap<>();
+    private volatile WeightedSampler<T> sampler = WeightedSampler.empty();
+
+    /**
+     * Set the weight of the item, a weight of zero or less removes it
+     *
+     * @return the previous weight of the item, or 0 if it wasn't present
+     */
+    public synchronized int put(@NotNull T item, int weight) {
+        Integer previous = weight > 0 ? this.weights.put(item, weight) : this.weights.remove(item);
+        if (previous == null ? weight > 0 : previous != weight)
+            this.sampler = null;
+        return previous != null ? previous : 0;
+    }
+
+    /**
+     * @return the previous weight of the item, or 0 if it wasn't present
+     */
+    public int remove(@NotNull T item) {
+        return this.put(item, 0);
+    }
+
+    public synchronized int getWeight(@NotNull T item) {
+        return this.weights.getOrDefault(item, 0);
+    }
+
+    public synchronized void clear() {
+        if (!this.weights.isEmpty()) {
+            this.weights.clear();
+            this.sampler = null;
+        }
+    }
+
+    /**
+     * @return a random item, or null if there is no item
+     */
+    @Nullable
+    public T sample(@NotNull Random random) {
+        return this.snapshot().sample(random);
+    }
+
+    @Nullable
+    public T sample() {
+        return this.sample(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Get the sampler of the current items, it won't see later changes
+     */
+    @NotNull
+    public WeightedSampler<T> snapshot() {
+        WeightedSampler<T> sampler = this.sampler;
+        if (sampler == null) {
+            sampler = this.rebuild();
+        }
+        return sampler;
+    }
+
+    public synchronized int size() {
+        return this.weights.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.weights.isEmpty();
+    }
+
+    private synchronized WeightedSampler<T> rebuild() {
+        WeightedSampler<T> sampler = this.sampler;
+        if (sampler != null)
+            return sampler;
+
+        final Object[] items = new Object[this.weights.size()];
+        final int[] weights = new int[items.length];
+        int index = 0;
+        for (Map.Entry<T, Integer> entry : this.weights.entrySet()) {
+            items[index] = entry.getKey();
+            weights[index] = entry.getValue();
+            index++;
+        }
+
+        sampler = WeightedSampler.build(items, weights);
+        this.sampler = sampler;
+        return sampler;
+    }
+
+}
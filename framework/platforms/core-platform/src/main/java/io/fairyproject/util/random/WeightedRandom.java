@@ -28,15 +28,25 @@ import lombok.experimental.UtilityClass;
 
 import java.util.*;
 
+/**
+ * One-off weighted picks, every pick walks the whole collection.
+ * Anything rolled repeatedly against the same items should use a {@link WeightedSampler} or {@link MutableWeightedSampler} instead.
+ */
 @UtilityClass
 public class WeightedRandom {
 
     private final Random DEFAULT_RANDOM = new Random();
 
     public int getTotalWeight(Collection<? extends WeightedItem> collection) {
-        return collection.stream()
-                .map(WeightedItem::getWeight)
-                .reduce(0, Integer::sum);
+        int total = 0;
+        for (WeightedItem item : collection) {
+            total += item.getWeight();
+        }
+        return total;
+    }
+
+    public <T extends WeightedItem> WeightedSampler<T> sampler(Collection<? extends T> collection) {
+        return WeightedSampler.of(collection);
     }
 
     public <T extends WeightedItem> T getRandomItem(List<? extends T> collection, Random random) {
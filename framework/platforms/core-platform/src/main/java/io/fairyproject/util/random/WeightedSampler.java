@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.util.random;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable weighted sampler built with Vose's alias method.
+ * Building it is O(n), after that every {@link #sample(Random)} is O(1) no matter how many items there are,
+ * so it should be created once per loot table or spawner instead of calling {@link WeightedRandom#getRandomItem(List)} on every roll.
+ * Items with a weight of zero or less are never sampled.
+ *
+ * @param <T> the type of the items
+ */
+public final class WeightedSampler<T> {
+
+    private static final WeightedSampler<?> EMPTY = new WeightedSampler<>(new Object[0], new double[0], new int[0], 0);
+
+    private final Object[] items;
+    private final double[] probabilities;
+    private final int[] aliases;
+    private final long totalWeight;
+
+    private WeightedSampler(Object[] items, double[] probabilities, int[] aliases, long totalWeight) {
+        this.items = items;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+        this.totalWeight = totalWeight;
+    }
+
+    @NotNull
+    public static <T extends WeightedItem> WeightedSampler<T> of(@NotNull Collection<? extends T> items) {
+        return of(items, WeightedItem::getWeight);
+    }
+
+    @NotNull
+    public static <T> WeightedSampler<T> of(@NotNull Collection<? extends T> items, @NotNull ToIntFunction<? super T> weigher) {
+        List<Object> values = new ArrayList<>(items.size());
+        int[] weights = new int[items.size()];
+        for (T item : items) {
+            int weight = weigher.applyAsInt(item);
+            if (weight > 0) {
+                weights[values.size()] = weight;
+                values.add(item);
+            }
+        }
+        return build(values.toArray(), weights);
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public static <T> WeightedSampler<T> empty() {
+        return (WeightedSampler<T>) EMPTY;
+    }
+
+    /**
+     * Build the alias table, the weights array may be longer than the items, the rest is ignored
+     */
+    @SuppressWarnings("unchecked")
+    static <T> WeightedSampler<T> build(Object[] items, int[] weights) {
+        final int size = items.length;
+        if (size == 0)
+            return (WeightedSampler<T>) EMPTY;
+
+        long totalWeight = 0;
+        for (int i = 0; i < size; i++) {
+            totalWeight += weights[i];
+        }
+
+        // scale the weights so the average column is exactly 1, then pair every under-full column with an over-full one
+        final double[] probabilities = new double[size];
+        final int[] aliases = new int[size];
+        final double[] scaled = new double[size];
+        final int[] small = new int[size];
+        final int[] large = new int[size];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (double) weights[i] * size / totalWeight;
+            if (scaled[i] < 1.0)
+                small[smallSize++] = i;
+            else
+                large[largeSize++] = i;
+        }
+
+        while (smallSize > 0 && largeSize > 0) {
+            final int less = small[--smallSize];
+            final int more = large[--largeSize];
+
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0)
+                small[smallSize++] = more;
+            else
+                large[largeSize++] = more;
+        }
+
+        // whatever is left is 1 up to rounding errors
+        while (largeSize > 0) {
+            final int index = large[--largeSize];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+        while (smallSize > 0) {
+            final int index = small[--smallSize];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+
+        return new WeightedSampler<>(items, probabilities, aliases, totalWeight);
+    }
+
+    /**
+     * @return a random item, or null if there is no item with a positive weight
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public T sample(@NotNull Random random) {
+        final int size = this.items.length;
+        if (size == 0)
+            return null;
+
+        final int column = random.nextInt(size);
+        final int index = random.nextDouble() < this.probabilities[column] ? column : this.aliases[column];
+        return (T) this.items[index];
+    }
+
+    @Nullable
+    public T sample() {
+        return this.sample(ThreadLocalRandom.current());
+    }
+
+    /**
+     * @return the items that can be sampled, in the order they were given
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public List<T> getItems() {
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(this.items));
+    }
+
+    public long getTotalWeight() {
+        return this.totalWeight;
+    }
+
+    public int size() {
+        return this.items.length;
+    }
+
+    public boolean isEmpty() {
+        return this.items.length == 0;
+    }
+
+}
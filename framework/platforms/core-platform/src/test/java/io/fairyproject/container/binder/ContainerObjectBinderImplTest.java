@@ -113,6 +113,47 @@ class ContainerObjectBinderImplTest {
         assertNull(newBinder.getBinding(type));
     }
 
+    @Test
+    void getBinding_ShouldReturnBoundObjectBySuperclassAndInheritedInterface() {
+        ContainerObj object = ContainerObj.create(SomeSubClass.class);
+
+        binder.bind(SomeSubClass.class, object);
+
+        assertSame(object, binder.getBinding(SomeClass.class));
+        assertSame(object, binder.getBinding(SomeInterface.class));
+        assertNull(binder.getBinding(OtherInterface.class));
+    }
+
+    @Test
+    void unbind_ShouldFallbackToOtherAssignableBinding() {
+        ContainerObj object = ContainerObj.create(SomeClass.class);
+        ContainerObj subObject = ContainerObj.create(SomeSubClass.class);
+
+        binder.bind(SomeClass.class, object);
+        binder.bind(SomeSubClass.class, subObject);
+        assertSame(object, binder.getBinding(SomeInterface.class));
+
+        binder.unbind(SomeClass.class);
+        assertSame(subObject, binder.getBinding(SomeInterface.class));
+
+        binder.unbind(SomeSubClass.class);
+        assertFalse(binder.isBound(SomeInterface.class));
+    }
+
+    @Test
+    void bind_WhenRebound_ShouldReplacePreviousAssignableBinding() {
+        ContainerObj object = ContainerObj.create(SomeClass.class);
+        ContainerObj replacement = ContainerObj.create(SomeSubClass.class);
+
+        binder.bind(SomeClass.class, object);
+        binder.bind(SomeClass.class, replacement);
+
+        assertSame(replacement, binder.getBinding(SomeInterface.class));
+
+        binder.unbind(SomeClass.class);
+        assertNull(binder.getBinding(SomeInterface.class));
+    }
+
     private static class SomeClass implements SomeInterface {
         // Define a nested class for testing
     }
@@ -120,4 +161,10 @@ class ContainerObjectBinderImplTest {
     private interface SomeInterface {
         // Define a nested interface for testing
     }
+
+    private static class SomeSubClass extends SomeClass {
+    }
+
+    private interface OtherInterface {
+    }
 }
\ No newline at end of file
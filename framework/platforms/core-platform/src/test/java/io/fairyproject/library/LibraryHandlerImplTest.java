@@ -0,0 +1,108 @@
+package io.fairyproject.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryHandlerImplTest {
+
+    @TempDir
+    Path temp;
+
+    private Path repository;
+    private Path libs;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.repository = Files.createDirectories(this.temp.resolve("repository"));
+        this.libs = this.temp.resolve("libs");
+    }
+
+    @Test
+    void loadLibraries_ShouldResolveEveryLibraryFromLocalRepository() throws Exception {
+        List<Library> libraries = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            libraries.add(this.deploy("library-" + i, "content of library " + i));
+        }
+
+        LibraryHandlerImpl handler = new LibraryHandlerImpl(null, this.libs);
+        handler.loadLibraries(libraries, false);
+
+        for (int i = 0; i < libraries.size(); i++) {
+            Path path = this.libs.resolve(libraries.get(i).getFileName() + ".jar");
+            assertEquals("content of library " + i, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        }
+        assertTrue(Files.exists(this.libs.resolve("checksums.properties")));
+    }
+
+    @Test
+    void loadLibraries_WhenChecksumMismatch_ShouldFailWithoutKeepingTheJar() throws Exception {
+        Library valid = this.deploy("valid", "valid content");
+        Library corrupted = new Library("io.fairytest", "corrupted", "1.0", sha256("something else"), this.repositoryOf());
+        this.write("corrupted", "corrupted content");
+
+        LibraryHandlerImpl handler = new LibraryHandlerImpl(null, this.libs);
+        List<Library> libraries = new ArrayList<>();
+        libraries.add(valid);
+        libraries.add(corrupted);
+
+        assertThrows(IllegalStateException.class, () -> handler.loadLibraries(libraries, false));
+        assertFalse(Files.exists(this.libs.resolve(corrupted.getFileName() + ".jar")));
+    }
+
+    @Test
+    void loadLibrary_WhenAlreadyVerified_ShouldNotNeedRepository() throws Exception {
+        Library library = this.deploy("cached", "cached content");
+        new LibraryHandlerImpl(null, this.libs).loadLibrary(library, false);
+
+        Files.delete(this.repository.resolve("io/fairytest/cached/1.0/cached-1.0.jar"));
+
+        LibraryHandlerImpl handler = new LibraryHandlerImpl(null, this.libs);
+        assertTrue(handler.isChecksumValid(this.libs.resolve(library.getFileName() + ".jar"), library.getChecksum()));
+        handler.loadLibrary(library, false);
+        assertNotNull(handler.obtainClassLoaderWith(library));
+    }
+
+    @Test
+    void isChecksumValid_WhenJarModified_ShouldHashAgain() throws Exception {
+        Library library = this.deploy("modified", "original content");
+        LibraryHandlerImpl handler = new LibraryHandlerImpl(null, this.libs);
+        handler.loadLibrary(library, false);
+
+        Path path = this.libs.resolve(library.getFileName() + ".jar");
+        Files.write(path, "tampered content!".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(handler.isChecksumValid(path, library.getChecksum()));
+    }
+
+    private Library deploy(String artifactId, String content) throws Exception {
+        this.write(artifactId, content);
+        return new Library("io.fairytest", artifactId, "1.0", sha256(content), this.repositoryOf());
+    }
+
+    private void write(String artifactId, String content) throws IOException {
+        Path directory = Files.createDirectories(this.repository.resolve("io/fairytest/" + artifactId + "/1.0"));
+        Files.write(directory.resolve(artifactId + "-1.0.jar"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LibraryRepository repositoryOf() {
+        return new LibraryRepository(this.repository.toUri().toString());
+    }
+
+    private static String sha256(String content) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+}
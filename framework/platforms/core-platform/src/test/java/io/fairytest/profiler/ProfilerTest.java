@@ -0,0 +1,110 @@
+package io.fairytest.profiler;
+
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerReport;
+import io.fairyproject.profiler.ProfilerSection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProfilerTest {
+
+    @BeforeEach
+    public void setUp() {
+        Profiler.setEnabled(true);
+        Profiler.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Profiler.setEnabled(false);
+    }
+
+    @Test
+    public void mergeSamplesOfEveryThread() throws InterruptedException {
+        ProfilerSection section = Profiler.section("test.merge");
+        record(section, 100);
+
+        Thread thread = new Thread(() -> record(section, 50));
+        thread.start();
+        thread.join();
+
+        Assertions.assertEquals(150, find(Profiler.report(), "test.merge").getCount());
+    }
+
+    @Test
+    public void nestedEnterAndExit() {
+        ProfilerSection outer = Profiler.section("test.outer");
+        ProfilerSection inner = Profiler.section("test.inner");
+
+        Profiler.enter(outer);
+        Profiler.enter(inner);
+        Profiler.exit(inner);
+        Profiler.exit(outer);
+
+        ProfilerReport report = Profiler.report();
+        Assertions.assertEquals(1, find(report, "test.outer").getCount());
+        Assertions.assertEquals(1, find(report, "test.inner").getCount());
+        Assertions.assertTrue(find(report, "test.outer").getTotalNanos() >= find(report, "test.inner").getTotalNanos());
+    }
+
+    @Test
+    public void exitsPastMaxDepthDontPopFramesBelow() throws InterruptedException {
+        ProfilerSection section = Profiler.section("test.recursive");
+
+        for (int i = 0; i < 70; i++) {
+            Profiler.enter(section);
+        }
+        for (int i = 0; i < 69; i++) {
+            Profiler.exit(section);
+        }
+        Thread.sleep(20L);
+        Profiler.exit(section);
+
+        // the outermost frame is only closed by the last exit, so it covers the sleep
+        ProfilerReport.Entry entry = find(Profiler.report(), "test.recursive");
+        Assertions.assertEquals(64, entry.getCount());
+        Assertions.assertTrue(entry.getMaxNanos() >= 20_000_000L);
+    }
+
+    @Test
+    public void samplesAreNotCountedTwiceAcrossMerges() {
+        ProfilerSection section = Profiler.section("test.remerge");
+        record(section, 10);
+        Profiler.merge();
+        record(section, 5);
+        Profiler.merge();
+        record(section, 1);
+
+        Assertions.assertEquals(16, find(Profiler.report(), "test.remerge").getCount());
+    }
+
+    @Test
+    public void disabledRecordsNothing() {
+        ProfilerSection section = Profiler.section("test.disabled");
+        Profiler.setEnabled(false);
+        try {
+            record(section, 10);
+        } finally {
+            Profiler.setEnabled(true);
+        }
+
+        Assertions.assertTrue(Profiler.report().getEntries().stream().noneMatch(entry -> entry.getName().equals("test.disabled")));
+    }
+
+    private static void record(ProfilerSection section, int times) {
+        for (int i = 0; i < times; i++) {
+            long start = section.start();
+            section.stop(start);
+        }
+    }
+
+    private static ProfilerReport.Entry find(ProfilerReport report, String name) {
+        return report.getEntries().stream()
+                .filter(entry -> entry.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No entry for " + name));
+    }
+
+}
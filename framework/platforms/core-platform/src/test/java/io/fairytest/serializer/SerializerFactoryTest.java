@@ -120,6 +120,23 @@ public class SerializerFactoryTest extends JUnitJupiterBase {
         Assertions.assertEquals(serializer, cacheSerializer);
     }
 
+    @Test
+    public void modificationCountChangesOnRegisterAndUnregister() {
+        final SerializerFactory serializerFactory = Containers.get(SerializerFactory.class);
+        final int before = serializerFactory.getModificationCount();
+
+        ObjectSerializer<TestKey, TestKey> a = new ObjectSerializerMock<>(TestKey.class, TestKey.class);
+        serializerFactory.registerSerializer(a);
+        final int registered = serializerFactory.getModificationCount();
+        Assertions.assertNotEquals(before, registered);
+
+        serializerFactory.findSerializer(TestKey.class);
+        Assertions.assertEquals(registered, serializerFactory.getModificationCount());
+
+        serializerFactory.unregisterSerializer(a);
+        Assertions.assertNotEquals(registered, serializerFactory.getModificationCount());
+    }
+
     public static class TestKey { }
 
 }
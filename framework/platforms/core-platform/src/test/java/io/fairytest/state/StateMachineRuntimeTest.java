@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Fairy Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairytest.state;
+
+import io.fairyproject.state.Signal;
+import io.fairyproject.state.State;
+import io.fairyproject.state.StateHandler;
+import io.fairyproject.state.StateMachine;
+import io.fairyproject.state.StateMachineBuilder;
+import io.fairyproject.state.StateMachineRuntime;
+import io.fairyproject.state.impl.TimeoutStateHandler;
+import io.fairyproject.tests.base.JUnitJupiterBase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StateMachineRuntimeTest extends JUnitJupiterBase {
+
+    private enum ExampleState implements State {
+        A, B
+    }
+
+    @Test
+    public void registeredMachinesShouldBeTicked() {
+        StateMachineRuntime runtime = StateMachineRuntime.create();
+        AtomicInteger ticks = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            StateMachineBuilder builder = StateMachine.builder()
+                    .initialState(ExampleState.A)
+                    .runtime(runtime);
+            builder.state(ExampleState.A)
+                    .handler(StateHandler.builder().onTick(ticks::incrementAndGet).build());
+            builder.build();
+        }
+
+        runtime.tick();
+        runtime.tick();
+
+        Assertions.assertEquals(3, runtime.size());
+        Assertions.assertEquals(6, ticks.get());
+    }
+
+    @Test
+    public void stoppedMachineShouldBeUnregistered() {
+        StateMachineRuntime runtime = StateMachineRuntime.create();
+        StateMachine first = this.buildMachine(runtime, Duration.ofHours(1));
+        StateMachine second = this.buildMachine(runtime, Duration.ofHours(1));
+
+        first.stop(Signal.UNDEFINED);
+        runtime.tick();
+
+        Assertions.assertEquals(1, runtime.size());
+        Assertions.assertEquals(ExampleState.A, second.getCurrentState());
+    }
+
+    @Test
+    public void timeoutShouldFireFromDeadlineQueue() throws InterruptedException {
+        StateMachineRuntime runtime = StateMachineRuntime.create();
+        StateMachine stateMachine = this.buildMachine(runtime, Duration.ofMillis(100));
+
+        runtime.tick();
+        Assertions.assertEquals(ExampleState.A, stateMachine.getCurrentState());
+
+        long start = System.currentTimeMillis();
+        while (stateMachine.getCurrentState() != ExampleState.B) {
+            Thread.sleep(20L);
+            runtime.tick();
+            if (System.currentTimeMillis() - start > 2000L) {
+                Assertions.fail("Timeout");
+            }
+        }
+    }
+
+    @Test
+    public void timeoutShouldBeCancelledWhenStateIsLeft() throws InterruptedException {
+        StateMachineRuntime runtime = StateMachineRuntime.create();
+        StateMachine stateMachine = this.buildMachine(runtime, Duration.ofMillis(50));
+
+        stateMachine.transform(ExampleState.B);
+        stateMachine.transform(ExampleState.A);
+        Thread.sleep(60L);
+        runtime.tick();
+
+        // the timeout scheduled by the first start of A is stale, only the second one may fire and it isn't due yet
+        Assertions.assertEquals(ExampleState.A, stateMachine.getCurrentState());
+    }
+
+    @Test
+    public void timeoutShouldFireOnOwnTicksAfterUnregister() throws InterruptedException {
+        StateMachineRuntime runtime = StateMachineRuntime.create();
+        StateMachine stateMachine = this.buildMachine(runtime, Duration.ofMillis(50));
+
+        runtime.tick();
+        runtime.unregister(stateMachine);
+        Thread.sleep(60L);
+        runtime.tick();
+        Assertions.assertEquals(ExampleState.A, stateMachine.getCurrentState());
+
+        // the machine is ticked by its owner now, the pending deadline must not keep the handler from checking itself
+        stateMachine.tick();
+        Assertions.assertEquals(ExampleState.B, stateMachine.getCurrentState());
+    }
+
+    private StateMachine buildMachine(StateMachineRuntime runtime, Duration timeout) {
+        StateMachineBuilder builder = StateMachine.builder()
+                .initialState(ExampleState.A)
+                .runtime(runtime);
+        builder.state(ExampleState.A)
+                .handler(TimeoutStateHandler.of(timeout));
+        builder.state(ExampleState.B);
+        builder.transition()
+                .on(ExampleState.A)
+                .when(TimeoutStateHandler.SIGNAL)
+                .to(ExampleState.B);
+        return builder.build();
+    }
+
+}
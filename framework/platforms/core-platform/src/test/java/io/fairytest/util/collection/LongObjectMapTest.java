@@ -0,0 +1,134 @@
+package io.fairytest.util.collection;
+
+import io.fairyproject.util.collection.LongObjectMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void putGetAndReplace() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertNull(map.put(1L, "a"));
+        assertEquals("a", map.put(1L, "b"));
+        assertEquals("b", map.get(1L));
+        assertEquals(1, map.size());
+        assertNull(map.get(2L));
+        assertFalse(map.containsKey(2L));
+    }
+
+    @Test
+    public void edgeKeysAreRegularKeys() {
+        LongObjectMap<String> map = new LongObjectMap<>(1);
+        long[] keys = {0L, Long.MIN_VALUE, Long.MAX_VALUE, -1L};
+        for (long key : keys) {
+            map.put(key, String.valueOf(key));
+        }
+
+        assertEquals(keys.length, map.size());
+        for (long key : keys) {
+            assertTrue(map.containsKey(key));
+            assertEquals(String.valueOf(key), map.get(key));
+        }
+
+        assertEquals("0", map.remove(0L));
+        assertFalse(map.containsKey(0L));
+        assertEquals(String.valueOf(Long.MIN_VALUE), map.get(Long.MIN_VALUE));
+        assertEquals(String.valueOf(Long.MIN_VALUE), map.remove(Long.MIN_VALUE));
+        assertNull(map.remove(Long.MIN_VALUE));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void resizeKeepsEveryMapping() {
+        LongObjectMap<Long> map = new LongObjectMap<>(1);
+        for (long key = 0; key < 10_000; key++) {
+            map.put(key * 31, key);
+        }
+
+        assertEquals(10_000, map.size());
+        for (long key = 0; key < 10_000; key++) {
+            assertEquals(Long.valueOf(key), map.get(key * 31));
+        }
+    }
+
+    @Test
+    public void removeKeepsProbeChainsIntact() {
+        // a small map of many keys, so most of them share a probe chain with their neighbours
+        LongObjectMap<Long> map = new LongObjectMap<>(4);
+        for (long key = 0; key < 64; key++) {
+            map.put(key, key);
+        }
+        for (long key = 0; key < 64; key += 2) {
+            assertEquals(Long.valueOf(key), map.remove(key));
+        }
+
+        assertEquals(32, map.size());
+        for (long key = 0; key < 64; key++) {
+            assertEquals(key % 2 == 0 ? null : Long.valueOf(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(42);
+        LongObjectMap<Integer> map = new LongObjectMap<>(2);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            // a narrow key range makes collisions, replacements and removals of present keys frequent
+            long key = random.nextInt(512) - 256L;
+            if (random.nextInt(4) == 0)
+                key = key * 0x1_0000_0000L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void keysAndForEachSeeEveryMapping() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(0L, "zero");
+        map.put(Long.MIN_VALUE, "min");
+        map.put(42L, "answer");
+        map.remove(42L);
+
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(new long[] {Long.MIN_VALUE, 0L}, keys);
+
+        Map<Long, String> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(2, seen.size());
+        assertEquals("zero", seen.get(0L));
+        assertEquals("min", seen.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void clearEmptiesTheMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(1L, "a");
+        map.put(2L, "b");
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1L));
+        assertEquals(0, map.keys().length);
+
+        map.put(1L, "c");
+        assertEquals("c", map.get(1L));
+    }
+
+}
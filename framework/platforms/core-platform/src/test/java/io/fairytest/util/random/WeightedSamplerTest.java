@@ -0,0 +1,112 @@
+package io.fairytest.util.random;
+
+import io.fairyproject.util.random.MutableWeightedSampler;
+import io.fairyproject.util.random.WeightedItem;
+import io.fairyproject.util.random.WeightedSampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedSamplerTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    public void distributionShouldMatchWeights() {
+        List<Item> items = Arrays.asList(new Item("a", 1), new Item("b", 2), new Item("c", 3), new Item("d", 4), new Item("e", 40));
+        WeightedSampler<Item> sampler = WeightedSampler.of(items);
+        assertEquals(50, sampler.getTotalWeight());
+
+        Map<Item, Integer> counts = sample(sampler::sample, new Random(42));
+
+        // chi-squared with 4 degrees of freedom, 18.47 is the critical value at p = 0.001
+        assertTrue(chiSquared(items, counts, sampler.getTotalWeight()) < 18.47);
+    }
+
+    @Test
+    public void zeroWeightShouldNeverBeSampled() {
+        Item never = new Item("never", 0);
+        WeightedSampler<Item> sampler = WeightedSampler.of(Arrays.asList(new Item("a", 1), never, new Item("b", 1)));
+
+        assertEquals(2, sampler.size());
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            assertNotSame(never, sampler.sample(random));
+        }
+    }
+
+    @Test
+    public void emptyShouldSampleNull() {
+        assertNull(WeightedSampler.of(Collections.<Item>emptyList()).sample());
+        assertNull(WeightedSampler.of(Collections.singletonList(new Item("a", 0))).sample());
+        assertNull(new MutableWeightedSampler<String>().sample());
+    }
+
+    @Test
+    public void mutableShouldRebuildAfterChanges() {
+        MutableWeightedSampler<String> sampler = new MutableWeightedSampler<>();
+        sampler.put("a", 1);
+        assertEquals("a", sampler.sample());
+
+        WeightedSampler<String> snapshot = sampler.snapshot();
+        assertSame(snapshot, sampler.snapshot());
+
+        sampler.put("b", 3);
+        sampler.remove("a");
+        assertNotSame(snapshot, sampler.snapshot());
+        assertEquals("b", sampler.sample());
+        assertEquals(3, sampler.getWeight("b"));
+
+        sampler.put("a", 1);
+        Map<String, Integer> counts = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < SAMPLES; i++) {
+            counts.merge(sampler.sample(random), 1, Integer::sum);
+        }
+        assertEquals(0.25, counts.get("a") / (double) SAMPLES, 0.01);
+        assertEquals(0.75, counts.get("b") / (double) SAMPLES, 0.01);
+    }
+
+    private static Map<Item, Integer> sample(Function<Random, Item> sampler, Random random) {
+        Map<Item, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            counts.merge(sampler.apply(random), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static double chiSquared(List<Item> items, Map<Item, Integer> counts, long totalWeight) {
+        double chiSquared = 0;
+        for (Item item : items) {
+            double expected = SAMPLES * item.getWeight() / (double) totalWeight;
+            double difference = counts.getOrDefault(item, 0) - expected;
+            chiSquared += difference * difference / expected;
+        }
+        return chiSquared;
+    }
+
+    private static final class Item implements WeightedItem {
+
+        private final String name;
+        private final int weight;
+
+        private Item(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        @Override
+        public int getWeight() {
+            return this.weight;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+}
@@ -16,7 +16,9 @@ import org.jetbrains.annotations.Nullable;
 import java.net.InetAddress;
 import java.util.Collection;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -207,7 +209,25 @@ public interface MCPlayer extends MCEntity, Audience {
     class Companion {
 
         public static Bridge BRIDGE = null;
-        public static Function<MCPlayer, Locale> GET_LOCALE = mcPlayer -> Translator.parseLocale(mcPlayer.getGameLocale());
+        public static Function<MCPlayer, Locale> GET_LOCALE = mcPlayer -> parseGameLocale(mcPlayer.getGameLocale());
+
+        // game locales are sent by the client, so the cache is bounded to not be filled by arbitrary strings
+        private static final int MAX_PARSED_LOCALES = 256;
+        private static final Map<String, Locale> PARSED_LOCALES = new ConcurrentHashMap<>();
+
+        public static Locale parseGameLocale(String gameLocale) {
+            if (gameLocale == null)
+                return null;
+
+            Locale locale = PARSED_LOCALES.get(gameLocale);
+            if (locale != null)
+                return locale;
+
+            locale = Translator.parseLocale(gameLocale);
+            if (locale != null && PARSED_LOCALES.size() < MAX_PARSED_LOCALES)
+                PARSED_LOCALES.put(gameLocale, locale);
+            return locale;
+        }
 
     }
 
@@ -32,6 +32,7 @@ import io.fairyproject.mc.protocol.PacketEventsBuilder;
 import io.fairyproject.mc.protocol.packet.PacketSender;
 import io.fairyproject.mc.protocol.packet.impl.PacketSenderImpl;
 import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import io.fairyproject.mc.scheduler.MCSchedulerProvider;
 import io.fairyproject.mc.version.MCVersionMappingRegistry;
 
 @Configuration
@@ -48,8 +49,8 @@ public class MCProtocolConfiguration {
     }
 
     @InjectableComponent
-    public PacketSender providePacketSender() {
-        return new PacketSenderImpl();
+    public PacketSender providePacketSender(MCSchedulerProvider schedulerProvider) {
+        return new PacketSenderImpl(schedulerProvider);
     }
 
 }
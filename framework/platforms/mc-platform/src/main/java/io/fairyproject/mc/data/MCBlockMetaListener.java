@@ -0,0 +1,15 @@
+package io.fairyproject.mc.data;
+
+import io.fairyproject.container.InjectableComponent;
+import io.fairyproject.event.Subscribe;
+import io.fairyproject.mc.event.world.MCWorldUnloadEvent;
+
+@InjectableComponent
+public class MCBlockMetaListener {
+
+    @Subscribe(ignoreCancelled = true)
+    public void onWorldUnload(MCWorldUnloadEvent event) {
+        MCMetadata.getBlocks().unloadWorld(event.getWorld().getName());
+    }
+
+}
@@ -0,0 +1,439 @@
+package io.fairyproject.mc.data;
+
+import io.fairyproject.data.MetaKey;
+import io.fairyproject.data.MetaStorage;
+import io.fairyproject.log.Log;
+import io.fairyproject.util.collection.LongObjectMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Block metadata organised by world, chunk and chunk section, keyed by primitive packed positions.
+ * Chunks are evicted as a whole when they unload, and the values of keys registered with {@link #registerPersistentKey}
+ * can be encoded on unload and restored on load by the platform, so only what the plugin chose to keep outlives the chunk.
+ * Persisted values of keys that aren't registered yet are kept raw with their chunk, written back as they were on the next save
+ * and restored as soon as their key gets registered, so a late registration never loses data.
+ */
+public class MCBlockMetaRegistry {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Map<String, WorldBlocks> worlds = new ConcurrentHashMap<>();
+    private final Map<String, PersistentKey<?>> persistentKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Keep the values of the key when the chunk of the block unloads
+     *
+     * @param key the key
+     * @param encoder converts a value to its persisted form
+     * @param decoder converts the persisted form back to a value
+     * @param <T> the type of the value
+     */
+    public <T> void registerPersistentKey(@NotNull MetaKey<T> key, @NotNull Function<T, String> encoder, @NotNull Function<String, T> decoder) {
+        PersistentKey<T> persistentKey = new PersistentKey<>(key, encoder, decoder);
+        this.persistentKeys.put(key.getName(), persistentKey);
+
+        // chunks loaded before the registration kept the values of the key raw
+        for (WorldBlocks blocks : this.worlds.values()) {
+            blocks.adopt(persistentKey);
+        }
+    }
+
+    public void registerPersistentKey(@NotNull MetaKey<String> key) {
+        this.registerPersistentKey(key, Function.identity(), Function.identity());
+    }
+
+    public boolean hasPersistentKeys() {
+        return !this.persistentKeys.isEmpty();
+    }
+
+    @NotNull
+    public MetaStorage provide(@NotNull String world, int x, int y, int z) {
+        return this.worlds.computeIfAbsent(world, name -> new WorldBlocks()).provide(x, y, z);
+    }
+
+    @Nullable
+    public MetaStorage get(@NotNull String world, int x, int y, int z) {
+        WorldBlocks blocks = this.worlds.get(world);
+        return blocks != null ? blocks.get(x, y, z) : null;
+    }
+
+    public void remove(@NotNull String world, int x, int y, int z) {
+        WorldBlocks blocks = this.worlds.get(world);
+        if (blocks != null)
+            blocks.remove(x, y, z);
+    }
+
+    /**
+     * Evict the metadata of the chunk
+     *
+     * @return the encoded values of the persistent keys in the chunk, an empty array if the chunk had metadata but nothing to persist,
+     * or null if the chunk had no metadata at all or nothing could be persisted, in which case anything persisted before should be kept
+     */
+    @Nullable
+    public byte[] unloadChunk(@NotNull String world, int chunkX, int chunkZ) {
+        WorldBlocks blocks = this.worlds.get(world);
+        if (blocks == null)
+            return null;
+
+        ChunkBlocks chunk = blocks.removeChunk(chunkKey(chunkX, chunkZ));
+        if (chunk == null || (this.persistentKeys.isEmpty() && !chunk.persisted))
+            return null;
+        return this.encode(chunk);
+    }
+
+    /**
+     * Encode the persistent values of the chunk without evicting it, see {@link #unloadChunk(String, int, int)} for the result
+     */
+    @Nullable
+    public byte[] saveChunk(@NotNull String world, int chunkX, int chunkZ) {
+        WorldBlocks blocks = this.worlds.get(world);
+        if (blocks == null)
+            return null;
+
+        return blocks.encodeChunk(chunkKey(chunkX, chunkZ), this);
+    }
+
+    /**
+     * Restore the values previously returned by {@link #unloadChunk(String, int, int)}
+     */
+    public void loadChunk(@NotNull String world, int chunkX, int chunkZ, byte[] data) {
+        if (data.length == 0)
+            return;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readUnsignedByte() != FORMAT_VERSION)
+                return;
+
+            // even if every block gets removed, the next save has to overwrite what was persisted
+            WorldBlocks worldBlocks = this.worlds.computeIfAbsent(world, name -> new WorldBlocks());
+            worldBlocks.markPersisted(chunkKey(chunkX, chunkZ));
+
+            int blocks = in.readInt();
+            for (int i = 0; i < blocks; i++) {
+                int y = in.readInt();
+                int xz = in.readUnsignedByte();
+                int keys = in.readUnsignedShort();
+
+                MetaStorage storage = null;
+                for (int k = 0; k < keys; k++) {
+                    String name = in.readUTF();
+                    String value = in.readUTF();
+                    PersistentKey<?> key = this.persistentKeys.get(name);
+                    if (key == null) {
+                        worldBlocks.keepRaw(chunkKey(chunkX, chunkZ), y, xz, name, value);
+                        continue;
+                    }
+
+                    if (storage == null)
+                        storage = this.provide(world, (chunkX << 4) | (xz >> 4), y, (chunkZ << 4) | (xz & 15));
+                    key.restore(storage, value);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.error("Failed to restore block metadata of chunk " + chunkX + ", " + chunkZ + " in " + world, e);
+        }
+    }
+
+    /**
+     * Evict the metadata of every block in the world
+     */
+    public void unloadWorld(@NotNull String world) {
+        this.worlds.remove(world);
+    }
+
+    /**
+     * Get the positions of the chunks currently holding metadata, packed by {@link #chunkKey(int, int)}
+     */
+    public long[] getChunks(@NotNull String world) {
+        WorldBlocks blocks = this.worlds.get(world);
+        return blocks != null ? blocks.chunks() : new long[0];
+    }
+
+    public int size() {
+        int size = 0;
+        for (WorldBlocks blocks : this.worlds.values()) {
+            size += blocks.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        this.worlds.clear();
+    }
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int chunkX(long chunkKey) {
+        return (int) (chunkKey >> 32);
+    }
+
+    public static int chunkZ(long chunkKey) {
+        return (int) chunkKey;
+    }
+
+    private byte[] encode(ChunkBlocks chunk) {
+        Map<Long, Map<String, String>> blocks = new LinkedHashMap<>();
+        chunk.forEach((y, xz, storage) -> {
+            for (PersistentKey<?> key : this.persistentKeys.values()) {
+                String value = key.save(storage);
+                if (value != null)
+                    blocks.computeIfAbsent(blockKey(y, xz), k -> new LinkedHashMap<>()).put(key.key.getName(), value);
+            }
+        });
+        chunk.forEachRaw((block, values) -> blocks.computeIfAbsent(block, k -> new LinkedHashMap<>()).putAll(values));
+        if (blocks.isEmpty())
+            return new byte[0];
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(blocks.size());
+            for (Map.Entry<Long, Map<String, String>> block : blocks.entrySet()) {
+                out.writeInt(blockY(block.getKey()));
+                out.writeByte(blockXZ(block.getKey()));
+                out.writeShort(block.getValue().size());
+                for (Map.Entry<String, String> value : block.getValue().entrySet()) {
+                    out.writeUTF(value.getKey());
+                    out.writeUTF(value.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // a block inside its chunk, xz packs the x and z inside the chunk as (x << 4) | z
+    private static long blockKey(int y, int xz) {
+        return ((long) y << 8) | xz;
+    }
+
+    private static int blockY(long blockKey) {
+        return (int) (blockKey >> 8);
+    }
+
+    private static int blockXZ(long blockKey) {
+        return (int) (blockKey & 0xFF);
+    }
+
+    private static final class WorldBlocks {
+
+        private final LongObjectMap<ChunkBlocks> chunks = new LongObjectMap<>();
+
+        private synchronized MetaStorage provide(int x, int y, int z) {
+            return this.chunk(chunkKey(x >> 4, z >> 4)).provide(x, y, z);
+        }
+
+        private synchronized MetaStorage get(int x, int y, int z) {
+            ChunkBlocks chunk = this.chunks.get(chunkKey(x >> 4, z >> 4));
+            return chunk != null ? chunk.get(x, y, z) : null;
+        }
+
+        private synchronized void remove(int x, int y, int z) {
+            long key = chunkKey(x >> 4, z >> 4);
+            ChunkBlocks chunk = this.chunks.get(key);
+            // a chunk with persisted data stays until it unloads, so its empty state gets saved
+            if (chunk != null && chunk.remove(x, y, z) && !chunk.persisted)
+                this.chunks.remove(key);
+        }
+
+        private synchronized void markPersisted(long key) {
+            this.chunk(key).persisted = true;
+        }
+
+        private synchronized void keepRaw(long key, int y, int xz, String name, String value) {
+            this.chunk(key).keepRaw(y, xz, name, value);
+        }
+
+        private synchronized void adopt(PersistentKey<?> key) {
+            this.chunks.forEach((chunkKey, chunk) -> chunk.adopt(chunkKey, key));
+        }
+
+        private synchronized ChunkBlocks removeChunk(long key) {
+            return this.chunks.remove(key);
+        }
+
+        private synchronized byte[] encodeChunk(long key, MCBlockMetaRegistry registry) {
+            ChunkBlocks chunk = this.chunks.get(key);
+            if (chunk == null || (registry.persistentKeys.isEmpty() && !chunk.persisted))
+                return null;
+            return registry.encode(chunk);
+        }
+
+        private ChunkBlocks chunk(long key) {
+            ChunkBlocks chunk = this.chunks.get(key);
+            if (chunk == null) {
+                chunk = new ChunkBlocks();
+                this.chunks.put(key, chunk);
+            }
+            return chunk;
+        }
+
+        private synchronized long[] chunks() {
+            return this.chunks.keys();
+        }
+
+        private synchronized int size() {
+            int[] size = {0};
+            this.chunks.forEach((key, chunk) -> size[0] += chunk.size());
+            return size[0];
+        }
+    }
+
+    /**
+     * The sections of a chunk, each keyed by the section y and holding its blocks by their 12 bit index inside the section,
+     * and the persisted values of unregistered keys by {@link #blockKey(int, int)}
+     */
+    private static final class ChunkBlocks {
+
+        private final LongObjectMap<LongObjectMap<MetaStorage>> sections = new LongObjectMap<>(4);
+        private LongObjectMap<Map<String, String>> raw;
+        // restored from persisted data, which has to be overwritten on save even when nothing is left
+        private boolean persisted;
+
+        private MetaStorage provide(int x, int y, int z) {
+            LongObjectMap<MetaStorage> section = this.sections.get(y >> 4);
+            if (section == null) {
+                section = new LongObjectMap<>(4);
+                this.sections.put(y >> 4, section);
+            }
+
+            int index = index(x, y, z);
+            MetaStorage storage = section.get(index);
+            if (storage == null) {
+                storage = MetaStorage.create();
+                section.put(index, storage);
+            }
+            return storage;
+        }
+
+        private MetaStorage get(int x, int y, int z) {
+            LongObjectMap<MetaStorage> section = this.sections.get(y >> 4);
+            return section != null ? section.get(index(x, y, z)) : null;
+        }
+
+        /**
+         * @return true if the chunk became empty
+         */
+        private boolean remove(int x, int y, int z) {
+            if (this.raw != null) {
+                this.raw.remove(blockKey(y, ((x & 15) << 4) | (z & 15)));
+                if (this.raw.isEmpty())
+                    this.raw = null;
+            }
+
+            LongObjectMap<MetaStorage> section = this.sections.get(y >> 4);
+            if (section != null) {
+                section.remove(index(x, y, z));
+                if (section.isEmpty())
+                    this.sections.remove(y >> 4);
+            }
+            return this.sections.isEmpty() && this.raw == null;
+        }
+
+        private void keepRaw(int y, int xz, String name, String value) {
+            if (this.raw == null)
+                this.raw = new LongObjectMap<>(4);
+
+            long block = blockKey(y, xz);
+            Map<String, String> values = this.raw.get(block);
+            if (values == null) {
+                values = new LinkedHashMap<>(4);
+                this.raw.put(block, values);
+            }
+            values.put(name, value);
+        }
+
+        private void forEachRaw(LongObjectMap.EntryConsumer<Map<String, String>> consumer) {
+            if (this.raw != null)
+                this.raw.forEach(consumer);
+        }
+
+        /**
+         * Restore the raw values of the newly registered key
+         */
+        private void adopt(long chunkKey, PersistentKey<?> key) {
+            if (this.raw == null)
+                return;
+
+            for (long block : this.raw.keys()) {
+                Map<String, String> values = this.raw.get(block);
+                String value = values.remove(key.key.getName());
+                if (value == null)
+                    continue;
+                if (values.isEmpty())
+                    this.raw.remove(block);
+
+                int xz = blockXZ(block);
+                MetaStorage storage = this.provide((chunkX(chunkKey) << 4) | (xz >> 4), blockY(block), (chunkZ(chunkKey) << 4) | (xz & 15));
+                try {
+                    key.restore(storage, value);
+                } catch (RuntimeException e) {
+                    Log.error("Failed to restore block metadata " + key.key.getName(), e);
+                }
+            }
+
+            if (this.raw.isEmpty())
+                this.raw = null;
+        }
+
+        private int size() {
+            int[] size = {0};
+            this.sections.forEach((sectionY, section) -> size[0] += section.size());
+            return size[0];
+        }
+
+        private void forEach(BlockConsumer consumer) {
+            this.sections.forEach((sectionY, section) -> section.forEach((index, storage) -> {
+                int i = (int) index;
+                int y = ((int) sectionY << 4) | (i >> 8);
+                consumer.accept(y, i & 0xFF, storage);
+            }));
+        }
+
+        private static int index(int x, int y, int z) {
+            return ((y & 15) << 8) | ((x & 15) << 4) | (z & 15);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BlockConsumer {
+        // xz packs the x and z inside the chunk as (x << 4) | z
+        void accept(int y, int xz, MetaStorage storage);
+    }
+
+    private static final class PersistentKey<T> {
+
+        private final MetaKey<T> key;
+        private final Function<T, String> encoder;
+        private final Function<String, T> decoder;
+
+        private PersistentKey(MetaKey<T> key, Function<T, String> encoder, Function<String, T> decoder) {
+            this.key = key;
+            this.encoder = encoder;
+            this.decoder = decoder;
+        }
+
+        @Nullable
+        private String save(MetaStorage storage) {
+            T value = storage.getOrNull(this.key);
+            return value != null ? this.encoder.apply(value) : null;
+        }
+
+        private void restore(MetaStorage storage, String value) {
+            T decoded = this.decoder.apply(value);
+            if (decoded != null)
+                storage.put(this.key, decoded);
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ public class MCMetadata {
     private static final MetaRegistry<String> WORLDS = new MetaRegistryImpl<>();
     private static final MetaRegistry<UUID> ENTITIES = new MetaRegistryImpl<>();
     private static final MetaRegistry<Long> BLOCKS = new MetaRegistryImpl<>();
+    private static final MCBlockMetaRegistry WORLD_BLOCKS = new MCBlockMetaRegistry();
     @ApiStatus.Internal
     public static MCMetadataBridge BRIDGE;
 
@@ -33,10 +34,18 @@ public class MCMetadata {
         return ENTITIES;
     }
 
+    /**
+     * @deprecated the keys don't include the world and are never evicted, use {@link #getBlocks()} instead
+     */
+    @Deprecated
     public static MetaRegistry<Long> getBlockRegistry() {
         return BLOCKS;
     }
 
+    public static MCBlockMetaRegistry getBlocks() {
+        return WORLD_BLOCKS;
+    }
+
     public static MetaStorage providePlayer(MCPlayer player) {
         return PLAYERS.provide(player.getUUID());
     }
@@ -61,10 +70,24 @@ public class MCMetadata {
         return ENTITIES.provide(entity);
     }
 
+    /**
+     * Provide the block from {@link #getBlockRegistry()}, shared by every world
+     *
+     * @deprecated the position doesn't include the world, use {@link #provideBlock(MCWorld, BlockPosition)} instead
+     */
+    @Deprecated
     public static MetaStorage provideBlock(BlockPosition block) {
         return BLOCKS.provide(block.asLong());
     }
 
+    public static MetaStorage provideBlock(MCWorld world, BlockPosition block) {
+        return WORLD_BLOCKS.provide(world.getName(), block.getX(), block.getY(), block.getZ());
+    }
+
+    public static MetaStorage provideBlock(String world, int x, int y, int z) {
+        return WORLD_BLOCKS.provide(world, x, y, z);
+    }
+
     @NotNull
     public static MetaStorage provide(Object holder) {
         if (holder instanceof MCPlayer) {
@@ -84,6 +107,7 @@ public class MCMetadata {
         WORLDS.clear();
         ENTITIES.clear();
         BLOCKS.clear();
+        WORLD_BLOCKS.clear();
     }
 
 }
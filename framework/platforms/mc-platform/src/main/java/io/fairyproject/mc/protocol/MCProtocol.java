@@ -159,6 +159,10 @@ public class MCProtocol {
         MCProtocol.INSTANCE.getPacketSender().sendPacket(mcPlayer, packetWrapper);
     }
 
+    public static void sendPacketImmediately(MCPlayer mcPlayer, PacketWrapper<?> packetWrapper) {
+        MCProtocol.INSTANCE.getPacketSender().sendPacketImmediately(mcPlayer, packetWrapper);
+    }
+
     public static Terminable listen(PacketListenerCommon packetListener) {
         MCProtocol.INSTANCE.getPacketEvents().getEventManager().registerListener(packetListener);
         return () -> MCProtocol.INSTANCE.getPacketEvents().getEventManager().unregisterListener(packetListener);
@@ -5,6 +5,32 @@ import io.fairyproject.mc.MCPlayer;
 
 public interface PacketSender {
 
+    /**
+     * Send a packet to the player.
+     * If batching is enabled, the packet is queued and written together with other packets on the next flush.
+     *
+     * @param mcPlayer the player
+     * @param packetWrapper the packet
+     */
     void sendPacket(MCPlayer mcPlayer, PacketWrapper<?> packetWrapper);
 
+    /**
+     * Send a packet to the player and flush it right away, bypassing batching.
+     * Any packet still queued for the player is flushed first to preserve ordering.
+     *
+     * @param mcPlayer the player
+     * @param packetWrapper the packet
+     */
+    default void sendPacketImmediately(MCPlayer mcPlayer, PacketWrapper<?> packetWrapper) {
+        this.sendPacket(mcPlayer, packetWrapper);
+    }
+
+    /**
+     * Flush every packet queued for the player
+     *
+     * @param mcPlayer the player
+     */
+    default void flush(MCPlayer mcPlayer) {
+    }
+
 }
@@ -1,19 +1,277 @@
 package io.fairyproject.mc.protocol.packet.impl;
 
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
 import io.fairyproject.Debug;
+import io.fairyproject.container.PreDestroy;
 import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.protocol.MCProtocol;
 import io.fairyproject.mc.protocol.packet.PacketSender;
+import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.util.Stacktrace;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 public class PacketSenderImpl implements PacketSender {
+
+    private static final boolean BATCHING = System.getProperty("fairy.protocol.batch-packets", "false").equalsIgnoreCase("true");
+    private static final boolean BUNDLING = System.getProperty("fairy.protocol.bundle-packets", "false").equalsIgnoreCase("true");
+    // the client rejects bundles with more than 4096 packets, including the delimiters
+    static final int MAX_BUNDLE_SIZE = 4094;
+
+    private final MCSchedulerProvider schedulerProvider;
+    private final Supplier<PacketEventsAPI<?>> packetEvents;
+    private final Supplier<PacketWrapper<?>> bundleDelimiter;
+    private final Map<UUID, PlayerBatch> batches = new ConcurrentHashMap<>();
+    private final Object taskLock = new Object();
+    private volatile ScheduledTask<?> flushTask;
+    private volatile boolean destroyed;
+
+    /**
+     * When batching, packets are encoded and queued per player and written then flushed once per tick
+     */
+    @Getter
+    @Setter
+    private boolean batching = BATCHING;
+    /**
+     * When bundling, a flush that contains more than one packet is wrapped in a bundle on 1.19.4+
+     */
+    @Getter
+    @Setter
+    private boolean bundling = BUNDLING;
+
+    public PacketSenderImpl(MCSchedulerProvider schedulerProvider) {
+        this(schedulerProvider, () -> MCProtocol.INSTANCE.getPacketEvents());
+    }
+
+    PacketSenderImpl(MCSchedulerProvider schedulerProvider, Supplier<PacketEventsAPI<?>> packetEvents) {
+        this(schedulerProvider, packetEvents, WrapperPlayServerBundle::new);
+    }
+
+    PacketSenderImpl(MCSchedulerProvider schedulerProvider, Supplier<PacketEventsAPI<?>> packetEvents, Supplier<PacketWrapper<?>> bundleDelimiter) {
+        this.schedulerProvider = schedulerProvider;
+        this.packetEvents = packetEvents;
+        this.bundleDelimiter = bundleDelimiter;
+    }
+
     @Override
     public void sendPacket(MCPlayer mcPlayer, PacketWrapper<?> packetWrapper) {
         if (Debug.UNIT_TEST) {
             throw new IllegalStateException("PacketSenderImpl shouldn't be used in unit test runtime.");
         }
-        MCProtocol.INSTANCE.getPacketEvents()
+
+        // nothing flushes the batches once destroyed
+        if (!this.batching || this.destroyed) {
+            this.sendPacketImmediately(mcPlayer, packetWrapper);
+            return;
+        }
+
+        Channel channel = mcPlayer.getChannel();
+        if (channel == null)
+            return;
+
+        // encoded right away, so the caller may reuse or mutate the wrapper once this returns
+        Object[] buffers = this.packetEvents.get().getProtocolManager().transformWrappers(packetWrapper, channel, true);
+
+        PlayerBatch batch = this.batches.get(mcPlayer.getUUID());
+        if (batch == null || batch.channel != channel)
+            batch = this.bind(mcPlayer.getUUID(), channel);
+        for (Object buffer : buffers) {
+            batch.buffers.add(buffer);
+        }
+
+        // the batch may have been dropped while the buffers were queued, nothing would write or release them then
+        if (batch.discarded) {
+            this.discard(batch);
+            return;
+        }
+        this.scheduleTask();
+    }
+
+    @Override
+    public void sendPacketImmediately(MCPlayer mcPlayer, PacketWrapper<?> packetWrapper) {
+        if (Debug.UNIT_TEST) {
+            throw new IllegalStateException("PacketSenderImpl shouldn't be used in unit test runtime.");
+        }
+
+        this.flush(mcPlayer);
+        this.packetEvents.get()
                 .getProtocolManager()
                 .sendPacket(mcPlayer.getChannel(), packetWrapper);
     }
+
+    @Override
+    public void flush(MCPlayer mcPlayer) {
+        PlayerBatch batch = this.batches.get(mcPlayer.getUUID());
+        if (batch == null || batch.buffers.isEmpty())
+            return;
+
+        if (!this.flush(batch))
+            this.batches.remove(mcPlayer.getUUID(), batch);
+    }
+
+    public void flushAll() {
+        Iterator<PlayerBatch> iterator = this.batches.values().iterator();
+        while (iterator.hasNext()) {
+            PlayerBatch batch = iterator.next();
+            if (!this.flush(batch))
+                iterator.remove();
+        }
+    }
+
+    @PreDestroy
+    public void onPreDestroy() {
+        synchronized (this.taskLock) {
+            this.destroyed = true;
+            if (this.flushTask != null) {
+                this.flushTask.closeAndReportException();
+                this.flushTask = null;
+            }
+        }
+        this.flushAll();
+    }
+
+    /**
+     * Get the batch of the channel, a player who reconnected gets a new batch and the one of the old connection is discarded
+     */
+    private PlayerBatch bind(UUID uuid, Channel channel) {
+        PlayerBatch[] replaced = new PlayerBatch[1];
+        PlayerBatch batch = this.batches.compute(uuid, (key, previous) -> {
+            if (previous != null && previous.channel == channel)
+                return previous;
+
+            replaced[0] = previous;
+            return new PlayerBatch(channel);
+        });
+
+        if (replaced[0] != null)
+            this.discard(replaced[0]);
+        return batch;
+    }
+
+    private void scheduleTask() {
+        if (this.flushTask != null)
+            return;
+
+        synchronized (this.taskLock) {
+            if (this.flushTask != null || this.destroyed)
+                return;
+
+            this.flushTask = this.schedulerProvider.getAsyncScheduler().scheduleAtFixedRate(() -> {
+                try {
+                    this.flushAll();
+                } catch (Throwable throwable) {
+                    Stacktrace.print(throwable);
+                }
+            }, 1L, 1L);
+        }
+    }
+
+    /**
+     * Flush the batch on the event loop of its channel, so nothing else written to the channel lands between the packets of the batch
+     *
+     * @param batch the batch
+     * @return false if the channel is gone and the batch should be dropped
+     */
+    private boolean flush(PlayerBatch batch) {
+        Channel channel = batch.channel;
+        if (!channel.isOpen()) {
+            this.discard(batch);
+            return false;
+        }
+
+        EventLoop eventLoop = channel.eventLoop();
+        if (eventLoop.inEventLoop()) {
+            this.write(batch);
+            return true;
+        }
+
+        try {
+            eventLoop.execute(() -> this.write(batch));
+        } catch (RejectedExecutionException ex) {
+            // the event loop shut down with the channel
+            this.discard(batch);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Write every queued packet of the batch and flush the channel once, must be called on the event loop of the channel
+     */
+    private void write(PlayerBatch batch) {
+        Queue<Object> buffers = batch.buffers;
+        Channel channel = batch.channel;
+        // the channel may have closed since the flush was submitted
+        if (!channel.isOpen()) {
+            this.discard(batch);
+            return;
+        }
+
+        Object buffer = buffers.poll();
+        if (buffer == null)
+            return;
+
+        PacketEventsAPI<?> packetEvents = this.packetEvents.get();
+        ProtocolManager protocolManager = packetEvents.getProtocolManager();
+        boolean bundle = this.bundling
+                && buffers.peek() != null
+                && packetEvents.getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_19_4);
+
+        if (bundle)
+            protocolManager.writePacket(channel, this.bundleDelimiter.get());
+
+        int bundleSize = 0;
+        while (buffer != null) {
+            if (bundle && bundleSize == MAX_BUNDLE_SIZE) {
+                protocolManager.writePacket(channel, this.bundleDelimiter.get());
+                protocolManager.writePacket(channel, this.bundleDelimiter.get());
+                bundleSize = 0;
+            }
+
+            protocolManager.writePacket(channel, buffer);
+            bundleSize++;
+            buffer = buffers.poll();
+        }
+
+        if (bundle)
+            protocolManager.writePacket(channel, this.bundleDelimiter.get());
+
+        channel.flush();
+    }
+
+    private void discard(PlayerBatch batch) {
+        batch.discarded = true;
+        Object buffer;
+        while ((buffer = batch.buffers.poll()) != null) {
+            ReferenceCountUtil.release(buffer);
+        }
+    }
+
+    private static final class PlayerBatch {
+
+        private final Channel channel;
+        private final Queue<Object> buffers = new ConcurrentLinkedQueue<>();
+        private volatile boolean discarded;
+
+        private PlayerBatch(Channel channel) {
+            this.channel = channel;
+        }
+    }
 }
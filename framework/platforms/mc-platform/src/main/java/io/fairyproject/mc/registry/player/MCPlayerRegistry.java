@@ -39,8 +39,20 @@ public interface MCPlayerRegistry {
 
     @NotNull MCPlayer findPlayerByUuid(@NotNull UUID uuid);
 
+    /**
+     * Get an online player by name, ignoring case
+     *
+     * @throws IllegalArgumentException if no player with the name is online
+     */
     @NotNull MCPlayer findPlayerByName(@NotNull String name);
 
+    /**
+     * Find an online player by name, ignoring case
+     *
+     * @return the player, or null if no player with the name is online
+     */
+    @Nullable MCPlayer findByName(@NotNull String name);
+
     @NotNull default MCPlayer findPlayerByPlatformPlayer(@NotNull Object platformPlayer) {
         return getByPlatform(platformPlayer);
     }
@@ -57,4 +69,29 @@ public interface MCPlayerRegistry {
 
     Collection<MCPlayer> getAllPlayers();
 
+    /**
+     * Get the slot of an online player, a small integer unique among online players.
+     * Slots are handed out lowest first and reused once the player quits, so per-player data can be kept in arrays
+     * indexed by slot, as long as the entry is reset when the player joins or quits.
+     *
+     * @return the slot, or -1 if the player isn't online
+     */
+    int getSlot(@NotNull UUID uuid);
+
+    default int getSlot(@NotNull MCPlayer player) {
+        return this.getSlot(player.getUUID());
+    }
+
+    /**
+     * Get the online player holding the slot
+     *
+     * @return the player, or null if the slot is free
+     */
+    @Nullable MCPlayer getBySlot(int slot);
+
+    /**
+     * Get an upper bound of the slots in use, every slot is lower than this
+     */
+    int getSlotCapacity();
+
 }
@@ -30,7 +30,10 @@ import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,6 +43,11 @@ public class MCPlayerRegistryImpl implements MCPlayerRegistry {
 
     private final MCPlayerPlatformOperator playerPlatformOperator;
     protected final Map<UUID, MCPlayer> players = new ConcurrentHashMap<>();
+    // lower cased names, minecraft names are unique regardless of case
+    private final Map<String, MCPlayer> playersByName = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> slotsByUuid = new ConcurrentHashMap<>();
+    private final BitSet usedSlots = new BitSet();
+    private volatile MCPlayer[] slots = new MCPlayer[64];
 
     @PostInitialize
     public void onPostInitialize() {
@@ -59,17 +67,18 @@ public class MCPlayerRegistryImpl implements MCPlayerRegistry {
 
     @Override
     public @NotNull MCPlayer findPlayerByName(@NotNull String name) {
-        // TODO: optimize this to use a map of names to MCPlayers
-        MCPlayer mcPlayer = players.values().stream()
-                .filter(player -> player.getName().equals(name))
-                .findFirst()
-                .orElse(null);
+        MCPlayer mcPlayer = this.findByName(name);
         if (mcPlayer == null)
             throw new IllegalArgumentException("Player with name " + name + " does not exist");
 
         return mcPlayer;
     }
 
+    @Override
+    public @Nullable MCPlayer findByName(@NotNull String name) {
+        return this.playersByName.get(name.toLowerCase(Locale.ROOT));
+    }
+
     @Override
     public @NotNull MCPlayer getByPlatform(@NotNull Object platformPlayer) {
         UUID uuid = this.playerPlatformOperator.getUniqueId(platformPlayer);
@@ -89,19 +98,47 @@ public class MCPlayerRegistryImpl implements MCPlayerRegistry {
 
     @Override
     public void addPlayer(@NotNull MCPlayer player) {
-        if (players.containsKey(player.getUUID()))
-            throw new IllegalArgumentException("Player with UUID " + player.getUUID() + " already exists");
-
-        players.put(player.getUUID(), player);
+        synchronized (this.usedSlots) {
+            if (players.containsKey(player.getUUID()))
+                throw new IllegalArgumentException("Player with UUID " + player.getUUID() + " already exists");
+
+            int slot = this.usedSlots.nextClearBit(0);
+            this.usedSlots.set(slot);
+            MCPlayer[] slots = this.slots;
+            if (slot >= slots.length)
+                slots = Arrays.copyOf(slots, slots.length << 1);
+            slots[slot] = player;
+            // the volatile write publishes the slot to lock-free readers
+            this.slots = slots;
+            this.slotsByUuid.put(player.getUUID(), slot);
+
+            String name = player.getName();
+            if (name != null)
+                this.playersByName.put(name.toLowerCase(Locale.ROOT), player);
+            players.put(player.getUUID(), player);
+        }
     }
 
     @Override
     public @Nullable MCPlayer removePlayer(@NotNull UUID uuid) {
-        MCPlayer retVal = this.players.remove(uuid);
-        if (retVal == null)
-            throw new IllegalArgumentException("Player with UUID " + uuid + " does not exist");
-
-        return retVal;
+        synchronized (this.usedSlots) {
+            MCPlayer retVal = this.players.remove(uuid);
+            if (retVal == null)
+                throw new IllegalArgumentException("Player with UUID " + uuid + " does not exist");
+
+            String name = retVal.getName();
+            if (name != null)
+                this.playersByName.remove(name.toLowerCase(Locale.ROOT), retVal);
+
+            Integer slot = this.slotsByUuid.remove(uuid);
+            if (slot != null) {
+                MCPlayer[] slots = this.slots;
+                slots[slot] = null;
+                this.slots = slots;
+                this.usedSlots.clear(slot);
+            }
+            return retVal;
+        }
     }
 
     public void removePlayer(@NotNull MCPlayer player) {
@@ -112,4 +149,21 @@ public class MCPlayerRegistryImpl implements MCPlayerRegistry {
     public Collection<MCPlayer> getAllPlayers() {
         return players.values();
     }
+
+    @Override
+    public int getSlot(@NotNull UUID uuid) {
+        Integer slot = this.slotsByUuid.get(uuid);
+        return slot != null ? slot : -1;
+    }
+
+    @Override
+    public @Nullable MCPlayer getBySlot(int slot) {
+        MCPlayer[] slots = this.slots;
+        return slot >= 0 && slot < slots.length ? slots[slot] : null;
+    }
+
+    @Override
+    public int getSlotCapacity() {
+        return this.slots.length;
+    }
 }
@@ -0,0 +1,327 @@
+package io.fairyproject.mc.render;
+
+import io.fairyproject.log.Log;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSection;
+import io.fairyproject.util.thread.NamedThreadFactory;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Renders a per player view, like a sidebar or a tablist, for every online player on each tick.
+ * <p>
+ * Players are rendered on the ticking thread one after another, and with a budget set only that many players
+ * are rendered per tick, every player getting its turn once every {@code ceil(players / budget)} ticks.
+ * A render equal to the previous one of the same player isn't applied again unless {@link Builder#skipUnchanged(boolean)} is turned off.
+ * A tick starting while the previous one is still rendering is skipped instead of piling up.
+ * <p>
+ * With {@code -Dfairy.render.threads} above 1, large player counts are instead partitioned across a shared bounded worker pool,
+ * the renderer and applier of every pipeline are then called concurrently for different players and must be thread-safe.
+ * The default budget is {@code -Dfairy.render.budget}, 0 meaning no budget.
+ *
+ * @param <T> the rendered view
+ */
+public final class PlayerRenderPipeline<T> {
+
+    // renderers written before the pipeline expect a single thread, so workers are opt in
+    private static final int THREADS = Math.max(1, Integer.getInteger("fairy.render.threads", 1));
+    private static final int DEFAULT_BUDGET = Integer.getInteger("fairy.render.budget", 0);
+    // below this many players per worker the hand off costs more than it saves
+    private static final int MIN_PARTITION = 32;
+    private static final Object NOTHING = new Object();
+    private static final Object NULL = new Object();
+
+    private static volatile ExecutorService workers;
+
+    @Getter
+    private final String name;
+    private final Predicate<MCPlayer> filter;
+    private final Function<MCPlayer, T> renderer;
+    private final BiConsumer<MCPlayer, T> applier;
+    private final boolean skipUnchanged;
+    private final ProfilerSection section;
+    private final Map<UUID, Object> previous = new ConcurrentHashMap<>();
+    // the players seen on the first slot of a cycle, only used by the ticking thread while running is held
+    private final Set<UUID> online = new HashSet<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Getter
+    private volatile int budget;
+    private int tick;
+
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder skippedTicks = new LongAdder();
+    private volatile long lastTickNanos;
+    private volatile long averageTickNanos;
+
+    private PlayerRenderPipeline(Builder<T> builder) {
+        this.name = builder.name;
+        this.filter = builder.filter;
+        this.renderer = builder.renderer;
+        this.applier = builder.applier;
+        this.skipUnchanged = builder.skipUnchanged;
+        this.budget = builder.budget;
+        this.section = Profiler.section("Render: " + builder.name);
+    }
+
+    public static <T> Builder<T> builder(@NotNull String name) {
+        return new Builder<>(name);
+    }
+
+    public void setBudget(int budget) {
+        this.budget = Math.max(0, budget);
+    }
+
+    /**
+     * Render the players due this tick, returning before the workers are done
+     */
+    public void tick(@NotNull Collection<MCPlayer> players) {
+        if (!this.running.compareAndSet(false, true)) {
+            this.skippedTicks.increment();
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final List<MCPlayer> due;
+        try {
+            due = this.due(players, this.tick++);
+        } catch (Throwable throwable) {
+            this.running.set(false);
+            throw throwable;
+        }
+
+        int partitions = Math.min(THREADS, due.size() / MIN_PARTITION);
+        if (partitions <= 1) {
+            try {
+                this.render(due, 0, due.size());
+            } finally {
+                this.complete(start);
+            }
+            return;
+        }
+
+        final AtomicInteger remaining = new AtomicInteger(partitions);
+        final int size = (due.size() + partitions - 1) / partitions;
+        for (int i = 0; i < partitions; i++) {
+            final int from = i * size;
+            final int to = Math.min(due.size(), from + size);
+            Runnable partition = () -> {
+                try {
+                    this.render(due, from, to);
+                } finally {
+                    if (remaining.decrementAndGet() == 0)
+                        this.complete(start);
+                }
+            };
+
+            try {
+                workers().execute(partition);
+            } catch (RejectedExecutionException ex) {
+                partition.run();
+            }
+        }
+    }
+
+    /**
+     * Forget the previous render of the player so the next one is applied even if it's unchanged
+     */
+    public void invalidate(@NotNull MCPlayer player) {
+        this.previous.remove(player.getUUID());
+    }
+
+    public void invalidateAll() {
+        this.previous.clear();
+    }
+
+    /**
+     * @return the player renders so far, applied or not
+     */
+    public long getRendered() {
+        return this.rendered.sum();
+    }
+
+    /**
+     * @return the player renders that were applied so far, the rest were unchanged
+     */
+    public long getApplied() {
+        return this.applied.sum();
+    }
+
+    /**
+     * @return the ticks skipped so far because the previous tick was still rendering
+     */
+    public long getSkippedTicks() {
+        return this.skippedTicks.sum();
+    }
+
+    /**
+     * @return the wall time of the last tick in nanoseconds, from its start to its last player rendered
+     */
+    public long getLastTickNanos() {
+        return this.lastTickNanos;
+    }
+
+    /**
+     * @return the exponential moving average of the tick wall time in nanoseconds
+     */
+    public long getAverageTickNanos() {
+        return this.averageTickNanos;
+    }
+
+    private List<MCPlayer> due(Collection<MCPlayer> players, int tick) {
+        final int budget = this.budget;
+        final int slots = budget > 0 ? (players.size() + budget - 1) / budget : 1;
+        final int slot = slots > 1 ? Math.floorMod(tick, slots) : 0;
+        final List<MCPlayer> due = new ArrayList<>(slots > 1 ? budget + (budget >> 2) : players.size());
+        final Set<UUID> online = slot == 0 ? this.online : null;
+        if (online != null)
+            online.clear();
+
+        for (MCPlayer player : players) {
+            final UUID uuid = player.getUUID();
+            if (online != null)
+                online.add(uuid);
+            // the slot of a player is stable for as long as the player count is, regardless of the iteration order
+            if (slots > 1 && Math.floorMod(spread(uuid.hashCode()), slots) != slot)
+                continue;
+            if (this.filter.test(player))
+                due.add(player);
+        }
+
+        if (online != null)
+            // once per cycle, drop the renders of players who left
+            this.previous.keySet().retainAll(online);
+        return due;
+    }
+
+    private void render(List<MCPlayer> players, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final MCPlayer player = players.get(i);
+            final long start = this.section.start();
+            try {
+                final T current = this.renderer.apply(player);
+                this.rendered.increment();
+
+                if (this.skipUnchanged) {
+                    final Object boxed = current != null ? current : NULL;
+                    final Object previous = this.previous.getOrDefault(player.getUUID(), NOTHING);
+                    if (previous.equals(boxed))
+                        continue;
+
+                    this.previous.put(player.getUUID(), boxed);
+                }
+
+                this.applier.accept(player, current);
+                this.applied.increment();
+            } catch (Throwable throwable) {
+                // try again on the next tick
+                this.previous.remove(player.getUUID());
+                Log.error("Failed to render " + this.name + " of " + player.getName(), throwable);
+            } finally {
+                this.section.stop(start);
+            }
+        }
+    }
+
+    private void complete(long start) {
+        final long nanos = System.nanoTime() - start;
+        final long average = this.averageTickNanos;
+        this.lastTickNanos = nanos;
+        this.averageTickNanos = average == 0 ? nanos : average + (nanos - average) / 8;
+        this.running.set(false);
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static ExecutorService workers() {
+        ExecutorService executor = workers;
+        if (executor == null) {
+            synchronized (PlayerRenderPipeline.class) {
+                executor = workers;
+                if (executor == null) {
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), NamedThreadFactory.builder()
+                            .name("Render Thread - %d")
+                            .daemon(true)
+                            .build());
+                    pool.allowCoreThreadTimeOut(true);
+                    workers = executor = pool;
+                }
+            }
+        }
+        return executor;
+    }
+
+    public static final class Builder<T> {
+
+        private final String name;
+        private Predicate<MCPlayer> filter = player -> true;
+        private Function<MCPlayer, T> renderer;
+        private BiConsumer<MCPlayer, T> applier;
+        private boolean skipUnchanged = true;
+        private int budget = DEFAULT_BUDGET;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Only render the players matching the filter, tested on the ticking thread
+         */
+        public Builder<T> filter(@NotNull Predicate<MCPlayer> filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        /**
+         * Build the view of a player, called on the ticking thread, or on a worker and concurrently for different players
+         * if {@code -Dfairy.render.threads} is above 1
+         */
+        public Builder<T> renderer(@NotNull Function<MCPlayer, @Nullable T> renderer) {
+            this.renderer = renderer;
+            return this;
+        }
+
+        /**
+         * Send the view to the player, called right after the render on the same thread
+         */
+        public Builder<T> applier(@NotNull BiConsumer<MCPlayer, @Nullable T> applier) {
+            this.applier = applier;
+            return this;
+        }
+
+        public Builder<T> skipUnchanged(boolean skipUnchanged) {
+            this.skipUnchanged = skipUnchanged;
+            return this;
+        }
+
+        /**
+         * @param budget the maximum players rendered per tick, 0 for every player on every tick
+         */
+        public Builder<T> budget(int budget) {
+            this.budget = Math.max(0, budget);
+            return this;
+        }
+
+        public PlayerRenderPipeline<T> build() {
+            Objects.requireNonNull(this.renderer, "renderer");
+            Objects.requireNonNull(this.applier, "applier");
+            return new PlayerRenderPipeline<>(this);
+        }
+    }
+
+}
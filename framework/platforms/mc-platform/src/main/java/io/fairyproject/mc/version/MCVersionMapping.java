@@ -44,6 +44,16 @@ public class MCVersionMapping {
         this(major, minor, patch, jsonObject.get("nmsPrefix").getAsBoolean(), jsonObject.get("hexColorSupport").getAsBoolean(), jsonObject.get("protocolVersion").getAsInt());
     }
 
+    /**
+     * Create the mapping of a release, deriving the version dependent features from the version itself
+     */
+    public static MCVersionMapping of(int major, int minor, int patch, int protocolVersion) {
+        boolean hexColor = major >= 1 && minor >= 16;
+        boolean nmsPrefix = major < 1 || minor < 17;
+
+        return new MCVersionMapping(major, minor, patch, nmsPrefix, hexColor, protocolVersion);
+    }
+
     public MCVersion toMCVersion() {
         return MCVersion.of(major, minor, patch);
     }
@@ -37,67 +37,95 @@ import io.fairyproject.mc.version.cache.MCVersionMappingCache;
 import io.fairyproject.mc.version.cache.MCVersionMappingCacheImpl;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.TreeSet;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * The protocol version of every minecraft release.
+ * Startup only reads the local cache file or the bundled snapshot, the mappings are refreshed from
+ * {@link MCVersionMappingCacheImpl#SOURCE_URL} in the background and swapped in at once when they are complete.
+ * The refresh can be turned off with {@code -Dfairy.version-mappings.refresh=false}.
+ */
 @InjectableComponent
 public class MCVersionMappingRegistry {
 
     // Hardcoded latest version to validate cache
     private static final MCVersion LATEST_VERSION = MCVersion.of(1, 21, 0);
+    private static final boolean REFRESH = Boolean.parseBoolean(System.getProperty("fairy.version-mappings.refresh", "true"));
 
     private final Gson gson = new Gson();
     @Getter
     private final MCVersionMappingCache cache = new MCVersionMappingCacheImpl(gson);
-    private final Map<Integer, MCVersionMapping> mappingByVersion = new HashMap<>();
-    private final Map<Integer, MCVersionMapping> mappingByProtocol = new HashMap<>();
-    private final TreeSet<Integer> versions = new TreeSet<>();
+    private volatile Mappings mappings = Mappings.EMPTY;
 
     @PreInitialize
-    public void onPreInitialize() throws IOException {
-        try {
-            JsonArray jsonElements = this.cache.read();
-            if (jsonElements == null) {
-                Log.info("Cached version mappings not found, loading...");
-                jsonElements = loadAndWrite();
-            }
+    public void onPreInitialize() {
+        Mappings cached = this.readCache();
+        if (cached != null && cached.isValid()) {
+            this.mappings = cached;
+            Log.info("Version mappings loaded successfully!");
+        } else {
+            if (cached != null)
+                Log.info("Cached version mappings are outdated, using bundled mappings...");
+            this.mappings = Mappings.of(this.cache.readBundled());
+            if (!this.mappings.isValid())
+                Log.error("Failed to load version mappings...");
+        }
 
-            readAll(jsonElements);
-            if (!this.isCacheValid()) {
-                Log.info("Cached version mappings are outdated, reloading...");
-                jsonElements = loadAndWrite();
+        if (REFRESH && !Debug.UNIT_TEST)
+            this.refreshAsync();
+    }
 
-                readAll(jsonElements);
-                if (!this.isCacheValid()) {
-                    Log.error("Failed to load version mappings...");
-                } else {
-                    Log.info("Cached version mappings loaded successfully!");
+    /**
+     * Load the latest mappings from the source without blocking, and swap them in once they are loaded and valid
+     *
+     * @return the future completing when the refresh is done, with whether the mappings were replaced
+     */
+    public CompletableFuture<Boolean> refreshAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                JsonArray jsonElements = this.cache.load();
+                Mappings loaded = Mappings.of(readAll(jsonElements));
+                if (!loaded.isValid()) {
+                    Log.warn("Version mappings loaded from " + MCVersionMappingCacheImpl.SOURCE_URL + " are outdated, keeping the current mappings.");
+                    return false;
                 }
-            } else {
-                Log.info("Version mappings loaded successfully!");
+
+                this.mappings = loaded;
+                if (!Debug.UNIT_TEST)
+                    this.cache.write(jsonElements);
+                return true;
+            } catch (Exception e) {
+                Log.warn("Unable to refresh version mappings from " + MCVersionMappingCacheImpl.SOURCE_URL + " (" + e + "), keeping the current mappings.");
+                return false;
             }
-        } catch (IOException e) {
-            Log.error("Failed to load version mappings...", e);
-        }
+        });
     }
 
-    private @NotNull JsonArray loadAndWrite() throws IOException {
-        JsonArray jsonElements;
-        jsonElements = this.cache.load();
-        if (!Debug.UNIT_TEST)
-            this.cache.write(jsonElements);
-        return jsonElements;
+    @Nullable
+    private Mappings readCache() {
+        JsonArray jsonElements = this.cache.read();
+        if (jsonElements == null)
+            return null;
+
+        try {
+            return Mappings.of(readAll(jsonElements));
+        } catch (Exception e) {
+            Log.error("Failed to parse cached version mappings", e);
+            return null;
+        }
     }
 
-    private void readAll(JsonArray jsonElements) {
+    private static List<MCVersionMapping> readAll(JsonArray jsonElements) {
+        List<MCVersionMapping> mappings = new ArrayList<>(jsonElements.size());
         for (JsonElement jsonElement : jsonElements) {
-            JsonObject object = jsonElement.getAsJsonObject();
-
-            this.loadVersionFromMinecraftData(object);
+            MCVersionMapping mapping = readVersionFromMinecraftData(jsonElement.getAsJsonObject());
+            if (mapping != null)
+                mappings.add(mapping);
         }
+        return mappings;
     }
 
     protected boolean isCacheValid() {
@@ -107,10 +135,10 @@ public class MCVersionMappingRegistry {
 
     public MCVersionMapping findMapping(int major, int minor, int patch) {
         int key = VersionFormatUtil.versionToInt(major, minor, patch);
-        Integer matchKey = this.versions.floor(key);
-        if (matchKey == null)
+        MCVersionMapping mapping = this.mappings.floor(key);
+        if (mapping == null)
             throw new IllegalArgumentException("No mapping found for version " + major + "." + minor + "." + patch);
-        return mappingByVersion.get(matchKey);
+        return mapping;
     }
 
     public MCVersionMapping findMapping(MCVersion mcVersion) {
@@ -118,33 +146,83 @@ public class MCVersionMappingRegistry {
     }
 
     public MCVersionMapping findMappingByProtocol(int protocolVersion) {
-        return mappingByProtocol.get(protocolVersion);
+        return this.mappings.byProtocol.get(protocolVersion);
     }
 
-    protected void register(MCVersionMapping mapping) {
-        int version = VersionFormatUtil.versionToInt(mapping.getMajor(), mapping.getMinor(), mapping.getPatch());
-        this.mappingByVersion.put(version, mapping);
-        this.mappingByProtocol.put(mapping.getProtocolVersion(), mapping);
-        this.versions.add(version);
+    protected synchronized void register(MCVersionMapping mapping) {
+        List<MCVersionMapping> mappings = new ArrayList<>(this.mappings.byVersion);
+        mappings.add(mapping);
+        this.mappings = Mappings.of(mappings);
     }
 
     protected void loadVersionFromMinecraftData(JsonObject object) {
+        MCVersionMapping mapping = readVersionFromMinecraftData(object);
+        if (mapping != null)
+            this.register(mapping);
+    }
+
+    @Nullable
+    private static MCVersionMapping readVersionFromMinecraftData(JsonObject object) {
         String minecraftVersion = object.get("minecraftVersion").getAsString();
         // filter versions that matches the pattern x.y.z or x.y
         if (!minecraftVersion.matches("\\d+\\.\\d+(\\.\\d+)?"))
-            return;
+            return null;
 
         int protocolVersion = object.get("version").getAsInt();
         // split minecraftVersion to major, minor and patch
         int[] ints = VersionFormatUtil.splitVersionStringToMajorMinorPatch(minecraftVersion);
-        int major = ints[0];
-        int minor = ints[1];
-        int patch = ints[2];
+        return MCVersionMapping.of(ints[0], ints[1], ints[2], protocolVersion);
+    }
 
-        boolean hexColor = major >= 1 && minor >= 16;
-        boolean nmsPrefix = major < 1 || minor < 17;
+    /**
+     * An immutable, pre-sorted view of the mappings, replaced as a whole so lookups never see a partially loaded state
+     */
+    private static final class Mappings {
 
-        this.register(new MCVersionMapping(major, minor, patch, nmsPrefix, hexColor, protocolVersion));
+        private static final Mappings EMPTY = new Mappings(new int[0], Collections.emptyList(), Collections.emptyMap());
+
+        private final int[] versions;
+        private final List<MCVersionMapping> byVersion;
+        private final Map<Integer, MCVersionMapping> byProtocol;
+
+        private Mappings(int[] versions, List<MCVersionMapping> byVersion, Map<Integer, MCVersionMapping> byProtocol) {
+            this.versions = versions;
+            this.byVersion = byVersion;
+            this.byProtocol = byProtocol;
+        }
+
+        private static Mappings of(@NotNull Collection<MCVersionMapping> mappings) {
+            // later mappings of the same version win, like registering them one by one would
+            TreeMap<Integer, MCVersionMapping> sorted = new TreeMap<>();
+            for (MCVersionMapping mapping : mappings) {
+                sorted.put(VersionFormatUtil.versionToInt(mapping.getMajor(), mapping.getMinor(), mapping.getPatch()), mapping);
+            }
+
+            // a protocol shared by several releases resolves to the first of them, whatever order the source lists them in
+            Map<Integer, MCVersionMapping> byProtocol = new HashMap<>();
+            int[] versions = new int[sorted.size()];
+            int index = 0;
+            for (Map.Entry<Integer, MCVersionMapping> entry : sorted.entrySet()) {
+                versions[index++] = entry.getKey();
+                byProtocol.putIfAbsent(entry.getValue().getProtocolVersion(), entry.getValue());
+            }
+            return new Mappings(versions, Collections.unmodifiableList(new ArrayList<>(sorted.values())), byProtocol);
+        }
+
+        @Nullable
+        private MCVersionMapping floor(int version) {
+            int index = Arrays.binarySearch(this.versions, version);
+            if (index < 0) {
+                index = -index - 2;
+                if (index < 0)
+                    return null;
+            }
+            return this.byVersion.get(index);
+        }
+
+        private boolean isValid() {
+            return Arrays.binarySearch(this.versions, VersionFormatUtil.versionToInt(LATEST_VERSION.getMajor(), LATEST_VERSION.getMinor(), LATEST_VERSION.getPatch())) >= 0;
+        }
     }
 
 }
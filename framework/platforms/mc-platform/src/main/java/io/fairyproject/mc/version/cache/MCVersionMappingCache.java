@@ -1,10 +1,12 @@
 package io.fairyproject.mc.version.cache;
 
 import com.google.gson.JsonArray;
+import io.fairyproject.mc.version.MCVersionMapping;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.util.List;
 
 public interface MCVersionMappingCache {
 
@@ -16,6 +18,14 @@ public interface MCVersionMappingCache {
     @Nullable
     JsonArray read();
 
+    /**
+     * Read the snapshot of mappings bundled with fairy, which doesn't need any network access
+     *
+     * @return the bundled mappings, or an empty list if the snapshot is missing
+     */
+    @NotNull
+    List<MCVersionMapping> readBundled();
+
     /**
      * Load from internet and return the JsonObject
      *
@@ -5,23 +5,33 @@ import com.google.gson.JsonArray;
 import com.google.gson.stream.JsonReader;
 import io.fairyproject.Fairy;
 import io.fairyproject.log.Log;
-import io.fairyproject.util.exceptionally.SneakyThrowUtil;
+import io.fairyproject.mc.util.VersionFormatUtil;
+import io.fairyproject.mc.version.MCVersionMapping;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.*;
 import java.net.URL;
 import java.net.URLConnection;
-import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 @RequiredArgsConstructor
 public class MCVersionMappingCacheImpl implements MCVersionMappingCache {
 
+    private static final String BUNDLED_RESOURCE = "/io/fairyproject/mc/version/protocol-versions.txt";
+    private static final int TIMEOUT = 10_000;
+
+    // the source of the refreshed mappings, can be pointed to a mirror with -Dfairy.version-mappings.url
+    public static final String SOURCE_URL = System.getProperty("fairy.version-mappings.url",
+            "https://raw.githubusercontent.com/PrismarineJS/minecraft-data/master/data/pc/common/protocolVersions.json");
+
     private final Gson gson;
 
     @Override
@@ -32,9 +42,9 @@ public class MCVersionMappingCacheImpl implements MCVersionMappingCache {
             return null;
         }
 
-        try {
-            return gson.fromJson(new JsonReader(new InputStreamReader(Files.newInputStream(path))), JsonArray.class);
-        } catch (IOException e) {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            return gson.fromJson(new JsonReader(reader), JsonArray.class);
+        } catch (Exception e) {
             Log.error("Failed to read version mappings from file", e);
         }
 
@@ -42,21 +52,44 @@ public class MCVersionMappingCacheImpl implements MCVersionMappingCache {
     }
 
     @Override
-    public @NotNull JsonArray load() throws IOException {
-        String url = "https://raw.githubusercontent.com/PrismarineJS/minecraft-data/master/data/pc/common/protocolVersions.json";
+    public @NotNull List<MCVersionMapping> readBundled() {
+        InputStream inputStream = MCVersionMappingCacheImpl.class.getResourceAsStream(BUNDLED_RESOURCE);
+        if (inputStream == null) {
+            Log.error("Bundled version mappings " + BUNDLED_RESOURCE + " not found");
+            return Collections.emptyList();
+        }
 
-        try {
-            URLConnection urlConnection = new URL(url).openConnection();
-            // load the output of the connection into a json array
-            return gson.fromJson(new JsonReader(new InputStreamReader(urlConnection.getInputStream())), JsonArray.class);
-        } catch (UnknownHostException e) {
-            io.fairyproject.log.Log.error("Unable to locate raw.githubusercontent.com, please check your internet connection.");
-            io.fairyproject.log.Log.error("If you are behind a proxy, please make sure to configure it properly.");
-            io.fairyproject.log.Log.error("If you are using a firewall, please make sure to whitelist the connection.");
-            io.fairyproject.log.Log.error("Fairy is trying to load " + url + " to get the latest protocol versions, please whitelist it at least once.");
+        List<MCVersionMapping> mappings = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
 
-            SneakyThrowUtil.sneakyThrow(e);
-            return null;
+                int space = line.indexOf(' ');
+                int[] version = VersionFormatUtil.splitVersionStringToMajorMinorPatch(line.substring(0, space));
+                int protocolVersion = Integer.parseInt(line.substring(space + 1).trim());
+                mappings.add(MCVersionMapping.of(version[0], version[1], version[2], protocolVersion));
+            }
+        } catch (IOException e) {
+            Log.error("Failed to read bundled version mappings", e);
+        }
+        return mappings;
+    }
+
+    @Override
+    public @NotNull JsonArray load() throws IOException {
+        URLConnection urlConnection = new URL(SOURCE_URL).openConnection();
+        urlConnection.setConnectTimeout(TIMEOUT);
+        urlConnection.setReadTimeout(TIMEOUT);
+
+        // load the output of the connection into a json array
+        try (Reader reader = new InputStreamReader(urlConnection.getInputStream(), StandardCharsets.UTF_8)) {
+            JsonArray jsonElements = gson.fromJson(new JsonReader(reader), JsonArray.class);
+            if (jsonElements == null)
+                throw new IOException("Empty response from " + SOURCE_URL);
+            return jsonElements;
         }
     }
 
@@ -64,10 +97,11 @@ public class MCVersionMappingCacheImpl implements MCVersionMappingCache {
     public void write(@NotNull JsonArray jsonElements) {
         File dataFolder = Fairy.getPlatform().getDataFolder();
         Path path = new File(dataFolder, "cache-protocol-versions.json").toPath();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
         try {
-            if (Files.exists(path))
-                Files.delete(path);
-            Files.write(path, gson.toJson(jsonElements).getBytes(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // written by the background refresh, so replace the file at once instead of leaving a partial one behind
+            Files.write(temp, gson.toJson(jsonElements).getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             Log.error("Failed to write version mappings to file", e);
         }
@@ -0,0 +1,171 @@
+package io.fairyproject.mc.data;
+
+import io.fairyproject.data.MetaKey;
+import io.fairyproject.data.MetaStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MCBlockMetaRegistryTest {
+
+    private static final MetaKey<String> PERSISTENT = MetaKey.createString("test:persistent");
+    private static final MetaKey<Integer> TRANSIENT = MetaKey.createInt("test:transient");
+
+    private MCBlockMetaRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        this.registry = new MCBlockMetaRegistry();
+    }
+
+    @Test
+    public void provideReturnsSameStorage() {
+        MetaStorage storage = this.registry.provide("world", 1, 64, -1);
+        storage.put(PERSISTENT, "value");
+
+        assertSame(storage, this.registry.provide("world", 1, 64, -1));
+        assertSame(storage, this.registry.get("world", 1, 64, -1));
+        assertNull(this.registry.get("world", 1, 65, -1));
+        assertNull(this.registry.get("world_nether", 1, 64, -1));
+        assertEquals(1, this.registry.size());
+    }
+
+    @Test
+    public void removeDropsEmptyChunk() {
+        this.registry.provide("world", -17, -64, 31);
+        assertEquals(1, this.registry.getChunks("world").length);
+
+        this.registry.remove("world", -17, -64, 31);
+        assertNull(this.registry.get("world", -17, -64, 31));
+        assertEquals(0, this.registry.getChunks("world").length);
+    }
+
+    @Test
+    public void chunkKeyRoundTrip() {
+        long key = MCBlockMetaRegistry.chunkKey(-3, 7);
+
+        assertEquals(-3, MCBlockMetaRegistry.chunkX(key));
+        assertEquals(7, MCBlockMetaRegistry.chunkZ(key));
+    }
+
+    @Test
+    public void unloadChunkWithoutPersistentKeys() {
+        this.registry.provide("world", 0, 0, 0).put(PERSISTENT, "value");
+
+        assertNull(this.registry.unloadChunk("world", 0, 0));
+        assertNull(this.registry.get("world", 0, 0, 0));
+    }
+
+    @Test
+    public void unloadAndLoadChunk() {
+        this.registry.registerPersistentKey(PERSISTENT);
+        this.registry.provide("world", -20, -5, 35).put(PERSISTENT, "marker");
+        this.registry.provide("world", -20, -5, 35).put(TRANSIENT, 1);
+        this.registry.provide("world", -19, 300, 34).put(TRANSIENT, 2);
+        this.registry.provide("world", 5, 0, 5).put(PERSISTENT, "other chunk");
+
+        byte[] data = this.registry.unloadChunk("world", -2, 2);
+        assertNotNull(data);
+        assertNull(this.registry.get("world", -20, -5, 35));
+        assertNotNull(this.registry.get("world", 5, 0, 5));
+
+        this.registry.loadChunk("world", -2, 2, data);
+        MetaStorage storage = this.registry.get("world", -20, -5, 35);
+        assertNotNull(storage);
+        assertEquals("marker", storage.getOrNull(PERSISTENT));
+        assertNull(storage.getOrNull(TRANSIENT));
+        assertNull(this.registry.get("world", -19, 300, 34));
+    }
+
+    @Test
+    public void unloadChunkWithNothingToPersist() {
+        this.registry.registerPersistentKey(PERSISTENT);
+        this.registry.provide("world", 0, 0, 0).put(TRANSIENT, 1);
+
+        assertArrayEquals(new byte[0], this.registry.unloadChunk("world", 0, 0));
+        assertNull(this.registry.unloadChunk("world", 0, 0));
+    }
+
+    @Test
+    public void unregisteredKeysAreKeptAndWrittenBack() {
+        this.registry.registerPersistentKey(PERSISTENT);
+        this.registry.provide("world", 3, 70, 4).put(PERSISTENT, "marker");
+        byte[] data = this.registry.unloadChunk("world", 0, 0);
+
+        // a fresh registry before the plugin registered its key, like a chunk loading early on startup
+        MCBlockMetaRegistry restarted = new MCBlockMetaRegistry();
+        restarted.loadChunk("world", 0, 0, data);
+        assertNull(restarted.get("world", 3, 70, 4));
+        assertEquals(1, restarted.getChunks("world").length);
+
+        byte[] saved = restarted.unloadChunk("world", 0, 0);
+        assertArrayEquals(data, saved);
+
+        restarted.loadChunk("world", 0, 0, saved);
+        restarted.registerPersistentKey(PERSISTENT);
+        MetaStorage storage = restarted.get("world", 3, 70, 4);
+        assertNotNull(storage);
+        assertEquals("marker", storage.getOrNull(PERSISTENT));
+    }
+
+    @Test
+    public void unregisteredKeysAreMergedWithRegisteredOnes() {
+        MetaKey<String> other = MetaKey.createString("test:other");
+        this.registry.registerPersistentKey(PERSISTENT);
+        this.registry.registerPersistentKey(other);
+        this.registry.provide("world", 1, 1, 1).put(PERSISTENT, "first");
+        this.registry.provide("world", 1, 1, 1).put(other, "second");
+        byte[] data = this.registry.unloadChunk("world", 0, 0);
+
+        MCBlockMetaRegistry restarted = new MCBlockMetaRegistry();
+        restarted.registerPersistentKey(PERSISTENT);
+        restarted.loadChunk("world", 0, 0, data);
+        restarted.get("world", 1, 1, 1).put(PERSISTENT, "changed");
+
+        MCBlockMetaRegistry reloaded = new MCBlockMetaRegistry();
+        reloaded.registerPersistentKey(PERSISTENT);
+        reloaded.registerPersistentKey(other);
+        reloaded.loadChunk("world", 0, 0, restarted.unloadChunk("world", 0, 0));
+        assertEquals("changed", reloaded.get("world", 1, 1, 1).getOrNull(PERSISTENT));
+        assertEquals("second", reloaded.get("world", 1, 1, 1).getOrNull(other));
+    }
+
+    @Test
+    public void removeDropsUnregisteredKeysOfTheBlock() {
+        this.registry.registerPersistentKey(PERSISTENT);
+        this.registry.provide("world", 2, 2, 2).put(PERSISTENT, "marker");
+        byte[] data = this.registry.unloadChunk("world", 0, 0);
+
+        MCBlockMetaRegistry restarted = new MCBlockMetaRegistry();
+        restarted.loadChunk("world", 0, 0, data);
+        restarted.remove("world", 2, 2, 2);
+
+        // the persisted copy has to be cleared
+        assertArrayEquals(new byte[0], restarted.unloadChunk("world", 0, 0));
+    }
+
+    @Test
+    public void removeClearsPersistedBlock() {
+        this.registry.registerPersistentKey(PERSISTENT);
+        this.registry.provide("world", 2, 2, 2).put(PERSISTENT, "marker");
+        byte[] data = this.registry.unloadChunk("world", 0, 0);
+
+        this.registry.loadChunk("world", 0, 0, data);
+        this.registry.remove("world", 2, 2, 2);
+
+        assertNull(this.registry.get("world", 2, 2, 2));
+        assertArrayEquals(new byte[0], this.registry.unloadChunk("world", 0, 0));
+    }
+
+    @Test
+    public void unloadWorld() {
+        this.registry.provide("world", 0, 0, 0);
+        this.registry.provide("world_nether", 0, 0, 0);
+
+        this.registry.unloadWorld("world");
+        assertNull(this.registry.get("world", 0, 0, 0));
+        assertNotNull(this.registry.get("world_nether", 0, 0, 0));
+    }
+
+}
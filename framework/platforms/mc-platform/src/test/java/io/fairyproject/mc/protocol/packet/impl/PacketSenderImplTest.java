@@ -0,0 +1,304 @@
+package io.fairyproject.mc.protocol.packet.impl;
+
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.fairyproject.Debug;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.scheduler.MCScheduler;
+import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCounted;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PacketSenderImplTest {
+
+    private boolean unitTest;
+    private ProtocolManager protocolManager;
+    private ServerManager serverManager;
+    private PacketWrapper<?> delimiter;
+    private MCScheduler scheduler;
+    private ScheduledTask<?> flushTask;
+    private PacketSenderImpl packetSender;
+
+    @BeforeEach
+    void setUp() {
+        unitTest = Debug.UNIT_TEST;
+        Debug.UNIT_TEST = false;
+
+        protocolManager = Mockito.mock(ProtocolManager.class);
+        // every packet is encoded into a buffer named after the order it was encoded in
+        AtomicInteger encoded = new AtomicInteger();
+        when(protocolManager.transformWrappers(any(), any(), anyBoolean()))
+                .thenAnswer(invocation -> new Object[] {"buffer" + encoded.getAndIncrement()});
+
+        PacketEventsAPI<?> packetEvents = Mockito.mock(PacketEventsAPI.class);
+        when(packetEvents.getProtocolManager()).thenReturn(protocolManager);
+        serverManager = Mockito.mock(ServerManager.class);
+        when(serverManager.getVersion()).thenReturn(ServerVersion.V_1_20);
+        when(packetEvents.getServerManager()).thenReturn(serverManager);
+        delimiter = Mockito.mock(PacketWrapper.class);
+
+        flushTask = Mockito.mock(ScheduledTask.class);
+        scheduler = Mockito.mock(MCScheduler.class);
+        doReturn(flushTask).when(scheduler).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong());
+        MCSchedulerProvider schedulerProvider = Mockito.mock(MCSchedulerProvider.class);
+        when(schedulerProvider.getAsyncScheduler()).thenReturn(scheduler);
+
+        packetSender = new PacketSenderImpl(schedulerProvider, () -> packetEvents, () -> delimiter);
+        packetSender.setBatching(true);
+        packetSender.setBundling(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Debug.UNIT_TEST = unitTest;
+    }
+
+    @Test
+    void packetsAreEncodedWhenQueuedAndWrittenOnFlush() {
+        Channel channel = openChannel();
+        MCPlayer player = player(UUID.randomUUID(), channel);
+        PacketWrapper<?> packet = Mockito.mock(PacketWrapper.class);
+
+        packetSender.sendPacket(player, packet);
+        packetSender.sendPacket(player, packet);
+
+        verify(protocolManager, times(2)).transformWrappers(packet, channel, true);
+        verify(protocolManager, never()).writePacket(any(), any(Object.class));
+        verify(channel, never()).flush();
+
+        packetSender.flushAll();
+
+        verify(protocolManager).writePacket(channel, (Object) "buffer0");
+        verify(protocolManager).writePacket(channel, (Object) "buffer1");
+        verify(channel, times(1)).flush();
+    }
+
+    @Test
+    void flushTaskIsScheduledOnce() {
+        MCPlayer player = player(UUID.randomUUID(), openChannel());
+
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+
+        verify(scheduler, times(1)).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void reconnectedPlayerIsFlushedToTheNewChannel() {
+        UUID uuid = UUID.randomUUID();
+        Channel oldChannel = openChannel();
+        Channel newChannel = openChannel();
+
+        packetSender.sendPacket(player(uuid, oldChannel), Mockito.mock(PacketWrapper.class));
+        packetSender.sendPacket(player(uuid, newChannel), Mockito.mock(PacketWrapper.class));
+        packetSender.flushAll();
+
+        verify(protocolManager, never()).writePacket(eq(oldChannel), any(Object.class));
+        verify(protocolManager).writePacket(newChannel, (Object) "buffer1");
+        verify(newChannel).flush();
+    }
+
+    @Test
+    void batchOfClosedChannelIsDropped() {
+        Channel channel = openChannel();
+        MCPlayer player = player(UUID.randomUUID(), channel);
+
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        when(channel.isOpen()).thenReturn(false);
+        packetSender.flushAll();
+
+        verify(protocolManager, never()).writePacket(any(), any(Object.class));
+        verify(channel, never()).flush();
+    }
+
+    @Test
+    void sendImmediatelyFlushesQueuedPacketsFirst() {
+        Channel channel = openChannel();
+        MCPlayer player = player(UUID.randomUUID(), channel);
+        PacketWrapper<?> immediate = Mockito.mock(PacketWrapper.class);
+
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        packetSender.sendPacketImmediately(player, immediate);
+
+        InOrder order = inOrder(protocolManager, channel);
+        order.verify(protocolManager).writePacket(channel, (Object) "buffer0");
+        order.verify(channel).flush();
+        order.verify(protocolManager).sendPacket(channel, immediate);
+    }
+
+    @Test
+    void preDestroyCancelsTheFlushTask() {
+        Channel channel = openChannel();
+        MCPlayer player = player(UUID.randomUUID(), channel);
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+
+        packetSender.onPreDestroy();
+
+        verify(flushTask).closeAndReportException();
+        verify(protocolManager).writePacket(channel, (Object) "buffer0");
+
+        // packets sent once destroyed skip the batches, nothing would flush them
+        PacketWrapper<?> late = Mockito.mock(PacketWrapper.class);
+        packetSender.sendPacket(player, late);
+        verify(protocolManager).sendPacket(channel, late);
+        verify(scheduler, times(1)).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void flushIsWrittenOnTheEventLoop() {
+        List<Runnable> tasks = new ArrayList<>();
+        Channel channel = openChannel(tasks::add);
+        MCPlayer player = player(UUID.randomUUID(), channel);
+
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        packetSender.flushAll();
+
+        verify(protocolManager, never()).writePacket(any(), any(Object.class));
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+
+        verify(protocolManager).writePacket(channel, (Object) "buffer0");
+        verify(channel).flush();
+    }
+
+    @Test
+    void bundleIsWrappedInDelimiters() {
+        packetSender.setBundling(true);
+        Channel channel = openChannel();
+        MCPlayer player = player(UUID.randomUUID(), channel);
+
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        packetSender.flushAll();
+
+        InOrder order = inOrder(protocolManager, channel);
+        order.verify(protocolManager).writePacket(channel, delimiter);
+        order.verify(protocolManager).writePacket(channel, (Object) "buffer0");
+        order.verify(protocolManager).writePacket(channel, (Object) "buffer1");
+        order.verify(protocolManager).writePacket(channel, delimiter);
+        order.verify(channel).flush();
+        verify(protocolManager, times(2)).writePacket(channel, delimiter);
+    }
+
+    @Test
+    void bundleIsSplitAtTheClientLimit() {
+        packetSender.setBundling(true);
+        Channel channel = openChannel();
+        MCPlayer player = player(UUID.randomUUID(), channel);
+        PacketWrapper<?> packet = Mockito.mock(PacketWrapper.class);
+
+        for (int i = 0; i <= PacketSenderImpl.MAX_BUNDLE_SIZE; i++) {
+            packetSender.sendPacket(player, packet);
+        }
+        packetSender.flushAll();
+
+        InOrder order = inOrder(protocolManager, channel);
+        order.verify(protocolManager).writePacket(channel, delimiter);
+        order.verify(protocolManager).writePacket(channel, (Object) ("buffer" + (PacketSenderImpl.MAX_BUNDLE_SIZE - 1)));
+        order.verify(protocolManager, times(2)).writePacket(channel, delimiter);
+        order.verify(protocolManager).writePacket(channel, (Object) ("buffer" + PacketSenderImpl.MAX_BUNDLE_SIZE));
+        order.verify(protocolManager).writePacket(channel, delimiter);
+        order.verify(channel).flush();
+        verify(protocolManager, times(4)).writePacket(channel, delimiter);
+    }
+
+    @Test
+    void noBundleBelow1_19_4() {
+        packetSender.setBundling(true);
+        when(serverManager.getVersion()).thenReturn(ServerVersion.V_1_19_3);
+        Channel channel = openChannel();
+        MCPlayer player = player(UUID.randomUUID(), channel);
+
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        packetSender.flushAll();
+
+        verify(protocolManager, never()).writePacket(any(), any(PacketWrapper.class));
+        verify(protocolManager).writePacket(channel, (Object) "buffer0");
+        verify(protocolManager).writePacket(channel, (Object) "buffer1");
+    }
+
+    @Test
+    void singlePacketIsNotBundled() {
+        packetSender.setBundling(true);
+        Channel channel = openChannel();
+        MCPlayer player = player(UUID.randomUUID(), channel);
+
+        packetSender.sendPacket(player, Mockito.mock(PacketWrapper.class));
+        packetSender.flushAll();
+
+        verify(protocolManager, never()).writePacket(any(), any(PacketWrapper.class));
+        verify(protocolManager).writePacket(channel, (Object) "buffer0");
+    }
+
+    @Test
+    void buffersOfDroppedBatchesAreReleased() {
+        List<ReferenceCounted> buffers = new ArrayList<>();
+        when(protocolManager.transformWrappers(any(), any(), anyBoolean())).thenAnswer(invocation -> {
+            ReferenceCounted buffer = Mockito.mock(ReferenceCounted.class);
+            buffers.add(buffer);
+            return new Object[] {buffer};
+        });
+        UUID uuid = UUID.randomUUID();
+        Channel oldChannel = openChannel();
+        Channel closingChannel = openChannel();
+
+        // replaced by a reconnect
+        packetSender.sendPacket(player(uuid, oldChannel), Mockito.mock(PacketWrapper.class));
+        packetSender.sendPacket(player(uuid, closingChannel), Mockito.mock(PacketWrapper.class));
+        verify(buffers.get(0)).release();
+
+        // closed before the flush
+        when(closingChannel.isOpen()).thenReturn(false);
+        packetSender.flushAll();
+        verify(buffers.get(1)).release();
+
+        verify(protocolManager, never()).writePacket(any(), any(Object.class));
+    }
+
+    private static Channel openChannel() {
+        return openChannel(Runnable::run);
+    }
+
+    private static Channel openChannel(Executor executor) {
+        EventLoop eventLoop = Mockito.mock(EventLoop.class);
+        doAnswer(invocation -> {
+            executor.execute(invocation.getArgument(0));
+            return null;
+        }).when(eventLoop).execute(any(Runnable.class));
+
+        Channel channel = Mockito.mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.eventLoop()).thenReturn(eventLoop);
+        return channel;
+    }
+
+    private static MCPlayer player(UUID uuid, Channel channel) {
+        MCPlayer player = Mockito.mock(MCPlayer.class);
+        when(player.getUUID()).thenReturn(uuid);
+        when(player.getChannel()).thenReturn(channel);
+        return player;
+    }
+
+}
@@ -159,11 +159,65 @@ class MCPlayerRegistryImplTest {
             assertEquals(player, registry.findPlayerByName(player.getName()));
         }
 
+        @Test
+        public void shouldIgnoreCase() {
+            registry.addPlayer(player);
+
+            assertEquals(player, registry.findPlayerByName("TeSt"));
+        }
+
         @Test
         public void ifPlayerDoesNotExist_shouldThrowException() {
             assertThrows(IllegalArgumentException.class, () -> registry.findPlayerByName(player.getName()));
         }
 
+        @Test
+        public void ifPlayerQuit_shouldNotFind() {
+            registry.addPlayer(player);
+            registry.removePlayer(player);
+
+            assertNull(registry.findByName(player.getName()));
+        }
+
+    }
+
+    @Nested
+    public class Slots {
+
+        @Test
+        public void shouldAssignLowestFreeSlot() {
+            MCPlayer player1 = createFakePlayer();
+            MCPlayer player2 = createFakePlayer();
+            MCPlayer player3 = createFakePlayer();
+
+            registry.addPlayer(player1);
+            registry.addPlayer(player2);
+            assertEquals(0, registry.getSlot(player1));
+            assertEquals(1, registry.getSlot(player2));
+
+            registry.removePlayer(player1);
+            assertEquals(-1, registry.getSlot(player1));
+            assertNull(registry.getBySlot(0));
+
+            registry.addPlayer(player3);
+            assertEquals(0, registry.getSlot(player3));
+            assertSame(player3, registry.getBySlot(0));
+        }
+
+        @Test
+        public void shouldGrowBeyondCapacity() {
+            int capacity = registry.getSlotCapacity();
+            MCPlayer last = null;
+            for (int i = 0; i <= capacity; i++) {
+                last = createFakePlayer();
+                registry.addPlayer(last);
+            }
+
+            assertEquals(capacity, registry.getSlot(last));
+            assertSame(last, registry.getBySlot(capacity));
+            assertTrue(registry.getSlotCapacity() > capacity);
+        }
+
     }
 
     @Nested
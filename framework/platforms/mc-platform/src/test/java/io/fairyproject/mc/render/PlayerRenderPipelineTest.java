@@ -0,0 +1,153 @@
+package io.fairyproject.mc.render;
+
+import io.fairyproject.mc.MCPlayer;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class PlayerRenderPipelineTest {
+
+    @Test
+    void unchangedRenderIsNotAppliedAgain() {
+        List<MCPlayer> players = createPlayers(3);
+        List<String> applied = new ArrayList<>();
+        PlayerRenderPipeline<String> pipeline = PlayerRenderPipeline.<String>builder("test")
+                .renderer(player -> "view")
+                .applier((player, view) -> applied.add(view))
+                .budget(0)
+                .build();
+
+        pipeline.tick(players);
+        pipeline.tick(players);
+
+        assertEquals(6, pipeline.getRendered());
+        assertEquals(3, pipeline.getApplied());
+        assertEquals(3, applied.size());
+    }
+
+    @Test
+    void changedRenderIsApplied() {
+        List<MCPlayer> players = createPlayers(1);
+        int[] tick = new int[1];
+        List<String> applied = new ArrayList<>();
+        PlayerRenderPipeline<String> pipeline = PlayerRenderPipeline.<String>builder("test")
+                .renderer(player -> "tick " + tick[0])
+                .applier((player, view) -> applied.add(view))
+                .budget(0)
+                .build();
+
+        pipeline.tick(players);
+        tick[0]++;
+        pipeline.tick(players);
+
+        assertEquals(Arrays.asList("tick 0", "tick 1"), applied);
+    }
+
+    @Test
+    void nullRenderIsComparedToo() {
+        List<MCPlayer> players = createPlayers(1);
+        PlayerRenderPipeline<String> pipeline = PlayerRenderPipeline.<String>builder("test")
+                .renderer(player -> null)
+                .applier((player, view) -> {})
+                .budget(0)
+                .build();
+
+        pipeline.tick(players);
+        pipeline.tick(players);
+
+        assertEquals(1, pipeline.getApplied());
+    }
+
+    @Test
+    void invalidateAppliesTheNextRender() {
+        List<MCPlayer> players = createPlayers(2);
+        PlayerRenderPipeline<String> pipeline = PlayerRenderPipeline.<String>builder("test")
+                .renderer(player -> "view")
+                .applier((player, view) -> {})
+                .budget(0)
+                .build();
+
+        pipeline.tick(players);
+        pipeline.invalidate(players.get(0));
+        pipeline.tick(players);
+        assertEquals(3, pipeline.getApplied());
+
+        pipeline.invalidateAll();
+        pipeline.tick(players);
+        assertEquals(5, pipeline.getApplied());
+    }
+
+    @Test
+    void everyRenderIsAppliedWithoutSkipUnchanged() {
+        List<MCPlayer> players = createPlayers(2);
+        PlayerRenderPipeline<String> pipeline = PlayerRenderPipeline.<String>builder("test")
+                .renderer(player -> "view")
+                .applier((player, view) -> {})
+                .skipUnchanged(false)
+                .budget(0)
+                .build();
+
+        pipeline.tick(players);
+        pipeline.tick(players);
+
+        assertEquals(4, pipeline.getApplied());
+    }
+
+    @Test
+    void filteredPlayersAreNotRendered() {
+        List<MCPlayer> players = createPlayers(4);
+        MCPlayer excluded = players.get(1);
+        PlayerRenderPipeline<String> pipeline = PlayerRenderPipeline.<String>builder("test")
+                .filter(player -> player != excluded)
+                .renderer(player -> "view")
+                .applier((player, view) -> assertNotSame(excluded, player))
+                .budget(0)
+                .build();
+
+        pipeline.tick(players);
+
+        assertEquals(3, pipeline.getRendered());
+    }
+
+    @Test
+    void budgetRendersEveryPlayerOncePerCycle() {
+        List<MCPlayer> players = createPlayers(20);
+        Map<MCPlayer, Integer> renders = new HashMap<>();
+        PlayerRenderPipeline<String> pipeline = PlayerRenderPipeline.<String>builder("test")
+                .renderer(player -> {
+                    renders.merge(player, 1, Integer::sum);
+                    return "view";
+                })
+                .applier((player, view) -> {})
+                .budget(5)
+                .build();
+
+        // 20 players with a budget of 5 make a cycle of 4 ticks
+        for (int i = 0; i < 4; i++) {
+            pipeline.tick(players);
+        }
+        assertEquals(20, renders.size());
+        assertTrue(renders.values().stream().allMatch(count -> count == 1));
+
+        for (int i = 0; i < 4; i++) {
+            pipeline.tick(players);
+        }
+        assertTrue(renders.values().stream().allMatch(count -> count == 2));
+    }
+
+    private static List<MCPlayer> createPlayers(int count) {
+        List<MCPlayer> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MCPlayer player = Mockito.mock(MCPlayer.class);
+            when(player.getUUID()).thenReturn(UUID.randomUUID());
+            when(player.getName()).thenReturn("player" + i);
+            players.add(player);
+        }
+        return players;
+    }
+
+}
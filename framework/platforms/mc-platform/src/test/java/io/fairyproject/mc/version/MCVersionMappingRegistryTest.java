@@ -146,4 +146,42 @@ public class MCVersionMappingRegistryTest {
 
     }
 
+    @Nested
+    class Bundled {
+
+        private MCVersionMappingRegistry registry;
+
+        @BeforeEach
+        public void setup() {
+            this.registry = new MCVersionMappingRegistry();
+            for (MCVersionMapping mapping : this.registry.getCache().readBundled()) {
+                this.registry.register(mapping);
+            }
+        }
+
+        @Test
+        public void shouldBeValidWithoutNetwork() {
+            Assertions.assertTrue(registry.isCacheValid());
+        }
+
+        @Test
+        public void shouldMatchMinecraftData() {
+            Assertions.assertEquals(760, registry.findMapping(1, 19, 2).getProtocolVersion());
+            Assertions.assertEquals(754, registry.findMapping(1, 16, 5).getProtocolVersion());
+            Assertions.assertEquals(735, registry.findMapping(1, 16, 0).getProtocolVersion());
+            Assertions.assertEquals(340, registry.findMapping(1, 12, 2).getProtocolVersion());
+            Assertions.assertEquals(47, registry.findMapping(1, 8, 9).getProtocolVersion());
+            Assertions.assertFalse(registry.findMapping(1, 15, 2).isHexColorSupport());
+            Assertions.assertFalse(registry.findMapping(1, 17, 0).isNmsPrefix());
+        }
+
+        @Test
+        public void sharedProtocol_shouldResolveToFirstRelease() {
+            MCVersionMapping mapping = registry.findMappingByProtocol(754);
+            Assertions.assertEquals(16, mapping.getMinor());
+            Assertions.assertEquals(4, mapping.getPatch());
+        }
+
+    }
+
 }
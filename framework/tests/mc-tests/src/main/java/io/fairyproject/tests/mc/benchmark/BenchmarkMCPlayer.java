@@ -0,0 +1,56 @@
+package io.fairyproject.tests.mc.benchmark;
+
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import io.fairyproject.mc.MCWorld;
+import io.fairyproject.mc.scheduler.MCScheduler;
+import io.fairyproject.mc.util.Position;
+import io.fairyproject.mc.version.MCVersion;
+import io.fairyproject.mc.version.MCVersionMappingRegistry;
+import io.fairyproject.tests.mc.MCPlayerMock;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A synthetic player standing still in a {@link BenchmarkMCWorld}
+ */
+public class BenchmarkMCPlayer extends MCPlayerMock {
+
+    private final MCWorld world;
+    private Position position;
+
+    public BenchmarkMCPlayer(UUID uuid, String name, MCVersion version, MCVersionMappingRegistry versionMappingRegistry, MCWorld world, Position position) {
+        super(uuid, name, version, versionMappingRegistry);
+        this.world = world;
+        this.position = position;
+    }
+
+    @Override
+    public MCWorld getWorld() {
+        return this.world;
+    }
+
+    @Override
+    public Position getPosition() {
+        return this.position.clone();
+    }
+
+    @Override
+    public boolean teleport(Position pos) {
+        this.position = pos.clone();
+        return true;
+    }
+
+    @Override
+    public @NotNull List<EntityData> data() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public @NotNull MCScheduler getScheduler() {
+        return InlineMCScheduler.INSTANCE;
+    }
+
+}
@@ -0,0 +1,73 @@
+package io.fairyproject.tests.mc.benchmark;
+
+import io.fairyproject.event.EventNode;
+import io.fairyproject.event.GlobalEventNode;
+import io.fairyproject.mc.MCEventFilter;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.MCWorld;
+import io.fairyproject.mc.event.trait.MCWorldEvent;
+import io.fairyproject.metadata.MetadataMap;
+import net.kyori.adventure.audience.Audience;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A world without blocks for {@link BenchmarkMCPlayer}s
+ */
+public class BenchmarkMCWorld implements MCWorld {
+
+    private final String name;
+    private final List<MCPlayer> players = new CopyOnWriteArrayList<>();
+    private final MetadataMap metadata = MetadataMap.create();
+    private final EventNode<MCWorldEvent> eventNode = GlobalEventNode.get().map(this, MCEventFilter.WORLD);
+
+    public BenchmarkMCWorld(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public <T> T as(Class<T> worldClass) {
+        if (worldClass.isInstance(this))
+            return worldClass.cast(this);
+        throw new IllegalArgumentException();
+    }
+
+    @Override
+    public int getMaxY() {
+        return 320;
+    }
+
+    @Override
+    public int getMaxSectionY() {
+        return 20;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public EventNode<MCWorldEvent> getEventNode() {
+        return this.eventNode;
+    }
+
+    @Override
+    @Deprecated
+    public MetadataMap getMetadata() {
+        return this.metadata;
+    }
+
+    @Override
+    public List<MCPlayer> getPlayers() {
+        return this.players;
+    }
+
+    @Override
+    public @NotNull Audience audience() {
+        return Audience.audience(this.players);
+    }
+
+}
@@ -0,0 +1,137 @@
+package io.fairyproject.tests.mc.benchmark;
+
+import io.fairyproject.mc.scheduler.MCScheduler;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.repeat.RepeatPredicate;
+import io.fairyproject.scheduler.response.TaskResponse;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A scheduler running every task inline on the calling thread, benchmarks never advance ticks so delays are ignored
+ * and repeating tasks run a single cycle, completing with the default value of their predicate if they asked to continue.
+ */
+public class InlineMCScheduler implements MCScheduler {
+
+    public static final InlineMCScheduler INSTANCE = new InlineMCScheduler();
+
+    @Override
+    public boolean isCurrentThread() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTask<?> schedule(Runnable runnable) {
+        return this.schedule(toCallable(runnable));
+    }
+
+    @Override
+    public ScheduledTask<?> schedule(Runnable runnable, Duration delay) {
+        return this.schedule(runnable);
+    }
+
+    @Override
+    public ScheduledTask<?> schedule(Runnable runnable, long delayTicks) {
+        return this.schedule(runnable);
+    }
+
+    @Override
+    public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, Duration delay, Duration interval) {
+        return this.scheduleAtFixedRate(runnable, delay, interval, RepeatPredicate.empty());
+    }
+
+    @Override
+    public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, Duration delay, Duration interval, RepeatPredicate<?> predicate) {
+        return this.scheduleAtFixedRate(runnable, 0L, 0L, predicate);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, long delayTicks, long intervalTicks, RepeatPredicate<?> predicate) {
+        return this.scheduleAtFixedRate(() -> {
+            runnable.run();
+            return TaskResponse.continueTask();
+        }, delayTicks, intervalTicks, (RepeatPredicate<Object>) predicate);
+    }
+
+    @Override
+    public <R> ScheduledTask<R> schedule(Callable<R> callable) {
+        InlineScheduledTask<R> task = new InlineScheduledTask<>();
+        try {
+            task.future.complete(callable.call());
+        } catch (Exception e) {
+            task.future.completeExceptionally(e);
+        }
+        return task;
+    }
+
+    @Override
+    public <R> ScheduledTask<R> schedule(Callable<R> callable, Duration delay) {
+        return this.schedule(callable);
+    }
+
+    @Override
+    public <R> ScheduledTask<R> schedule(Callable<R> callable, long delayTicks) {
+        return this.schedule(callable);
+    }
+
+    @Override
+    public <R> ScheduledTask<R> scheduleAtFixedRate(Callable<TaskResponse<R>> callback, Duration delay, Duration interval) {
+        return this.scheduleAtFixedRate(callback, delay, interval, RepeatPredicate.empty());
+    }
+
+    @Override
+    public <R> ScheduledTask<R> scheduleAtFixedRate(Callable<TaskResponse<R>> callback, Duration delay, Duration interval, RepeatPredicate<R> predicate) {
+        return this.scheduleAtFixedRate(callback, 0L, 0L, predicate);
+    }
+
+    @Override
+    public <R> ScheduledTask<R> scheduleAtFixedRate(Callable<TaskResponse<R>> callback, long delayTicks, long intervalTicks, RepeatPredicate<R> predicate) {
+        InlineScheduledTask<R> task = new InlineScheduledTask<>();
+        try {
+            TaskResponse<R> response = callback.call();
+            switch (response.getState()) {
+                case SUCCESS:
+                    task.future.complete(response.getResult());
+                    break;
+                case FAILURE:
+                    if (response.getThrowable() != null) {
+                        task.future.completeExceptionally(response.getThrowable());
+                    } else {
+                        task.future.completeExceptionally(new IllegalStateException(response.getErrorMessage()));
+                    }
+                    break;
+                case CONTINUE:
+                    task.future.complete(predicate.getDefaultValue());
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected value: " + response.getState());
+            }
+        } catch (Exception e) {
+            task.future.completeExceptionally(e);
+        }
+        return task;
+    }
+
+    private static Callable<Object> toCallable(Runnable runnable) {
+        return () -> {
+            runnable.run();
+            return null;
+        };
+    }
+
+    @Getter
+    private static final class InlineScheduledTask<R> implements ScheduledTask<R> {
+
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        @Override
+        public void cancel() {
+            // already done by the time it is returned
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package io.fairyproject.tests.mc.benchmark;
+
+import io.fairyproject.Debug;
+import io.fairyproject.FairyPlatform;
+import io.fairyproject.event.GlobalEventNode;
+import io.fairyproject.log.Log;
+import io.fairyproject.mc.MCAdventure;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.MCServer;
+import io.fairyproject.mc.MCWorld;
+import io.fairyproject.mc.entity.EntityIDCounter;
+import io.fairyproject.mc.protocol.MCProtocol;
+import io.fairyproject.mc.registry.player.MCPlayerPlatformOperator;
+import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import io.fairyproject.mc.registry.player.MCPlayerRegistryImpl;
+import io.fairyproject.mc.util.Position;
+import io.fairyproject.mc.version.MCVersion;
+import io.fairyproject.mc.version.MCVersionMappingRegistry;
+import io.fairyproject.tests.FairyTestingPlatform;
+import io.fairyproject.tests.logger.DebugLogger;
+import io.fairyproject.tests.mc.protocol.MockPacketEventsAPI;
+import io.fairyproject.tests.mc.protocol.MockPacketEventsBuilder;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Field;
+import java.net.InetAddress;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wires the mc platform for packet benchmarks without booting a container or a server:
+ * {@link MockPacketEventsAPI} as PacketEvents, a {@link PacketCounter} as the packet sender of {@link MCProtocol},
+ * and a registry of {@link BenchmarkMCPlayer}s in a single {@link BenchmarkMCWorld}.
+ * The platform is global, so only one context should exist per JVM, which is what a JMH fork gives.
+ */
+@Getter
+public class PacketBenchmarkContext {
+
+    private final MCVersion version;
+    private final MCServer server;
+    private final MCVersionMappingRegistry mappingRegistry;
+    private final PacketCounter packetCounter;
+    private final MCPlayerRegistry playerRegistry;
+    private final BenchmarkMCWorld world;
+    private final List<MCPlayer> players;
+
+    private long operations;
+
+    private PacketBenchmarkContext(MCVersion version, int playerCount) {
+        this.version = version;
+        Debug.UNIT_TEST = true;
+        Log.set(new DebugLogger());
+        if (FairyPlatform.INSTANCE == null)
+            FairyPlatform.INSTANCE = new FairyTestingPlatform();
+        setGlobalEventNode(new GlobalEventNode());
+
+        this.server = new MCServer() {
+            @Override
+            public boolean isMainThread() {
+                return true;
+            }
+
+            @Override
+            public MCVersion getVersion() {
+                return version;
+            }
+        };
+        MCServer.Companion.CURRENT = this.server;
+
+        this.mappingRegistry = new MCVersionMappingRegistry();
+        this.mappingRegistry.onPreInitialize();
+        MCAdventure.initialize(this.server, this.mappingRegistry, MCAdventure.AdventureHook.builder().build());
+        MCProtocol.loadProtocol(new MockPacketEventsBuilder(this.server, this.mappingRegistry));
+
+        AtomicInteger entityIds = new AtomicInteger(1_000_000);
+        EntityIDCounter.Companion.CURRENT = entityIds::incrementAndGet;
+
+        this.world = new BenchmarkMCWorld("world");
+        MCWorld.Companion.BRIDGE = new MCWorld.Bridge() {
+            @Override
+            public MCWorld from(Object world) {
+                return (MCWorld) world;
+            }
+
+            @Override
+            public MCWorld getByName(String name) {
+                return PacketBenchmarkContext.this.world.getName().equals(name) ? PacketBenchmarkContext.this.world : null;
+            }
+
+            @Override
+            public List<MCWorld> all() {
+                return Collections.singletonList(PacketBenchmarkContext.this.world);
+            }
+        };
+
+        this.packetCounter = new PacketCounter();
+        this.playerRegistry = new MCPlayerRegistryImpl(new PlatformOperator());
+        MCProtocol.INSTANCE = new MCProtocol(null, this.playerRegistry, this.mappingRegistry, this.packetCounter);
+
+        // spread the players over a 16 by 16 chunks area, so range checks see both near and far players
+        Random random = new Random(0);
+        List<MCPlayer> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            Position position = new Position("world", random.nextInt(256) - 128, 64, random.nextInt(256) - 128);
+            BenchmarkMCPlayer player = new BenchmarkMCPlayer(new UUID(0, i), "player" + i, version, this.mappingRegistry, this.world, position);
+            this.playerRegistry.addPlayer(player);
+            this.world.getPlayers().add(player);
+            players.add(player);
+        }
+        this.players = Collections.unmodifiableList(players);
+    }
+
+    @NotNull
+    public static PacketBenchmarkContext create(@NotNull MCVersion version, int players) {
+        return new PacketBenchmarkContext(version, players);
+    }
+
+    /**
+     * Count an invocation of the benchmarked operation, for {@link #getPacketsPerOperation()} and {@link #getBytesPerOperation()}
+     */
+    public void operation() {
+        this.operations++;
+    }
+
+    public void reset() {
+        this.packetCounter.reset();
+        this.operations = 0;
+    }
+
+    /**
+     * Get the packets sent per operation since the last {@link #reset()}
+     */
+    public double getPacketsPerOperation() {
+        return this.operations == 0 ? 0 : this.packetCounter.getPackets() / (double) this.operations;
+    }
+
+    /**
+     * Get the bytes sent per operation since the last {@link #reset()},
+     * allocations per operation are reported by running JMH with the gc profiler
+     */
+    public double getBytesPerOperation() {
+        return this.operations == 0 ? 0 : this.packetCounter.getBytes() / (double) this.operations;
+    }
+
+    private static void setGlobalEventNode(GlobalEventNode node) {
+        try {
+            Field field = GlobalEventNode.class.getDeclaredField("INSTANCE");
+            field.setAccessible(true);
+            field.set(null, node);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Couldn't set up the global event node", e);
+        }
+    }
+
+    private final class PlatformOperator implements MCPlayerPlatformOperator {
+
+        @Override
+        public UUID getUniqueId(@NotNull Object platformPlayer) {
+            if (platformPlayer instanceof UUID)
+                return (UUID) platformPlayer;
+            return ((MCPlayer) platformPlayer).getUUID();
+        }
+
+        @Override
+        public String getName(@NotNull Object platformPlayer) {
+            return ((MCPlayer) platformPlayer).getName();
+        }
+
+        @Override
+        public List<MCPlayer> loadOnlinePlayers() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public MCPlayer create(@NotNull String name, @NotNull UUID uuid, @NotNull InetAddress address) {
+            return new BenchmarkMCPlayer(uuid, name, PacketBenchmarkContext.this.version, PacketBenchmarkContext.this.mappingRegistry, PacketBenchmarkContext.this.world, new Position("world", 0, 64, 0));
+        }
+    }
+
+}
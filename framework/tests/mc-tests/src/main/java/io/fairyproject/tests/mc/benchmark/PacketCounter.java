@@ -0,0 +1,43 @@
+package io.fairyproject.tests.mc.benchmark;
+
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.protocol.packet.PacketSender;
+import io.fairyproject.tests.mc.protocol.MockByteBuf;
+import io.fairyproject.tests.mc.protocol.MockByteBufOperator;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link PacketSender} that encodes every packet into a {@link MockByteBuf} and counts the packets and bytes,
+ * the encoding goes through {@link MockByteBufOperator} so nothing is kept.
+ */
+public class PacketCounter implements PacketSender {
+
+    private final LongAdder packets = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    @Override
+    public void sendPacket(MCPlayer mcPlayer, PacketWrapper<?> packetWrapper) {
+        MockByteBuf buffer = new MockByteBuf();
+        packetWrapper.setBuffer(buffer);
+        packetWrapper.write();
+
+        this.packets.increment();
+        this.bytes.add(buffer.getWrittenBytes());
+    }
+
+    public long getPackets() {
+        return this.packets.sum();
+    }
+
+    public long getBytes() {
+        return this.bytes.sum();
+    }
+
+    public void reset() {
+        this.packets.reset();
+        this.bytes.reset();
+    }
+
+}
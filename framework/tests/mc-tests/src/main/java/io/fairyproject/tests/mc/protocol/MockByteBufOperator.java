@@ -51,7 +51,7 @@ public class MockByteBufOperator implements ByteBufOperator {
 
     @Override
     public int writerIndex(Object o) {
-        return 0;
+        return o instanceof MockByteBuf ? ((MockByteBuf) o).getWrittenBytes() : 0;
     }
 
     @Override
@@ -106,27 +106,27 @@ public class MockByteBufOperator implements ByteBufOperator {
 
     @Override
     public void writeByte(Object o, int i) {
-        // do nothing
+        count(o, 1);
     }
 
     @Override
     public void writeShort(Object o, int i) {
-        // do nothing
+        count(o, 2);
     }
 
     @Override
     public void writeMedium(Object o, int i) {
-        // do nothing
+        count(o, 3);
     }
 
     @Override
     public void writeInt(Object o, int i) {
-        // do nothing
+        count(o, 4);
     }
 
     @Override
     public void writeLong(Object o, long l) {
-        // do nothing
+        count(o, 8);
     }
 
     @Override
@@ -196,17 +196,21 @@ public class MockByteBufOperator implements ByteBufOperator {
 
     @Override
     public Object writeBytes(Object o, Object o1) {
-        return null;
+        if (o1 instanceof MockByteBuf)
+            count(o, ((MockByteBuf) o1).getWrittenBytes());
+        return o;
     }
 
     @Override
     public Object writeBytes(Object o, byte[] bytes) {
-        return null;
+        count(o, bytes.length);
+        return o;
     }
 
     @Override
     public Object writeBytes(Object o, byte[] bytes, int i, int i1) {
-        return null;
+        count(o, i1);
+        return o;
     }
 
     @Override
@@ -248,4 +252,9 @@ public class MockByteBufOperator implements ByteBufOperator {
     public Object resetWriterIndex(Object o) {
         return null;
     }
+
+    private static void count(Object o, int bytes) {
+        if (o instanceof MockByteBuf)
+            ((MockByteBuf) o).write(bytes);
+    }
 }